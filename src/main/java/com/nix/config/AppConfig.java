@@ -39,6 +39,7 @@ public class AppConfig {
 
 		http.sessionManagement(management -> management.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
 				.authorizeHttpRequests(authorize -> authorize
+						.requestMatchers("/actuator/metrics/**").hasRole("ADMIN")
 						.requestMatchers("/actuator/**").permitAll()
 						.requestMatchers("/api/**").authenticated()
 						.requestMatchers("/admin/**").hasRole("ADMIN").requestMatchers("/moderator/**")
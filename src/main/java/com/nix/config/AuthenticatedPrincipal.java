@@ -0,0 +1,20 @@
+package com.nix.config;
+
+import java.util.UUID;
+
+import com.nix.models.User;
+
+/**
+ * Immutable snapshot of the fields the security filter needs from a
+ * {@link User}. Cached by {@link PrincipalCache} so that authenticated requests
+ * do not have to load the whole entity from the database.
+ */
+public record AuthenticatedPrincipal(UUID id, String email, String username, String roleName, boolean banned,
+		boolean suspended) {
+
+	public static AuthenticatedPrincipal from(User user) {
+		String roleName = user.getRole() != null ? user.getRole().getName() : "USER";
+		return new AuthenticatedPrincipal(user.getId(), user.getEmail(), user.getUsername(), roleName,
+				user.isBanned(), Boolean.TRUE.equals(user.getIsSuspended()));
+	}
+}
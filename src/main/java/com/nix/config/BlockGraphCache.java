@@ -0,0 +1,117 @@
+package com.nix.config;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.nix.repository.UserBlockRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Bounded cache of each user's block relations: the users they blocked and the
+ * users who blocked them, as immutable sets loaded together on first use. Makes
+ * the exclusion filters on listings and the pairwise interaction checks set
+ * lookups instead of queries.
+ *
+ * Both users' entries are evicted whenever a block is added or removed; the
+ * TTL only bounds staleness for changes made outside the service layer.
+ */
+@Component
+public class BlockGraphCache {
+
+	public static final String CACHE_NAME = "blockGraph";
+
+	private final UserBlockRepository userBlockRepository;
+	private final Cache<UUID, BlockRelations> cache;
+
+	public BlockGraphCache(UserBlockRepository userBlockRepository, MeterRegistry meterRegistry,
+			@Value("${app.blocks.cache.max-size:10000}") long maxSize,
+			@Value("${app.blocks.cache.ttl-seconds:600}") long ttlSeconds) {
+		this.userBlockRepository = userBlockRepository;
+		this.cache = Caffeine.newBuilder()
+				.maximumSize(maxSize)
+				.expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+				.recordStats()
+				.build();
+		CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+	}
+
+	/**
+	 * Users the given user has blocked.
+	 */
+	public Set<UUID> getBlockedIds(UUID userId) {
+		return userId == null ? Set.of() : relations(userId).blocked();
+	}
+
+	/**
+	 * Users who have blocked the given user.
+	 */
+	public Set<UUID> getBlockingIds(UUID userId) {
+		return userId == null ? Set.of() : relations(userId).blocking();
+	}
+
+	/**
+	 * Users blocked by, or blocking, the given user.
+	 */
+	public Set<UUID> getHiddenIds(UUID userId) {
+		return userId == null ? Set.of() : relations(userId).hidden();
+	}
+
+	/**
+	 * Whether either user has blocked the other.
+	 */
+	public boolean isInteractionBlocked(UUID userId, UUID otherUserId) {
+		return userId != null && otherUserId != null && relations(userId).hidden().contains(otherUserId);
+	}
+
+	/**
+	 * Evicts the given users now and, if a transaction is active, again after it
+	 * commits so a concurrent request cannot re-cache the pre-commit state.
+	 */
+	public void evict(UUID... userIds) {
+		evictNow(userIds);
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					evictNow(userIds);
+				}
+			});
+		}
+	}
+
+	private void evictNow(UUID... userIds) {
+		for (UUID userId : userIds) {
+			if (userId != null) {
+				cache.invalidate(userId);
+			}
+		}
+	}
+
+	private BlockRelations relations(UUID userId) {
+		return cache.get(userId, this::load);
+	}
+
+	private BlockRelations load(UUID userId) {
+		Set<UUID> blocked = userBlockRepository.findBlockedIdsByBlockerId(userId);
+		Set<UUID> blocking = userBlockRepository.findBlockerIdsByBlockedId(userId);
+		blocked = blocked == null ? Set.of() : Set.copyOf(blocked);
+		blocking = blocking == null ? Set.of() : Set.copyOf(blocking);
+		Set<UUID> hidden = new HashSet<>(blocked);
+		hidden.addAll(blocking);
+		return new BlockRelations(blocked, blocking, Set.copyOf(hidden));
+	}
+
+	private record BlockRelations(Set<UUID> blocked, Set<UUID> blocking, Set<UUID> hidden) {
+	}
+}
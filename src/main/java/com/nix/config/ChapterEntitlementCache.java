@@ -0,0 +1,101 @@
+package com.nix.config;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.nix.repository.ChapterUnlockRecordRepository;
+import com.nix.util.SortedUuidArray;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * The chapters a user has unlocked, per (user, book). Each entry is loaded with
+ * one query and held as a {@link SortedUuidArray}, so a chapter listing checks
+ * every row in memory instead of issuing a lookup per chapter.
+ *
+ * Unlock records are only ever added, and purchases are applied to a cached
+ * entry after their transaction commits. A concurrent load can therefore only
+ * miss an unlock that is about to be added to it.
+ */
+@Component
+public class ChapterEntitlementCache {
+
+	public static final String CACHE_NAME = "chapterEntitlements";
+
+	private record Key(UUID userId, UUID bookId) {
+	}
+
+	private final ChapterUnlockRecordRepository unlockRecordRepository;
+	private final Cache<Key, long[]> cache;
+
+	public ChapterEntitlementCache(ChapterUnlockRecordRepository unlockRecordRepository, MeterRegistry meterRegistry,
+			@Value("${app.entitlements.cache.max-ids:2000000}") long maxIds,
+			@Value("${app.entitlements.cache.ttl-seconds:1800}") long ttlSeconds) {
+		this.unlockRecordRepository = unlockRecordRepository;
+		this.cache = Caffeine.newBuilder()
+				.maximumWeight(maxIds)
+				.<Key, long[]>weigher((key, ids) -> SortedUuidArray.size(ids) + 1)
+				.expireAfterAccess(Duration.ofSeconds(ttlSeconds))
+				.recordStats()
+				.build();
+		CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+	}
+
+	public boolean isUnlocked(UUID userId, UUID bookId, UUID chapterId) {
+		return userId != null && bookId != null && chapterId != null
+				&& SortedUuidArray.contains(unlocked(userId, bookId), chapterId);
+	}
+
+	public Set<UUID> getUnlockedChapterIds(UUID userId, UUID bookId) {
+		if (userId == null || bookId == null) {
+			return Set.of();
+		}
+		return SortedUuidArray.toSet(unlocked(userId, bookId));
+	}
+
+	public int countUnlocked(UUID userId, UUID bookId) {
+		return userId != null && bookId != null ? SortedUuidArray.size(unlocked(userId, bookId)) : 0;
+	}
+
+	/**
+	 * Records a purchase once the current transaction commits. Entries that are
+	 * not cached are left to load it fresh.
+	 */
+	public void recordUnlock(UUID userId, UUID bookId, UUID chapterId) {
+		Key key = new Key(userId, bookId);
+		afterCommit(() -> cache.asMap().computeIfPresent(key, (k, ids) -> SortedUuidArray.with(ids, chapterId)));
+	}
+
+	public void evictUser(UUID userId) {
+		Runnable eviction = () -> cache.asMap().keySet().removeIf(key -> key.userId().equals(userId));
+		eviction.run();
+		afterCommit(eviction);
+	}
+
+	private long[] unlocked(UUID userId, UUID bookId) {
+		return cache.get(new Key(userId, bookId),
+				key -> SortedUuidArray.of(unlockRecordRepository.findChapterIdsByUserIdAndBookId(userId, bookId)));
+	}
+
+	private static void afterCommit(Runnable action) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			action.run();
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				action.run();
+			}
+		});
+	}
+}
@@ -0,0 +1,138 @@
+package com.nix.config;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.nix.models.User;
+import com.nix.service.UserService;
+import com.nix.util.SecurityUtils;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Resolves the current user once per request. {@link JwtValidator} binds the
+ * verified {@link AuthenticatedPrincipal} to the request, so controllers and
+ * services can read the user id, role and block sets without re-parsing the
+ * JWT or querying the database again. The full {@link User} entity and the
+ * block sets are loaded lazily and memoized on the request.
+ *
+ * When the filter did not run (e.g. sliced MVC tests), the token passed by the
+ * caller is resolved through {@link UserService#findUserByJwt(String)}.
+ */
+@Component
+public class CurrentUserProvider {
+
+	private static final String PRINCIPAL_ATTRIBUTE = CurrentUserProvider.class.getName() + ".principal";
+	private static final String USER_ATTRIBUTE = CurrentUserProvider.class.getName() + ".user";
+	private static final String HIDDEN_USER_IDS_ATTRIBUTE = CurrentUserProvider.class.getName() + ".hiddenUserIds";
+
+	private final UserService userService;
+
+	public CurrentUserProvider(UserService userService) {
+		this.userService = userService;
+	}
+
+	static void bind(HttpServletRequest request, AuthenticatedPrincipal principal) {
+		request.setAttribute(PRINCIPAL_ATTRIBUTE, principal);
+	}
+
+	/**
+	 * Principal bound by the JWT filter, without any fallback lookup.
+	 */
+	static AuthenticatedPrincipal boundPrincipal(HttpServletRequest request) {
+		return request.getAttribute(PRINCIPAL_ATTRIBUTE) instanceof AuthenticatedPrincipal principal ? principal
+				: null;
+	}
+
+	/**
+	 * Returns the authenticated principal, or null for anonymous requests.
+	 */
+	public AuthenticatedPrincipal getPrincipal(String jwt) {
+		HttpServletRequest request = currentRequest();
+		if (request != null && request.getAttribute(PRINCIPAL_ATTRIBUTE) instanceof AuthenticatedPrincipal principal) {
+			return principal;
+		}
+		User user = getUser(jwt);
+		if (user == null) {
+			return null;
+		}
+		AuthenticatedPrincipal principal = AuthenticatedPrincipal.from(user);
+		if (request != null) {
+			request.setAttribute(PRINCIPAL_ATTRIBUTE, principal);
+		}
+		return principal;
+	}
+
+	/**
+	 * Returns the full user entity, or null for anonymous requests. Loaded at most
+	 * once per request.
+	 */
+	public User getUser(String jwt) {
+		HttpServletRequest request = currentRequest();
+		if (request != null && request.getAttribute(USER_ATTRIBUTE) instanceof User user) {
+			return user;
+		}
+		User user = loadUser(request, jwt);
+		if (user != null && request != null) {
+			request.setAttribute(USER_ATTRIBUTE, user);
+		}
+		return user;
+	}
+
+	/**
+	 * Ids of users who blocked, or are blocked by, the current user. Empty for
+	 * anonymous users and administrators.
+	 */
+	public Set<UUID> getHiddenUserIds(String jwt) {
+		AuthenticatedPrincipal principal = getPrincipal(jwt);
+		if (principal == null || SecurityUtils.isAdmin(principal)) {
+			return Set.of();
+		}
+		HttpServletRequest request = currentRequest();
+		if (request != null && request.getAttribute(HIDDEN_USER_IDS_ATTRIBUTE) instanceof Set<?> cached) {
+			@SuppressWarnings("unchecked")
+			Set<UUID> hiddenUserIds = (Set<UUID>) cached;
+			return hiddenUserIds;
+		}
+		Set<UUID> hiddenUserIds = new HashSet<>(userService.getUserIdsBlocking(principal.id()));
+		hiddenUserIds.addAll(userService.getBlockedUserIds(principal.id()));
+		hiddenUserIds = Collections.unmodifiableSet(hiddenUserIds);
+		if (request != null) {
+			request.setAttribute(HIDDEN_USER_IDS_ATTRIBUTE, hiddenUserIds);
+		}
+		return hiddenUserIds;
+	}
+
+	/**
+	 * Whether the current user and the given owner have blocked each other in
+	 * either direction.
+	 */
+	public boolean isInteractionBlocked(String jwt, UUID ownerId) {
+		return ownerId != null && getHiddenUserIds(jwt).contains(ownerId);
+	}
+
+	private User loadUser(HttpServletRequest request, String jwt) {
+		if (request != null && request.getAttribute(PRINCIPAL_ATTRIBUTE) instanceof AuthenticatedPrincipal principal) {
+			return userService.findUserById(principal.id());
+		}
+		if (jwt == null || jwt.isBlank()) {
+			return null;
+		}
+		return userService.findUserByJwt(jwt);
+	}
+
+	private HttpServletRequest currentRequest() {
+		RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+		if (attributes instanceof ServletRequestAttributes servletAttributes) {
+			return servletAttributes.getRequest();
+		}
+		return null;
+	}
+}
@@ -0,0 +1,109 @@
+package com.nix.config;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.nix.repository.BookFavouriteRepository;
+import com.nix.util.SortedUuidArray;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Each user's favourite book ids, kept as a {@link SortedUuidArray}: 16 bytes
+ * per favourite, and membership is a binary search. Sets are loaded on first
+ * use and weighed by size, so a handful of power users with thousands of
+ * favourites cannot crowd out everyone else.
+ *
+ * Toggles are applied to a cached set after the transaction commits. Adding and
+ * removing are idempotent, so a set loaded concurrently with the toggle ends up
+ * correct whichever side of the commit it read.
+ */
+@Component
+public class FavouriteBookCache {
+
+	public static final String CACHE_NAME = "favouriteBooks";
+
+	private final BookFavouriteRepository bookFavouriteRepository;
+	private final Cache<UUID, long[]> cache;
+
+	public FavouriteBookCache(BookFavouriteRepository bookFavouriteRepository, MeterRegistry meterRegistry,
+			@Value("${app.favourites.cache.max-ids:2000000}") long maxIds,
+			@Value("${app.favourites.cache.ttl-seconds:1800}") long ttlSeconds) {
+		this.bookFavouriteRepository = bookFavouriteRepository;
+		this.cache = Caffeine.newBuilder()
+				.maximumWeight(maxIds)
+				.<UUID, long[]>weigher((userId, ids) -> SortedUuidArray.size(ids) + 1)
+				.expireAfterAccess(Duration.ofSeconds(ttlSeconds))
+				.recordStats()
+				.build();
+		CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+	}
+
+	public boolean isFavourite(UUID userId, UUID bookId) {
+		return userId != null && bookId != null && SortedUuidArray.contains(favourites(userId), bookId);
+	}
+
+	/**
+	 * The subset of {@code bookIds} the user has favourited.
+	 */
+	public Set<UUID> filterFavourites(UUID userId, Collection<UUID> bookIds) {
+		if (userId == null || bookIds.isEmpty()) {
+			return Set.of();
+		}
+		long[] ids = favourites(userId);
+		Set<UUID> favourites = new HashSet<>();
+		for (UUID bookId : bookIds) {
+			if (bookId != null && SortedUuidArray.contains(ids, bookId)) {
+				favourites.add(bookId);
+			}
+		}
+		return favourites;
+	}
+
+	/**
+	 * Records a favourite toggle once the current transaction commits. Users
+	 * whose set is not cached are left to load it fresh.
+	 */
+	public void update(UUID userId, UUID bookId, boolean favourited) {
+		afterCommit(() -> cache.asMap().computeIfPresent(userId, (id, ids) -> favourited
+				? SortedUuidArray.with(ids, bookId)
+				: SortedUuidArray.without(ids, bookId)));
+	}
+
+	public void evict(UUID userId) {
+		cache.invalidate(userId);
+		afterCommit(() -> cache.invalidate(userId));
+	}
+
+	private long[] favourites(UUID userId) {
+		return cache.get(userId, this::load);
+	}
+
+	private long[] load(UUID userId) {
+		return SortedUuidArray.of(bookFavouriteRepository.findBookIdsByUserId(userId));
+	}
+
+	private static void afterCommit(Runnable action) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			action.run();
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				action.run();
+			}
+		});
+	}
+}
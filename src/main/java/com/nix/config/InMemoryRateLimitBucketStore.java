@@ -0,0 +1,47 @@
+package com.nix.config;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.local.LocalBucketBuilder;
+
+/**
+ * Single-node bucket store. Buckets live in a size-capped Caffeine cache and
+ * are evicted once they have not been touched for the idle timeout, so rotating
+ * client keys cannot grow the heap without bound.
+ */
+public class InMemoryRateLimitBucketStore implements RateLimitBucketStore {
+
+	private final Cache<String, Bucket> buckets;
+
+	public InMemoryRateLimitBucketStore(long maxBuckets, Duration idleTimeout) {
+		this.buckets = Caffeine.newBuilder()
+				.maximumSize(maxBuckets)
+				.expireAfterAccess(idleTimeout)
+				.build();
+	}
+
+	@Override
+	public Bucket resolve(String key, Supplier<BucketConfiguration> configuration) {
+		return buckets.get(key, k -> createBucket(configuration.get()));
+	}
+
+	@Override
+	public long estimatedSize() {
+		return buckets.estimatedSize();
+	}
+
+	private Bucket createBucket(BucketConfiguration configuration) {
+		LocalBucketBuilder builder = Bucket.builder();
+		for (Bandwidth bandwidth : configuration.getBandwidths()) {
+			builder.addLimit(bandwidth);
+		}
+		return builder.build();
+	}
+}
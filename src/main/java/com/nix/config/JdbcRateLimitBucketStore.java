@@ -0,0 +1,81 @@
+package com.nix.config;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.function.Supplier;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.distributed.jdbc.BucketTableSettings;
+import io.github.bucket4j.distributed.jdbc.PrimaryKeyMapper;
+import io.github.bucket4j.distributed.jdbc.SQLProxyConfiguration;
+import io.github.bucket4j.distributed.proxy.ProxyManager;
+import io.github.bucket4j.mysql.MySQLSelectForUpdateBasedProxyManager;
+
+/**
+ * MySQL-backed bucket store so limits are shared by every application
+ * instance. Bucket state is kept in {@code rate_limit_bucket} and updated with
+ * SELECT ... FOR UPDATE; rows idle for longer than the idle timeout are purged
+ * periodically.
+ */
+public class JdbcRateLimitBucketStore implements RateLimitBucketStore {
+	private static final Logger logger = LoggerFactory.getLogger(JdbcRateLimitBucketStore.class);
+
+	static final String TABLE_NAME = "rate_limit_bucket";
+
+	private final JdbcTemplate jdbcTemplate;
+	private final ProxyManager<String> proxyManager;
+	private final Duration idleTimeout;
+
+	public JdbcRateLimitBucketStore(DataSource dataSource, Duration idleTimeout) {
+		this.jdbcTemplate = new JdbcTemplate(dataSource);
+		this.idleTimeout = idleTimeout;
+		createTableIfMissing();
+
+		SQLProxyConfiguration<String> configuration = SQLProxyConfiguration.builder()
+				.withTableSettings(BucketTableSettings.customSettings(TABLE_NAME, "id", "state"))
+				.withPrimaryKeyMapper(PrimaryKeyMapper.STRING)
+				.build(dataSource);
+		this.proxyManager = new MySQLSelectForUpdateBasedProxyManager<>(configuration);
+	}
+
+	@Override
+	public Bucket resolve(String key, Supplier<BucketConfiguration> configuration) {
+		return proxyManager.builder().build(key, configuration);
+	}
+
+	@Override
+	public long estimatedSize() {
+		Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + TABLE_NAME, Long.class);
+		return count != null ? count : 0L;
+	}
+
+	/**
+	 * Deletes buckets that have not been touched within the idle timeout. Such
+	 * buckets have fully refilled, so dropping them does not relax any limit.
+	 */
+	@Scheduled(fixedDelayString = "${app.rate-limit.jdbc.purge-interval-ms:300000}")
+	public void purgeIdleBuckets() {
+		Timestamp cutoff = Timestamp.from(Instant.now().minus(idleTimeout));
+		int deleted = jdbcTemplate.update("DELETE FROM " + TABLE_NAME + " WHERE updated_at < ?", cutoff);
+		if (deleted > 0) {
+			logger.debug("Purged {} idle rate-limit buckets", deleted);
+		}
+	}
+
+	private void createTableIfMissing() {
+		jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + TABLE_NAME + " ("
+				+ "id VARCHAR(191) NOT NULL PRIMARY KEY, "
+				+ "state BLOB, "
+				+ "updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP, "
+				+ "INDEX idx_rate_limit_bucket_updated_at (updated_at))");
+	}
+}
@@ -1,6 +1,10 @@
 package com.nix.config;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
 import java.util.Date;
+import java.util.concurrent.TimeUnit;
 
 import javax.crypto.SecretKey;
 
@@ -8,14 +12,25 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Component;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 
 /**
  * JWT token provider for generating and parsing JWT tokens.
  * Uses instance methods for proper dependency injection.
+ *
+ * The parser is built once and verified claims are cached per token, so a
+ * token already seen is not decoded and HMAC-verified again on every request.
+ * A cached entry never outlives the token's own expiration.
  */
 @Component
 public class JwtProvider {
@@ -23,15 +38,28 @@ public class JwtProvider {
 	private static final long JWT_EXPIRATION = 86400000; // Default 1 day
 	private static final long REMEMBER_ME_EXPIRATION = 604800000; // 7 days
 
+	public static final String CACHE_NAME = "jwt-claims";
+
 	private final SecretKey key;
+	private final JwtParser parser;
+	private final Cache<Long, VerifiedToken> verifiedTokens;
 
-	public JwtProvider(@Value("${jwt.secret.key}") String secretKey) {
+	public JwtProvider(@Value("${jwt.secret.key}") String secretKey, MeterRegistry meterRegistry,
+			@Value("${app.security.token-cache.max-size:10000}") long maxSize,
+			@Value("${app.security.token-cache.max-ttl-seconds:600}") long maxTtlSeconds) {
 		// Initialize the key directly from injected value
 		if (secretKey == null || secretKey.isBlank()) {
 			throw new IllegalStateException(
 					"JWT secret key is not configured. Set jwt.secret.key in your environment.");
 		}
 		this.key = Keys.hmacShaKeyFor(secretKey.getBytes());
+		this.parser = Jwts.parser().verifyWith(key).build();
+		this.verifiedTokens = Caffeine.newBuilder()
+				.maximumSize(maxSize)
+				.expireAfter(new TokenExpiry(Duration.ofSeconds(maxTtlSeconds).toNanos()))
+				.recordStats()
+				.build();
+		CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, CACHE_NAME);
 	}
 
 	/**
@@ -56,13 +84,7 @@ public class JwtProvider {
 		if (jwt == null || !jwt.startsWith("Bearer ") || jwt.length() <= 7) {
 			throw new JwtException("Invalid token format");
 		}
-		jwt = jwt.substring(7);
-
-		Claims claims = Jwts.parser()
-				.verifyWith(key)
-				.build()
-				.parseSignedClaims(jwt)
-				.getPayload();
+		Claims claims = verifiedClaims(jwt.substring(7));
 
 		return String.valueOf(claims.get("email"));
 	}
@@ -76,13 +98,7 @@ public class JwtProvider {
 		if (jwt == null || !jwt.startsWith("Bearer ") || jwt.length() <= 7) {
 			throw new JwtException("Invalid token format");
 		}
-		jwt = jwt.substring(7);
-
-		Claims claims = Jwts.parser()
-				.verifyWith(key)
-				.build()
-				.parseSignedClaims(jwt)
-				.getPayload();
+		Claims claims = verifiedClaims(jwt.substring(7));
 
 		Object rolesClaim = claims.get("role");
 		if (rolesClaim == null) {
@@ -104,4 +120,77 @@ public class JwtProvider {
 
 		return roleName;
 	}
+
+	/**
+	 * Returns the verified claims of a compact token, parsing and verifying it
+	 * only when it is not already cached. Entries are keyed by a 64-bit hash of
+	 * the token; the token itself is compared on every hit so a hash collision
+	 * can never return another token's claims.
+	 */
+	private Claims verifiedClaims(String token) {
+		long hash = hash(token);
+		VerifiedToken cached = verifiedTokens.getIfPresent(hash);
+		if (cached != null && cached.matches(token) && cached.expiresAtMillis() > System.currentTimeMillis()) {
+			return cached.claims();
+		}
+
+		Claims claims = parser.parseSignedClaims(token).getPayload();
+		Date expiration = claims.getExpiration();
+		if (expiration != null) {
+			verifiedTokens.put(hash, new VerifiedToken(token, claims, expiration.getTime()));
+		}
+		return claims;
+	}
+
+	/**
+	 * 64-bit FNV-1a over the token characters. Compact JWTs are ASCII, so each
+	 * char is a single byte.
+	 */
+	private static long hash(String token) {
+		long hash = 0xcbf29ce484222325L;
+		for (int i = 0; i < token.length(); i++) {
+			hash ^= token.charAt(i);
+			hash *= 0x100000001b3L;
+		}
+		return hash;
+	}
+
+	private record VerifiedToken(String token, Claims claims, long expiresAtMillis) {
+
+		boolean matches(String other) {
+			return MessageDigest.isEqual(token.getBytes(StandardCharsets.US_ASCII),
+					other.getBytes(StandardCharsets.US_ASCII));
+		}
+	}
+
+	/**
+	 * Expires each entry at the token's own expiration, capped by the configured
+	 * maximum TTL.
+	 */
+	private static final class TokenExpiry implements Expiry<Long, VerifiedToken> {
+		private final long maxTtlNanos;
+
+		TokenExpiry(long maxTtlNanos) {
+			this.maxTtlNanos = maxTtlNanos;
+		}
+
+		@Override
+		public long expireAfterCreate(Long key, VerifiedToken value, long currentTime) {
+			long remainingMillis = value.expiresAtMillis() - System.currentTimeMillis();
+			if (remainingMillis <= 0) {
+				return 0;
+			}
+			return Math.min(maxTtlNanos, TimeUnit.MILLISECONDS.toNanos(remainingMillis));
+		}
+
+		@Override
+		public long expireAfterUpdate(Long key, VerifiedToken value, long currentTime, long currentDuration) {
+			return expireAfterCreate(key, value, currentTime);
+		}
+
+		@Override
+		public long expireAfterRead(Long key, VerifiedToken value, long currentTime, long currentDuration) {
+			return currentDuration;
+		}
+	}
 }
@@ -14,9 +14,6 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
-import com.nix.models.User;
-import com.nix.repository.UserRepository;
-
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.JwtException;
 import io.jsonwebtoken.MalformedJwtException;
@@ -29,11 +26,11 @@ import jakarta.servlet.http.HttpServletResponse;
 public class JwtValidator extends OncePerRequestFilter {
     private static final Logger logger = LoggerFactory.getLogger(JwtValidator.class);
 
-    private final UserRepository userRepository;
+    private final PrincipalCache principalCache;
     private final JwtProvider jwtProvider;
 
-    public JwtValidator(UserRepository userRepository, JwtProvider jwtProvider) {
-        this.userRepository = userRepository;
+    public JwtValidator(PrincipalCache principalCache, JwtProvider jwtProvider) {
+        this.principalCache = principalCache;
         this.jwtProvider = jwtProvider;
     }
 
@@ -45,8 +42,8 @@ public class JwtValidator extends OncePerRequestFilter {
             try {
                 String email = jwtProvider.getEmailFromJwtToken(jwt);
 
-                // Fetch user from database to get current role and status
-                User user = userRepository.findByEmail(email);
+                // Resolve current role and status; cached and evicted on every status change
+                AuthenticatedPrincipal user = principalCache.get(email);
                 if (user == null) {
                     logger.warn("User not found for email: {}", email);
                     response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "User not found");
@@ -54,7 +51,7 @@ public class JwtValidator extends OncePerRequestFilter {
                 }
 
                 // Check if user is banned - banned users cannot access the site at all
-                if (user.isBanned()) {
+                if (user.banned()) {
                     logger.warn("Banned user attempted access: {}", email);
                     response.sendError(HttpServletResponse.SC_FORBIDDEN, "Account is banned");
                     return;
@@ -65,7 +62,7 @@ public class JwtValidator extends OncePerRequestFilter {
                 // checks
 
                 // Use role from database, not from JWT - this prevents privilege escalation
-                String roleName = user.getRole() != null ? user.getRole().getName() : "USER";
+                String roleName = user.roleName();
 
                 logger.debug("User with email: {} has role: {} (from database)", email, roleName);
 
@@ -75,6 +72,7 @@ public class JwtValidator extends OncePerRequestFilter {
 
                 Authentication authentication = new UsernamePasswordAuthenticationToken(email, null, authorities);
                 SecurityContextHolder.getContext().setAuthentication(authentication);
+                CurrentUserProvider.bind(request, user);
 
             } catch (MalformedJwtException e) {
                 logger.error("Invalid token format: {}", e.getMessage());
@@ -0,0 +1,112 @@
+package com.nix.config;
+
+import java.time.Duration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.nix.models.User;
+import com.nix.repository.UserRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Bounded, time-expiring cache of {@link AuthenticatedPrincipal} snapshots keyed
+ * by email. Used by {@link JwtValidator} so the hot path of every authenticated
+ * request does not hit the database.
+ *
+ * Entries are evicted explicitly whenever a user's ban, suspension, role or
+ * email changes. The TTL only bounds staleness for changes made outside the
+ * service layer.
+ */
+@Component
+public class PrincipalCache {
+	private static final Logger logger = LoggerFactory.getLogger(PrincipalCache.class);
+
+	public static final String CACHE_NAME = "principal";
+
+	private final UserRepository userRepository;
+	private final Cache<String, AuthenticatedPrincipal> cache;
+
+	public PrincipalCache(UserRepository userRepository, MeterRegistry meterRegistry,
+			@Value("${app.security.principal-cache.max-size:10000}") long maxSize,
+			@Value("${app.security.principal-cache.ttl-seconds:120}") long ttlSeconds) {
+		this.userRepository = userRepository;
+		this.cache = Caffeine.newBuilder()
+				.maximumSize(maxSize)
+				.expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+				.recordStats()
+				.build();
+		CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+	}
+
+	/**
+	 * Returns the principal for the given email, loading it from the database on a
+	 * miss. Returns null when no user exists; misses for unknown emails are not
+	 * cached.
+	 */
+	public AuthenticatedPrincipal get(String email) {
+		if (email == null) {
+			return null;
+		}
+		return cache.get(email, this::load);
+	}
+
+	/**
+	 * Evicts the given emails now and, if a transaction is active, again after it
+	 * commits so a concurrent request cannot re-cache the pre-commit state.
+	 */
+	public void evict(String... emails) {
+		evictNow(emails);
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					evictNow(emails);
+				}
+			});
+		}
+	}
+
+	public void evict(User user) {
+		if (user != null) {
+			evict(user.getEmail());
+		}
+	}
+
+	public void evictAll() {
+		cache.invalidateAll();
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					cache.invalidateAll();
+				}
+			});
+		}
+	}
+
+	private void evictNow(String... emails) {
+		for (String email : emails) {
+			if (email != null) {
+				cache.invalidate(email);
+			}
+		}
+	}
+
+	private AuthenticatedPrincipal load(String email) {
+		User user = userRepository.findByEmail(email);
+		if (user == null) {
+			return null;
+		}
+		logger.debug("Loaded principal for {} from database", email);
+		return AuthenticatedPrincipal.from(user);
+	}
+}
@@ -0,0 +1,25 @@
+package com.nix.config;
+
+import java.util.function.Supplier;
+
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
+
+/**
+ * Storage backend for rate-limit buckets, keyed by client key. Implementations
+ * must bound their footprint: buckets that stay idle long enough to be full
+ * again can be dropped without changing the limiting behaviour.
+ */
+public interface RateLimitBucketStore {
+
+	/**
+	 * Returns the bucket for the given key, creating it from the supplied
+	 * configuration when it does not exist yet.
+	 */
+	Bucket resolve(String key, Supplier<BucketConfiguration> configuration);
+
+	/**
+	 * Approximate number of buckets currently held by the store.
+	 */
+	long estimatedSize();
+}
@@ -1,50 +1,73 @@
 package com.nix.config;
 
 import java.time.Duration;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import io.github.bucket4j.Bandwidth;
-import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
 import io.github.bucket4j.Refill;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 
 @Configuration
 public class RateLimitConfig {
 
-	// In-memory storage for buckets
-	private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+	@Value("${app.rate-limit.idle-timeout-minutes:60}")
+	private long idleTimeoutMinutes;
+
+	// Single-node storage for buckets, bounded and evicting idle clients
+	@Bean
+	@ConditionalOnProperty(name = "app.rate-limit.store", havingValue = "memory", matchIfMissing = true)
+	public RateLimitBucketStore inMemoryRateLimitBucketStore(MeterRegistry meterRegistry,
+			@Value("${app.rate-limit.max-buckets:100000}") long maxBuckets) {
+		return monitor(meterRegistry,
+				new InMemoryRateLimitBucketStore(maxBuckets, Duration.ofMinutes(idleTimeoutMinutes)));
+	}
 
+	// Shared storage so limits hold across several application instances
 	@Bean
-	public Map<String, Bucket> buckets() {
-		return buckets;
+	@ConditionalOnProperty(name = "app.rate-limit.store", havingValue = "jdbc")
+	public RateLimitBucketStore jdbcRateLimitBucketStore(MeterRegistry meterRegistry, DataSource dataSource) {
+		return monitor(meterRegistry,
+				new JdbcRateLimitBucketStore(dataSource, Duration.ofMinutes(idleTimeoutMinutes)));
 	}
 
-	public Bucket createBucket() {
+	public BucketConfiguration createBucketConfiguration() {
 		Bandwidth limit = Bandwidth.classic(1000, Refill.greedy(1000, Duration.ofMinutes(1)));
-		return Bucket.builder().addLimit(limit).build();
+		return BucketConfiguration.builder().addLimit(limit).build();
 	}
 
 	/**
-	 * Creates a bucket with stricter limits for authentication endpoints
-	 * to prevent brute force attacks and email bombing.
+	 * Creates a bucket configuration with stricter limits for authentication
+	 * endpoints to prevent brute force attacks and email bombing.
 	 * 
 	 * Limits:
 	 * - 5 requests per minute (prevents rapid brute force)
 	 * - 20 requests per hour (prevents sustained attacks)
 	 */
-	public Bucket createAuthBucket() {
+	public BucketConfiguration createAuthBucketConfiguration() {
 		// Short-term limit: 5 requests per minute
 		Bandwidth shortTermLimit = Bandwidth.classic(1000, Refill.greedy(1000, Duration.ofMinutes(1)));
 
 		// Long-term limit: 20 requests per hour
 		Bandwidth longTermLimit = Bandwidth.classic(1000, Refill.greedy(1000, Duration.ofHours(1)));
 
-		return Bucket.builder()
+		return BucketConfiguration.builder()
 				.addLimit(shortTermLimit)
 				.addLimit(longTermLimit)
 				.build();
 	}
-}
\ No newline at end of file
+
+	private RateLimitBucketStore monitor(MeterRegistry meterRegistry, RateLimitBucketStore store) {
+		Gauge.builder("ratelimit.buckets", store, RateLimitBucketStore::estimatedSize)
+				.description("Number of rate-limit buckets currently held")
+				.register(meterRegistry);
+		return store;
+	}
+}
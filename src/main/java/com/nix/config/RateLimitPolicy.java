@@ -0,0 +1,102 @@
+package com.nix.config;
+
+import java.util.List;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Decides who a request is charged to and how many tokens it costs.
+ *
+ * Authenticated requests are keyed by user id so that users behind a shared
+ * NAT do not throttle each other; anonymous requests fall back to the client
+ * IP. Expensive routes cost more tokens than cheap reads, so a single bucket
+ * protects uploads and payments without throttling normal browsing.
+ */
+@Component
+public class RateLimitPolicy {
+
+	static final long DEFAULT_READ_COST = 1;
+	static final long DEFAULT_WRITE_COST = 2;
+
+	private static final String[] CLIENT_IP_HEADERS = {
+			"X-Forwarded-For",
+			"X-Real-IP",
+			"Proxy-Client-IP",
+			"WL-Proxy-Client-IP",
+			"HTTP_X_FORWARDED_FOR",
+			"HTTP_X_FORWARDED",
+			"HTTP_X_CLUSTER_CLIENT_IP",
+			"HTTP_CLIENT_IP",
+			"HTTP_FORWARDED_FOR",
+			"HTTP_FORWARDED"
+	};
+
+	// First matching rule wins
+	private static final List<RouteCost> ROUTE_COSTS = List.of(
+			new RouteCost(HttpMethod.POST, "/api/books/*/chapters/upload/epub", 100),
+			new RouteCost(HttpMethod.POST, "/images/upload", 20),
+			new RouteCost(HttpMethod.POST, "/api/payments/**", 20),
+			new RouteCost(HttpMethod.POST, "/api/orders/*/capture", 20),
+			new RouteCost(HttpMethod.GET, "/books/search", 5),
+			new RouteCost(HttpMethod.GET, "/api/user/search", 5),
+			new RouteCost(HttpMethod.GET, "/credit-packages/search", 5),
+			new RouteCost(HttpMethod.GET, "/translator/sensitive-words/search", 5));
+
+	private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+	/**
+	 * Bucket key for the general limiter: the authenticated user id when the JWT
+	 * filter resolved one, otherwise the client IP.
+	 */
+	public String resolveClientKey(HttpServletRequest request) {
+		AuthenticatedPrincipal principal = CurrentUserProvider.boundPrincipal(request);
+		if (principal != null && principal.id() != null) {
+			return "user:" + principal.id();
+		}
+		return "ip:" + resolveClientIp(request);
+	}
+
+	/**
+	 * Get client IP. Checks proxy headers to prevent bypass attempts.
+	 * Falls back to remote address if proxy headers are not present.
+	 */
+	public String resolveClientIp(HttpServletRequest request) {
+		for (String header : CLIENT_IP_HEADERS) {
+			String ip = request.getHeader(header);
+			if (ip != null && !ip.isEmpty() && !"unknown".equalsIgnoreCase(ip)) {
+				// X-Forwarded-For can contain multiple IPs, take the first one (client IP)
+				int commaIndex = ip.indexOf(',');
+				if (commaIndex != -1) {
+					ip = ip.substring(0, commaIndex).trim();
+				}
+				return ip;
+			}
+		}
+		return request.getRemoteAddr();
+	}
+
+	/**
+	 * Number of tokens the request consumes.
+	 */
+	public long resolveCost(HttpServletRequest request) {
+		String method = request.getMethod();
+		String path = request.getRequestURI().substring(request.getContextPath().length());
+		for (RouteCost routeCost : ROUTE_COSTS) {
+			if (routeCost.method().matches(method) && pathMatcher.match(routeCost.pattern(), path)) {
+				return routeCost.cost();
+			}
+		}
+		if (HttpMethod.GET.matches(method) || HttpMethod.HEAD.matches(method)
+				|| HttpMethod.OPTIONS.matches(method)) {
+			return DEFAULT_READ_COST;
+		}
+		return DEFAULT_WRITE_COST;
+	}
+
+	private record RouteCost(HttpMethod method, String pattern, long cost) {
+	}
+}
@@ -1,11 +1,26 @@
 package com.nix.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 
 @Configuration
 public class TaskSchedulerConfig {
+
+	/**
+	 * Full rebuilds and long batch jobs (search index, related books,
+	 * recommendations, trending checkpoint, counter reconciliation, content
+	 * migration) are scheduled with {@code scheduler = MAINTENANCE}, so a long
+	 * run can only delay other maintenance work.
+	 */
+	public static final String MAINTENANCE = "maintenanceScheduler";
+
+	/**
+	 * Default scheduler for @Scheduled methods and the STOMP broker. Only short,
+	 * latency-sensitive tasks run here: the view-count flush, the discovery
+	 * staleness check, import heartbeats, payouts and rate-limit purges.
+	 */
 	@Bean
 	public ThreadPoolTaskScheduler taskScheduler() {
 		ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
@@ -14,4 +29,14 @@ public class TaskSchedulerConfig {
 		scheduler.initialize();
 		return scheduler;
 	}
+
+	@Bean(MAINTENANCE)
+	public ThreadPoolTaskScheduler maintenanceScheduler(
+			@Value("${app.scheduling.maintenance-pool-size:3}") int poolSize) {
+		ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+		scheduler.setPoolSize(poolSize);
+		scheduler.setThreadNamePrefix("maintenance-");
+		scheduler.initialize();
+		return scheduler;
+	}
 }
@@ -8,6 +8,8 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 /**
  * Web MVC configuration for registering interceptors.
  * Applies different rate limiting strategies to different endpoint groups.
+ * This is the only place the rate limit interceptors are registered, so each
+ * request is charged exactly once.
  */
 @Configuration
 public class WebMvcConfig implements WebMvcConfigurer {
@@ -26,15 +26,18 @@ import org.springframework.web.bind.annotation.RestController;
 
 import com.nix.dtos.AuthorPayoutDTO;
 import com.nix.dtos.ContentAnalyticsDTO;
+import com.nix.dtos.DeletionJobDTO;
 import com.nix.dtos.PlatformAnalyticsDTO;
 import com.nix.dtos.RevenueAnalyticsDTO;
 import com.nix.dtos.UserAnalyticsDTO;
 import com.nix.dtos.UserDTO;
 import com.nix.dtos.mappers.UserMapper;
+import com.nix.models.DeletionJob.TargetType;
 import com.nix.models.User;
 import com.nix.response.ApiResponseWithData;
 import com.nix.service.AdminService;
 import com.nix.service.AuthorService;
+import com.nix.service.CascadeDeletionService;
 import com.nix.service.UserService;
 
 @RestController
@@ -53,6 +56,9 @@ public class AdminController {
 	@Autowired
 	UserMapper userMapper;
 
+	@Autowired
+	CascadeDeletionService cascadeDeletionService;
+
 	@GetMapping("/dashboard/users")
 	public ResponseEntity<ApiResponseWithData<UserAnalyticsDTO>> getUserAnalytics() {
 		try {
@@ -217,10 +223,11 @@ public class AdminController {
 	}
 
 	@DeleteMapping("/users/delete/{userId}")
-	public ResponseEntity<ApiResponseWithData<Void>> deleteUser(@PathVariable UUID userId) throws Exception {
+	public ResponseEntity<ApiResponseWithData<DeletionJobDTO>> deleteUser(@PathVariable UUID userId)
+			throws Exception {
 		try {
-			userService.deleteUser(userId);
-			return buildSuccessResponse("User deleted successfully.", null);
+			DeletionJobDTO job = cascadeDeletionService.submit(TargetType.USER, userId, null);
+			return ResponseEntity.accepted().body(new ApiResponseWithData<>("User deletion started.", true, job));
 
 		} catch (Exception e) {
 			return buildErrorResponse(HttpStatus.INTERNAL_SERVER_ERROR,
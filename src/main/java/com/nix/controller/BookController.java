@@ -2,7 +2,6 @@ package com.nix.controller;
 
 import java.io.IOException;
 import java.util.Collections;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.UUID;
@@ -13,7 +12,9 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -24,16 +25,28 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.nix.config.AuthenticatedPrincipal;
+import com.nix.config.CurrentUserProvider;
 import com.nix.dtos.BookDTO;
 import com.nix.dtos.CategoryDTO;
+import com.nix.dtos.CursorPage;
+import com.nix.dtos.DeletionJobDTO;
+import com.nix.dtos.ResourceVersion;
 import com.nix.enums.NotificationEntityType;
 import com.nix.exception.ForbiddenAccessException;
+import com.nix.models.DeletionJob.TargetType;
 import com.nix.models.User;
+import com.nix.repository.BookListingFilter;
 import com.nix.response.ApiResponseWithData;
 import com.nix.service.BookService;
+import com.nix.service.CascadeDeletionService;
+import com.nix.service.DiscoverySnapshotService;
 import com.nix.service.NotificationService;
 import com.nix.service.UserService;
+import com.nix.util.ETags;
 import com.nix.util.SecurityUtils;
 
 import jakarta.servlet.http.HttpServletRequest;
@@ -50,25 +63,14 @@ public class BookController {
 	@Autowired
 	private NotificationService notificationService;
 
-	private User resolveCurrentUser(String jwt) {
-		if (jwt == null || jwt.isBlank()) {
-			return null;
-		}
-		return userService.findUserByJwt(jwt);
-	}
+	@Autowired
+	private CurrentUserProvider currentUserProvider;
 
-	private Set<UUID> getHiddenAuthorIds(User currentUser) {
-		if (currentUser == null) {
-			return Set.of();
-		}
-		if (SecurityUtils.isAdmin(currentUser)) {
-			return Set.of();
-		}
-		Set<UUID> hiddenAuthorIds = new HashSet<>(userService.getUserIdsBlocking(currentUser.getId()));
-		Set<UUID> blockedUserIds = userService.getBlockedUserIds(currentUser.getId());
-		hiddenAuthorIds.addAll(blockedUserIds);
-		return hiddenAuthorIds;
-	}
+	@Autowired
+	private DiscoverySnapshotService discoverySnapshotService;
+
+	@Autowired
+	private CascadeDeletionService cascadeDeletionService;
 
 	private List<BookDTO> filterBooks(List<BookDTO> books, Set<UUID> hiddenAuthorIds) {
 		if (hiddenAuthorIds == null || hiddenAuthorIds.isEmpty()) {
@@ -82,44 +84,56 @@ public class BookController {
 				.collect(Collectors.toList());
 	}
 
-	private boolean isInteractionBlocked(User currentUser, UUID ownerId) {
-		if (currentUser == null || ownerId == null) {
-			return false;
-		}
-		if (SecurityUtils.isAdmin(currentUser)) {
-			return false;
-		}
-		return userService.isBlockedBy(currentUser.getId(), ownerId)
-				|| userService.hasBlocked(currentUser.getId(), ownerId);
-	}
-
-	private void ensureNotBlocked(User currentUser, UUID ownerId) {
-		if (isInteractionBlocked(currentUser, ownerId)) {
+	private void ensureNotBlocked(String jwt, UUID ownerId) {
+		if (currentUserProvider.isInteractionBlocked(jwt, ownerId)) {
 			throw new ForbiddenAccessException(
 					"You cannot access this resource because one of the accounts has blocked the other.");
 		}
 	}
 
+	private void markFavourites(List<BookDTO> books, UUID userId) {
+		Set<UUID> favouriteBookIds = bookService.getFavouriteBookIds(userId,
+				books.stream().map(BookDTO::getId).collect(Collectors.toList()));
+		books.forEach(bookDTO -> bookDTO.setFollowedByCurrentUser(favouriteBookIds.contains(bookDTO.getId())));
+	}
+
 	@GetMapping("/books")
 	public ResponseEntity<Page<BookDTO>> getAllBooks(@RequestParam(defaultValue = "0") int page,
 			@RequestParam(defaultValue = "10") int size, @RequestParam(defaultValue = "id") String sortBy,
 			@RequestHeader(value = "Authorization", required = false) String jwt) {
 		Pageable pageable = PageRequest.of(page, size, Sort.by(sortBy));
-		User currentUser = resolveCurrentUser(jwt);
+		AuthenticatedPrincipal currentUser = currentUserProvider.getPrincipal(jwt);
 
 		// Use database-level filtering for better performance
 		Page<BookDTO> booksPage;
 		if (currentUser != null) {
-			Set<UUID> hiddenAuthorIds = getHiddenAuthorIds(currentUser);
+			Set<UUID> hiddenAuthorIds = currentUserProvider.getHiddenUserIds(jwt);
 			booksPage = bookService.getAllBooks(pageable, hiddenAuthorIds);
 		} else {
 			booksPage = bookService.getAllBooks(pageable);
 		}
 
 		if (currentUser != null) {
-			Set<UUID> favouriteBookIds = bookService.getFavouriteBookIdsForUser(currentUser.getId());
-			booksPage.getContent().forEach(bookDTO -> bookDTO
-					.setFollowedByCurrentUser(favouriteBookIds.contains(bookDTO.getId())));
+			markFavourites(booksPage.getContent(), currentUser.id());
+		}
+
+		return ResponseEntity.ok(booksPage);
+	}
+
+	// Cursor mode for infinite scroll: pass an empty cursor for the first page,
+	// then the returned nextCursor.
+	@GetMapping(value = "/books", params = "cursor")
+	public ResponseEntity<CursorPage<BookDTO>> getAllBooksAfter(@RequestParam String cursor,
+			@RequestParam(defaultValue = "10") int size, @RequestParam(defaultValue = "id") String sortBy,
+			@RequestParam(defaultValue = "ASC") Sort.Direction direction,
+			@RequestHeader(value = "Authorization", required = false) String jwt) {
+		AuthenticatedPrincipal currentUser = currentUserProvider.getPrincipal(jwt);
+		Set<UUID> hiddenAuthorIds = currentUserProvider.getHiddenUserIds(jwt);
+		CursorPage<BookDTO> booksPage = bookService.getBooksAfter(BookListingFilter.all(hiddenAuthorIds), cursor,
+				size, sortBy, direction);
+
+		if (currentUser != null) {
+			markFavourites(booksPage.getContent(), currentUser.id());
 		}
 
 		return ResponseEntity.ok(booksPage);
@@ -138,15 +152,15 @@ public class BookController {
 			@RequestParam(defaultValue = "id") String sortBy,
 			@RequestHeader(value = "Authorization", required = false) String jwt) {
 		Pageable pageable = PageRequest.of(page, size, Sort.by(sortBy));
-		User currentUser = resolveCurrentUser(jwt);
+		AuthenticatedPrincipal currentUser = currentUserProvider.getPrincipal(jwt);
 		if (currentUser != null) {
-			ensureNotBlocked(currentUser, authorId);
+			ensureNotBlocked(jwt, authorId);
 		}
 
 		// Use database-level filtering
 		Page<BookDTO> booksPage;
 		if (currentUser != null) {
-			Set<UUID> hiddenAuthorIds = getHiddenAuthorIds(currentUser);
+			Set<UUID> hiddenAuthorIds = currentUserProvider.getHiddenUserIds(jwt);
 			booksPage = bookService.getBooksByAuthor(authorId, pageable, hiddenAuthorIds);
 		} else {
 			booksPage = bookService.getBooksByAuthor(authorId, pageable);
@@ -154,13 +168,25 @@ public class BookController {
 		return ResponseEntity.ok(booksPage);
 	}
 
+	@GetMapping(value = "/books/author/{authorId}", params = "cursor")
+	public ResponseEntity<CursorPage<BookDTO>> getBooksByAuthorAfter(@PathVariable UUID authorId,
+			@RequestParam String cursor, @RequestParam(defaultValue = "10") int size,
+			@RequestParam(defaultValue = "id") String sortBy,
+			@RequestParam(defaultValue = "ASC") Sort.Direction direction,
+			@RequestHeader(value = "Authorization", required = false) String jwt) {
+		ensureNotBlocked(jwt, authorId);
+		Set<UUID> hiddenAuthorIds = currentUserProvider.getHiddenUserIds(jwt);
+		return ResponseEntity.ok(bookService.getBooksAfter(BookListingFilter.byAuthor(authorId, hiddenAuthorIds),
+				cursor, size, sortBy, direction));
+	}
+
 	@GetMapping("/api/books/favoured")
 	public ResponseEntity<Page<BookDTO>> getUserFavouredBooks(@RequestHeader("Authorization") String jwt,
 			@RequestParam(defaultValue = "0") int page, @RequestParam(defaultValue = "10") int size,
 			@RequestParam(defaultValue = "id") String sortBy) {
-		User user = userService.findUserByJwt(jwt);
+		User user = currentUserProvider.getUser(jwt);
 		Pageable pageable = PageRequest.of(page, size, Sort.by(sortBy));
-		Set<UUID> hiddenAuthorIds = getHiddenAuthorIds(user);
+		Set<UUID> hiddenAuthorIds = currentUserProvider.getHiddenUserIds(jwt);
 		Page<BookDTO> favourites = bookService.getFollowedBooksByUserId(user.getId(), pageable, hiddenAuthorIds);
 		return ResponseEntity.ok(favourites);
 	}
@@ -171,12 +197,12 @@ public class BookController {
 			@RequestParam(defaultValue = "id") String sortBy,
 			@RequestHeader(value = "Authorization", required = false) String jwt) {
 		Pageable pageable = PageRequest.of(page, size, Sort.by(sortBy));
-		User currentUser = resolveCurrentUser(jwt);
+		AuthenticatedPrincipal currentUser = currentUserProvider.getPrincipal(jwt);
 
 		// Use database-level filtering
 		Page<BookDTO> booksPage;
 		if (currentUser != null) {
-			Set<UUID> hiddenAuthorIds = getHiddenAuthorIds(currentUser);
+			Set<UUID> hiddenAuthorIds = currentUserProvider.getHiddenUserIds(jwt);
 			booksPage = bookService.getBooksByCategoryId(categoryId, pageable, hiddenAuthorIds);
 		} else {
 			booksPage = bookService.getBooksByCategoryId(categoryId, pageable);
@@ -184,6 +210,17 @@ public class BookController {
 		return ResponseEntity.ok(booksPage);
 	}
 
+	@GetMapping(value = "/categories/{categoryId}/books", params = "cursor")
+	public ResponseEntity<CursorPage<BookDTO>> getBooksByCategoryAfter(@PathVariable Integer categoryId,
+			@RequestParam String cursor, @RequestParam(defaultValue = "10") int size,
+			@RequestParam(defaultValue = "id") String sortBy,
+			@RequestParam(defaultValue = "ASC") Sort.Direction direction,
+			@RequestHeader(value = "Authorization", required = false) String jwt) {
+		Set<UUID> hiddenAuthorIds = currentUserProvider.getHiddenUserIds(jwt);
+		return ResponseEntity.ok(bookService.getBooksAfter(
+				BookListingFilter.byCategory(categoryId, hiddenAuthorIds), cursor, size, sortBy, direction));
+	}
+
 	@GetMapping("/books/search")
 	public ResponseEntity<Page<BookDTO>> searchBooks(@RequestParam(required = false) String title,
 			@RequestParam(required = false) Integer categoryId, @RequestParam(required = false) List<Integer> tagIds,
@@ -191,12 +228,12 @@ public class BookController {
 			@RequestParam(defaultValue = "id") String sortBy,
 			@RequestHeader(value = "Authorization", required = false) String jwt) {
 		Pageable pageable = PageRequest.of(page, size, Sort.by(sortBy));
-		User currentUser = resolveCurrentUser(jwt);
+		AuthenticatedPrincipal currentUser = currentUserProvider.getPrincipal(jwt);
 
 		// Use database-level filtering
 		Page<BookDTO> booksPage;
 		if (currentUser != null) {
-			Set<UUID> hiddenAuthorIds = getHiddenAuthorIds(currentUser);
+			Set<UUID> hiddenAuthorIds = currentUserProvider.getHiddenUserIds(jwt);
 			booksPage = bookService.searchBooks(title, categoryId, tagIds, pageable, hiddenAuthorIds);
 		} else {
 			booksPage = bookService.searchBooks(title, categoryId, tagIds, pageable);
@@ -204,6 +241,17 @@ public class BookController {
 		return ResponseEntity.ok(booksPage);
 	}
 
+	// Text queries are ordered by relevance; without one, books are ordered by id.
+	@GetMapping(value = "/books/search", params = "cursor")
+	public ResponseEntity<CursorPage<BookDTO>> searchBooksAfter(@RequestParam(required = false) String title,
+			@RequestParam(required = false) Integer categoryId, @RequestParam(required = false) List<Integer> tagIds,
+			@RequestParam String cursor, @RequestParam(defaultValue = "10") int size,
+			@RequestHeader(value = "Authorization", required = false) String jwt) {
+		Set<UUID> hiddenAuthorIds = currentUserProvider.getHiddenUserIds(jwt);
+		BookListingFilter filter = new BookListingFilter(null, categoryId, tagIds, null, hiddenAuthorIds);
+		return ResponseEntity.ok(bookService.searchBooksAfter(title, filter, cursor, size));
+	}
+
 	@GetMapping("/books/count")
 	public ResponseEntity<ApiResponseWithData<Long>> getBookCount() {
 		Long count = bookService.getBookCount();
@@ -218,25 +266,37 @@ public class BookController {
 
 	@GetMapping("/books/{bookId}")
 	public ResponseEntity<BookDTO> getBookById(@PathVariable UUID bookId,
-			@RequestHeader(value = "Authorization", required = false) String jwt) {
-		BookDTO bookDTO = bookService.getBookById(bookId);
-		User currentUser = resolveCurrentUser(jwt);
+			@RequestHeader(value = "Authorization", required = false) String jwt, WebRequest request) {
+		ResourceVersion version = bookService.getBookVersion(bookId);
+		AuthenticatedPrincipal currentUser = currentUserProvider.getPrincipal(jwt);
+		boolean followed = false;
 		if (currentUser != null) {
-			UUID ownerId = bookDTO.getAuthor() != null ? bookDTO.getAuthor().getId() : null;
-			ensureNotBlocked(currentUser, ownerId);
-			bookDTO.setFollowedByCurrentUser(bookService.isBookLikedByUser(currentUser.getId(), bookId));
+			ensureNotBlocked(jwt, version.getOwnerId());
+			followed = bookService.isBookLikedByUser(currentUser.id(), bookId);
+		}
+
+		// ETag only: the counters in the body change without touching updatedAt,
+		// so If-Modified-Since could not be answered safely.
+		String eTag = ETags.of(version.getTag(), currentUser != null, followed);
+		if (request.checkNotModified(eTag)) {
+			return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).varyBy(HttpHeaders.AUTHORIZATION)
+					.build();
 		}
 
-		return ResponseEntity.ok(bookDTO);
+		BookDTO bookDTO = bookService.getBookById(bookId);
+		if (currentUser != null) {
+			bookDTO.setFollowedByCurrentUser(followed);
+		}
+		return ResponseEntity.ok().eTag(eTag).varyBy(HttpHeaders.AUTHORIZATION).body(bookDTO);
 	}
 
 	@GetMapping("/books/top-likes")
 	public ResponseEntity<List<BookDTO>> getTop10BooksByLikes(
 			@RequestHeader(value = "Authorization", required = false) String jwt) {
-		User currentUser = resolveCurrentUser(jwt);
+		AuthenticatedPrincipal currentUser = currentUserProvider.getPrincipal(jwt);
 		List<BookDTO> books = bookService.getTop10LikedBooks();
 		if (currentUser != null) {
-			books = filterBooks(books, getHiddenAuthorIds(currentUser));
+			books = filterBooks(books, currentUserProvider.getHiddenUserIds(jwt));
 		}
 		return ResponseEntity.ok(books);
 	}
@@ -244,10 +304,10 @@ public class BookController {
 	@GetMapping("/books/featured")
 	public ResponseEntity<List<BookDTO>> getFeaturedBooks(
 			@RequestHeader(value = "Authorization", required = false) String jwt) {
-		User currentUser = resolveCurrentUser(jwt);
+		AuthenticatedPrincipal currentUser = currentUserProvider.getPrincipal(jwt);
 		List<BookDTO> books = bookService.getFeaturedBooks();
 		if (currentUser != null) {
-			books = filterBooks(books, getHiddenAuthorIds(currentUser));
+			books = filterBooks(books, currentUserProvider.getHiddenUserIds(jwt));
 		}
 		return ResponseEntity.ok(books);
 	}
@@ -256,31 +316,41 @@ public class BookController {
 	public ResponseEntity<List<BookDTO>> getRelatedBooks(@PathVariable("bookId") UUID bookId,
 			@RequestParam(value = "tagIds", required = false) List<Integer> tagIds,
 			@RequestHeader(value = "Authorization", required = false) String jwt) {
-		User currentUser = resolveCurrentUser(jwt);
+		AuthenticatedPrincipal currentUser = currentUserProvider.getPrincipal(jwt);
 		if (currentUser != null) {
 			BookDTO baseBook = bookService.getBookById(bookId);
 			UUID ownerId = baseBook.getAuthor() != null ? baseBook.getAuthor().getId() : null;
-			ensureNotBlocked(currentUser, ownerId);
+			ensureNotBlocked(jwt, ownerId);
 		}
 		List<BookDTO> related = bookService.getRelatedBooks(bookId, tagIds);
 		if (currentUser != null) {
-			related = filterBooks(related, getHiddenAuthorIds(currentUser));
+			related = filterBooks(related, currentUserProvider.getHiddenUserIds(jwt));
 		}
 		return ResponseEntity.ok(related);
 	}
 
+	@GetMapping("/discovery")
+	public ResponseEntity<byte[]> getDiscovery(@RequestHeader(value = "Authorization", required = false) String jwt)
+			throws JsonProcessingException {
+		AuthenticatedPrincipal currentUser = currentUserProvider.getPrincipal(jwt);
+		Set<UUID> hiddenAuthorIds = currentUser != null ? currentUserProvider.getHiddenUserIds(jwt) : null;
+		return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON)
+				.body(discoverySnapshotService.getDiscoveryJson(hiddenAuthorIds));
+	}
+
 	@GetMapping("/top-categories")
 	public ResponseEntity<List<CategoryDTO>> getTopSixCategoriesWithBooks(
 			@RequestHeader(value = "Authorization", required = false) String jwt) {
-		User currentUser = resolveCurrentUser(jwt);
+		AuthenticatedPrincipal currentUser = currentUserProvider.getPrincipal(jwt);
 		List<CategoryDTO> categories = bookService.getTopSixCategoriesWithBooks();
 		if (currentUser != null) {
-			Set<UUID> hiddenAuthorIds = getHiddenAuthorIds(currentUser);
+			Set<UUID> hiddenAuthorIds = currentUserProvider.getHiddenUserIds(jwt);
 			if (!hiddenAuthorIds.isEmpty()) {
-				categories.forEach(category -> {
-					List<BookDTO> filteredBooks = filterBooks(category.getBooks(), hiddenAuthorIds);
-					category.setBooks(filteredBooks);
-				});
+				// Copied because the categories are shared with the discovery snapshot.
+				categories = categories.stream()
+						.map(category -> new CategoryDTO(category.getId(), category.getName(),
+								category.getDescription(), filterBooks(category.getBooks(), hiddenAuthorIds)))
+						.collect(Collectors.toList());
 			}
 		}
 		return ResponseEntity.ok(categories);
@@ -289,10 +359,10 @@ public class BookController {
 	@GetMapping("/books/latest-update")
 	public ResponseEntity<List<BookDTO>> getLatestUpdateBooks(@RequestParam(defaultValue = "5") int limit,
 			@RequestHeader(value = "Authorization", required = false) String jwt) {
-		User currentUser = resolveCurrentUser(jwt);
+		AuthenticatedPrincipal currentUser = currentUserProvider.getPrincipal(jwt);
 		List<BookDTO> books = bookService.getTopRecentChapterBooks(limit);
 		if (currentUser != null) {
-			books = filterBooks(books, getHiddenAuthorIds(currentUser));
+			books = filterBooks(books, currentUserProvider.getHiddenUserIds(jwt));
 		}
 		return ResponseEntity.ok(books);
 	}
@@ -303,10 +373,10 @@ public class BookController {
 			@RequestParam(defaultValue = "10") long minViews,
 			@RequestParam(defaultValue = "10") int limit,
 			@RequestHeader(value = "Authorization", required = false) String jwt) {
-		User currentUser = resolveCurrentUser(jwt);
+		AuthenticatedPrincipal currentUser = currentUserProvider.getPrincipal(jwt);
 		List<BookDTO> books = bookService.getTrendingBooks(hours, minViews, limit);
 		if (currentUser != null) {
-			books = filterBooks(books, getHiddenAuthorIds(currentUser));
+			books = filterBooks(books, currentUserProvider.getHiddenUserIds(jwt));
 		}
 		return ResponseEntity.ok(books);
 	}
@@ -314,7 +384,7 @@ public class BookController {
 	@GetMapping("/api/books/{bookId}/isLiked")
 	public ResponseEntity<ApiResponseWithData<Boolean>> checkBookLikedByUser(@RequestHeader("Authorization") String jwt,
 			@PathVariable UUID bookId) {
-		User user = userService.findUserByJwt(jwt);
+		User user = currentUserProvider.getUser(jwt);
 		Boolean isLiked = bookService.isBookLikedByUser(user.getId(), bookId);
 		return ResponseEntity.ok(new ApiResponseWithData<>("Like status retrieved successfully.", true, isLiked));
 	}
@@ -322,7 +392,7 @@ public class BookController {
 	@PostMapping("/api/books")
 	public ResponseEntity<ApiResponseWithData<BookDTO>> createBook(@RequestBody BookDTO bookDTO,
 			@RequestHeader("Authorization") String jwt) throws IOException {
-		User user = userService.findUserByJwt(jwt);
+		User user = currentUserProvider.getUser(jwt);
 		if (user.isBanned()) {
 			return ResponseEntity.status(HttpStatus.FORBIDDEN).body(new ApiResponseWithData<>(
 					"You are currently banned from this website. Contact support for assistance.", false));
@@ -352,7 +422,7 @@ public class BookController {
 	public ResponseEntity<ApiResponseWithData<BookDTO>> updateBook(@PathVariable("bookId") UUID bookId,
 			@RequestBody BookDTO bookDTO, @RequestHeader("Authorization") String jwt) {
 		BookDTO book = bookService.getBookById(bookId);
-		User user = userService.findUserByJwt(jwt);
+		User user = currentUserProvider.getUser(jwt);
 		UUID authorId = book.getAuthor() != null ? book.getAuthor().getId() : null;
 		boolean isAdmin = SecurityUtils.isAdmin(user);
 
@@ -373,10 +443,10 @@ public class BookController {
 	}
 
 	@DeleteMapping("/api/books/{bookId}")
-	public ResponseEntity<ApiResponseWithData<Void>> deleteBook(@PathVariable("bookId") UUID bookId,
+	public ResponseEntity<ApiResponseWithData<DeletionJobDTO>> deleteBook(@PathVariable("bookId") UUID bookId,
 			@RequestHeader("Authorization") String jwt) {
 		BookDTO book = bookService.getBookById(bookId);
-		User user = userService.findUserByJwt(jwt);
+		User user = currentUserProvider.getUser(jwt);
 
 		UUID authorId = book.getAuthor() != null ? book.getAuthor().getId() : null;
 		boolean isAdmin = SecurityUtils.isAdmin(user);
@@ -384,14 +454,10 @@ public class BookController {
 			return ResponseEntity.status(HttpStatus.FORBIDDEN).body(new ApiResponseWithData<>(
 					"You do not have permission to delete this book.", false));
 		}
-		bookService.deleteBook(bookId);
-		if (authorId != null) {
-			User author = userService.findUserById(authorId);
-			notificationService.createNotification(author, "Your book '" + book.getTitle() + "' has been deleted!",
-					NotificationEntityType.BOOK, null);
-		}
-		ApiResponseWithData<Void> response = new ApiResponseWithData<>("Book deleted successfully.", true);
-		return ResponseEntity.ok(response);
+		DeletionJobDTO job = cascadeDeletionService.submit(TargetType.BOOK, bookId, user.getId());
+		ApiResponseWithData<DeletionJobDTO> response = new ApiResponseWithData<>("Book deletion started.", true,
+				job);
+		return ResponseEntity.accepted().body(response);
 	}
 
 	@PostMapping("/books/{bookId}/views")
@@ -400,17 +466,17 @@ public class BookController {
 			HttpServletRequest request) {
 		UUID viewerId = null;
 		if (jwt != null && !jwt.isBlank()) {
-			User viewer = userService.findUserByJwt(jwt);
+			AuthenticatedPrincipal viewer = currentUserProvider.getPrincipal(jwt);
 			if (viewer != null) {
 				BookDTO bookDTO = bookService.getBookById(bookId);
 				UUID ownerId = bookDTO.getAuthor() != null ? bookDTO.getAuthor().getId() : null;
-				if (isInteractionBlocked(viewer, ownerId)) {
+				if (currentUserProvider.isInteractionBlocked(jwt, ownerId)) {
 					ApiResponseWithData<Long> blockedResponse = new ApiResponseWithData<>(
 							"You cannot record a view for this book because access between the accounts is blocked.",
 							false);
 					return ResponseEntity.status(HttpStatus.FORBIDDEN).body(blockedResponse);
 				}
-				viewerId = viewer.getId();
+				viewerId = viewer.id();
 			}
 		}
 		long updatedCount = bookService.recordBookView(bookId, viewerId, request.getRemoteAddr());
@@ -422,10 +488,10 @@ public class BookController {
 	@PutMapping("/api/books/follow/{bookId}")
 	public ResponseEntity<ApiResponseWithData<Boolean>> markBookAsFavoured(
 			@RequestHeader("Authorization") String jwt, @PathVariable UUID bookId) {
-		User reqUser = userService.findUserByJwt(jwt);
+		User reqUser = currentUserProvider.getUser(jwt);
 		BookDTO bookDTO = bookService.getBookById(bookId);
 		UUID ownerId = bookDTO.getAuthor() != null ? bookDTO.getAuthor().getId() : null;
-		if (isInteractionBlocked(reqUser, ownerId)) {
+		if (currentUserProvider.isInteractionBlocked(jwt, ownerId)) {
 			ApiResponseWithData<Boolean> blockedResponse = new ApiResponseWithData<>(
 					"You cannot follow or unfollow this book because access between the accounts is blocked.", false);
 			return ResponseEntity.status(HttpStatus.FORBIDDEN).body(blockedResponse);
@@ -1,11 +1,17 @@
 package com.nix.controller;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneId;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -16,44 +22,67 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.nix.config.AuthenticatedPrincipal;
+import com.nix.config.CurrentUserProvider;
 import com.nix.dtos.BookDTO;
+import com.nix.dtos.ChapterContentPageDTO;
 import com.nix.dtos.ChapterDTO;
 import com.nix.dtos.ChapterSummaryDTO;
+import com.nix.dtos.DeletionJobDTO;
+import com.nix.dtos.EpubImportJobDTO;
+import com.nix.dtos.ResourceVersion;
 import com.nix.dtos.mappers.ChapterMapper;
 import com.nix.dtos.mappers.ChapterSummaryMapper;
 import com.nix.exception.ForbiddenAccessException;
 import com.nix.exception.ResourceNotFoundException;
 import com.nix.exception.UnauthorizedException;
 import com.nix.models.Chapter;
+import com.nix.models.DeletionJob.TargetType;
 import com.nix.models.User;
 import com.nix.response.ApiResponseWithData;
 import com.nix.service.BookService;
+import com.nix.service.CascadeDeletionService;
+import com.nix.service.ChapterContentService;
 import com.nix.service.ChapterService;
+import com.nix.service.EpubImportService;
 import com.nix.service.PaymentService;
 import com.nix.service.ReadingProgressService;
-import com.nix.service.UserService;
+import com.nix.util.ETags;
 import com.nix.util.SecurityUtils;
 
 @RestController
 public class ChapterController {
 
+	private static final MediaType HTML_UTF8 = new MediaType(MediaType.TEXT_HTML, StandardCharsets.UTF_8);
+
 	@Autowired
 	ChapterService chapterService;
 
 	@Autowired
 	BookService bookService;
 
-	@Autowired
-	UserService userService;
-
 	@Autowired
 	ReadingProgressService progressService;
 
 	@Autowired
 	PaymentService paymentService;
 
+	@Autowired
+	CurrentUserProvider currentUserProvider;
+
+	@Autowired
+	CascadeDeletionService cascadeDeletionService;
+
+	@Autowired
+	ChapterContentService chapterContentService;
+
+	@Autowired
+	EpubImportService epubImportService;
+
 	ChapterMapper chapterMapper = new ChapterMapper();
 
 	ChapterSummaryMapper chapterSummaryMapper = new ChapterSummaryMapper();
@@ -62,13 +91,6 @@ public class ChapterController {
 		return SecurityUtils.isAdmin(user);
 	}
 
-	private User resolveCurrentUser(String jwt) {
-		if (jwt == null || jwt.isBlank()) {
-			return null;
-		}
-		return userService.findUserByJwt(jwt);
-	}
-
 	private void ensureUserCanPublish(User user) {
 		if (user == null) {
 			throw new ResourceNotFoundException("Cannot find user");
@@ -96,23 +118,20 @@ public class ChapterController {
 		}
 	}
 
-	private void ensureNotBlocked(User user, UUID ownerId) {
-		if (user == null || ownerId == null) {
-			return;
-		}
-		if (isAdmin(user)) {
-			return;
-		}
-		if (userService.isBlockedBy(user.getId(), ownerId) || userService.hasBlocked(user.getId(), ownerId)) {
+	private void ensureNotBlocked(String jwt, UUID ownerId) {
+		if (currentUserProvider.isInteractionBlocked(jwt, ownerId)) {
 			throw new ForbiddenAccessException(
 					"You cannot access this resource because one of the accounts has blocked the other.");
 		}
 	}
 
+	private <T> ResponseEntity<T> notModified(String eTag) {
+		return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).varyBy(HttpHeaders.AUTHORIZATION).build();
+	}
+
 	@GetMapping("/chapters")
 	public ResponseEntity<ApiResponseWithData<List<ChapterDTO>>> getAllChapters() {
-		List<Chapter> chapters = chapterService.getAllChapters();
-		List<ChapterDTO> chapterDTOs = chapterMapper.mapToDTOs(chapters);
+		List<ChapterDTO> chapterDTOs = chapterService.getAllChapters();
 
 		ApiResponseWithData<List<ChapterDTO>> response = new ApiResponseWithData<>(
 				"Chapters retrieved successfully.", true, chapterDTOs);
@@ -125,36 +144,32 @@ public class ChapterController {
 			@PathVariable("bookId") UUID bookId,
 			@RequestParam(value = "sortBy", defaultValue = "uploadDate") String sortBy,
 			@RequestParam(value = "sortDir", defaultValue = "asc") String sortDir,
-			@RequestHeader(value = "Authorization", required = false) String jwt) {
-		User currentUser = resolveCurrentUser(jwt);
+			@RequestHeader(value = "Authorization", required = false) String jwt, WebRequest request) {
+		AuthenticatedPrincipal currentUser = currentUserProvider.getPrincipal(jwt);
+		ResourceVersion version = chapterService.getPublishedChaptersVersion(bookId,
+				currentUser != null ? currentUser.id() : null);
 		if (currentUser != null) {
-			BookDTO bookDTO = bookService.getBookById(bookId);
-			UUID ownerId = bookDTO.getAuthor() != null ? bookDTO.getAuthor().getId() : null;
-			ensureNotBlocked(currentUser, ownerId);
+			ensureNotBlocked(jwt, version.getOwnerId());
 		}
 
-		List<Chapter> chapters = chapterService.findNotDraftedChaptersByBookId(bookId, sortBy, sortDir);
-		List<ChapterSummaryDTO> chapterDTOs = chapterSummaryMapper.mapToDTOs(chapters);
-
-		boolean isAuthenticated = currentUser != null;
+		String eTag = ETags.of(version.getTag(), sortBy, sortDir);
+		if (request.checkNotModified(eTag)) {
+			return notModified(eTag);
+		}
 
-		for (int i = 0; i < chapters.size(); i++) {
-			Chapter chapter = chapters.get(i);
-			ChapterSummaryDTO dto = chapterDTOs.get(i);
+		List<ChapterSummaryDTO> chapterDTOs = chapterService.findNotDraftedChaptersByBookId(bookId, sortBy, sortDir);
 
-			// If authenticated, check if the chapter is unlocked by the user
-			if (isAuthenticated) {
-				boolean isUnlocked = chapterService.isChapterUnlockedByUser(currentUser.getId(), chapter.getId());
-				dto.setUnlockedByUser(isUnlocked);
-			} else {
-				dto.setUnlockedByUser(false);
-			}
+		Set<UUID> unlockedChapterIds = currentUser != null
+				? chapterService.getUnlockedChapterIds(currentUser.id(), bookId)
+				: Set.of();
+		for (ChapterSummaryDTO dto : chapterDTOs) {
+			dto.setUnlockedByUser(unlockedChapterIds.contains(dto.getId()));
 		}
 
 		ApiResponseWithData<List<ChapterSummaryDTO>> response = new ApiResponseWithData<>(
 				"Chapters retrieved successfully.", true, chapterDTOs);
 
-		return ResponseEntity.ok(response);
+		return ResponseEntity.ok().eTag(eTag).varyBy(HttpHeaders.AUTHORIZATION).body(response);
 	}
 
 	@GetMapping("/api/books/{bookId}/chapters")
@@ -162,8 +177,7 @@ public class ChapterController {
 			@PathVariable("bookId") UUID bookId,
 			@RequestParam(value = "sortBy", defaultValue = "uploadDate") String sortBy,
 			@RequestParam(value = "sortDir", defaultValue = "asc") String sortDir) {
-		List<Chapter> chapters = chapterService.findChaptersByBookId(bookId, sortBy, sortDir);
-		List<ChapterDTO> chapterDTOs = chapterMapper.mapToDTOs(chapters);
+		List<ChapterDTO> chapterDTOs = chapterService.findChaptersByBookId(bookId, sortBy, sortDir);
 		ApiResponseWithData<List<ChapterDTO>> response = new ApiResponseWithData<>(
 				"Chapters retrieved successfully.", true, chapterDTOs);
 
@@ -172,45 +186,171 @@ public class ChapterController {
 
 	@GetMapping("/chapters/{chapterId}")
 	public ResponseEntity<ApiResponseWithData<?>> getChapterById(@PathVariable("chapterId") UUID chapterId,
-			@RequestHeader(value = "Authorization", required = false) String jwt) {
-		Chapter chapter = chapterService.findChapterById(chapterId);
-		ChapterDTO chapterDTO = chapterMapper.mapToDTO(chapter);
+			@RequestHeader(value = "Authorization", required = false) String jwt, WebRequest request) {
+		ResourceVersion version = chapterService.getChapterVersion(chapterId);
 		boolean isUnlocked = false;
 		boolean isLiked = false;
 
-		User currentUser = resolveCurrentUser(jwt);
+		AuthenticatedPrincipal currentUser = currentUserProvider.getPrincipal(jwt);
+		if (currentUser != null) {
+			ensureNotBlocked(jwt, version.getOwnerId());
+			isUnlocked = chapterService.isChapterUnlockedByUser(currentUser.id(), chapterId);
+			isLiked = chapterService.isChapterLikedByUser(currentUser.id(), chapterId);
+		}
+
+		// Anonymous responses depend on the chapter row alone, so they can also be
+		// validated by date; per-viewer ones carry flags and need the ETag.
+		String eTag = ETags.of(version.getTag(), currentUser != null, isUnlocked, isLiked);
+		boolean notModified = currentUser == null && version.getLastModified() != null
+				? request.checkNotModified(eTag,
+						version.getLastModified().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli())
+				: request.checkNotModified(eTag);
+		if (notModified) {
+			return notModified(eTag);
+		}
+
+		Chapter chapter = chapterService.findChapterById(chapterId);
+		if (chapter.getPrice() > 0 && chapter.isLocked() && !isUnlocked) {
+			ChapterSummaryDTO summary = chapterSummaryMapper.mapToDTO(chapter);
+			return ResponseEntity.ok().eTag(eTag).varyBy(HttpHeaders.AUTHORIZATION)
+					.body(new ApiResponseWithData<>("Chapter summary retrieved successfully.", true, summary));
+		}
+
+		ChapterDTO chapterDTO = chapterMapper.mapToDTO(chapter);
+		chapterDTO.setContent(chapterContentService.getContent(chapter));
 		if (currentUser != null) {
-			UUID ownerId = chapter.getBook() != null && chapter.getBook().getAuthor() != null
-					? chapter.getBook().getAuthor().getId()
-					: null;
-			ensureNotBlocked(currentUser, ownerId);
-			isUnlocked = chapterService.isChapterUnlockedByUser(currentUser.getId(), chapterId);
-			isLiked = chapterService.isChapterLikedByUser(currentUser.getId(), chapterId);
 			chapterDTO.setUnlockedByUser(isUnlocked);
 			chapterDTO.setLikedByCurrentUser(isLiked);
 		}
+		return ResponseEntity.ok().eTag(eTag).varyBy(HttpHeaders.AUTHORIZATION)
+				.body(new ApiResponseWithData<>("Chapter retrieved successfully.", true, chapterDTO));
+	}
+
+	/**
+	 * The chapter body as HTML, streamed from wherever it is stored instead of
+	 * being wrapped in JSON. A single {@code Range: bytes=} request is answered
+	 * with 206; multiple or malformed ranges get the whole body.
+	 */
+	@GetMapping("/chapters/{chapterId}/content")
+	public ResponseEntity<StreamingResponseBody> getChapterContent(@PathVariable("chapterId") UUID chapterId,
+			@RequestHeader(value = "Authorization", required = false) String jwt, WebRequest request) {
+		Chapter chapter = findReadableChapter(chapterId, jwt);
+		String eTag = contentETag(chapter);
+		if (request.checkNotModified(eTag)) {
+			return notModified(eTag);
+		}
+
+		ChapterContentService.Body body = chapterContentService.open(chapter);
+		long size = body.size();
+		List<HttpRange> ranges = requestedRanges(request, eTag);
+		if (ranges.size() != 1) {
+			return ResponseEntity.ok().eTag(eTag).varyBy(HttpHeaders.AUTHORIZATION)
+					.header(HttpHeaders.ACCEPT_RANGES, "bytes")
+					.contentType(HTML_UTF8)
+					.contentLength(size)
+					.body(out -> body.writeTo(out, 0, size));
+		}
+
+		long from;
+		long to;
+		try {
+			from = ranges.get(0).getRangeStart(size);
+			to = ranges.get(0).getRangeEnd(size);
+		} catch (IllegalArgumentException e) {
+			return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+					.header(HttpHeaders.CONTENT_RANGE, "bytes */" + size)
+					.build();
+		}
+		long length = to - from + 1;
+		return ResponseEntity.status(HttpStatus.PARTIAL_CONTENT).eTag(eTag).varyBy(HttpHeaders.AUTHORIZATION)
+				.header(HttpHeaders.ACCEPT_RANGES, "bytes")
+				.header(HttpHeaders.CONTENT_RANGE, "bytes " + from + "-" + to + "/" + size)
+				.contentType(HTML_UTF8)
+				.contentLength(length)
+				.body(out -> body.writeTo(out, from, length));
+	}
+
+	/**
+	 * One reading page of the chapter body. Pages end at paragraph boundaries
+	 * laid out when the chapter was saved, so a reader only fetches what is on
+	 * screen.
+	 */
+	@GetMapping("/chapters/{chapterId}/content/pages/{page}")
+	public ResponseEntity<ApiResponseWithData<ChapterContentPageDTO>> getChapterContentPage(
+			@PathVariable("chapterId") UUID chapterId, @PathVariable("page") int page,
+			@RequestHeader(value = "Authorization", required = false) String jwt, WebRequest request)
+			throws IOException {
+		Chapter chapter = findReadableChapter(chapterId, jwt);
+		String eTag = ETags.of(contentETag(chapter), chapter.getContentPageOffsets(), page);
+		if (request.checkNotModified(eTag)) {
+			return notModified(eTag);
+		}
+
+		ChapterContentPageDTO contentPage = chapterContentService.getPage(chapter, page);
+		return ResponseEntity.ok().eTag(eTag).varyBy(HttpHeaders.AUTHORIZATION)
+				.body(new ApiResponseWithData<>("Chapter page retrieved successfully.", true, contentPage));
+	}
 
+	/**
+	 * Loads a chapter whose body is about to be served, applying the block and
+	 * unlock checks of the chapter detail endpoint. Locked chapters have no
+	 * summary form here, so they are refused outright.
+	 */
+	private Chapter findReadableChapter(UUID chapterId, String jwt) {
+		Chapter chapter = chapterService.findChapterById(chapterId);
+		boolean isUnlocked = false;
+		AuthenticatedPrincipal currentUser = currentUserProvider.getPrincipal(jwt);
+		if (currentUser != null) {
+			UUID ownerId = chapter.getBook() != null && chapter.getBook().getAuthor() != null
+					? chapter.getBook().getAuthor().getId()
+					: null;
+			ensureNotBlocked(jwt, ownerId);
+			isUnlocked = chapterService.isChapterUnlockedByUser(currentUser.id(), chapterId);
+		}
 		if (chapter.getPrice() > 0 && chapter.isLocked() && !isUnlocked) {
-			ChapterSummaryDTO summary = chapterSummaryMapper.mapToDTO(chapter);
-			return ResponseEntity
-					.ok(new ApiResponseWithData<>("Chapter summary retrieved successfully.", true, summary));
+			throw new ForbiddenAccessException("Unlock this chapter to read its content.");
 		}
+		return chapter;
+	}
 
-		return ResponseEntity.ok(new ApiResponseWithData<>("Chapter retrieved successfully.", true, chapterDTO));
+	private static String contentETag(Chapter chapter) {
+		return ETags.of(chapter.getId(),
+				chapter.getContentHash() != null ? chapter.getContentHash() : chapter.getContentVersion());
+	}
+
+	/**
+	 * The ranges to honour: none when there is no Range header, when If-Range
+	 * names another representation, or when the header cannot be parsed.
+	 */
+	private static List<HttpRange> requestedRanges(WebRequest request, String eTag) {
+		String range = request.getHeader(HttpHeaders.RANGE);
+		if (range == null) {
+			return List.of();
+		}
+		String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+		if (ifRange != null && !ifRange.equals(eTag)) {
+			return List.of();
+		}
+		try {
+			return HttpRange.parseRanges(range);
+		} catch (IllegalArgumentException e) {
+			return List.of();
+		}
 	}
 
 	@GetMapping("/api/chapters/room/{roomId}")
 	public ResponseEntity<ApiResponseWithData<ChapterDTO>> getChapterByRoomId(@PathVariable String roomId) {
 		Chapter chapter = chapterService.getChapterByRoomId(roomId);
 		ChapterDTO chapterDTO = chapterMapper.mapToDTO(chapter);
+		chapterDTO.setContent(chapterContentService.getContent(chapter));
 		return ResponseEntity.ok(new ApiResponseWithData<>("Chapter retrieved successfully.", true, chapterDTO));
 	}
 
 	@PostMapping("/api/books/{bookId}/chapters/upload/epub")
-	public ResponseEntity<ApiResponseWithData<String>> processChaptersFromEpub(@PathVariable("bookId") UUID bookId,
-			@RequestParam("file") MultipartFile file, @RequestParam Integer startChapterNum,
-			@RequestHeader("Authorization") String jwt) throws Exception {
-		User currentUser = userService.findUserByJwt(jwt);
+	public ResponseEntity<ApiResponseWithData<EpubImportJobDTO>> processChaptersFromEpub(
+			@PathVariable("bookId") UUID bookId, @RequestParam("file") MultipartFile file,
+			@RequestParam Integer startChapterNum, @RequestHeader("Authorization") String jwt) throws Exception {
+		User currentUser = currentUserProvider.getUser(jwt);
 		ensureUserCanPublish(currentUser);
 		BookDTO book = bookService.getBookById(bookId);
 		if (book == null) {
@@ -218,15 +358,16 @@ public class ChapterController {
 					.body(new ApiResponseWithData<>("Book ID not found!", false));
 		}
 		UUID ownerId = book.getAuthor() != null ? book.getAuthor().getId() : null;
-		ensureNotBlocked(currentUser, ownerId);
+		ensureNotBlocked(jwt, ownerId);
 		ensureAuthorOrAdmin(currentUser, ownerId);
 
 		try {
-			chapterService.processChaptersByEpubFile(bookId, file.getInputStream(), startChapterNum);
-			return ResponseEntity.ok(new ApiResponseWithData<>("EPUB processed successfully!", true, "success"));
+			EpubImportJobDTO job = epubImportService.submit(bookId, file, startChapterNum, currentUser.getId());
+			return new ResponseEntity<>(new ApiResponseWithData<>("EPUB import started.", true, job),
+					HttpStatus.ACCEPTED);
 		} catch (IOException e) {
 			return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-					.body(new ApiResponseWithData<>("Error processing EPUB: " + e.getMessage(), false));
+					.body(new ApiResponseWithData<>("Error storing EPUB: " + e.getMessage(), false));
 		}
 	}
 
@@ -234,7 +375,7 @@ public class ChapterController {
 	public ResponseEntity<ApiResponseWithData<Chapter>> createDraftChapter(@PathVariable("bookId") UUID bookId,
 			@RequestBody Chapter chapter,
 			@RequestHeader("Authorization") String jwt) throws Exception {
-		User currentUser = userService.findUserByJwt(jwt);
+		User currentUser = currentUserProvider.getUser(jwt);
 		ensureUserCanPublish(currentUser);
 		BookDTO book = bookService.getBookById(bookId);
 		if (book == null) {
@@ -242,7 +383,7 @@ public class ChapterController {
 					.body(new ApiResponseWithData<>("Book ID not found!", false));
 		}
 		UUID ownerId = book.getAuthor() != null ? book.getAuthor().getId() : null;
-		ensureNotBlocked(currentUser, ownerId);
+		ensureNotBlocked(jwt, ownerId);
 		ensureAuthorOrAdmin(currentUser, ownerId);
 
 		try {
@@ -259,7 +400,7 @@ public class ChapterController {
 	public ResponseEntity<ApiResponseWithData<Chapter>> publishChapter(@PathVariable("bookId") UUID bookId,
 			@RequestBody Chapter chapter,
 			@RequestHeader("Authorization") String jwt) throws Exception {
-		User currentUser = userService.findUserByJwt(jwt);
+		User currentUser = currentUserProvider.getUser(jwt);
 		ensureUserCanPublish(currentUser);
 		BookDTO book = bookService.getBookById(bookId);
 		if (book == null) {
@@ -267,7 +408,7 @@ public class ChapterController {
 					.body(new ApiResponseWithData<>("Book ID not found!", false));
 		}
 		UUID ownerId = book.getAuthor() != null ? book.getAuthor().getId() : null;
-		ensureNotBlocked(currentUser, ownerId);
+		ensureNotBlocked(jwt, ownerId);
 		ensureAuthorOrAdmin(currentUser, ownerId);
 
 		try {
@@ -284,25 +425,26 @@ public class ChapterController {
 	public ResponseEntity<ApiResponseWithData<ChapterDTO>> editChapter(@PathVariable("chapterId") UUID chapterId,
 			@RequestBody Chapter chapter, @RequestHeader("Authorization") String jwt) throws Exception {
 
-		User currentUser = userService.findUserByJwt(jwt);
+		User currentUser = currentUserProvider.getUser(jwt);
 		ensureUserCanPublish(currentUser);
 		Chapter existingChapter = chapterService.findChapterById(chapterId);
 		UUID ownerId = existingChapter.getBook() != null && existingChapter.getBook().getAuthor() != null
 				? existingChapter.getBook().getAuthor().getId()
 				: null;
-		ensureNotBlocked(currentUser, ownerId);
+		ensureNotBlocked(jwt, ownerId);
 		ensureAuthorOrAdmin(currentUser, ownerId);
 
 		Chapter editChapter = chapterService.editChapter(chapterId, chapter);
 		ChapterDTO chapterDTO = chapterMapper.mapToDTO(editChapter);
+		chapterDTO.setContent(chapterContentService.getContent(editChapter));
 		return ResponseEntity.ok(new ApiResponseWithData<>("Chapter updated successfully.", true, chapterDTO));
 	}
 
 	@DeleteMapping("/api/chapters/{chapterId}")
-	public ResponseEntity<ApiResponseWithData<Void>> deleteChapter(@PathVariable("chapterId") UUID chapterId,
-			@RequestHeader("Authorization") String jwt) throws Exception {
+	public ResponseEntity<ApiResponseWithData<DeletionJobDTO>> deleteChapter(
+			@PathVariable("chapterId") UUID chapterId, @RequestHeader("Authorization") String jwt) throws Exception {
 
-		User currentUser = userService.findUserByJwt(jwt);
+		User currentUser = currentUserProvider.getUser(jwt);
 		if (currentUser == null) {
 			return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
 					.body(new ApiResponseWithData<>("User has not logged in!", false));
@@ -318,21 +460,22 @@ public class ChapterController {
 					"You do not have permission to delete this chapter.", false));
 		}
 
-		String resultMessage = chapterService.deleteChapter(chapterId);
-		ApiResponseWithData<Void> response = new ApiResponseWithData<>(resultMessage, true);
-		return new ResponseEntity<>(response, HttpStatus.OK);
+		DeletionJobDTO job = cascadeDeletionService.submit(TargetType.CHAPTER, chapterId, currentUser.getId());
+		ApiResponseWithData<DeletionJobDTO> response = new ApiResponseWithData<>("Chapter deletion started.", true,
+				job);
+		return new ResponseEntity<>(response, HttpStatus.ACCEPTED);
 	}
 
 	@PostMapping("/api/unlock/{chapterId}")
 	public ResponseEntity<ApiResponseWithData<String>> unlockChapter(@PathVariable("chapterId") UUID chapterId,
 			@RequestHeader("Authorization") String jwt) {
 		try {
-			User user = userService.findUserByJwt(jwt);
+			User user = currentUserProvider.getUser(jwt);
 			Chapter chapter = chapterService.findChapterById(chapterId);
 			UUID ownerId = chapter.getBook() != null && chapter.getBook().getAuthor() != null
 					? chapter.getBook().getAuthor().getId()
 					: null;
-			ensureNotBlocked(user, ownerId);
+			ensureNotBlocked(jwt, ownerId);
 			chapterService.unlockChapter(user.getId(), chapterId);
 			return ResponseEntity.ok(new ApiResponseWithData<>("Chapter unlocked successfully.", true, "unlocked"));
 		} catch (Exception e) {
@@ -345,7 +488,7 @@ public class ChapterController {
 	public ResponseEntity<ApiResponseWithData<ChapterDTO>> likeChapter(@RequestHeader("Authorization") String jwt,
 			@PathVariable UUID chapterId) {
 		try {
-			User user = userService.findUserByJwt(jwt);
+			User user = currentUserProvider.getUser(jwt);
 			if (user == null) {
 				return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
 						.body(new ApiResponseWithData<>("User has not logged in!", false));
@@ -354,11 +497,13 @@ public class ChapterController {
 			UUID ownerId = chapter.getBook() != null && chapter.getBook().getAuthor() != null
 					? chapter.getBook().getAuthor().getId()
 					: null;
-			ensureNotBlocked(user, ownerId);
+			ensureNotBlocked(jwt, ownerId);
 
 			Boolean isLiked = chapterService.likeChapter(user.getId(), chapterId);
-			boolean isUnlocked = chapterService.isChapterUnlockedByUser(user.getId(), chapterId);
+			boolean isUnlocked = chapter.getBook() != null && chapterService
+					.getUnlockedChapterIds(user.getId(), chapter.getBook().getId()).contains(chapterId);
 			ChapterDTO chapterDTO = chapterMapper.mapToDTO(chapter);
+			chapterDTO.setContent(chapterContentService.getContent(chapter));
 			chapterDTO.setLikedByCurrentUser(isLiked);
 			chapterDTO.setUnlockedByUser(isUnlocked);
 
@@ -381,12 +526,12 @@ public class ChapterController {
 	public ResponseEntity<ApiResponseWithData<Boolean>> isChapterLiked(@RequestHeader("Authorization") String jwt,
 			@PathVariable UUID chapterId) {
 		try {
-			User user = userService.findUserByJwt(jwt);
+			User user = currentUserProvider.getUser(jwt);
 			Chapter chapter = chapterService.findChapterById(chapterId);
 			UUID ownerId = chapter.getBook() != null && chapter.getBook().getAuthor() != null
 					? chapter.getBook().getAuthor().getId()
 					: null;
-			ensureNotBlocked(user, ownerId);
+			ensureNotBlocked(jwt, ownerId);
 			boolean isLiked = chapterService.isChapterLikedByUser(user.getId(), chapterId);
 			return ResponseEntity.ok(new ApiResponseWithData<>("Like status retrieved successfully.", true, isLiked));
 		} catch (Exception ex) {
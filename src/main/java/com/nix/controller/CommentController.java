@@ -1,7 +1,6 @@
 package com.nix.controller;
 
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -25,6 +24,7 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.nix.config.CurrentUserProvider;
 import com.nix.dtos.BookDTO;
 import com.nix.dtos.CommentDTO;
 import com.nix.dtos.PostDTO;
@@ -43,7 +43,6 @@ import com.nix.service.CommentService;
 import com.nix.service.NotificationService;
 import com.nix.service.PostService;
 import com.nix.service.UserService;
-import com.nix.util.SecurityUtils;
 import com.nix.response.ApiResponseWithData;
 
 @RestController
@@ -67,14 +66,10 @@ public class CommentController {
 	@Autowired
 	private NotificationService notificationService;
 
-	private CommentMapper commentMapper = new CommentMapper();
+	@Autowired
+	private CurrentUserProvider currentUserProvider;
 
-	private User resolveCurrentUser(String jwt) {
-		if (jwt == null || jwt.isBlank()) {
-			return null;
-		}
-		return userService.findUserByJwt(jwt);
-	}
+	private CommentMapper commentMapper = new CommentMapper();
 
 	private void ensureUserCanComment(User user) {
 		if (user.isBanned()) {
@@ -89,15 +84,8 @@ public class CommentController {
 		}
 	}
 
-	private void ensureNotBlocked(User currentUser, UUID ownerId) {
-		if (currentUser == null || ownerId == null) {
-			return;
-		}
-		if (SecurityUtils.isAdmin(currentUser)) {
-			return;
-		}
-		if (userService.isBlockedBy(currentUser.getId(), ownerId)
-				|| userService.hasBlocked(currentUser.getId(), ownerId)) {
+	private void ensureNotBlocked(String jwt, UUID ownerId) {
+		if (currentUserProvider.isInteractionBlocked(jwt, ownerId)) {
 			throw new ForbiddenAccessException(
 					"You cannot access this resource because one of the accounts has blocked the other.");
 		}
@@ -120,15 +108,11 @@ public class CommentController {
 		return comment;
 	}
 
-	private List<CommentDTO> filterCommentsForUser(List<CommentDTO> comments, User currentUser) {
-		if (currentUser == null || comments == null) {
+	private List<CommentDTO> filterCommentsForUser(List<CommentDTO> comments, String jwt) {
+		if (comments == null) {
 			return comments;
 		}
-		if (SecurityUtils.isAdmin(currentUser)) {
-			return comments;
-		}
-		Set<UUID> hiddenUserIds = new HashSet<>(userService.getUserIdsBlocking(currentUser.getId()));
-		hiddenUserIds.addAll(userService.getBlockedUserIds(currentUser.getId()));
+		Set<UUID> hiddenUserIds = currentUserProvider.getHiddenUserIds(jwt);
 		if (hiddenUserIds.isEmpty()) {
 			return comments;
 		}
@@ -136,25 +120,25 @@ public class CommentController {
 				.collect(Collectors.toList());
 	}
 
-	private void ensureNotBlockedForComment(User currentUser, Comment comment) {
-		if (currentUser == null || comment == null) {
+	private void ensureNotBlockedForComment(String jwt, Comment comment) {
+		if (comment == null) {
 			return;
 		}
 		if (comment.getUser() != null) {
-			ensureNotBlocked(currentUser, comment.getUser().getId());
+			ensureNotBlocked(jwt, comment.getUser().getId());
 		}
 		if (comment.getBook() != null && comment.getBook().getAuthor() != null) {
-			ensureNotBlocked(currentUser, comment.getBook().getAuthor().getId());
+			ensureNotBlocked(jwt, comment.getBook().getAuthor().getId());
 		}
 		if (comment.getChapter() != null && comment.getChapter().getBook() != null
 				&& comment.getChapter().getBook().getAuthor() != null) {
-			ensureNotBlocked(currentUser, comment.getChapter().getBook().getAuthor().getId());
+			ensureNotBlocked(jwt, comment.getChapter().getBook().getAuthor().getId());
 		}
 		if (comment.getPost() != null && comment.getPost().getUser() != null) {
-			ensureNotBlocked(currentUser, comment.getPost().getUser().getId());
+			ensureNotBlocked(jwt, comment.getPost().getUser().getId());
 		}
 		if (comment.getParentComment() != null && comment.getParentComment().getUser() != null) {
-			ensureNotBlocked(currentUser, comment.getParentComment().getUser().getId());
+			ensureNotBlocked(jwt, comment.getParentComment().getUser().getId());
 		}
 	}
 
@@ -187,16 +171,16 @@ public class CommentController {
 			@RequestParam(defaultValue = "0") int page, @RequestParam(defaultValue = "10") int size,
 			@RequestHeader(value = "Authorization", required = false) String jwt) {
 		try {
-			User currentUser = resolveCurrentUser(jwt);
+			User currentUser = currentUserProvider.getUser(jwt);
 			if (currentUser != null) {
 				PostDTO post = postService.getPostById(postId);
 				if (post != null && post.getUser() != null) {
-					ensureNotBlocked(currentUser, post.getUser().getId());
+					ensureNotBlocked(jwt, post.getUser().getId());
 				}
 			}
 			Page<Comment> commentsPage = commentService.getPagerPostComments(page, size, postId);
 			List<CommentDTO> commentDTOs = commentMapper.mapToDTOs(commentsPage.getContent());
-			commentDTOs = filterCommentsForUser(commentDTOs, currentUser);
+			commentDTOs = filterCommentsForUser(commentDTOs, jwt);
 
 			if (currentUser != null) {
 				for (CommentDTO comment : commentDTOs) {
@@ -224,16 +208,16 @@ public class CommentController {
 			@RequestParam(defaultValue = "0") int page, @RequestParam(defaultValue = "10") int size,
 			@RequestHeader(value = "Authorization", required = false) String jwt) {
 		try {
-			User currentUser = resolveCurrentUser(jwt);
+			User currentUser = currentUserProvider.getUser(jwt);
 			if (currentUser != null) {
 				BookDTO book = bookService.getBookById(bookId);
 				if (book != null && book.getAuthor() != null) {
-					ensureNotBlocked(currentUser, book.getAuthor().getId());
+					ensureNotBlocked(jwt, book.getAuthor().getId());
 				}
 			}
 			Page<Comment> commentsPage = commentService.getPagerBookComments(page, size, bookId);
 			List<CommentDTO> commentDTOs = commentMapper.mapToDTOs(commentsPage.getContent());
-			commentDTOs = filterCommentsForUser(commentDTOs, currentUser);
+			commentDTOs = filterCommentsForUser(commentDTOs, jwt);
 
 			if (currentUser != null) {
 				for (CommentDTO comment : commentDTOs) {
@@ -269,16 +253,16 @@ public class CommentController {
 			@RequestParam(defaultValue = "0") int page, @RequestParam(defaultValue = "10") int size,
 			@RequestHeader(value = "Authorization", required = false) String jwt) {
 		try {
-			User currentUser = resolveCurrentUser(jwt);
+			User currentUser = currentUserProvider.getUser(jwt);
 			if (currentUser != null) {
 				Chapter chapter = chapterService.findChapterById(chapterId);
 				if (chapter != null && chapter.getBook() != null && chapter.getBook().getAuthor() != null) {
-					ensureNotBlocked(currentUser, chapter.getBook().getAuthor().getId());
+					ensureNotBlocked(jwt, chapter.getBook().getAuthor().getId());
 				}
 			}
 			Page<Comment> comments = commentService.getPagerChapterComments(page, size, chapterId);
 			List<CommentDTO> commentDTOs = commentMapper.mapToDTOs(comments.getContent());
-			commentDTOs = filterCommentsForUser(commentDTOs, currentUser);
+			commentDTOs = filterCommentsForUser(commentDTOs, jwt);
 
 			if (currentUser != null) {
 				for (CommentDTO comment : commentDTOs) {
@@ -311,7 +295,7 @@ public class CommentController {
 		}
 	}
 
-	private ResponseEntity<ApiResponseWithData<CommentDTO>> handleCommentCreation(User user,
+	private ResponseEntity<ApiResponseWithData<CommentDTO>> handleCommentCreation(String jwt, User user,
 			Supplier<Comment> commentCreator, String context, UUID entityId) {
 		try {
 			if (user == null) {
@@ -327,17 +311,17 @@ public class CommentController {
 			if ("book".equals(context) && entityId != null) {
 				book = bookService.getBookById(entityId);
 				if (book != null && book.getAuthor() != null) {
-					ensureNotBlocked(user, book.getAuthor().getId());
+					ensureNotBlocked(jwt, book.getAuthor().getId());
 				}
 			} else if ("chapter".equals(context) && entityId != null) {
 				chapter = chapterService.findChapterById(entityId);
 				if (chapter != null && chapter.getBook() != null && chapter.getBook().getAuthor() != null) {
-					ensureNotBlocked(user, chapter.getBook().getAuthor().getId());
+					ensureNotBlocked(jwt, chapter.getBook().getAuthor().getId());
 				}
 			} else if ("post".equals(context) && entityId != null) {
 				post = postService.getPostById(entityId);
 				if (post != null && post.getUser() != null) {
-					ensureNotBlocked(user, post.getUser().getId());
+					ensureNotBlocked(jwt, post.getUser().getId());
 				}
 			}
 			Comment newComment = commentCreator.get();
@@ -396,8 +380,8 @@ public class CommentController {
 	public ResponseEntity<ApiResponseWithData<CommentDTO>> createBookComment(@RequestHeader("Authorization") String jwt,
 			@RequestBody Comment comment,
 			@PathVariable("bookId") UUID bookId) {
-		User user = resolveCurrentUser(jwt);
-		return handleCommentCreation(user, () -> {
+		User user = currentUserProvider.getUser(jwt);
+		return handleCommentCreation(jwt, user, () -> {
 			try {
 				return commentService.createBookComment(comment, bookId, user);
 			} catch (Exception e) {
@@ -411,8 +395,8 @@ public class CommentController {
 	public ResponseEntity<ApiResponseWithData<CommentDTO>> createChapterComment(
 			@RequestHeader("Authorization") String jwt,
 			@RequestBody Comment comment, @PathVariable("chapterId") UUID chapterId) {
-		User user = resolveCurrentUser(jwt);
-		return handleCommentCreation(user, () -> {
+		User user = currentUserProvider.getUser(jwt);
+		return handleCommentCreation(jwt, user, () -> {
 			try {
 				return commentService.createChapterComment(comment, chapterId, user);
 			} catch (Exception e) {
@@ -426,8 +410,8 @@ public class CommentController {
 	public ResponseEntity<ApiResponseWithData<CommentDTO>> createPostComment(@RequestHeader("Authorization") String jwt,
 			@RequestBody Comment comment,
 			@PathVariable("postId") UUID postId) {
-		User user = resolveCurrentUser(jwt);
-		return handleCommentCreation(user, () -> {
+		User user = currentUserProvider.getUser(jwt);
+		return handleCommentCreation(jwt, user, () -> {
 			try {
 				return commentService.createPostComment(comment, postId, user);
 			} catch (Exception e) {
@@ -442,14 +426,14 @@ public class CommentController {
 			@PathVariable UUID parentCommentId,
 			@RequestHeader("Authorization") String jwt) {
 		try {
-			User user = resolveCurrentUser(jwt);
+			User user = currentUserProvider.getUser(jwt);
 			if (user == null) {
 				return buildErrorResponse(HttpStatus.UNAUTHORIZED,
 						"Authentication is required to perform this action.");
 			}
 			ensureUserCanComment(user);
 			Comment parentComment = commentService.findCommentById(parentCommentId);
-			ensureNotBlockedForComment(user, parentComment);
+			ensureNotBlockedForComment(jwt, parentComment);
 			Comment replyComment = commentService.createReplyBookComment(comment, parentCommentId, user);
 
 			// Notify the parent comment's author
@@ -475,14 +459,14 @@ public class CommentController {
 			@PathVariable UUID parentCommentId,
 			@RequestHeader("Authorization") String jwt) {
 		try {
-			User user = resolveCurrentUser(jwt);
+			User user = currentUserProvider.getUser(jwt);
 			if (user == null) {
 				return buildErrorResponse(HttpStatus.UNAUTHORIZED,
 						"Authentication is required to perform this action.");
 			}
 			ensureUserCanComment(user);
 			Comment parentComment = commentService.findCommentById(parentCommentId);
-			ensureNotBlockedForComment(user, parentComment);
+			ensureNotBlockedForComment(jwt, parentComment);
 			Comment replyComment = commentService.createReplyChapterComment(comment, parentCommentId, user);
 
 			// Notify the parent comment's author
@@ -510,14 +494,14 @@ public class CommentController {
 			@PathVariable UUID parentCommentId,
 			@RequestHeader("Authorization") String jwt) {
 		try {
-			User user = resolveCurrentUser(jwt);
+			User user = currentUserProvider.getUser(jwt);
 			if (user == null) {
 				return buildErrorResponse(HttpStatus.UNAUTHORIZED,
 						"Authentication is required to perform this action.");
 			}
 			ensureUserCanComment(user);
 			Comment parentComment = commentService.findCommentById(parentCommentId);
-			ensureNotBlockedForComment(user, parentComment);
+			ensureNotBlockedForComment(jwt, parentComment);
 			Comment replyComment = commentService.createReplyPostComment(comment, parentCommentId, user);
 
 			// Notify the parent comment's author
@@ -541,14 +525,14 @@ public class CommentController {
 	public ResponseEntity<ApiResponseWithData<CommentDTO>> likeComment(@RequestHeader("Authorization") String jwt,
 			@PathVariable("commentId") UUID commentId) throws Exception {
 		try {
-			User user = resolveCurrentUser(jwt);
+			User user = currentUserProvider.getUser(jwt);
 			if (user == null) {
 				return buildErrorResponse(HttpStatus.UNAUTHORIZED,
 						"Authentication is required to perform this action.");
 			}
 			ensureUserCanComment(user);
 			Comment comment = commentService.findCommentById(commentId);
-			ensureNotBlockedForComment(user, comment);
+			ensureNotBlockedForComment(jwt, comment);
 
 			Boolean isCommentLiked = commentService.likeComment(commentId, user.getId());
 			Comment updatedComment = commentService.findCommentById(commentId);
@@ -579,14 +563,14 @@ public class CommentController {
 	public ResponseEntity<ApiResponseWithData<CommentDTO>> editComment(@RequestHeader("Authorization") String jwt,
 			@PathVariable("commentId") UUID commentId, @RequestBody Comment comment) throws Exception {
 		try {
-			User user = resolveCurrentUser(jwt);
+			User user = currentUserProvider.getUser(jwt);
 			if (user == null) {
 				return buildErrorResponse(HttpStatus.UNAUTHORIZED,
 						"Authentication is required to perform this action.");
 			}
 			ensureUserCanComment(user);
 			Comment existingComment = commentService.findCommentById(commentId);
-			ensureNotBlockedForComment(user, existingComment);
+			ensureNotBlockedForComment(jwt, existingComment);
 			Comment editedComment = commentService.editComment(user.getId(), commentId, comment);
 
 			return buildSuccessResponse("Comment updated successfully.", commentMapper.mapToDTO(editedComment));
@@ -599,7 +583,7 @@ public class CommentController {
 	public ResponseEntity<ApiResponseWithData<UUID>> deleteComment(@RequestHeader("Authorization") String jwt,
 			@PathVariable("commentId") UUID commentId) throws Exception {
 		try {
-			User user = resolveCurrentUser(jwt);
+			User user = currentUserProvider.getUser(jwt);
 			if (user == null) {
 				return buildErrorResponse(HttpStatus.UNAUTHORIZED,
 						"Authentication is required to perform this action.");
@@ -607,7 +591,7 @@ public class CommentController {
 			ensureUserCanComment(user);
 
 			Comment comment = commentService.findCommentById(commentId); // Fetch before deletion
-			ensureNotBlockedForComment(user, comment);
+			ensureNotBlockedForComment(jwt, comment);
 			commentService.deleteComment(commentId, user.getId());
 
 			// Notify the comment's author or parent author if deleted by someone else
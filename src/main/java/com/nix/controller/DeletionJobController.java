@@ -0,0 +1,34 @@
+package com.nix.controller;
+
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.nix.config.CurrentUserProvider;
+import com.nix.dtos.DeletionJobDTO;
+import com.nix.models.User;
+import com.nix.response.ApiResponseWithData;
+import com.nix.service.CascadeDeletionService;
+
+@RestController
+public class DeletionJobController {
+
+	@Autowired
+	CascadeDeletionService cascadeDeletionService;
+
+	@Autowired
+	CurrentUserProvider currentUserProvider;
+
+	@GetMapping("/api/deletion-jobs/{jobId}")
+	public ResponseEntity<ApiResponseWithData<DeletionJobDTO>> getDeletionJob(@PathVariable UUID jobId,
+			@RequestHeader("Authorization") String jwt) {
+		User user = currentUserProvider.getUser(jwt);
+		DeletionJobDTO job = cascadeDeletionService.getJob(jobId, user);
+		return ResponseEntity.ok(new ApiResponseWithData<>("Deletion job retrieved successfully.", true, job));
+	}
+}
@@ -0,0 +1,34 @@
+package com.nix.controller;
+
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.nix.config.CurrentUserProvider;
+import com.nix.dtos.EpubImportJobDTO;
+import com.nix.models.User;
+import com.nix.response.ApiResponseWithData;
+import com.nix.service.EpubImportService;
+
+@RestController
+public class EpubImportJobController {
+
+	@Autowired
+	EpubImportService epubImportService;
+
+	@Autowired
+	CurrentUserProvider currentUserProvider;
+
+	@GetMapping("/api/epub-imports/{jobId}")
+	public ResponseEntity<ApiResponseWithData<EpubImportJobDTO>> getEpubImportJob(@PathVariable UUID jobId,
+			@RequestHeader("Authorization") String jwt) {
+		User user = currentUserProvider.getUser(jwt);
+		EpubImportJobDTO job = epubImportService.getJob(jobId, user);
+		return ResponseEntity.ok(new ApiResponseWithData<>("EPUB import job retrieved successfully.", true, job));
+	}
+}
@@ -20,6 +20,7 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.nix.config.CurrentUserProvider;
 import com.nix.dtos.PostDTO;
 import com.nix.exception.ResourceNotFoundException;
 import com.nix.exception.UnauthorizedException;
@@ -36,15 +37,8 @@ public class PostController {
 	@Autowired
 	private UserService userService;
 
-	/**
-	 * Helper method to extract the current user from JWT if present
-	 */
-	private User getCurrentUser(String jwt) {
-		if (jwt != null && !jwt.isEmpty()) {
-			return userService.findUserByJwt(jwt);
-		}
-		return null;
-	}
+	@Autowired
+	private CurrentUserProvider currentUserProvider;
 
 	private void ensureUserCanPublish(User user) {
 		if (user == null) {
@@ -77,7 +71,7 @@ public class PostController {
 			@RequestParam(defaultValue = "10") int size, @RequestParam(defaultValue = "timestamp,desc") String sort,
 			@RequestHeader(value = "Authorization", required = false) String jwt) {
 
-		User currentUser = getCurrentUser(jwt);
+		User currentUser = currentUserProvider.getUser(jwt);
 		Pageable pageable = PageRequest.of(page, size, parseSort(sort));
 		Page<PostDTO> postsPage = postService.getAllPosts(pageable, currentUser);
 		return buildSuccessResponse("Posts retrieved successfully.", postsPage);
@@ -87,7 +81,7 @@ public class PostController {
 	public ResponseEntity<ApiResponseWithData<PostDTO>> getPostById(@PathVariable UUID postId,
 			@RequestHeader(value = "Authorization", required = false) String jwt) {
 
-		User currentUser = getCurrentUser(jwt);
+		User currentUser = currentUserProvider.getUser(jwt);
 		PostDTO post = postService.getPostById(postId, currentUser);
 		return buildSuccessResponse("Post retrieved successfully.", post);
 	}
@@ -101,7 +95,7 @@ public class PostController {
 			throw new ResourceNotFoundException("Cannot find user with id: " + userId);
 		}
 
-		User currentUser = getCurrentUser(jwt);
+		User currentUser = currentUserProvider.getUser(jwt);
 		List<PostDTO> posts = postService.getPostsByUser(user, currentUser);
 		return buildSuccessResponse("Posts retrieved successfully.", posts);
 	}
@@ -109,7 +103,7 @@ public class PostController {
 	@PostMapping("/api/posts")
 	public ResponseEntity<ApiResponseWithData<PostDTO>> createPost(@RequestBody PostDTO postDTO,
 			@RequestHeader("Authorization") String jwt) {
-		User currentUser = getCurrentUser(jwt);
+		User currentUser = currentUserProvider.getUser(jwt);
 		ensureUserCanPublish(currentUser);
 		PostDTO createdPost = postService.createPost(currentUser, postDTO);
 		return buildSuccessResponse(HttpStatus.CREATED, "Post created successfully.", createdPost);
@@ -119,7 +113,7 @@ public class PostController {
 	public ResponseEntity<ApiResponseWithData<PostDTO>> updatePost(@PathVariable UUID id,
 			@RequestBody PostDTO postDetails,
 			@RequestHeader("Authorization") String jwt) {
-		User currentUser = getCurrentUser(jwt);
+		User currentUser = currentUserProvider.getUser(jwt);
 		ensureUserCanPublish(currentUser);
 		PostDTO updatedPost = postService.updatePost(currentUser, id, postDetails);
 		return buildSuccessResponse("Post updated successfully.", updatedPost);
@@ -128,7 +122,7 @@ public class PostController {
 	@DeleteMapping("/api/posts/{id}")
 	public ResponseEntity<ApiResponseWithData<Void>> deletePost(@PathVariable UUID id,
 			@RequestHeader("Authorization") String jwt) {
-		User currentUser = getCurrentUser(jwt);
+		User currentUser = currentUserProvider.getUser(jwt);
 		postService.deletePost(currentUser, id);
 		return buildSuccessResponse("Post deleted successfully.", null);
 	}
@@ -136,7 +130,7 @@ public class PostController {
 	@PostMapping("/api/posts/{postId}/like")
 	public ResponseEntity<ApiResponseWithData<PostDTO>> likePost(@PathVariable UUID postId,
 			@RequestHeader("Authorization") String jwt) {
-		User currentUser = getCurrentUser(jwt);
+		User currentUser = currentUserProvider.getUser(jwt);
 		if (currentUser == null) {
 			throw new ResourceNotFoundException("Cannot find user");
 		}
@@ -149,7 +143,7 @@ public class PostController {
 			@RequestBody PostDTO postDTO,
 			@RequestHeader("Authorization") String jwt) {
 
-		User currentUser = getCurrentUser(jwt);
+		User currentUser = currentUserProvider.getUser(jwt);
 		ensureUserCanPublish(currentUser);
 		PostDTO post = postService.createChapterSharePost(chapterId, currentUser, postDTO);
 
@@ -161,7 +155,7 @@ public class PostController {
 			@RequestBody PostDTO postDTO,
 			@RequestHeader("Authorization") String jwt) {
 
-		User currentUser = getCurrentUser(jwt);
+		User currentUser = currentUserProvider.getUser(jwt);
 		ensureUserCanPublish(currentUser);
 		PostDTO post = postService.createBookSharePost(bookId, currentUser, postDTO);
 
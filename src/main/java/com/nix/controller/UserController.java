@@ -17,6 +17,8 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.nix.config.CurrentUserProvider;
+import com.nix.dtos.BookRecommendationDTO;
 import com.nix.dtos.UserDTO;
 import com.nix.dtos.UserSummaryDTO;
 import com.nix.dtos.mappers.UserMapper;
@@ -24,6 +26,7 @@ import com.nix.dtos.mappers.UserSummaryMapper;
 import com.nix.exception.ResourceNotFoundException;
 import com.nix.models.User;
 import com.nix.response.ApiResponseWithData;
+import com.nix.service.BookRecommender;
 import com.nix.service.UserService;
 
 import io.jsonwebtoken.JwtException;
@@ -37,6 +40,12 @@ public class UserController {
 	@Autowired
 	UserService userService;
 
+	@Autowired
+	BookRecommender bookRecommender;
+
+	@Autowired
+	CurrentUserProvider currentUserProvider;
+
 	UserMapper userMapper = new UserMapper();
 
 	UserSummaryMapper userSummaryMapper = new UserSummaryMapper();
@@ -285,6 +294,26 @@ public class UserController {
 		}
 	}
 
+	@GetMapping("/api/user/recommendations")
+	public ResponseEntity<ApiResponseWithData<List<BookRecommendationDTO>>> getRecommendations(
+			@RequestHeader("Authorization") String jwt, @RequestParam(defaultValue = "20") int limit) {
+		try {
+			User user = userService.findUserByJwt(jwt);
+			if (user == null) {
+				return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+						.body(new ApiResponseWithData<>("User not found.", false));
+			}
+			List<BookRecommendationDTO> recommendations = bookRecommender.recommend(user.getId(), limit,
+					currentUserProvider.getHiddenUserIds(jwt));
+			return ResponseEntity.ok(new ApiResponseWithData<>("Recommendations retrieved successfully.", true,
+					recommendations));
+		} catch (Exception ex) {
+			logger.error("Error fetching recommendations", ex);
+			return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+					.body(new ApiResponseWithData<>("Error fetching recommendations.", false));
+		}
+	}
+
 	@GetMapping("/api/user/{userId}/followers")
 	public ResponseEntity<ApiResponseWithData<List<UserSummaryDTO>>> getFollowers(@PathVariable UUID userId) {
 		try {
@@ -17,6 +17,7 @@ public class BestBookAnalyticsDTO {
     private String authorName;
     private String coverImage;
     private Long viewCount;
+    private Long uniqueViewCount;
     private Long favouriteCount;
     private Double averageRating;
 }
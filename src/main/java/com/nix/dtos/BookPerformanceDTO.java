@@ -24,6 +24,9 @@ public class BookPerformanceDTO {
     private long dailyViewsGrowth;
     private long weeklyViewsGrowth;
     private long monthlyViewsGrowth;
+    private long dailyUniqueViews;
+    private long weeklyUniqueViews;
+    private long monthlyUniqueViews;
     private long dailyFavouritesGrowth;
     private long weeklyFavouritesGrowth;
     private long monthlyFavouritesGrowth;
@@ -0,0 +1,21 @@
+package com.nix.dtos;
+
+import java.util.UUID;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookRecommendationDTO {
+	private UUID id;
+	private String title;
+	private String authorName;
+	private ImageAttachmentDTO bookCover;
+	private long favouriteCount;
+	private double score;
+}
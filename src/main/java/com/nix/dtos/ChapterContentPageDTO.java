@@ -0,0 +1,19 @@
+package com.nix.dtos;
+
+import java.util.UUID;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChapterContentPageDTO {
+	private UUID chapterId;
+	private int page;
+	private int totalPages;
+	private String content;
+}
@@ -28,4 +28,19 @@ public class ChapterDTO {
 	private List<CommentDTO> comments;
 	private boolean isUnlockedByUser = false;
 	private boolean isLikedByCurrentUser = false;
+
+	// Listing projection; content and comments are never selected for lists.
+	public ChapterDTO(UUID id, String roomId, String chapterNum, String title, int price, UUID authorId,
+			boolean isLocked, boolean isDraft, LocalDateTime uploadDate, UUID bookId) {
+		this.id = id;
+		this.roomId = roomId;
+		this.chapterNum = chapterNum;
+		this.title = title;
+		this.price = price;
+		this.authorId = authorId;
+		this.isLocked = isLocked;
+		this.isDraft = isDraft;
+		this.uploadDate = uploadDate;
+		this.bookId = bookId;
+	}
 }
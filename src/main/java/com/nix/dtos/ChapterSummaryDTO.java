@@ -22,4 +22,16 @@ public class ChapterSummaryDTO {
 	private LocalDateTime uploadDate;
 	private UUID bookId;
 	private boolean isUnlockedByUser = false;
+
+	public ChapterSummaryDTO(UUID id, String chapterNum, String title, int price, UUID authorId, boolean isLocked,
+			LocalDateTime uploadDate, UUID bookId) {
+		this.id = id;
+		this.chapterNum = chapterNum;
+		this.title = title;
+		this.price = price;
+		this.authorId = authorId;
+		this.isLocked = isLocked;
+		this.uploadDate = uploadDate;
+		this.bookId = bookId;
+	}
 }
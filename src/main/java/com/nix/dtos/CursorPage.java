@@ -0,0 +1,22 @@
+package com.nix.dtos;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * One page of a keyset-paginated listing. There is no total count; pass
+ * nextCursor back as the cursor parameter to fetch the following page.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class CursorPage<T> {
+	private List<T> content;
+	private String nextCursor;
+	private boolean hasNext;
+}
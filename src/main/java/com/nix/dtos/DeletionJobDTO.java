@@ -0,0 +1,31 @@
+package com.nix.dtos;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import com.nix.models.DeletionJob.Status;
+import com.nix.models.DeletionJob.TargetType;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeletionJobDTO {
+	private UUID id;
+	private TargetType targetType;
+	private UUID targetId;
+	private Status status;
+	private String currentStep;
+	private int completedSteps;
+	private int totalSteps;
+	private long deletedRows;
+	private String failureReason;
+	private LocalDateTime createdAt;
+	private LocalDateTime updatedAt;
+	private LocalDateTime completedAt;
+}
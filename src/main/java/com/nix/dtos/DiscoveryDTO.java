@@ -0,0 +1,22 @@
+package com.nix.dtos;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Everything the landing page shows, returned by /discovery in one response.
+ * Instances are shared between requests and must not be modified.
+ */
+@Getter
+@AllArgsConstructor
+public class DiscoveryDTO {
+	private List<BookDTO> topLikedBooks;
+	private List<BookDTO> featuredBooks;
+	private List<BookDTO> trendingBooks;
+	private List<BookDTO> latestUpdateBooks;
+	private List<CategoryDTO> topCategories;
+	private LocalDateTime generatedAt;
+}
@@ -0,0 +1,32 @@
+package com.nix.dtos;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import com.nix.models.EpubImportJob.Status;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class EpubImportJobDTO {
+	private UUID id;
+	private UUID bookId;
+	private String fileName;
+	private Status status;
+	private int totalEntries;
+	private int processedEntries;
+	private int importedChapters;
+	private int skippedEntries;
+	private List<String> errors;
+	private String failureReason;
+	private LocalDateTime createdAt;
+	private LocalDateTime updatedAt;
+	private LocalDateTime completedAt;
+}
@@ -0,0 +1,20 @@
+package com.nix.dtos;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Cheap validator for a readable resource: the tag changes whenever the
+ * representation does, and the owner id lets callers run block checks before
+ * deciding whether to answer 304.
+ */
+@Getter
+@AllArgsConstructor
+public class ResourceVersion {
+	private String tag;
+	private UUID ownerId;
+	private LocalDateTime lastModified;
+}
@@ -1,18 +1,16 @@
 package com.nix.dtos.mappers;
 
-import java.util.Comparator;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
-import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.stereotype.Component;
 
 import com.nix.dtos.BookDTO;
 import com.nix.models.Book;
-import com.nix.models.Chapter;
-import com.nix.models.Rating;
 import com.nix.models.Tag;
-import com.nix.repository.BookFavouriteRepository;
 
 @Component
 public class BookMapper implements Mapper<Book, BookDTO> {
@@ -22,9 +20,6 @@ public class BookMapper implements Mapper<Book, BookDTO> {
 
 	UserSummaryMapper userSummaryMapper = new UserSummaryMapper();
 
-	@Autowired
-	private BookFavouriteRepository bookFavouriteRepository;
-
 	@Override
 	public BookDTO mapToDTO(Book book) {
 		BookDTO bookDTO = new BookDTO();
@@ -44,21 +39,14 @@ public class BookMapper implements Mapper<Book, BookDTO> {
 		bookDTO.setSuggested(book.isSuggested());
 		bookDTO.setStatus(book.getStatus());
 		bookDTO.setViewCount(book.getViewCount());
-		if (book.getRatings() != null && !book.getRatings().isEmpty()) {
-			double avgRating = book.getRatings().stream().mapToDouble(Rating::getRating).average().orElse(0.0);
-			bookDTO.setAvgRating(avgRating);
-			bookDTO.setRatingCount(book.getRatings().size());
-		} else {
-			bookDTO.setAvgRating(0.0);
-			bookDTO.setRatingCount(0);
-		}
-		long favCount = bookFavouriteRepository.countByBookId(book.getId());
-		bookDTO.setFavCount(Math.toIntExact(favCount));
+		// Aggregates come from the denormalized counters, no join tables are read
+		bookDTO.setAvgRating(book.getRatingCount() > 0 ? (double) book.getRatingTotal() / book.getRatingCount() : 0.0);
+		bookDTO.setRatingCount(Math.toIntExact(book.getRatingCount()));
+		bookDTO.setFavCount(Math.toIntExact(book.getFavouriteCount()));
 
-		bookDTO.setChapterCount(book.getChapters().size());
+		bookDTO.setChapterCount(Math.toIntExact(book.getChapterCount()));
 		bookDTO.setLanguage(book.getLanguage());
-		book.getChapters().stream().max(Comparator.comparing(Chapter::getUploadDate))
-				.ifPresent(latestChapter -> bookDTO.setLatestChapterNumber(latestChapter.getChapterNum()));
+		bookDTO.setLatestChapterNumber(book.getLatestChapterNum());
 		// Map categoryIds
 		if (book.getCategory() != null) {
 			bookDTO.setCategoryId(book.getCategory().getId());
@@ -78,7 +66,14 @@ public class BookMapper implements Mapper<Book, BookDTO> {
 
 	@Override
 	public List<BookDTO> mapToDTOs(List<Book> books) {
+		if (books == null || books.isEmpty()) {
+			return new ArrayList<>();
+		}
 		return books.stream().map(this::mapToDTO).collect(Collectors.toList());
 	}
 
+	public Page<BookDTO> mapToDTOs(Page<Book> books) {
+		return new PageImpl<>(mapToDTOs(books.getContent()), books.getPageable(), books.getTotalElements());
+	}
+
 }
@@ -0,0 +1,22 @@
+package com.nix.enums;
+
+/**
+ * Reader activity that feeds the trending ranking, with its weight relative to
+ * a single view.
+ */
+public enum TrendingSignal {
+	VIEW(1),
+	COMMENT(3),
+	FAVOURITE(5),
+	UNLOCK(8);
+
+	private final double weight;
+
+	TrendingSignal(double weight) {
+		this.weight = weight;
+	}
+
+	public double getWeight() {
+		return weight;
+	}
+}
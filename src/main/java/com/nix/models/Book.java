@@ -15,17 +15,24 @@ import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+// (key, id) indexes for each sort key of the keyset-paginated listing
 @Entity
+@Table(indexes = { @Index(name = "idx_book_title_id", columnList = "title, id"),
+		@Index(name = "idx_book_upload_date_id", columnList = "upload_date, id"),
+		@Index(name = "idx_book_view_count_id", columnList = "view_count, id"),
+		@Index(name = "idx_book_favourite_count_id", columnList = "favourite_count, id") })
 @Getter
 @Setter
 @AllArgsConstructor
@@ -52,11 +59,37 @@ public class Book implements Serializable {
 	})
 	private ImageAttachment bookCover;
 	private LocalDateTime uploadDate;
+	// Incremented in batches by BookViewCounter, never by flushing this entity.
+	@Column(updatable = false)
 	private long viewCount;
 	private String language;
 	private boolean isSuggested;
 	private String status;
 
+	// Denormalized counters. They are only changed through the atomic updates in
+	// BookRepository (never by flushing this entity), and
+	// BookCounterReconciliationJob repairs any drift.
+	@Column(nullable = false, updatable = false)
+	private long favouriteCount;
+	@Column(nullable = false, updatable = false)
+	private long chapterCount;
+	@Column(nullable = false, updatable = false)
+	private long ratingCount;
+	@Column(nullable = false, updatable = false)
+	private long ratingTotal;
+	@Column(nullable = false, updatable = false)
+	private long commentCount;
+	@Column(updatable = false)
+	private String latestChapterNum;
+
+	// Bumped through markModified() whenever the book's own fields are saved. The
+	// book ETag combines it with the counters above, which change independently.
+	@JsonIgnore
+	@Column(nullable = false, columnDefinition = "bigint default 0")
+	private long contentVersion;
+	@JsonIgnore
+	private LocalDateTime updatedAt;
+
 	@ManyToOne
 	private User author;
 
@@ -89,4 +122,8 @@ public class Book implements Serializable {
 	@OneToMany(mappedBy = "book", cascade = CascadeType.ALL, orphanRemoval = true)
 	private List<BookViewHistory> viewHistory = new ArrayList<>();
 
+	public void markModified() {
+		contentVersion++;
+		updatedAt = LocalDateTime.now();
+	}
 }
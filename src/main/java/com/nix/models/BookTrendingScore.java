@@ -0,0 +1,28 @@
+package com.nix.models;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Checkpoint of a book's decayed trending score as of {@code scoredAt}.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookTrendingScore {
+	@Id
+	private UUID bookId;
+
+	private double score;
+
+	private LocalDateTime scoredAt;
+}
@@ -5,9 +5,11 @@ import java.util.UUID;
 
 import org.hibernate.annotations.UuidGenerator;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
+import jakarta.persistence.Lob;
 import jakarta.persistence.ManyToOne;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -30,6 +32,13 @@ public class BookViewHistory {
     
     private LocalDateTime viewDate;
     private long dailyViewCount;
+
+    // HyperLogLog sketch of the day's distinct viewers and its cached estimate.
+    // Null for rows written before unique viewers were tracked.
+    @Lob
+    @Column(columnDefinition = "BLOB")
+    private byte[] uniqueViewerSketch;
+    private long uniqueViewCount;
     
     public BookViewHistory(Book book, LocalDateTime viewDate, long dailyViewCount) {
         this.book = book;
@@ -10,14 +10,20 @@ import org.hibernate.annotations.UuidGenerator;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
+import jakarta.persistence.AttributeOverride;
+import jakarta.persistence.AttributeOverrides;
+import jakarta.persistence.Basic;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
+import jakarta.persistence.Embedded;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.Transient;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -42,13 +48,53 @@ public class Chapter implements Serializable {
 	private String chapterNum;
 	private String title;
 
-	@Column(columnDefinition = "LONGTEXT")
+	// The body as received from or returned to clients. It is not persisted:
+	// ChapterContentService writes it to the content store (or to legacyContent
+	// while the store is disabled) and loads it back on demand.
+	@Transient
 	private String content;
 
+	// Bodies written before the content store, or while it is disabled. Lazy
+	// (through bytecode enhancement) so loading a chapter for anything but
+	// reading it does not pull the LONGTEXT body along.
+	@JsonIgnore
+	@Basic(fetch = FetchType.LAZY)
+	@Column(name = "content", columnDefinition = "LONGTEXT")
+	private String legacyContent;
+
+	@JsonIgnore
+	@Embedded
+	@AttributeOverrides({
+			@AttributeOverride(name = "segment", column = @Column(name = "content_segment")),
+			@AttributeOverride(name = "offset", column = @Column(name = "content_offset")),
+			@AttributeOverride(name = "length", column = @Column(name = "content_length"))
+	})
+	private ContentPointer contentPointer;
+
+	// SHA-256 of the UTF-8 body, wherever it is stored
+	@JsonIgnore
+	private String contentHash;
+
+	// Size of the UTF-8 body, and the byte offsets where each reading page starts
+	// (comma separated, split at paragraph ends when the body is written)
+	@JsonIgnore
+	private Long contentSize;
+	@JsonIgnore
+	@Column(columnDefinition = "TEXT")
+	private String contentPageOffsets;
+
 	private LocalDateTime uploadDate;
 	private int price;
 	private boolean isLocked;
 
+	// Bumped through markModified() on every edit or publish; the chapter ETag is
+	// derived from it so unchanged content is never re-sent.
+	@JsonIgnore
+	@Column(nullable = false, columnDefinition = "bigint default 0")
+	private long contentVersion;
+	@JsonIgnore
+	private LocalDateTime updatedAt;
+
 	@JsonIgnore
 	@ManyToOne
 	@JoinColumn(name = "book_id")
@@ -65,4 +111,9 @@ public class Chapter implements Serializable {
 	@JsonIgnore
 	@ManyToMany(mappedBy = "likedChapters")
 	private List<User> likedUsers = new ArrayList<>();
+
+	public void markModified() {
+		contentVersion++;
+		updatedAt = LocalDateTime.now();
+	}
 }
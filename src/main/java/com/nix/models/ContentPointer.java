@@ -0,0 +1,27 @@
+package com.nix.models;
+
+import java.io.Serializable;
+
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Location of a chapter body in the content store: the record starting at
+ * {@code offset} in segment file {@code segment}, {@code length} bytes long
+ * including its header.
+ */
+@Embeddable
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ContentPointer implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	private Integer segment;
+	private Long offset;
+	private Integer length;
+}
@@ -0,0 +1,85 @@
+package com.nix.models;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import org.hibernate.annotations.UuidGenerator;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * A book, chapter or user being deleted in the background. {@code stepIndex}
+ * is the next cleanup step to run, so an interrupted job picks up where it
+ * stopped. The instance running a job owns it and refreshes
+ * {@code heartbeatAt}; another instance only takes a job over once the
+ * heartbeat has expired.
+ */
+@Entity
+@Table(name = "deletion_jobs")
+@Getter
+@Setter
+@NoArgsConstructor
+public class DeletionJob {
+
+	@Id
+	@UuidGenerator
+	private UUID id;
+
+	@Enumerated(EnumType.STRING)
+	@Column(nullable = false)
+	private TargetType targetType;
+
+	@Column(nullable = false)
+	private UUID targetId;
+
+	private UUID requestedBy; // Null for admin deletions
+
+	@Enumerated(EnumType.STRING)
+	@Column(nullable = false)
+	private Status status = Status.PENDING;
+
+	private String owner;
+
+	private LocalDateTime heartbeatAt;
+
+	private int stepIndex;
+
+	private int totalSteps;
+
+	private String currentStep;
+
+	private long deletedRows;
+
+	private String failureReason;
+
+	private LocalDateTime createdAt;
+
+	private LocalDateTime updatedAt;
+
+	private LocalDateTime completedAt;
+
+	public DeletionJob(TargetType targetType, UUID targetId, UUID requestedBy, int totalSteps) {
+		this.targetType = targetType;
+		this.targetId = targetId;
+		this.requestedBy = requestedBy;
+		this.totalSteps = totalSteps;
+		this.createdAt = LocalDateTime.now();
+		this.updatedAt = this.createdAt;
+	}
+
+	public enum TargetType {
+		BOOK, CHAPTER, USER
+	}
+
+	public enum Status {
+		PENDING, RUNNING, COMPLETED, FAILED
+	}
+}
@@ -0,0 +1,88 @@
+package com.nix.models;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import org.hibernate.annotations.UuidGenerator;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * An uploaded EPUB being imported as draft chapters in the background.
+ * {@code nextEntry} is the next table-of-contents entry to import and is
+ * committed together with each chunk of chapters, so an interrupted job
+ * resumes without duplicating any. The instance running a job owns it and
+ * refreshes {@code heartbeatAt}; another instance only takes a job over once
+ * the heartbeat has expired.
+ */
+@Entity
+@Table(name = "epub_import_jobs")
+@Getter
+@Setter
+@NoArgsConstructor
+public class EpubImportJob {
+
+	@Id
+	@UuidGenerator
+	private UUID id;
+
+	@Column(nullable = false)
+	private UUID bookId;
+
+	@Column(nullable = false)
+	private UUID requestedBy;
+
+	private String fileName;
+
+	private String filePath; // Cleared once the upload has been removed
+
+	@Enumerated(EnumType.STRING)
+	@Column(nullable = false)
+	private Status status = Status.PENDING;
+
+	private String owner;
+
+	private LocalDateTime heartbeatAt;
+
+	private int totalEntries;
+
+	private int nextEntry;
+
+	private int importedChapters;
+
+	private int skippedEntries;
+
+	private int nextChapterNum;
+
+	@Column(columnDefinition = "TEXT")
+	private String errors; // One line per skipped entry
+
+	private String failureReason;
+
+	private LocalDateTime createdAt;
+
+	private LocalDateTime updatedAt;
+
+	private LocalDateTime completedAt;
+
+	public EpubImportJob(UUID bookId, UUID requestedBy, String fileName, int startChapterNum) {
+		this.bookId = bookId;
+		this.requestedBy = requestedBy;
+		this.fileName = fileName;
+		this.nextChapterNum = startChapterNum;
+		this.createdAt = LocalDateTime.now();
+		this.updatedAt = this.createdAt;
+	}
+
+	public enum Status {
+		PENDING, RUNNING, COMPLETED, FAILED
+	}
+}
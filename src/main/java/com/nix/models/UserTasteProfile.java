@@ -0,0 +1,33 @@
+package com.nix.models;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Lob;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * A reader's category and tag weights, kept up to date as they read and
+ * favourite books. See {@link com.nix.util.TasteVector} for the encoding.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserTasteProfile {
+	@Id
+	private UUID userId;
+
+	@Lob
+	@Column(columnDefinition = "BLOB")
+	private byte[] weights;
+
+	private LocalDateTime updatedAt;
+}
@@ -0,0 +1,130 @@
+package com.nix.repository;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+import org.springframework.data.domain.Sort;
+
+import com.nix.models.Book;
+
+/**
+ * Position in a keyset-paginated book listing: the sort key, the direction, and
+ * the sort value and id of the last book returned. Clients only see it as an
+ * opaque base64url token, and a token is only accepted with the sort it was
+ * issued for.
+ *
+ * Books whose sort value is null come before all others in ascending order
+ * and after them in descending order, as MySQL sorts them; their position is
+ * kept as a null value, which the token marks by leaving the value part out.
+ */
+public record BookCursor(String sortBy, Sort.Direction direction, Object value, UUID id) {
+
+	public static final String RELEVANCE = "relevance";
+
+	private static final Map<String, SortKey> SORT_KEYS = Map.of(
+			"id", new SortKey(UUID.class, Book::getId, false),
+			"title", new SortKey(String.class, Book::getTitle, true),
+			"uploadDate", new SortKey(LocalDateTime.class, Book::getUploadDate, true),
+			"viewCount", new SortKey(Long.class, Book::getViewCount, false),
+			"favouriteCount", new SortKey(Long.class, Book::getFavouriteCount, false),
+			RELEVANCE, new SortKey(Double.class, null, false));
+
+	/**
+	 * Decodes the token, or returns the position before the first book when the
+	 * token is blank.
+	 */
+	public static BookCursor decode(String token, String sortBy, Sort.Direction direction) {
+		SortKey sortKey = sortKey(sortBy);
+		if (token == null || token.isBlank()) {
+			return new BookCursor(sortBy, direction, null, null);
+		}
+		String[] parts;
+		try {
+			parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\\|", 4);
+		} catch (IllegalArgumentException e) {
+			throw new IllegalArgumentException("Invalid cursor.");
+		}
+		if (parts.length != 4 && !(parts.length == 3 && sortKey.nullable())) {
+			throw new IllegalArgumentException("Invalid cursor.");
+		}
+		if (!parts[0].equals(sortBy) || !parts[1].equals(direction.name())) {
+			throw new IllegalArgumentException("Cursor was issued for a different sort order.");
+		}
+		try {
+			Object value = parts.length == 4 ? sortKey.parse(parts[3]) : null;
+			return new BookCursor(sortBy, direction, value, UUID.fromString(parts[2]));
+		} catch (RuntimeException e) {
+			throw new IllegalArgumentException("Invalid cursor.");
+		}
+	}
+
+	/**
+	 * Whether books can be listed from the database by this key.
+	 */
+	public static boolean isSortableColumn(String sortBy) {
+		return SORT_KEYS.containsKey(sortBy) && !RELEVANCE.equals(sortBy);
+	}
+
+	public boolean isFirstPage() {
+		return id == null;
+	}
+
+	public boolean isKeyedById() {
+		return "id".equals(sortBy);
+	}
+
+	/**
+	 * Whether some books have no value for the sort key.
+	 */
+	public boolean isNullable() {
+		return sortKey(sortBy).nullable();
+	}
+
+	public BookCursor after(Book book) {
+		return new BookCursor(sortBy, direction, sortKey(sortBy).extractor().apply(book), book.getId());
+	}
+
+	public BookCursor after(UUID bookId, Object sortValue) {
+		return new BookCursor(sortBy, direction, sortValue, bookId);
+	}
+
+	public String encode() {
+		String raw = sortBy + "|" + direction.name() + "|" + id;
+		if (value != null || !isNullable()) {
+			raw += "|" + (value != null ? value : "");
+		}
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static SortKey sortKey(String sortBy) {
+		SortKey sortKey = SORT_KEYS.get(sortBy);
+		if (sortKey == null) {
+			throw new IllegalArgumentException("Unsupported sort key for cursor pagination: " + sortBy);
+		}
+		return sortKey;
+	}
+
+	private record SortKey(Class<?> type, Function<Book, Object> extractor, boolean nullable) {
+
+		Object parse(String raw) {
+			if (type == String.class) {
+				return raw;
+			}
+			if (type == LocalDateTime.class) {
+				return LocalDateTime.parse(raw);
+			}
+			if (type == Long.class) {
+				return Long.valueOf(raw);
+			}
+			if (type == Double.class) {
+				return Double.valueOf(raw);
+			}
+			// Keyed by id only; the id part of the token is the position.
+			return null;
+		}
+	}
+}
@@ -1,5 +1,6 @@
 package com.nix.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -29,4 +30,14 @@ public interface BookFavouriteRepository extends JpaRepository<BookFavourite, UU
 
 	@Query("SELECT bf.book.id FROM BookFavourite bf WHERE bf.user.id = :userId")
 	List<UUID> findBookIdsByUserId(@Param("userId") UUID userId);
+
+	/**
+	 * Favourite counts for several books at once, as [bookId, count] rows. Books
+	 * without favourites are absent from the result.
+	 */
+	@Query("SELECT bf.book.id, COUNT(bf) FROM BookFavourite bf WHERE bf.book.id IN :bookIds GROUP BY bf.book.id")
+	List<Object[]> countByBookIds(@Param("bookIds") Collection<UUID> bookIds);
+
+	@Query("SELECT bf.book.id, bf.user.id FROM BookFavourite bf WHERE bf.book.id IN :bookIds")
+	List<Object[]> findUserIdsByBookIds(@Param("bookIds") Collection<UUID> bookIds);
 }
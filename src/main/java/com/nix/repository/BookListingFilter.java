@@ -0,0 +1,25 @@
+package com.nix.repository;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Optional filters for keyset-paginated book listings. Null or empty values
+ * do not restrict the result.
+ */
+public record BookListingFilter(UUID authorId, Integer categoryId, List<Integer> tagIds, String titleContains,
+		Set<UUID> excludedAuthorIds) {
+
+	public static BookListingFilter all(Set<UUID> excludedAuthorIds) {
+		return new BookListingFilter(null, null, null, null, excludedAuthorIds);
+	}
+
+	public static BookListingFilter byAuthor(UUID authorId, Set<UUID> excludedAuthorIds) {
+		return new BookListingFilter(authorId, null, null, null, excludedAuthorIds);
+	}
+
+	public static BookListingFilter byCategory(Integer categoryId, Set<UUID> excludedAuthorIds) {
+		return new BookListingFilter(null, categoryId, null, null, excludedAuthorIds);
+	}
+}
@@ -1,19 +1,24 @@
 package com.nix.repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.nix.models.Book;
 import com.nix.models.Category;
 
-public interface BookRepository extends JpaRepository<Book, UUID> {
+public interface BookRepository extends JpaRepository<Book, UUID>, BookRepositoryCustom {
 
 	// Fetch the number of books uploaded in each month (grouped by year and month)
 	@Query("SELECT COUNT(b) " + "FROM Book b " + "GROUP BY YEAR(b.uploadDate), MONTH(b.uploadDate) "
@@ -25,7 +30,7 @@ public interface BookRepository extends JpaRepository<Book, UUID> {
 	@Query("select b from Book b where b.title LIKE %:title%")
 	public List<Book> findByTitle(String title);
 
-	@Query("SELECT b FROM Book b LEFT JOIN b.favourites fav GROUP BY b.id ORDER BY COUNT(fav) DESC")
+	@Query("SELECT b FROM Book b ORDER BY b.favouriteCount DESC")
 	public List<Book> findTopBooksByLikes(Pageable pageable);
 
 	List<Book> findByTitleContainingIgnoreCase(String title);
@@ -59,7 +64,10 @@ public interface BookRepository extends JpaRepository<Book, UUID> {
 	@Query("SELECT b FROM Book b ORDER BY b.viewCount DESC")
 	List<Book> findMostViewedBooks(Pageable pageable);
 
-	@Query("SELECT b FROM Book b LEFT JOIN b.favourites fav GROUP BY b ORDER BY COUNT(fav) DESC")
+	@Query("SELECT b.viewCount FROM Book b WHERE b.id = :bookId")
+	Optional<Long> findViewCountById(@Param("bookId") UUID bookId);
+
+	@Query("SELECT b FROM Book b ORDER BY b.favouriteCount DESC")
 	List<Book> findMostFavoriteBooks(Pageable pageable);
 
 	@Query("SELECT b FROM Book b LEFT JOIN ChapterUnlockRecord cur ON cur.chapter.book = b GROUP BY b ORDER BY COUNT(cur) DESC")
@@ -96,4 +104,83 @@ public interface BookRepository extends JpaRepository<Book, UUID> {
 	Page<Book> findFollowedBooksByUserIdExcludingAuthors(@Param("userId") UUID userId,
 			@Param("excludedAuthorIds") Set<UUID> excludedAuthorIds, Pageable pageable);
 
+	// Atomic counter updates; concurrent toggles never overwrite each other. The
+	// columns are not updatable, so a Book loaded earlier cannot write them back;
+	// callers that need the new values refresh that Book.
+	@Modifying(flushAutomatically = true)
+	@Transactional
+	@Query("UPDATE Book b SET b.favouriteCount = b.favouriteCount + :delta WHERE b.id = :bookId")
+	int adjustFavouriteCount(@Param("bookId") UUID bookId, @Param("delta") long delta);
+
+	@Modifying(flushAutomatically = true)
+	@Transactional
+	@Query("UPDATE Book b SET b.chapterCount = b.chapterCount + :delta WHERE b.id = :bookId")
+	int adjustChapterCount(@Param("bookId") UUID bookId, @Param("delta") long delta);
+
+	@Modifying(flushAutomatically = true)
+	@Transactional
+	@Query("UPDATE Book b SET b.ratingCount = b.ratingCount + :countDelta, "
+			+ "b.ratingTotal = b.ratingTotal + :totalDelta WHERE b.id = :bookId")
+	int adjustRatingStats(@Param("bookId") UUID bookId, @Param("countDelta") long countDelta,
+			@Param("totalDelta") long totalDelta);
+
+	@Modifying(flushAutomatically = true)
+	@Transactional
+	@Query("UPDATE Book b SET b.commentCount = b.commentCount + :delta WHERE b.id = :bookId")
+	int adjustCommentCount(@Param("bookId") UUID bookId, @Param("delta") long delta);
+
+	@Modifying(flushAutomatically = true)
+	@Transactional
+	@Query("UPDATE Book b SET b.latestChapterNum = :chapterNum WHERE b.id = :bookId")
+	int updateLatestChapterNum(@Param("bookId") UUID bookId, @Param("chapterNum") String chapterNum);
+
+	@Query("SELECT b.id, b.favouriteCount, b.chapterCount, b.ratingCount, b.ratingTotal, b.commentCount, "
+			+ "b.latestChapterNum FROM Book b WHERE b.id IN :bookIds")
+	List<Object[]> findCountersByBookIds(@Param("bookIds") Collection<UUID> bookIds);
+
+	@Query("SELECT b.id, b.category.id FROM Book b WHERE b.id IN :bookIds")
+	List<Object[]> findCategoryIdsByBookIds(@Param("bookIds") Collection<UUID> bookIds);
+
+	// Content features for the related-books rebuild; tags come from findTagIdsByBookIds
+	@Query("SELECT b.id, c.id, b.language FROM Book b LEFT JOIN b.category c")
+	Slice<Object[]> findFeatureRows(Pageable pageable);
+
+	@Query("SELECT b.id, t.id FROM Book b JOIN b.tags t WHERE b.id IN :bookIds")
+	List<Object[]> findTagIdsByBookIds(@Param("bookIds") Collection<UUID> bookIds);
+
+	@Query("SELECT b.id, b.title, b.authorName, b.bookCover.url, b.bookCover.isMild, b.author.id, b.favouriteCount "
+			+ "FROM Book b WHERE b.id IN :bookIds")
+	List<Object[]> findRecommendationRowsByIds(@Param("bookIds") Collection<UUID> bookIds);
+
+	// Everything BookMapper reads that can change without markModified(): the
+	// denormalized counters and the author summary.
+	@Query("SELECT b.contentVersion, b.viewCount, b.favouriteCount, b.chapterCount, b.ratingCount, b.ratingTotal, "
+			+ "b.commentCount, b.latestChapterNum, a.id, a.username, a.avatarUrl, a.bio, b.updatedAt "
+			+ "FROM Book b LEFT JOIN b.author a WHERE b.id = :bookId")
+	List<Object[]> findVersionRowById(@Param("bookId") UUID bookId);
+
+	@Modifying(flushAutomatically = true)
+	@Transactional
+	@Query("UPDATE Book b SET b.contentVersion = b.contentVersion + 1 WHERE b.category.id = :categoryId")
+	int bumpContentVersionByCategoryId(@Param("categoryId") Integer categoryId);
+
+	@Modifying(flushAutomatically = true)
+	@Transactional
+	@Query("UPDATE Book b SET b.contentVersion = b.contentVersion + 1 "
+			+ "WHERE EXISTS (SELECT t.id FROM b.tags t WHERE t.id = :tagId)")
+	int bumpContentVersionByTagId(@Param("tagId") Integer tagId);
+
+	@Query("SELECT b.id FROM Book b ORDER BY b.id")
+	Page<UUID> findAllIds(Pageable pageable);
+
+	@Modifying
+	@Transactional
+	@Query("UPDATE Book b SET b.favouriteCount = :favouriteCount, b.chapterCount = :chapterCount, "
+			+ "b.ratingCount = :ratingCount, b.ratingTotal = :ratingTotal, b.commentCount = :commentCount, "
+			+ "b.latestChapterNum = :latestChapterNum WHERE b.id = :bookId")
+	int overwriteCounters(@Param("bookId") UUID bookId, @Param("favouriteCount") long favouriteCount,
+			@Param("chapterCount") long chapterCount, @Param("ratingCount") long ratingCount,
+			@Param("ratingTotal") long ratingTotal, @Param("commentCount") long commentCount,
+			@Param("latestChapterNum") String latestChapterNum);
+
 }
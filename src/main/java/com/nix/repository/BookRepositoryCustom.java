@@ -0,0 +1,21 @@
+package com.nix.repository;
+
+import java.util.List;
+import java.util.UUID;
+
+import com.nix.models.Book;
+
+public interface BookRepositoryCustom {
+
+	/**
+	 * Books matching the filter that sort after the cursor position, in cursor
+	 * order, without an OFFSET or a count query.
+	 */
+	List<Book> findPageAfter(BookListingFilter filter, BookCursor cursor, int limit);
+
+	/**
+	 * Books with the given ids in the order of the ids. Ids of books that no
+	 * longer exist are skipped.
+	 */
+	List<Book> findAllByIdInOrder(List<UUID> bookIds);
+}
@@ -0,0 +1,115 @@
+package com.nix.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import com.nix.models.Book;
+import com.nix.models.Tag;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+
+public class BookRepositoryCustomImpl implements BookRepositoryCustom {
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Override
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public List<Book> findPageAfter(BookListingFilter filter, BookCursor cursor, int limit) {
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaQuery<Book> query = cb.createQuery(Book.class);
+		Root<Book> book = query.from(Book.class);
+		List<Predicate> predicates = new ArrayList<>();
+
+		if (filter.authorId() != null) {
+			predicates.add(cb.equal(book.get("author").get("id"), filter.authorId()));
+		}
+		if (filter.categoryId() != null) {
+			predicates.add(cb.equal(book.get("category").get("id"), filter.categoryId()));
+		}
+		if (filter.tagIds() != null && !filter.tagIds().isEmpty()) {
+			Subquery<UUID> tagged = query.subquery(UUID.class);
+			Root<Book> taggedBook = tagged.from(Book.class);
+			Join<Book, Tag> tag = taggedBook.join("tags");
+			tagged.select(taggedBook.get("id")).where(tag.get("id").in(filter.tagIds()));
+			predicates.add(book.get("id").in(tagged));
+		}
+		if (filter.titleContains() != null && !filter.titleContains().isBlank()) {
+			predicates.add(cb.like(cb.lower(book.get("title")),
+					"%" + filter.titleContains().toLowerCase() + "%"));
+		}
+		if (filter.excludedAuthorIds() != null && !filter.excludedAuthorIds().isEmpty()) {
+			predicates.add(cb.not(book.get("author").get("id").in(filter.excludedAuthorIds())));
+		}
+
+		Path<UUID> id = book.get("id");
+		boolean ascending = cursor.direction().isAscending();
+		if (cursor.isKeyedById()) {
+			if (!cursor.isFirstPage()) {
+				predicates.add(ascending ? cb.greaterThan(id, cursor.id()) : cb.lessThan(id, cursor.id()));
+			}
+			query.orderBy(ascending ? cb.asc(id) : cb.desc(id));
+		} else {
+			Path key = book.get(cursor.sortBy());
+			// (key, id) > (value, lastId), expanded because JPA has no row-value
+			// comparison. Null keys are matched with IS NULL in their own range
+			// rather than through COALESCE, so both ranges can use the (key, id)
+			// index.
+			if (!cursor.isFirstPage()) {
+				predicates.add(cursor.value() == null
+						? nullRangeAfter(cb, key, id, cursor, ascending)
+						: valueRangeAfter(cb, key, id, cursor, ascending));
+			}
+			// MySQL sorts nulls first ascending and last descending, matching the
+			// ranges above.
+			query.orderBy(ascending ? List.of(cb.asc(key), cb.asc(id)) : List.of(cb.desc(key), cb.desc(id)));
+		}
+
+		query.select(book).where(predicates.toArray(new Predicate[0]));
+		return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static Predicate valueRangeAfter(CriteriaBuilder cb, Path key, Path<UUID> id, BookCursor cursor,
+			boolean ascending) {
+		Comparable value = (Comparable) cursor.value();
+		if (ascending) {
+			return cb.or(cb.greaterThan(key, value), cb.and(cb.equal(key, value), cb.greaterThan(id, cursor.id())));
+		}
+		Predicate after = cb.or(cb.lessThan(key, value), cb.and(cb.equal(key, value), cb.lessThan(id, cursor.id())));
+		return cursor.isNullable() ? cb.or(after, cb.isNull(key)) : after;
+	}
+
+	private static Predicate nullRangeAfter(CriteriaBuilder cb, Path<?> key, Path<UUID> id, BookCursor cursor,
+			boolean ascending) {
+		if (ascending) {
+			return cb.or(cb.and(cb.isNull(key), cb.greaterThan(id, cursor.id())), cb.isNotNull(key));
+		}
+		return cb.and(cb.isNull(key), cb.lessThan(id, cursor.id()));
+	}
+
+	@Override
+	public List<Book> findAllByIdInOrder(List<UUID> bookIds) {
+		if (bookIds.isEmpty()) {
+			return List.of();
+		}
+		Map<UUID, Book> booksById = entityManager
+				.createQuery("SELECT b FROM Book b WHERE b.id IN :bookIds", Book.class)
+				.setParameter("bookIds", bookIds)
+				.getResultStream()
+				.collect(Collectors.toMap(Book::getId, book -> book));
+		return bookIds.stream().map(booksById::get).filter(Objects::nonNull).toList();
+	}
+}
@@ -0,0 +1,10 @@
+package com.nix.repository;
+
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.nix.models.BookTrendingScore;
+
+public interface BookTrendingScoreRepository extends JpaRepository<BookTrendingScore, UUID> {
+}
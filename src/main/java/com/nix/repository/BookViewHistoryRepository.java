@@ -1,6 +1,7 @@
 package com.nix.repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -27,7 +28,11 @@ public interface BookViewHistoryRepository extends JpaRepository<BookViewHistory
 	@Query("SELECT COALESCE(SUM(bvh.dailyViewCount), 0) FROM BookViewHistory bvh WHERE bvh.book = :book AND bvh.viewDate >= :startDate")
 	long getViewCountSince(@Param("book") Book book, @Param("startDate") LocalDateTime startDate);
 
-	@Query("SELECT bvh.book FROM BookViewHistory bvh WHERE bvh.viewDate >= :since GROUP BY bvh.book HAVING SUM(bvh.dailyViewCount) >= :minViews ORDER BY SUM(bvh.dailyViewCount) DESC")
+	// Ranks by distinct viewers per day so refresh spam does not inflate trending;
+	// rows from before unique viewers were tracked fall back to the raw count.
+	@Query("SELECT bvh.book FROM BookViewHistory bvh WHERE bvh.viewDate >= :since GROUP BY bvh.book "
+			+ "HAVING SUM(CASE WHEN bvh.uniqueViewerSketch IS NULL THEN bvh.dailyViewCount ELSE bvh.uniqueViewCount END) >= :minViews "
+			+ "ORDER BY SUM(CASE WHEN bvh.uniqueViewerSketch IS NULL THEN bvh.dailyViewCount ELSE bvh.uniqueViewCount END) DESC")
 	List<Book> findTrendingBooks(@Param("since") LocalDateTime since, @Param("minViews") long minViews,
 			Pageable pageable);
 
@@ -40,6 +45,16 @@ public interface BookViewHistoryRepository extends JpaRepository<BookViewHistory
 	@Query("DELETE FROM BookViewHistory bvh WHERE bvh.book = :book")
 	void deleteByBook(@Param("book") Book book);
 
+	@Query("SELECT bvh.book.id, bvh.uniqueViewerSketch FROM BookViewHistory bvh WHERE bvh.book.id IN :bookIds "
+			+ "AND bvh.viewDate >= :since AND bvh.uniqueViewerSketch IS NOT NULL")
+	List<Object[]> findViewerSketchesSince(@Param("bookIds") Collection<UUID> bookIds,
+			@Param("since") LocalDateTime since);
+
+	@Query("SELECT bvh.book.id, bvh.viewDate, "
+			+ "CASE WHEN bvh.uniqueViewerSketch IS NULL THEN bvh.dailyViewCount ELSE bvh.uniqueViewCount END "
+			+ "FROM BookViewHistory bvh WHERE bvh.viewDate >= :since")
+	List<Object[]> findDailyViewersSince(@Param("since") LocalDateTime since);
+
 	@Query("SELECT bvh.book, SUM(bvh.dailyViewCount) as totalViews FROM BookViewHistory bvh " +
 			"WHERE bvh.viewDate >= :startDate GROUP BY bvh.book ORDER BY totalViews DESC")
 	List<Object[]> findTopBooksByViewsInPeriod(@Param("startDate") LocalDateTime startDate, Pageable pageable);
@@ -1,5 +1,6 @@
 package com.nix.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -7,27 +8,73 @@ import java.util.UUID;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import com.nix.dtos.ChapterDTO;
+import com.nix.dtos.ChapterSummaryDTO;
 import com.nix.models.Book;
 import com.nix.models.Chapter;
 
+import jakarta.persistence.LockModeType;
+
 public interface ChapterRepository extends JpaRepository<Chapter, UUID> {
 	public Chapter findByTitle(String title);
 
-	public List<Chapter> findByBookIdOrderByUploadDateAsc(UUID bookId);
-
-	public List<Chapter> findByBookId(UUID bookId, Sort sort);
+	// Listings are projected straight into DTOs so they never select the content
+	// column. Sort properties resolve against the chapter alias.
+	@Query("SELECT new com.nix.dtos.ChapterDTO(c.id, c.roomId, c.chapterNum, c.title, c.price, a.id, c.isLocked, "
+			+ "c.isDraft, c.uploadDate, b.id) FROM Chapter c JOIN c.book b LEFT JOIN b.author a")
+	List<ChapterDTO> findAllListings();
 
-	@Query("select c from Chapter c where c.isDraft=false and c.book.id=:bookId order by c.uploadDate asc")
-	public List<Chapter> findNotDraftedChaptersByBookId(@Param("bookId") UUID bookId);
+	@Query("SELECT new com.nix.dtos.ChapterDTO(c.id, c.roomId, c.chapterNum, c.title, c.price, a.id, c.isLocked, "
+			+ "c.isDraft, c.uploadDate, b.id) FROM Chapter c JOIN c.book b LEFT JOIN b.author a WHERE b.id = :bookId")
+	List<ChapterDTO> findListingsByBookId(@Param("bookId") UUID bookId, Sort sort);
 
-	@Query("select c from Chapter c where c.isDraft=false and c.book.id=:bookId")
-	public List<Chapter> findNotDraftedChaptersByBookId(@Param("bookId") UUID bookId, Sort sort);
+	@Query("SELECT new com.nix.dtos.ChapterSummaryDTO(c.id, c.chapterNum, c.title, c.price, a.id, c.isLocked, "
+			+ "c.uploadDate, b.id) FROM Chapter c JOIN c.book b LEFT JOIN b.author a "
+			+ "WHERE c.isDraft = false AND b.id = :bookId")
+	List<ChapterSummaryDTO> findPublishedSummariesByBookId(@Param("bookId") UUID bookId, Sort sort);
 
 	Optional<Chapter> findByIdAndIsLocked(UUID id, boolean isLocked);
 
+	@Query("SELECT c.book.id, COUNT(c) FROM Chapter c WHERE c.isDraft = false AND c.book.id IN :bookIds "
+			+ "GROUP BY c.book.id")
+	List<Object[]> countPublishedByBookIds(@Param("bookIds") Collection<UUID> bookIds);
+
+	@Query("SELECT c.book.id, c.chapterNum FROM Chapter c WHERE c.isDraft = false AND c.book.id IN :bookIds "
+			+ "AND c.uploadDate = (SELECT MAX(c2.uploadDate) FROM Chapter c2 "
+			+ "WHERE c2.book = c.book AND c2.isDraft = false)")
+	List<Object[]> findLatestPublishedChapterNumsByBookIds(@Param("bookIds") Collection<UUID> bookIds);
+
+	// Chapters whose body is still in the legacy column, locked for the migration
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("SELECT c FROM Chapter c WHERE c.contentPointer.segment IS NULL AND c.legacyContent IS NOT NULL")
+	List<Chapter> findWithLegacyContentForUpdate(Pageable pageable);
+
+	// Stores a page layout computed on read, unless the body has changed since
+	@Modifying
+	@Query("UPDATE Chapter c SET c.contentSize = :size, c.contentPageOffsets = :offsets WHERE c.id = :chapterId "
+			+ "AND c.contentPageOffsets IS NULL AND (c.contentHash IS NULL OR c.contentHash = :hash)")
+	int saveMissingLayout(@Param("chapterId") UUID chapterId, @Param("size") long size,
+			@Param("offsets") String offsets, @Param("hash") String hash);
+
+	@Query("SELECT c.book.id FROM Chapter c WHERE c.id = :chapterId")
+	Optional<UUID> findBookIdById(@Param("chapterId") UUID chapterId);
+
+	@Query("SELECT c.contentVersion, COALESCE(c.updatedAt, c.uploadDate), a.id FROM Chapter c "
+			+ "LEFT JOIN c.book b LEFT JOIN b.author a WHERE c.id = :chapterId")
+	List<Object[]> findVersionRowById(@Param("chapterId") UUID chapterId);
+
+	// One row per existing book; the count and version sum change whenever a
+	// chapter is published, edited, unpublished or deleted.
+	@Query("SELECT a.id, COUNT(c), COALESCE(SUM(c.contentVersion), 0), MAX(COALESCE(c.updatedAt, c.uploadDate)) "
+			+ "FROM Book b LEFT JOIN b.author a LEFT JOIN b.chapters c ON c.isDraft = false "
+			+ "WHERE b.id = :bookId GROUP BY a.id")
+	List<Object[]> findPublishedVersionRowByBookId(@Param("bookId") UUID bookId);
+
 	@Query("select c.book b from Chapter c order by c.uploadDate DESC limit 5 ")
 	public List<Book> findTopByOrderByUploadDateDesc();
 
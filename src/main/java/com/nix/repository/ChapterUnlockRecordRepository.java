@@ -6,6 +6,7 @@ import java.util.UUID;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.nix.models.ChapterUnlockRecord;
 
@@ -16,4 +17,8 @@ public interface ChapterUnlockRecordRepository extends JpaRepository<ChapterUnlo
 
 	@Query("SELECT cur.chapter.id FROM ChapterUnlockRecord cur WHERE cur.user.id = :userId")
 	List<UUID> findChapterIdsByUserId(UUID userId);
+
+	@Query("SELECT cur.chapter.id FROM ChapterUnlockRecord cur "
+			+ "WHERE cur.user.id = :userId AND cur.chapter.book.id = :bookId")
+	List<UUID> findChapterIdsByUserIdAndBookId(@Param("userId") UUID userId, @Param("bookId") UUID bookId);
 }
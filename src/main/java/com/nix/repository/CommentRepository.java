@@ -1,6 +1,7 @@
 package com.nix.repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -40,6 +41,9 @@ public interface CommentRepository extends JpaRepository<Comment, UUID> {
 	@Query("SELECT COUNT(c) FROM Comment c WHERE c.book.id = :bookId")
 	public Long countCommentsByBookId(@Param("bookId") UUID bookId);
 
+	@Query("SELECT c.book.id, COUNT(c) FROM Comment c WHERE c.book.id IN :bookIds GROUP BY c.book.id")
+	public List<Object[]> countByBookIds(@Param("bookIds") Collection<UUID> bookIds);
+
 	@Query("SELECT c.user, COUNT(c) as commentCount FROM Comment c " +
 			"WHERE c.createdAt >= :startDate GROUP BY c.user ORDER BY commentCount DESC")
 	List<Object[]> findTopCommentingUsersInPeriod(@Param("startDate") LocalDateTime startDate, Pageable pageable);
@@ -0,0 +1,47 @@
+package com.nix.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.nix.models.DeletionJob;
+import com.nix.models.DeletionJob.Status;
+import com.nix.models.DeletionJob.TargetType;
+
+import jakarta.persistence.LockModeType;
+
+public interface DeletionJobRepository extends JpaRepository<DeletionJob, UUID> {
+
+	Optional<DeletionJob> findFirstByTargetTypeAndTargetIdAndStatusIn(TargetType targetType, UUID targetId,
+			Collection<Status> statuses);
+
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("SELECT j FROM DeletionJob j WHERE j.id = :id")
+	Optional<DeletionJob> findForUpdate(@Param("id") UUID id);
+
+	// Unfinished jobs whose owner has stopped sending heartbeats
+	@Query("SELECT j.id FROM DeletionJob j WHERE j.status IN :statuses "
+			+ "AND (j.heartbeatAt IS NULL OR j.heartbeatAt < :expiredBefore)")
+	List<UUID> findAbandonedIds(@Param("statuses") Collection<Status> statuses,
+			@Param("expiredBefore") LocalDateTime expiredBefore);
+
+	// Takes over an abandoned job; returns 0 when another instance got there first
+	@Modifying
+	@Query("UPDATE DeletionJob j SET j.owner = :owner, j.heartbeatAt = :now WHERE j.id = :id "
+			+ "AND j.status IN :statuses AND (j.heartbeatAt IS NULL OR j.heartbeatAt < :expiredBefore)")
+	int claim(@Param("id") UUID id, @Param("owner") String owner, @Param("now") LocalDateTime now,
+			@Param("statuses") Collection<Status> statuses, @Param("expiredBefore") LocalDateTime expiredBefore);
+
+	@Modifying
+	@Query("UPDATE DeletionJob j SET j.heartbeatAt = :now WHERE j.owner = :owner AND j.status IN :statuses")
+	int heartbeat(@Param("owner") String owner, @Param("now") LocalDateTime now,
+			@Param("statuses") Collection<Status> statuses);
+}
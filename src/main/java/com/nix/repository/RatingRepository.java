@@ -1,5 +1,6 @@
 package com.nix.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -17,6 +18,9 @@ public interface RatingRepository extends JpaRepository<Rating, UUID> {
 	
 	@Query("SELECT AVG(r.rating) FROM Rating r WHERE r.book.id = :bookId")
 	public Double getAverageRatingByBookId(@Param(value = "bookId") UUID bookId);
+
+	@Query("SELECT r.book.id, SUM(r.rating), COUNT(r) FROM Rating r WHERE r.book.id IN :bookIds GROUP BY r.book.id")
+	public List<Object[]> getRatingStatsByBookIds(@Param("bookIds") Collection<UUID> bookIds);
 	
 	@Query("select r from Rating r where r.book.id=:bookId and r.user.id=:userId")
 	public Rating findRatingByBookAndUserId(@Param(value="bookId")UUID bookId, @Param(value="userId")UUID userId);
@@ -24,6 +24,13 @@ public interface ReadingProgressRepository extends JpaRepository<ReadingProgress
 	public List<ReadingProgress> findReadingProgressByBookAndUserId(@Param(value = "bookId") UUID bookId,
 			@Param(value = "userId") UUID userId);
 
+	@Query("SELECT rp.chapter.book.id, SUM(rp.progress) FROM ReadingProgress rp WHERE rp.user.id = :userId "
+			+ "GROUP BY rp.chapter.book.id")
+	List<Object[]> findProgressTotalsByUserId(@Param("userId") UUID userId);
+
+	@Query("SELECT DISTINCT rp.chapter.book.id FROM ReadingProgress rp WHERE rp.user.id = :userId")
+	List<UUID> findBookIdsByUserId(@Param("userId") UUID userId);
+
 	@Query("SELECT rp.user, COUNT(rp) as readCount FROM ReadingProgress rp " +
 			"WHERE rp.lastReadAt >= :startDate GROUP BY rp.user ORDER BY readCount DESC")
 	List<Object[]> findMostActiveReadersInPeriod(@Param("startDate") LocalDateTime startDate, Pageable pageable);
@@ -0,0 +1,41 @@
+package com.nix.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.nix.models.UserTasteProfile;
+
+import jakarta.persistence.LockModeType;
+
+public interface UserTasteProfileRepository extends JpaRepository<UserTasteProfile, UUID> {
+
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("SELECT p FROM UserTasteProfile p WHERE p.userId = :userId")
+	Optional<UserTasteProfile> findForUpdate(@Param("userId") UUID userId);
+
+	/**
+	 * Creates an empty profile row unless one exists, so that a following
+	 * {@link #findForUpdate} always has a row to lock. The id is passed as its
+	 * BINARY(16) bytes.
+	 */
+	@Modifying
+	@Query(value = "INSERT INTO user_taste_profile (user_id, updated_at) VALUES (:userId, :now) "
+			+ "ON DUPLICATE KEY UPDATE user_id = user_id", nativeQuery = true)
+	int insertIfAbsent(@Param("userId") byte[] userId, @Param("now") LocalDateTime now);
+
+	/**
+	 * Drops the stored weights so the profiles are rebuilt from the database on
+	 * their next change.
+	 */
+	@Modifying
+	@Query("UPDATE UserTasteProfile p SET p.weights = NULL WHERE p.userId IN :userIds")
+	int clearWeights(@Param("userIds") Collection<UUID> userIds);
+}
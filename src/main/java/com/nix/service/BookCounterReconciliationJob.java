@@ -0,0 +1,123 @@
+package com.nix.service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.nix.config.TaskSchedulerConfig;
+import com.nix.repository.BookFavouriteRepository;
+import com.nix.repository.BookRepository;
+import com.nix.repository.ChapterRepository;
+import com.nix.repository.CommentRepository;
+import com.nix.repository.RatingRepository;
+
+/**
+ * Recomputes the denormalized counters on Book from the source tables and
+ * overwrites any that drifted (e.g. rows changed outside the service layer or a
+ * failed update). Also initializes the counters of books that existed before
+ * the columns were added.
+ */
+@Service
+public class BookCounterReconciliationJob {
+	private static final Logger logger = LoggerFactory.getLogger(BookCounterReconciliationJob.class);
+
+	@Autowired
+	private BookRepository bookRepository;
+
+	@Autowired
+	private BookFavouriteRepository bookFavouriteRepository;
+
+	@Autowired
+	private ChapterRepository chapterRepository;
+
+	@Autowired
+	private RatingRepository ratingRepository;
+
+	@Autowired
+	private CommentRepository commentRepository;
+
+	@Value("${app.books.counter-reconciliation.batch-size:500}")
+	private int batchSize;
+
+	@Scheduled(initialDelayString = "${app.books.counter-reconciliation.initial-delay-ms:60000}",
+			fixedDelayString = "${app.books.counter-reconciliation.interval-ms:21600000}",
+			scheduler = TaskSchedulerConfig.MAINTENANCE)
+	public void reconcileCounters() {
+		try {
+			int repaired = 0;
+			Page<UUID> page = bookRepository.findAllIds(PageRequest.of(0, batchSize));
+			while (true) {
+				if (!page.isEmpty()) {
+					repaired += reconcile(page.getContent());
+				}
+				if (!page.hasNext()) {
+					break;
+				}
+				page = bookRepository.findAllIds(page.nextPageable());
+			}
+			if (repaired > 0) {
+				logger.info("Repaired counters on {} books", repaired);
+			}
+		} catch (Exception e) {
+			logger.error("Error reconciling book counters", e);
+		}
+	}
+
+	private int reconcile(List<UUID> bookIds) {
+		Map<UUID, Long> favourites = toCountMap(bookFavouriteRepository.countByBookIds(bookIds));
+		Map<UUID, Long> chapters = toCountMap(chapterRepository.countPublishedByBookIds(bookIds));
+		Map<UUID, Long> comments = toCountMap(commentRepository.countByBookIds(bookIds));
+
+		Map<UUID, long[]> ratings = new HashMap<>();
+		for (Object[] row : ratingRepository.getRatingStatsByBookIds(bookIds)) {
+			ratings.put((UUID) row[0], new long[] { ((Number) row[1]).longValue(), ((Number) row[2]).longValue() });
+		}
+
+		Map<UUID, String> latestChapterNums = new HashMap<>();
+		for (Object[] row : chapterRepository.findLatestPublishedChapterNumsByBookIds(bookIds)) {
+			latestChapterNums.putIfAbsent((UUID) row[0], (String) row[1]);
+		}
+
+		int repaired = 0;
+		for (Object[] row : bookRepository.findCountersByBookIds(bookIds)) {
+			UUID bookId = (UUID) row[0];
+			long favouriteCount = favourites.getOrDefault(bookId, 0L);
+			long chapterCount = chapters.getOrDefault(bookId, 0L);
+			long[] rating = ratings.getOrDefault(bookId, new long[] { 0L, 0L });
+			long commentCount = comments.getOrDefault(bookId, 0L);
+			String latestChapterNum = latestChapterNums.get(bookId);
+
+			boolean inSync = ((Number) row[1]).longValue() == favouriteCount
+					&& ((Number) row[2]).longValue() == chapterCount
+					&& ((Number) row[3]).longValue() == rating[1]
+					&& ((Number) row[4]).longValue() == rating[0]
+					&& ((Number) row[5]).longValue() == commentCount
+					&& Objects.equals(row[6], latestChapterNum);
+			if (!inSync) {
+				bookRepository.overwriteCounters(bookId, favouriteCount, chapterCount, rating[1], rating[0],
+						commentCount, latestChapterNum);
+				repaired++;
+			}
+		}
+		return repaired;
+	}
+
+	private Map<UUID, Long> toCountMap(List<Object[]> rows) {
+		Map<UUID, Long> counts = new HashMap<>();
+		for (Object[] row : rows) {
+			counts.put((UUID) row[0], ((Number) row[1]).longValue());
+		}
+		return counts;
+	}
+}
@@ -0,0 +1,332 @@
+package com.nix.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.nix.config.TaskSchedulerConfig;
+import com.nix.dtos.BookRecommendationDTO;
+import com.nix.dtos.ImageAttachmentDTO;
+import com.nix.repository.BookFavouriteRepository;
+import com.nix.repository.BookRepository;
+import com.nix.repository.ReadingProgressRepository;
+import com.nix.util.UuidBytes;
+
+/**
+ * Item-to-item collaborative filtering over favourites and reading progress.
+ *
+ * A scheduled job reads every (user, book) interaction, with favourites
+ * weighing more than reads, and computes for each book its most similar books
+ * by cosine similarity of their reader vectors. The model is held in primitive
+ * arrays indexed by dense book numbers and swapped in whole.
+ *
+ * A user's recommendations are the sum of the neighbour lists of the books they
+ * have favourited or read, weighted like the interactions, minus those books.
+ * The user's books are read live with id-only queries, so new activity counts
+ * before the next rebuild; users without any activity get the trending books.
+ */
+@Service
+public class BookRecommender {
+	private static final Logger logger = LoggerFactory.getLogger(BookRecommender.class);
+
+	private static final float FAVOURITE_WEIGHT = 2.0f;
+	private static final float READ_WEIGHT = 1.0f;
+	private static final int NEIGHBOURS_PER_BOOK = 50;
+	// Readers with more books than this are skipped when counting co-occurrences;
+	// they cost quadratically and say little about any single pair.
+	private static final int MAX_BOOKS_PER_USER = 1000;
+	public static final int MAX_RECOMMENDATIONS = 50;
+
+	private final JdbcTemplate jdbcTemplate;
+	private final BookRepository bookRepository;
+	private final BookFavouriteRepository bookFavouriteRepository;
+	private final ReadingProgressRepository readingProgressRepository;
+	private final TrendingEngine trendingEngine;
+
+	private volatile Model model = new Model(Map.of(), new UUID[0], new int[0][], new float[0][]);
+
+	public BookRecommender(JdbcTemplate jdbcTemplate, BookRepository bookRepository,
+			BookFavouriteRepository bookFavouriteRepository, ReadingProgressRepository readingProgressRepository,
+			TrendingEngine trendingEngine) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.bookRepository = bookRepository;
+		this.bookFavouriteRepository = bookFavouriteRepository;
+		this.readingProgressRepository = readingProgressRepository;
+		this.trendingEngine = trendingEngine;
+	}
+
+	/**
+	 * Up to {@code limit} (at most {@link #MAX_RECOMMENDATIONS}) books for the
+	 * user, best first, without books by the excluded authors.
+	 */
+	public List<BookRecommendationDTO> recommend(UUID userId, int limit, Set<UUID> excludedAuthorIds) {
+		int size = Math.max(1, Math.min(limit, MAX_RECOMMENDATIONS));
+		Map<UUID, Float> interactions = new HashMap<>();
+		readingProgressRepository.findBookIdsByUserId(userId)
+				.forEach(bookId -> interactions.put(bookId, READ_WEIGHT));
+		bookFavouriteRepository.findBookIdsByUserId(userId)
+				.forEach(bookId -> interactions.put(bookId, FAVOURITE_WEIGHT));
+
+		Model current = model;
+		Map<Integer, Double> scores = new HashMap<>();
+		interactions.forEach((bookId, weight) -> {
+			Integer book = current.bookIndex().get(bookId);
+			if (book != null) {
+				int[] neighbours = current.neighbours()[book];
+				float[] similarities = current.similarities()[book];
+				for (int i = 0; i < neighbours.length; i++) {
+					scores.merge(neighbours[i], (double) weight * similarities[i], Double::sum);
+				}
+			}
+		});
+
+		// Over-fetched so that enough remain after dropping the user's own books
+		// and hidden authors.
+		Map<UUID, Double> ranked = new HashMap<>();
+		scores.entrySet().stream()
+				.map(entry -> Map.entry(current.books()[entry.getKey()], entry.getValue()))
+				.filter(entry -> !interactions.containsKey(entry.getKey()))
+				.sorted(Map.Entry.<UUID, Double>comparingByValue().reversed().thenComparing(Map.Entry::getKey))
+				.limit(size * 2L)
+				.forEach(entry -> ranked.put(entry.getKey(), entry.getValue()));
+		if (ranked.isEmpty()) {
+			trendingEngine.top(size * 2).stream()
+					.filter(bookId -> !interactions.containsKey(bookId))
+					.forEach(bookId -> ranked.put(bookId, 0.0));
+		}
+		if (ranked.isEmpty()) {
+			return List.of();
+		}
+
+		List<BookRecommendationDTO> recommendations = new ArrayList<>();
+		for (Object[] row : bookRepository.findRecommendationRowsByIds(ranked.keySet())) {
+			UUID authorId = (UUID) row[5];
+			if (excludedAuthorIds != null && authorId != null && excludedAuthorIds.contains(authorId)) {
+				continue;
+			}
+			UUID bookId = (UUID) row[0];
+			ImageAttachmentDTO cover = row[3] != null
+					? new ImageAttachmentDTO((String) row[3], (Boolean) row[4])
+					: null;
+			recommendations.add(new BookRecommendationDTO(bookId, (String) row[1], (String) row[2], cover,
+					(Long) row[6], ranked.get(bookId)));
+		}
+		recommendations.sort(Comparator.comparingDouble(BookRecommendationDTO::getScore).reversed()
+				.thenComparing(BookRecommendationDTO::getId));
+		return recommendations.size() > size ? recommendations.subList(0, size) : recommendations;
+	}
+
+	@Scheduled(initialDelayString = "${app.recommendations.initial-delay-ms:30000}",
+			fixedDelayString = "${app.recommendations.rebuild-interval-ms:3600000}",
+			scheduler = TaskSchedulerConfig.MAINTENANCE)
+	public void rebuild() {
+		try {
+			long start = System.currentTimeMillis();
+			Model rebuilt = buildModel();
+			model = rebuilt;
+			logger.info("Rebuilt book recommendations for {} books in {} ms", rebuilt.books().length,
+					System.currentTimeMillis() - start);
+		} catch (Exception e) {
+			logger.error("Failed to rebuild book recommendations", e);
+		}
+	}
+
+	private Model buildModel() {
+		Interactions interactions = new Interactions();
+		jdbcTemplate.query("SELECT DISTINCT rp.user_id, c.book_id FROM reading_progress rp "
+				+ "JOIN chapter c ON c.id = rp.chapter_id",
+				rs -> interactions.add(rs.getBytes(1), rs.getBytes(2), READ_WEIGHT));
+		jdbcTemplate.query("SELECT user_id, book_id FROM book_favourite",
+				rs -> interactions.add(rs.getBytes(1), rs.getBytes(2), FAVOURITE_WEIGHT));
+
+		int bookCount = interactions.bookIds.size();
+		int userCount = interactions.userIndex.size();
+		// Compressed rows: the books of each user, and the users of each book.
+		SparseRows byUser = SparseRows.of(userCount, interactions.size, interactions.users, interactions.books,
+				interactions.weights);
+		SparseRows byBook = SparseRows.of(bookCount, interactions.size, interactions.books, interactions.users,
+				interactions.weights);
+
+		double[] norms = new double[bookCount];
+		for (int book = 0; book < bookCount; book++) {
+			double sum = 0;
+			for (int k = byBook.offsets[book]; k < byBook.offsets[book + 1]; k++) {
+				sum += (double) byBook.weights[k] * byBook.weights[k];
+			}
+			norms[book] = Math.sqrt(sum);
+		}
+
+		int[][] neighbours = new int[bookCount][];
+		float[][] similarities = new float[bookCount][];
+		double[] cooccurrence = new double[bookCount];
+		int[] touched = new int[bookCount];
+		for (int book = 0; book < bookCount; book++) {
+			int touchedCount = 0;
+			for (int k = byBook.offsets[book]; k < byBook.offsets[book + 1]; k++) {
+				int user = byBook.columns[k];
+				int from = byUser.offsets[user];
+				int to = byUser.offsets[user + 1];
+				if (to - from > MAX_BOOKS_PER_USER) {
+					continue;
+				}
+				for (int j = from; j < to; j++) {
+					int other = byUser.columns[j];
+					if (other == book) {
+						continue;
+					}
+					if (cooccurrence[other] == 0) {
+						touched[touchedCount++] = other;
+					}
+					cooccurrence[other] += (double) byBook.weights[k] * byUser.weights[j];
+				}
+			}
+
+			TopNeighbours top = new TopNeighbours(Math.min(NEIGHBOURS_PER_BOOK, touchedCount));
+			for (int t = 0; t < touchedCount; t++) {
+				int other = touched[t];
+				top.offer(other, (float) (cooccurrence[other] / (norms[book] * norms[other])));
+				cooccurrence[other] = 0;
+			}
+			neighbours[book] = top.books();
+			similarities[book] = top.similarities();
+		}
+
+		Map<UUID, Integer> bookIndex = new HashMap<>(interactions.bookIndex);
+		return new Model(bookIndex, interactions.bookIds.toArray(new UUID[0]), neighbours, similarities);
+	}
+
+	private record Model(Map<UUID, Integer> bookIndex, UUID[] books, int[][] neighbours, float[][] similarities) {
+	}
+
+	/**
+	 * Interactions as parallel primitive arrays of dense user and book numbers.
+	 * A pair seen twice keeps the larger weight when the rows are built.
+	 */
+	private static final class Interactions {
+		private final Map<UUID, Integer> userIndex = new HashMap<>();
+		private final Map<UUID, Integer> bookIndex = new HashMap<>();
+		private final List<UUID> bookIds = new ArrayList<>();
+		private int[] users = new int[1024];
+		private int[] books = new int[1024];
+		private float[] weights = new float[1024];
+		private int size;
+
+		void add(byte[] userId, byte[] bookId, float weight) {
+			if (size == users.length) {
+				users = Arrays.copyOf(users, size * 2);
+				books = Arrays.copyOf(books, size * 2);
+				weights = Arrays.copyOf(weights, size * 2);
+			}
+			users[size] = userIndex.computeIfAbsent(UuidBytes.fromBytes(userId), id -> userIndex.size());
+			books[size] = bookIndex.computeIfAbsent(UuidBytes.fromBytes(bookId), id -> {
+				bookIds.add(id);
+				return bookIds.size() - 1;
+			});
+			weights[size] = weight;
+			size++;
+		}
+	}
+
+	/**
+	 * Compressed sparse rows: the columns and weights of row r are at
+	 * [offsets[r], offsets[r + 1]), sorted by column, with duplicate columns
+	 * merged by keeping the larger weight.
+	 */
+	private static final class SparseRows {
+		private final int[] offsets;
+		private final int[] columns;
+		private final float[] weights;
+
+		private SparseRows(int[] offsets, int[] columns, float[] weights) {
+			this.offsets = offsets;
+			this.columns = columns;
+			this.weights = weights;
+		}
+
+		static SparseRows of(int rowCount, int size, int[] rows, int[] columns, float[] weights) {
+			int[] offsets = new int[rowCount + 1];
+			for (int i = 0; i < size; i++) {
+				offsets[rows[i] + 1]++;
+			}
+			for (int r = 0; r < rowCount; r++) {
+				offsets[r + 1] += offsets[r];
+			}
+			int[] next = Arrays.copyOf(offsets, rowCount);
+			long[] packed = new long[size];
+			for (int i = 0; i < size; i++) {
+				// Column in the high bits so sorting a row orders it by column.
+				packed[next[rows[i]]++] = ((long) columns[i] << 32)
+						| (Float.floatToIntBits(weights[i]) & 0xffffffffL);
+			}
+
+			int[] mergedOffsets = new int[rowCount + 1];
+			int[] mergedColumns = new int[size];
+			float[] mergedWeights = new float[size];
+			int count = 0;
+			for (int r = 0; r < rowCount; r++) {
+				Arrays.sort(packed, offsets[r], offsets[r + 1]);
+				for (int i = offsets[r]; i < offsets[r + 1]; i++) {
+					int column = (int) (packed[i] >>> 32);
+					float weight = Float.intBitsToFloat((int) packed[i]);
+					if (count > mergedOffsets[r] && mergedColumns[count - 1] == column) {
+						mergedWeights[count - 1] = Math.max(mergedWeights[count - 1], weight);
+					} else {
+						mergedColumns[count] = column;
+						mergedWeights[count] = weight;
+						count++;
+					}
+				}
+				mergedOffsets[r + 1] = count;
+			}
+			return new SparseRows(mergedOffsets, mergedColumns, mergedWeights);
+		}
+	}
+
+	/**
+	 * Fixed-size list of the most similar books seen so far, kept sorted with the
+	 * most similar first.
+	 */
+	private static final class TopNeighbours {
+		private final int[] books;
+		private final float[] similarities;
+		private int size;
+
+		TopNeighbours(int capacity) {
+			this.books = new int[capacity];
+			this.similarities = new float[capacity];
+		}
+
+		void offer(int book, float similarity) {
+			if (books.length == 0 || (size == books.length && similarity <= similarities[size - 1])) {
+				return;
+			}
+			int position = size < books.length ? size++ : size - 1;
+			while (position > 0 && similarities[position - 1] < similarity) {
+				books[position] = books[position - 1];
+				similarities[position] = similarities[position - 1];
+				position--;
+			}
+			books[position] = book;
+			similarities[position] = similarity;
+		}
+
+		int[] books() {
+			return Arrays.copyOf(books, size);
+		}
+
+		float[] similarities() {
+			return Arrays.copyOf(similarities, size);
+		}
+	}
+}
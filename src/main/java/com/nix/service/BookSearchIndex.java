@@ -0,0 +1,358 @@
+package com.nix.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.nix.config.TaskSchedulerConfig;
+import com.nix.models.Book;
+import com.nix.models.Tag;
+import com.nix.repository.BookRepository;
+
+/**
+ * In-memory inverted index over the searchable text of every book: title,
+ * author and artist names, description, tag names and category name. Results
+ * are ranked with BM25 using per-field boosts; the last query term also matches
+ * as a prefix, and text is folded to lower-case ASCII so Vietnamese queries
+ * match with or without diacritics.
+ *
+ * Book writes update the index after their transaction commits. The whole index
+ * is rebuilt from the database on startup and periodically, which also picks up
+ * renamed tags and categories.
+ */
+@Service
+public class BookSearchIndex {
+	private static final Logger logger = LoggerFactory.getLogger(BookSearchIndex.class);
+
+	private static final double TITLE_BOOST = 3.0;
+	private static final double AUTHOR_BOOST = 2.0;
+	private static final double ARTIST_BOOST = 1.5;
+	private static final double TAG_BOOST = 2.0;
+	private static final double CATEGORY_BOOST = 1.5;
+	private static final double DESCRIPTION_BOOST = 1.0;
+
+	private static final double K1 = 1.2;
+	private static final double B = 0.75;
+	private static final double PREFIX_MATCH_WEIGHT = 0.5;
+	private static final int MAX_PREFIX_EXPANSIONS = 64;
+	private static final int REBUILD_PAGE_SIZE = 500;
+
+	private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+	private static final Pattern TOKEN_SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+	private final BookRepository bookRepository;
+	private final TransactionTemplate readOnlyTransaction;
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+	private Segment segment = new Segment();
+	private boolean ready;
+	// Changes applied while a rebuild is running; replayed onto the new segment.
+	private Map<UUID, IndexedBook> changesDuringRebuild;
+
+	public BookSearchIndex(BookRepository bookRepository, PlatformTransactionManager transactionManager) {
+		this.bookRepository = bookRepository;
+		this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+		this.readOnlyTransaction.setReadOnly(true);
+	}
+
+	/**
+	 * Whether the initial build has completed. Until then callers should fall
+	 * back to the database.
+	 */
+	public boolean isReady() {
+		lock.readLock().lock();
+		try {
+			return ready;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Indexes (or re-indexes) the book. The document is built immediately, so
+	 * lazy associations must still be loadable, and applied after the current
+	 * transaction commits.
+	 */
+	public void index(Book book) {
+		IndexedBook document = toDocument(book);
+		afterCommit(() -> apply(document.id(), document));
+	}
+
+	public void remove(UUID bookId) {
+		afterCommit(() -> apply(bookId, null));
+	}
+
+	/**
+	 * Books matching every term of the query, ordered by {@link SearchHit#RANKING}.
+	 * The category, tag and author filters are applied on the index.
+	 */
+	public List<SearchHit> search(String query, Integer categoryId, Collection<Integer> tagIds,
+			Set<UUID> excludedAuthorIds) {
+		List<String> terms = tokenize(query);
+		if (terms.isEmpty()) {
+			return List.of();
+		}
+
+		lock.readLock().lock();
+		try {
+			Map<UUID, Double> scores = null;
+			for (int i = 0; i < terms.size(); i++) {
+				Map<UUID, Double> termScores = segment.score(terms.get(i), i == terms.size() - 1);
+				if (scores == null) {
+					scores = termScores;
+				} else {
+					scores.keySet().retainAll(termScores.keySet());
+					scores.replaceAll((bookId, score) -> score + termScores.get(bookId));
+				}
+				if (scores.isEmpty()) {
+					return List.of();
+				}
+			}
+
+			List<SearchHit> hits = new ArrayList<>();
+			for (Map.Entry<UUID, Double> match : scores.entrySet()) {
+				IndexedBook document = segment.documents.get(match.getKey());
+				if (document.matches(categoryId, tagIds, excludedAuthorIds)) {
+					hits.add(new SearchHit(match.getKey(), match.getValue()));
+				}
+			}
+			hits.sort(SearchHit.RANKING);
+			return hits;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	@Scheduled(fixedDelayString = "${app.search.rebuild-interval-ms:3600000}",
+			scheduler = TaskSchedulerConfig.MAINTENANCE)
+	public void rebuild() {
+		lock.writeLock().lock();
+		try {
+			changesDuringRebuild = new HashMap<>();
+		} finally {
+			lock.writeLock().unlock();
+		}
+
+		Segment rebuilt = new Segment();
+		try {
+			int pageNumber = 0;
+			boolean hasNext = true;
+			while (hasNext) {
+				PageRequest pageRequest = PageRequest.of(pageNumber++, REBUILD_PAGE_SIZE, Sort.by("id"));
+				hasNext = Boolean.TRUE.equals(readOnlyTransaction.execute(status -> {
+					Page<Book> page = bookRepository.findAll(pageRequest);
+					page.forEach(book -> rebuilt.add(toDocument(book)));
+					return page.hasNext();
+				}));
+			}
+		} catch (Exception e) {
+			logger.error("Failed to rebuild the book search index", e);
+			lock.writeLock().lock();
+			try {
+				changesDuringRebuild = null;
+			} finally {
+				lock.writeLock().unlock();
+			}
+			return;
+		}
+
+		lock.writeLock().lock();
+		try {
+			changesDuringRebuild.forEach((bookId, document) -> rebuilt.replace(bookId, document));
+			changesDuringRebuild = null;
+			segment = rebuilt;
+			ready = true;
+		} finally {
+			lock.writeLock().unlock();
+		}
+		logger.info("Rebuilt the book search index with {} books and {} terms", rebuilt.documents.size(),
+				rebuilt.postings.size());
+	}
+
+	private void apply(UUID bookId, IndexedBook document) {
+		lock.writeLock().lock();
+		try {
+			segment.replace(bookId, document);
+			if (changesDuringRebuild != null) {
+				changesDuringRebuild.put(bookId, document);
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	private static void afterCommit(Runnable action) {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					action.run();
+				}
+			});
+		} else {
+			action.run();
+		}
+	}
+
+	static IndexedBook toDocument(Book book) {
+		Map<String, Double> termWeights = new HashMap<>();
+		addField(termWeights, book.getTitle(), TITLE_BOOST);
+		addField(termWeights, book.getAuthorName(), AUTHOR_BOOST);
+		addField(termWeights, book.getArtistName(), ARTIST_BOOST);
+		addField(termWeights, book.getDescription(), DESCRIPTION_BOOST);
+
+		Set<Integer> tagIds = new HashSet<>();
+		if (book.getTags() != null) {
+			for (Tag tag : book.getTags()) {
+				tagIds.add(tag.getId());
+				addField(termWeights, tag.getName(), TAG_BOOST);
+			}
+		}
+		Integer categoryId = null;
+		if (book.getCategory() != null) {
+			categoryId = book.getCategory().getId();
+			addField(termWeights, book.getCategory().getName(), CATEGORY_BOOST);
+		}
+
+		double length = termWeights.values().stream().mapToDouble(Double::doubleValue).sum();
+		UUID authorId = book.getAuthor() != null ? book.getAuthor().getId() : null;
+		return new IndexedBook(book.getId(), authorId, categoryId, tagIds, termWeights, length);
+	}
+
+	private static void addField(Map<String, Double> termWeights, String text, double boost) {
+		for (String term : tokenize(text)) {
+			termWeights.merge(term, boost, Double::sum);
+		}
+	}
+
+	/**
+	 * Lower-cases the text, strips diacritics (including Vietnamese "đ") and
+	 * splits it on anything that is not a letter or digit.
+	 */
+	static List<String> tokenize(String text) {
+		if (text == null || text.isBlank()) {
+			return List.of();
+		}
+		String folded = text.toLowerCase(Locale.ROOT).replace('đ', 'd');
+		folded = COMBINING_MARKS.matcher(Normalizer.normalize(folded, Normalizer.Form.NFD)).replaceAll("");
+		List<String> terms = new ArrayList<>();
+		for (String term : TOKEN_SEPARATORS.split(folded)) {
+			if (!term.isEmpty()) {
+				terms.add(term);
+			}
+		}
+		return terms;
+	}
+
+	public record SearchHit(UUID bookId, double score) {
+
+		/**
+		 * Best score first; ties are broken by id so the order is stable across
+		 * requests, which cursor pagination relies on.
+		 */
+		public static final Comparator<SearchHit> RANKING = Comparator.comparingDouble(SearchHit::score).reversed()
+				.thenComparing(SearchHit::bookId);
+	}
+
+	record IndexedBook(UUID id, UUID authorId, Integer categoryId, Set<Integer> tagIds,
+			Map<String, Double> termWeights, double length) {
+
+		boolean matches(Integer categoryId, Collection<Integer> tagIds, Set<UUID> excludedAuthorIds) {
+			if (categoryId != null && !categoryId.equals(this.categoryId)) {
+				return false;
+			}
+			if (tagIds != null && !tagIds.isEmpty() && tagIds.stream().noneMatch(this.tagIds::contains)) {
+				return false;
+			}
+			return excludedAuthorIds == null || authorId == null || !excludedAuthorIds.contains(authorId);
+		}
+	}
+
+	/**
+	 * Documents and the term dictionary. The dictionary is sorted so prefix
+	 * matches are a range scan. Guarded by the index lock.
+	 */
+	private static final class Segment {
+		private final Map<UUID, IndexedBook> documents = new HashMap<>();
+		private final NavigableMap<String, Map<UUID, Double>> postings = new TreeMap<>();
+		private double totalLength;
+
+		void replace(UUID bookId, IndexedBook document) {
+			IndexedBook previous = documents.remove(bookId);
+			if (previous != null) {
+				totalLength -= previous.length();
+				for (String term : previous.termWeights().keySet()) {
+					Map<UUID, Double> postingList = postings.get(term);
+					postingList.remove(bookId);
+					if (postingList.isEmpty()) {
+						postings.remove(term);
+					}
+				}
+			}
+			if (document != null) {
+				add(document);
+			}
+		}
+
+		void add(IndexedBook document) {
+			documents.put(document.id(), document);
+			totalLength += document.length();
+			document.termWeights()
+					.forEach((term, weight) -> postings.computeIfAbsent(term, t -> new HashMap<>())
+							.put(document.id(), weight));
+		}
+
+		Map<UUID, Double> score(String term, boolean allowPrefix) {
+			Map<UUID, Double> scores = new HashMap<>();
+			Map<UUID, Double> exact = postings.get(term);
+			if (exact != null) {
+				exact.forEach((bookId, weight) -> scores.put(bookId, bm25(weight, bookId, exact.size())));
+			}
+			if (allowPrefix) {
+				int expansions = 0;
+				for (Map<UUID, Double> postingList : postings
+						.subMap(term, false, term + Character.MAX_VALUE, false).values()) {
+					postingList.forEach((bookId, weight) -> scores.merge(bookId,
+							PREFIX_MATCH_WEIGHT * bm25(weight, bookId, postingList.size()), Math::max));
+					if (++expansions >= MAX_PREFIX_EXPANSIONS) {
+						break;
+					}
+				}
+			}
+			return scores;
+		}
+
+		private double bm25(double termWeight, UUID bookId, int documentFrequency) {
+			int documentCount = documents.size();
+			double averageLength = documentCount > 0 ? totalLength / documentCount : 1.0;
+			double idf = Math.log(1 + (documentCount - documentFrequency + 0.5) / (documentFrequency + 0.5));
+			double lengthNorm = 1 - B + B * documents.get(bookId).length() / Math.max(averageLength, 1.0);
+			return idf * termWeight * (K1 + 1) / (termWeight + K1 * lengthNorm);
+		}
+	}
+}
@@ -1,17 +1,22 @@
 package com.nix.service;
 
 import java.io.IOException;
+import java.util.Collection;
 import java.util.List;
 import java.util.Set;
 import java.util.UUID;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 
 import com.nix.dtos.BookDTO;
 import com.nix.dtos.BookPerformanceDTO;
 import com.nix.dtos.CategoryDTO;
+import com.nix.dtos.CursorPage;
+import com.nix.dtos.ResourceVersion;
 import com.nix.models.User;
+import com.nix.repository.BookListingFilter;
 
 public interface BookService {
 
@@ -19,6 +24,8 @@ public interface BookService {
 
 	public BookDTO getBookById(UUID bookId);
 
+	public ResourceVersion getBookVersion(UUID bookId);
+
 	public BookDTO createBook(BookDTO bookDTO, UUID authorId) throws IOException;
 
 	public BookDTO updateBook(UUID bookId, BookDTO bookDTO);
@@ -43,13 +50,19 @@ public interface BookService {
 	Page<BookDTO> searchBooks(String title, Integer categoryId, List<Integer> tagIds, Pageable pageable,
 			Set<UUID> excludedAuthorIds);
 
+	// Keyset pagination for infinite scroll; no total count is computed
+	CursorPage<BookDTO> getBooksAfter(BookListingFilter filter, String cursor, int size, String sortBy,
+			Sort.Direction direction);
+
+	CursorPage<BookDTO> searchBooksAfter(String query, BookListingFilter filter, String cursor, int size);
+
 	Page<BookDTO> searchBooksForAuthor(UUID authorId, String query, Pageable pageable);
 
 	Page<BookDTO> getFollowedBooksByUserId(UUID userId, Pageable pageable);
 
 	Page<BookDTO> getFollowedBooksByUserId(UUID userId, Pageable pageable, Set<UUID> excludedAuthorIds);
 
-	Set<UUID> getFavouriteBookIdsForUser(UUID userId);
+	Set<UUID> getFavouriteBookIds(UUID userId, Collection<UUID> bookIds);
 
 	public List<BookDTO> getBooksBySuggestedStatus(Boolean isSuggested);
 
@@ -0,0 +1,269 @@
+package com.nix.service;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.nix.repository.BookViewHistoryRepository;
+import com.nix.enums.TrendingSignal;
+import com.nix.util.HyperLogLog;
+import com.nix.util.UuidBytes;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Write-behind counter for book views. Views are accumulated in memory per book
+ * and day and flushed periodically in one transaction: a batched increment of
+ * {@code book.view_count} and a batched upsert of the daily
+ * {@code book_view_history} rows. Pending views are drained on shutdown.
+ *
+ * Each day row also carries a {@link HyperLogLog} sketch of its distinct viewers
+ * (user id, or a hash of the IP for anonymous viewers), so unique views can be
+ * counted over any range of days without storing individual view events.
+ *
+ * Entries are updated with {@link ConcurrentHashMap#compute}, which only locks
+ * the bin of the key being updated, and drained with
+ * {@link ConcurrentHashMap#remove}, so a view recorded while a flush is running
+ * lands in a fresh entry and is never lost.
+ */
+@Service
+public class BookViewCounter {
+	private static final Logger logger = LoggerFactory.getLogger(BookViewCounter.class);
+
+	private static final int HISTORY_CHUNK_SIZE = 500;
+
+	private final ConcurrentHashMap<PendingViewKey, PendingViews> pendingViews = new ConcurrentHashMap<>();
+	private final AtomicLong lastFlushMillis = new AtomicLong(System.currentTimeMillis());
+
+	private final JdbcTemplate jdbcTemplate;
+	private final TransactionTemplate transactionTemplate;
+	private final BookViewHistoryRepository bookViewHistoryRepository;
+	private final TrendingEngine trendingEngine;
+
+	public BookViewCounter(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+			BookViewHistoryRepository bookViewHistoryRepository, TrendingEngine trendingEngine,
+			MeterRegistry meterRegistry) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.transactionTemplate = transactionTemplate;
+		this.bookViewHistoryRepository = bookViewHistoryRepository;
+		this.trendingEngine = trendingEngine;
+		Gauge.builder("books.views.flush.lag", lastFlushMillis,
+				last -> (System.currentTimeMillis() - last.get()) / 1000.0)
+				.baseUnit("seconds")
+				.description("Time since pending book views were last written to the database")
+				.register(meterRegistry);
+		Gauge.builder("books.views.pending", pendingViews, Map::size)
+				.description("Books with views not yet written to the database")
+				.register(meterRegistry);
+	}
+
+	/**
+	 * Records one view and returns the number of views of the book that are still
+	 * pending for today. The viewer key identifies the viewer for unique counts
+	 * and may be null when unknown.
+	 */
+	public long record(UUID bookId, String viewerKey) {
+		PendingViews views = pendingViews.compute(new PendingViewKey(bookId, LocalDate.now()), (key, current) -> {
+			PendingViews updated = current != null ? current : new PendingViews();
+			updated.add(viewerKey);
+			return updated;
+		});
+		return views.count;
+	}
+
+	/**
+	 * Estimated distinct viewers per book over the days since the given date,
+	 * merged from the persisted daily sketches. Books without tracked viewers are
+	 * absent from the result.
+	 */
+	public Map<UUID, Long> countUniqueViewers(Collection<UUID> bookIds, LocalDateTime since) {
+		Map<UUID, HyperLogLog> sketches = new HashMap<>();
+		if (!bookIds.isEmpty()) {
+			for (Object[] row : bookViewHistoryRepository.findViewerSketchesSince(bookIds, since)) {
+				HyperLogLog daySketch = HyperLogLog.fromBytes((byte[]) row[1]);
+				sketches.merge((UUID) row[0], daySketch, (merged, next) -> {
+					merged.merge(next);
+					return merged;
+				});
+			}
+		}
+		Map<UUID, Long> uniqueViewers = new HashMap<>();
+		sketches.forEach((bookId, sketch) -> uniqueViewers.put(bookId, sketch.estimate()));
+		return uniqueViewers;
+	}
+
+	@Scheduled(fixedDelayString = "${app.books.view-flush-interval-ms:5000}")
+	public void scheduledFlush() {
+		flush();
+	}
+
+	@PreDestroy
+	public void drain() {
+		flush();
+		logger.info("Drained pending book views on shutdown");
+	}
+
+	/**
+	 * Writes all pending views to the database. On failure the drained counts are
+	 * put back so the next flush retries them.
+	 */
+	public synchronized void flush() {
+		Map<PendingViewKey, PendingViews> drained = new HashMap<>();
+		for (PendingViewKey key : pendingViews.keySet()) {
+			PendingViews views = pendingViews.remove(key);
+			if (views != null) {
+				drained.put(key, views);
+			}
+		}
+		if (drained.isEmpty()) {
+			lastFlushMillis.set(System.currentTimeMillis());
+			return;
+		}
+
+		try {
+			transactionTemplate.executeWithoutResult(status -> write(drained));
+			lastFlushMillis.set(System.currentTimeMillis());
+			logger.debug("Flushed views for {} book-days", drained.size());
+			recordTrendingViews(drained);
+		} catch (Exception e) {
+			drained.forEach((key, views) -> pendingViews.merge(key, views, PendingViews::combine));
+			logger.error("Failed to flush {} pending book view entries", drained.size(), e);
+		}
+	}
+
+	/**
+	 * Feeds the flushed views to the trending ranking, counting each viewer once
+	 * per flush so reloading a page does not push a book up.
+	 */
+	private void recordTrendingViews(Map<PendingViewKey, PendingViews> drained) {
+		Map<UUID, Long> viewers = new HashMap<>();
+		drained.forEach((key, views) -> viewers.merge(key.bookId(),
+				views.viewerHashes.isEmpty() ? views.count : views.viewerHashes.size(), Long::sum));
+		viewers.forEach((bookId, count) -> trendingEngine.record(bookId, TrendingSignal.VIEW, count));
+	}
+
+	private void write(Map<PendingViewKey, PendingViews> drained) {
+		Map<UUID, Long> totals = new HashMap<>();
+		drained.forEach((key, views) -> totals.merge(key.bookId(), views.count, Long::sum));
+
+		List<Object[]> bookUpdates = new ArrayList<>(totals.size());
+		totals.forEach((bookId, count) -> bookUpdates.add(new Object[] { count, UuidBytes.toBytes(bookId) }));
+		jdbcTemplate.batchUpdate("UPDATE book SET view_count = view_count + ? WHERE id = ?", bookUpdates);
+
+		List<PendingViewKey> keys = new ArrayList<>(drained.keySet());
+		for (int from = 0; from < keys.size(); from += HISTORY_CHUNK_SIZE) {
+			writeHistory(keys.subList(from, Math.min(from + HISTORY_CHUNK_SIZE, keys.size())), drained);
+		}
+	}
+
+	/**
+	 * Upserts the day rows of the given keys. The existing rows are locked and
+	 * read in one query so their viewer sketches can be merged with the pending
+	 * ones; there is no unique key on (book_id, view_date) for ON DUPLICATE KEY
+	 * UPDATE, and the merge has to happen here anyway.
+	 */
+	private void writeHistory(List<PendingViewKey> keys, Map<PendingViewKey, PendingViews> drained) {
+		Set<UUID> bookIds = new HashSet<>();
+		Set<LocalDate> days = new HashSet<>();
+		for (PendingViewKey key : keys) {
+			bookIds.add(key.bookId());
+			days.add(key.day());
+		}
+
+		List<Object> args = new ArrayList<>();
+		bookIds.forEach(bookId -> args.add(UuidBytes.toBytes(bookId)));
+		days.forEach(day -> args.add(startOfDay(day)));
+		Map<PendingViewKey, ExistingDay> existing = new HashMap<>();
+		jdbcTemplate.query("SELECT id, book_id, view_date, unique_viewer_sketch FROM book_view_history "
+				+ "WHERE book_id IN (" + placeholders(bookIds.size()) + ") "
+				+ "AND view_date IN (" + placeholders(days.size()) + ") FOR UPDATE",
+				rs -> {
+					PendingViewKey key = new PendingViewKey(UuidBytes.fromBytes(rs.getBytes("book_id")),
+							rs.getTimestamp("view_date").toLocalDateTime().toLocalDate());
+					existing.putIfAbsent(key, new ExistingDay(rs.getBytes("id"), rs.getBytes("unique_viewer_sketch")));
+				}, args.toArray());
+
+		List<Object[]> historyUpdates = new ArrayList<>();
+		List<Object[]> historyInserts = new ArrayList<>();
+		for (PendingViewKey key : keys) {
+			PendingViews views = drained.get(key);
+			ExistingDay day = existing.get(key);
+			HyperLogLog sketch = HyperLogLog.fromBytes(day != null ? day.sketch() : null);
+			views.viewerHashes.forEach(sketch::offer);
+
+			if (day != null) {
+				historyUpdates.add(new Object[] { views.count, sketch.toBytes(), sketch.estimate(), day.id() });
+			} else {
+				byte[] bookId = UuidBytes.toBytes(key.bookId());
+				historyInserts.add(new Object[] { UuidBytes.toBytes(UUID.randomUUID()), bookId,
+						startOfDay(key.day()), views.count, sketch.toBytes(), sketch.estimate(), bookId });
+			}
+		}
+		if (!historyUpdates.isEmpty()) {
+			jdbcTemplate.batchUpdate("UPDATE book_view_history SET daily_view_count = daily_view_count + ?, "
+					+ "unique_viewer_sketch = ?, unique_view_count = ? WHERE id = ?", historyUpdates);
+		}
+		if (!historyInserts.isEmpty()) {
+			// Selecting from book skips books deleted since their views were recorded.
+			jdbcTemplate.batchUpdate("INSERT INTO book_view_history "
+					+ "(id, book_id, view_date, daily_view_count, unique_viewer_sketch, unique_view_count) "
+					+ "SELECT ?, ?, ?, ?, ?, ? FROM book WHERE id = ?", historyInserts);
+		}
+	}
+
+	private static String placeholders(int count) {
+		return String.join(", ", Collections.nCopies(count, "?"));
+	}
+
+	private static Timestamp startOfDay(LocalDate day) {
+		return Timestamp.valueOf(day.atStartOfDay());
+	}
+
+	private record PendingViewKey(UUID bookId, LocalDate day) {
+	}
+
+	private record ExistingDay(byte[] id, byte[] sketch) {
+	}
+
+	/**
+	 * Views of one book-day not yet written. Only mutated inside
+	 * {@link ConcurrentHashMap#compute} while mapped, or after being removed.
+	 */
+	private static final class PendingViews {
+		private long count;
+		private final Set<Long> viewerHashes = new HashSet<>();
+
+		void add(String viewerKey) {
+			count++;
+			if (viewerKey != null) {
+				viewerHashes.add(HyperLogLog.hash(viewerKey));
+			}
+		}
+
+		PendingViews combine(PendingViews other) {
+			count += other.count;
+			viewerHashes.addAll(other.viewerHashes);
+			return this;
+		}
+	}
+}
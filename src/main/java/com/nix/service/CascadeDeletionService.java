@@ -0,0 +1,560 @@
+package com.nix.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.nix.config.FavouriteBookCache;
+import com.nix.dtos.DeletionJobDTO;
+import com.nix.enums.NotificationEntityType;
+import com.nix.exception.ForbiddenAccessException;
+import com.nix.exception.ResourceNotFoundException;
+import com.nix.models.Book;
+import com.nix.models.DeletionJob;
+import com.nix.models.DeletionJob.Status;
+import com.nix.models.DeletionJob.TargetType;
+import com.nix.models.Post;
+import com.nix.models.User;
+import com.nix.repository.BookRepository;
+import com.nix.repository.ChapterRepository;
+import com.nix.repository.DeletionJobRepository;
+import com.nix.repository.UserRepository;
+import com.nix.util.SecurityUtils;
+import com.nix.util.UuidBytes;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Deletes books, chapters and users in the background. The rows hanging off the
+ * target (comments, reading progress, unlocks, reports, ...) are removed first
+ * with bulk statements, each batch in its own short transaction, and the target
+ * itself goes last through the regular service method, which then has almost
+ * nothing left to load. Every statement is idempotent and the index of the next
+ * step is stored on the {@link DeletionJob}, so an interrupted job resumes where
+ * it stopped.
+ *
+ * A job is owned by the instance running it, which keeps its heartbeat fresh.
+ * Jobs whose heartbeat has expired (their instance stopped) are claimed with a
+ * conditional update by exactly one instance and resumed there. Every progress
+ * write checks ownership, so a worker that lost its claim stops before the
+ * next step instead of racing the new owner to delete the target.
+ *
+ * Favourite and rating rows removed for a deleted user are not subtracted from
+ * the book counters here; {@link BookCounterReconciliationJob} repairs them.
+ * Removed favourites are applied to {@link FavouriteBookCache} and
+ * {@link RelatedBooksIndex} when their batch commits, and the affected taste
+ * profiles are marked stale.
+ */
+@Service
+public class CascadeDeletionService {
+	private static final Logger logger = LoggerFactory.getLogger(CascadeDeletionService.class);
+
+	private static final List<Status> UNFINISHED = List.of(Status.PENDING, Status.RUNNING);
+
+	private record Step(String name, ToIntFunction<UUID> batch) {
+	}
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	private final DeletionJobRepository deletionJobRepository;
+	private final BookRepository bookRepository;
+	private final ChapterRepository chapterRepository;
+	private final UserRepository userRepository;
+	private final BookService bookService;
+	private final ChapterService chapterService;
+	private final UserService userService;
+	private final NotificationService notificationService;
+	private final FavouriteBookCache favouriteBookCache;
+	private final RelatedBooksIndex relatedBooksIndex;
+	private final UserTasteProfileService userTasteProfileService;
+	private final TransactionTemplate transaction;
+	private final ExecutorService workers;
+	private final int batchSize;
+	private final Map<TargetType, List<Step>> steps;
+	private final Duration heartbeatTimeout;
+	private final String instanceId = UUID.randomUUID().toString();
+
+	/**
+	 * Thrown when another instance has taken the job over; the worker stops.
+	 */
+	private static final class LostClaimException extends RuntimeException {
+		private static final long serialVersionUID = 1L;
+
+		LostClaimException(UUID jobId) {
+			super("Deletion job " + jobId + " is now owned by another instance");
+		}
+	}
+
+	public CascadeDeletionService(DeletionJobRepository deletionJobRepository, BookRepository bookRepository,
+			ChapterRepository chapterRepository, UserRepository userRepository, BookService bookService,
+			ChapterService chapterService, UserService userService, NotificationService notificationService,
+			FavouriteBookCache favouriteBookCache, RelatedBooksIndex relatedBooksIndex,
+			UserTasteProfileService userTasteProfileService, PlatformTransactionManager transactionManager,
+			@Value("${app.deletion.worker-threads:2}") int workerThreads,
+			@Value("${app.deletion.batch-size:500}") int batchSize,
+			@Value("${app.deletion.heartbeat-timeout-ms:120000}") long heartbeatTimeoutMs) {
+		this.deletionJobRepository = deletionJobRepository;
+		this.bookRepository = bookRepository;
+		this.chapterRepository = chapterRepository;
+		this.userRepository = userRepository;
+		this.bookService = bookService;
+		this.chapterService = chapterService;
+		this.userService = userService;
+		this.notificationService = notificationService;
+		this.favouriteBookCache = favouriteBookCache;
+		this.relatedBooksIndex = relatedBooksIndex;
+		this.userTasteProfileService = userTasteProfileService;
+		this.transaction = new TransactionTemplate(transactionManager);
+		this.batchSize = batchSize;
+		this.heartbeatTimeout = Duration.ofMillis(heartbeatTimeoutMs);
+		AtomicInteger threadCount = new AtomicInteger();
+		this.workers = Executors.newFixedThreadPool(workerThreads, runnable -> {
+			Thread thread = new Thread(runnable, "deletion-worker-" + threadCount.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+		this.steps = Map.of(TargetType.BOOK, bookSteps(), TargetType.CHAPTER, chapterSteps(), TargetType.USER,
+				userSteps());
+	}
+
+	/**
+	 * Queues the deletion and returns at once. If the target already has an
+	 * unfinished job, that job is returned instead.
+	 */
+	public DeletionJobDTO submit(TargetType targetType, UUID targetId, UUID requestedBy) {
+		DeletionJob existing = deletionJobRepository
+				.findFirstByTargetTypeAndTargetIdAndStatusIn(targetType, targetId, UNFINISHED).orElse(null);
+		if (existing != null) {
+			return toDTO(existing);
+		}
+		DeletionJob job = new DeletionJob(targetType, targetId, requestedBy, steps.get(targetType).size() + 1);
+		job.setOwner(instanceId);
+		job.setHeartbeatAt(LocalDateTime.now());
+		deletionJobRepository.save(job);
+		workers.execute(() -> run(job));
+		return toDTO(job);
+	}
+
+	/**
+	 * Progress of a job, visible to the user who requested it and to admins.
+	 */
+	public DeletionJobDTO getJob(UUID jobId, User currentUser) {
+		DeletionJob job = deletionJobRepository.findById(jobId)
+				.orElseThrow(() -> new ResourceNotFoundException("Deletion job not found with ID: " + jobId));
+		if (!SecurityUtils.isAdmin(currentUser) && !currentUser.getId().equals(job.getRequestedBy())) {
+			throw new ForbiddenAccessException("You do not have permission to view this deletion job.");
+		}
+		return toDTO(job);
+	}
+
+	/**
+	 * Refreshes the heartbeat of the jobs this instance owns, then claims and
+	 * resumes jobs abandoned by instances that stopped.
+	 */
+	@Scheduled(fixedDelayString = "${app.deletion.heartbeat-interval-ms:30000}")
+	public void heartbeat() {
+		LocalDateTime now = LocalDateTime.now();
+		transaction.execute(status -> deletionJobRepository.heartbeat(instanceId, now, UNFINISHED));
+		int resumed = 0;
+		for (UUID jobId : deletionJobRepository.findAbandonedIds(UNFINISHED, now.minus(heartbeatTimeout))) {
+			Integer claimed = transaction.execute(status -> deletionJobRepository.claim(jobId, instanceId, now,
+					UNFINISHED, now.minus(heartbeatTimeout)));
+			if (claimed != null && claimed == 1) {
+				deletionJobRepository.findById(jobId).ifPresent(job -> workers.execute(() -> run(job)));
+				resumed++;
+			}
+		}
+		if (resumed > 0) {
+			logger.info("Resuming {} abandoned deletion jobs", resumed);
+		}
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		// Running jobs keep their RUNNING status; once their heartbeat expires
+		// another instance resumes them from their last step
+		workers.shutdownNow();
+	}
+
+	private void run(DeletionJob job) {
+		try {
+			List<Step> jobSteps = steps.get(job.getTargetType());
+			update(job, j -> j.setStatus(Status.RUNNING));
+			for (int i = job.getStepIndex(); i < jobSteps.size(); i++) {
+				Step step = jobSteps.get(i);
+				update(job, j -> j.setCurrentStep(step.name()));
+				int deleted;
+				while ((deleted = step.batch().applyAsInt(job.getTargetId())) > 0) {
+					int batch = deleted;
+					update(job, j -> j.setDeletedRows(j.getDeletedRows() + batch));
+					if (Thread.currentThread().isInterrupted()) {
+						return;
+					}
+				}
+				int next = i + 1;
+				update(job, j -> j.setStepIndex(next));
+			}
+			update(job, j -> j.setCurrentStep(job.getTargetType().name().toLowerCase()));
+			Book book = job.getTargetType() == TargetType.BOOK
+					? bookRepository.findById(job.getTargetId()).orElse(null)
+					: null;
+			deleteTarget(job.getTargetType(), job.getTargetId());
+			update(job, j -> {
+				j.setStepIndex(j.getTotalSteps());
+				j.setCurrentStep(null);
+				j.setStatus(Status.COMPLETED);
+				j.setCompletedAt(LocalDateTime.now());
+			});
+			logger.info("Deleted {} {} ({} dependent rows)", job.getTargetType(), job.getTargetId(),
+					job.getDeletedRows());
+			if (book != null && book.getAuthor() != null) {
+				notifyAuthor(book);
+			}
+		} catch (LostClaimException e) {
+			logger.warn(e.getMessage());
+		} catch (Exception e) {
+			logger.error("Deletion job {} failed at step {}", job.getId(), job.getCurrentStep(), e);
+			try {
+				update(job, j -> {
+					j.setStatus(Status.FAILED);
+					j.setFailureReason(e.getMessage());
+				});
+			} catch (LostClaimException lost) {
+				logger.warn(lost.getMessage());
+			}
+		}
+	}
+
+	/**
+	 * Tells the author their book is gone once the job has completed. The job
+	 * stays completed if the notification cannot be sent.
+	 */
+	private void notifyAuthor(Book book) {
+		try {
+			notificationService.createNotification(book.getAuthor(),
+					"Your book '" + book.getTitle() + "' has been deleted!", NotificationEntityType.BOOK, null);
+		} catch (Exception e) {
+			logger.warn("Could not notify the author of deleted book {}", book.getId(), e);
+		}
+	}
+
+	/**
+	 * Applies {@code change} to the stored job, provided this instance still
+	 * owns it, then mirrors the change on the in-memory copy.
+	 */
+	private void update(DeletionJob job, Consumer<DeletionJob> change) {
+		LocalDateTime now = LocalDateTime.now();
+		Consumer<DeletionJob> stamped = change.andThen(j -> {
+			j.setUpdatedAt(now);
+			j.setHeartbeatAt(now);
+		});
+		transaction.executeWithoutResult(status -> stamped.accept(deletionJobRepository.findForUpdate(job.getId())
+				.filter(j -> instanceId.equals(j.getOwner()))
+				.orElseThrow(() -> new LostClaimException(job.getId()))));
+		stamped.accept(job);
+	}
+
+	private void deleteTarget(TargetType targetType, UUID targetId) throws Exception {
+		switch (targetType) {
+		case BOOK -> {
+			if (bookRepository.existsById(targetId)) {
+				bookService.deleteBook(targetId);
+			}
+		}
+		case CHAPTER -> {
+			if (chapterRepository.existsById(targetId)) {
+				chapterService.deleteChapter(targetId);
+			}
+		}
+		case USER -> {
+			if (userRepository.existsById(targetId)) {
+				String result = userService.deleteUser(targetId);
+				if (userRepository.existsById(targetId)) {
+					throw new IllegalStateException(result);
+				}
+			}
+		}
+		}
+	}
+
+	private List<Step> bookSteps() {
+		String comments = "SELECT c.id FROM Comment c LEFT JOIN c.chapter ch WHERE c.book.id = :id OR ch.book.id = :id";
+		return List.of(
+				new Step("comment-threads", id -> updateBatch(
+						"SELECT c.id FROM Comment c LEFT JOIN c.chapter ch "
+								+ "WHERE c.parentComment IS NOT NULL AND (c.book.id = :id OR ch.book.id = :id)",
+						id, "UPDATE Comment c SET c.parentComment = NULL WHERE c.id IN :ids")),
+				new Step("comments", id -> deleteComments(comments, id)),
+				new Step("reading-progress",
+						id -> deleteBatch("SELECT rp.id FROM ReadingProgress rp WHERE rp.chapter.book.id = :id", id,
+								"ReadingProgress")),
+				new Step("chapter-likes", id -> deleteNative("DELETE FROM user_liked_chapters WHERE chapter_id IN "
+						+ "(SELECT ch.id FROM chapter ch WHERE ch.book_id = :id) LIMIT :limit", id)),
+				new Step("author-earnings",
+						id -> updateBatch("SELECT e.id FROM AuthorEarning e WHERE e.chapter.book.id = :id", id,
+								"UPDATE AuthorEarning e SET e.chapter = NULL, e.unlockRecord = NULL "
+										+ "WHERE e.id IN :ids")),
+				new Step("unlock-records",
+						id -> deleteBatch("SELECT u.id FROM ChapterUnlockRecord u WHERE u.chapter.book.id = :id", id,
+								"ChapterUnlockRecord")),
+				new Step("reports", id -> deleteBatch("SELECT r.id FROM Report r LEFT JOIN r.chapter ch "
+						+ "WHERE r.book.id = :id OR ch.book.id = :id", id, "Report")),
+				new Step("shared-posts", id -> deletePosts("SELECT p.id FROM Post p LEFT JOIN p.sharedChapter ch "
+						+ "WHERE p.sharedBook.id = :id OR ch.book.id = :id", id)),
+				new Step("view-history",
+						id -> deleteBatch("SELECT v.id FROM BookViewHistory v WHERE v.book.id = :id", id,
+								"BookViewHistory")),
+				new Step("ratings",
+						id -> deleteBatch("SELECT r.id FROM Rating r WHERE r.book.id = :id", id, "Rating")),
+				new Step("favourites", id -> deleteFavourites(
+						"SELECT f.id, f.book.id, f.user.id FROM BookFavourite f WHERE f.book.id = :id", id)),
+				new Step("chapters",
+						id -> deleteBatch("SELECT ch.id FROM Chapter ch WHERE ch.book.id = :id", id, "Chapter")));
+	}
+
+	private List<Step> chapterSteps() {
+		return List.of(
+				new Step("comment-threads",
+						id -> updateBatch("SELECT c.id FROM Comment c "
+								+ "WHERE c.parentComment IS NOT NULL AND c.chapter.id = :id", id,
+								"UPDATE Comment c SET c.parentComment = NULL WHERE c.id IN :ids")),
+				new Step("comments", this::deleteChapterComments),
+				new Step("reading-progress",
+						id -> deleteBatch("SELECT rp.id FROM ReadingProgress rp WHERE rp.chapter.id = :id", id,
+								"ReadingProgress")),
+				new Step("chapter-likes",
+						id -> deleteNative("DELETE FROM user_liked_chapters WHERE chapter_id = :id LIMIT :limit", id)),
+				new Step("author-earnings",
+						id -> updateBatch("SELECT e.id FROM AuthorEarning e WHERE e.chapter.id = :id", id,
+								"UPDATE AuthorEarning e SET e.chapter = NULL, e.unlockRecord = NULL "
+										+ "WHERE e.id IN :ids")),
+				new Step("unlock-records",
+						id -> deleteBatch("SELECT u.id FROM ChapterUnlockRecord u WHERE u.chapter.id = :id", id,
+								"ChapterUnlockRecord")),
+				// Reports on a deleted chapter are kept for moderators, as before
+				new Step("reports", id -> updateBatch("SELECT r.id FROM Report r WHERE r.chapter.id = :id", id,
+						"UPDATE Report r SET r.chapter = NULL WHERE r.id IN :ids")),
+				new Step("shared-posts",
+						id -> deletePosts("SELECT p.id FROM Post p WHERE p.sharedChapter.id = :id", id)));
+	}
+
+	private List<Step> userSteps() {
+		return List.of(
+				new Step("reading-progress",
+						id -> deleteBatch("SELECT rp.id FROM ReadingProgress rp WHERE rp.user.id = :id", id,
+								"ReadingProgress")),
+				new Step("favourites", id -> deleteFavourites(
+						"SELECT f.id, f.book.id, f.user.id FROM BookFavourite f WHERE f.user.id = :id", id)),
+				new Step("taste-profile",
+						id -> updateBatch("SELECT p.userId FROM UserTasteProfile p WHERE p.userId = :id", id,
+								"DELETE FROM UserTasteProfile p WHERE p.userId IN :ids")),
+				new Step("ratings",
+						id -> deleteBatch("SELECT r.id FROM Rating r WHERE r.user.id = :id", id, "Rating")),
+				new Step("comments", this::deleteUserComments),
+				new Step("posts", id -> deletePosts("SELECT p.id FROM Post p WHERE p.user.id = :id", id)),
+				new Step("chapter-likes",
+						id -> deleteNative("DELETE FROM user_liked_chapters WHERE user_id = :id LIMIT :limit", id)),
+				new Step("post-likes",
+						id -> deleteNative("DELETE FROM post_likes WHERE user_id = :id LIMIT :limit", id)),
+				new Step("books", this::deleteNextAuthoredBook));
+	}
+
+	/**
+	 * Runs the whole book cleanup for one of the user's books and deletes it.
+	 */
+	private int deleteNextAuthoredBook(UUID userId) {
+		List<UUID> bookIds = transaction.execute(status -> entityManager
+				.createQuery("SELECT b.id FROM Book b WHERE b.author.id = :id", UUID.class)
+				.setParameter("id", userId)
+				.setMaxResults(1)
+				.getResultList());
+		if (bookIds.isEmpty()) {
+			return 0;
+		}
+		UUID bookId = bookIds.get(0);
+		int deleted = 1;
+		for (Step step : steps.get(TargetType.BOOK)) {
+			int batch;
+			while ((batch = step.batch().applyAsInt(bookId)) > 0) {
+				deleted += batch;
+			}
+		}
+		bookService.deleteBook(bookId);
+		return deleted;
+	}
+
+	private int deleteBatch(String idQuery, UUID targetId, String entityName) {
+		return updateBatch(idQuery, targetId, "DELETE FROM " + entityName + " e WHERE e.id IN :ids");
+	}
+
+	/**
+	 * Loads the next batch of ids matching {@code idQuery} and applies
+	 * {@code statement} to them, in one transaction. Returns the rows affected.
+	 */
+	private int updateBatch(String idQuery, UUID targetId, String statement) {
+		return transaction.execute(status -> {
+			List<UUID> ids = nextBatch(idQuery, targetId);
+			return ids.isEmpty() ? 0 : execute(statement, ids);
+		});
+	}
+
+	private int deleteComments(String idQuery, UUID targetId) {
+		return transaction.execute(status -> {
+			List<UUID> ids = nextBatch(idQuery, targetId);
+			if (ids.isEmpty()) {
+				return 0;
+			}
+			execute("UPDATE Report r SET r.comment = NULL WHERE r.comment.id IN :ids", ids);
+			return execute("DELETE FROM Comment c WHERE c.id IN :ids", ids);
+		});
+	}
+
+	private int deleteChapterComments(UUID chapterId) {
+		return transaction.execute(status -> {
+			List<UUID> ids = nextBatch("SELECT c.id FROM Comment c WHERE c.chapter.id = :id", chapterId);
+			if (ids.isEmpty()) {
+				return 0;
+			}
+			execute("UPDATE Report r SET r.comment = NULL WHERE r.comment.id IN :ids", ids);
+			int deleted = execute("DELETE FROM Comment c WHERE c.id IN :ids", ids);
+			chapterRepository.findById(chapterId)
+					.filter(chapter -> chapter.getBook() != null)
+					.ifPresent(chapter -> bookRepository.adjustCommentCount(chapter.getBook().getId(), -deleted));
+			return deleted;
+		});
+	}
+
+	/**
+	 * Deletes a batch of the user's comments together with every reply below
+	 * them, as deleting a single comment does, and takes them off the book
+	 * counters.
+	 */
+	private int deleteUserComments(UUID userId) {
+		return transaction.execute(status -> {
+			Set<UUID> ids = new LinkedHashSet<>(
+					nextBatch("SELECT c.id FROM Comment c WHERE c.user.id = :id", userId));
+			List<UUID> level = new ArrayList<>(ids);
+			while (!level.isEmpty()) {
+				level = entityManager
+						.createQuery("SELECT c.id FROM Comment c WHERE c.parentComment.id IN :ids", UUID.class)
+						.setParameter("ids", level)
+						.getResultList();
+				level.removeIf(id -> !ids.add(id));
+			}
+			if (ids.isEmpty()) {
+				return 0;
+			}
+			List<UUID> batch = new ArrayList<>(ids);
+			List<Object[]> counts = entityManager
+					.createQuery("SELECT c.book.id, COUNT(c) FROM Comment c "
+							+ "WHERE c.id IN :ids AND c.book IS NOT NULL GROUP BY c.book.id", Object[].class)
+					.setParameter("ids", batch)
+					.getResultList();
+			execute("UPDATE Report r SET r.comment = NULL WHERE r.comment.id IN :ids", batch);
+			execute("UPDATE Comment c SET c.parentComment = NULL WHERE c.id IN :ids", batch);
+			int deleted = execute("DELETE FROM Comment c WHERE c.id IN :ids", batch);
+			for (Object[] row : counts) {
+				bookRepository.adjustCommentCount((UUID) row[0], -((Number) row[1]).longValue());
+			}
+			return deleted;
+		});
+	}
+
+	/**
+	 * Deletes a batch of favourites, selected as (favourite, book, user) ids, and
+	 * updates the structures built from them once the batch commits: the
+	 * users' cached favourite sets, the related-books index and the users' taste
+	 * profiles, which are rebuilt on their next change.
+	 */
+	private int deleteFavourites(String rowQuery, UUID targetId) {
+		return transaction.execute(status -> {
+			List<Object[]> rows = entityManager.createQuery(rowQuery, Object[].class)
+					.setParameter("id", targetId)
+					.setMaxResults(batchSize)
+					.getResultList();
+			if (rows.isEmpty()) {
+				return 0;
+			}
+			List<UUID> ids = new ArrayList<>(rows.size());
+			Set<UUID> userIds = new HashSet<>();
+			for (Object[] row : rows) {
+				ids.add((UUID) row[0]);
+				userIds.add((UUID) row[2]);
+			}
+			int deleted = execute("DELETE FROM BookFavourite f WHERE f.id IN :ids", ids);
+			for (Object[] row : rows) {
+				UUID bookId = (UUID) row[1];
+				UUID userId = (UUID) row[2];
+				favouriteBookCache.update(userId, bookId, false);
+				relatedBooksIndex.removeFavourite(bookId, userId);
+			}
+			userTasteProfileService.markStale(userIds);
+			return deleted;
+		});
+	}
+
+	/**
+	 * Posts are removed as entities so their own comments, likes and images go
+	 * with them; reshares of them are kept and just lose the reference.
+	 */
+	private int deletePosts(String idQuery, UUID targetId) {
+		return transaction.execute(status -> {
+			List<UUID> ids = nextBatch(idQuery, targetId);
+			if (ids.isEmpty()) {
+				return 0;
+			}
+			execute("UPDATE Post p SET p.sharedPost = NULL WHERE p.sharedPost.id IN :ids", ids);
+			entityManager.createQuery("SELECT p FROM Post p WHERE p.id IN :ids", Post.class)
+					.setParameter("ids", ids)
+					.getResultList()
+					.forEach(entityManager::remove);
+			return ids.size();
+		});
+	}
+
+	private int deleteNative(String sql, UUID targetId) {
+		return transaction.execute(status -> entityManager.createNativeQuery(sql)
+				.setParameter("id", UuidBytes.toBytes(targetId))
+				.setParameter("limit", batchSize)
+				.executeUpdate());
+	}
+
+	private List<UUID> nextBatch(String idQuery, UUID targetId) {
+		return entityManager.createQuery(idQuery, UUID.class)
+				.setParameter("id", targetId)
+				.setMaxResults(batchSize)
+				.getResultList();
+	}
+
+	private int execute(String statement, List<UUID> ids) {
+		return entityManager.createQuery(statement).setParameter("ids", ids).executeUpdate();
+	}
+
+	private DeletionJobDTO toDTO(DeletionJob job) {
+		return new DeletionJobDTO(job.getId(), job.getTargetType(), job.getTargetId(), job.getStatus(),
+				job.getCurrentStep(), job.getStepIndex(), job.getTotalSteps(), job.getDeletedRows(),
+				job.getFailureReason(), job.getCreatedAt(), job.getUpdatedAt(), job.getCompletedAt());
+	}
+}
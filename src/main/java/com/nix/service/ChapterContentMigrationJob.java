@@ -0,0 +1,162 @@
+package com.nix.service;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.nix.config.TaskSchedulerConfig;
+import com.nix.models.Chapter;
+import com.nix.models.ContentPointer;
+import com.nix.repository.ChapterRepository;
+
+/**
+ * Moves chapter bodies out of the legacy LONGTEXT column into the content
+ * store, a batch per transaction. Every record is read back and compared by
+ * hash before the column is cleared. A MySQL named lock keeps the job to one
+ * instance at a time, so bodies are not appended twice.
+ *
+ * While both copies exist the job also times reading each body from MySQL and
+ * from the store, and logs the throughput of each, so a run doubles as a
+ * benchmark of the two read paths on real chapters.
+ */
+@Service
+public class ChapterContentMigrationJob {
+	private static final Logger logger = LoggerFactory.getLogger(ChapterContentMigrationJob.class);
+
+	private static final String LOCK_NAME = "chapter-content-migration";
+
+	private final ChapterRepository chapterRepository;
+	private final ChapterContentStore contentStore;
+	private final ChapterContentService contentService;
+	private final TransactionTemplate transaction;
+	private final JdbcTemplate jdbcTemplate;
+
+	@Value("${app.chapter-content.migration.batch-size:200}")
+	private int batchSize;
+
+	public ChapterContentMigrationJob(ChapterRepository chapterRepository, ChapterContentStore contentStore,
+			ChapterContentService contentService, PlatformTransactionManager transactionManager,
+			JdbcTemplate jdbcTemplate) {
+		this.chapterRepository = chapterRepository;
+		this.contentStore = contentStore;
+		this.contentService = contentService;
+		this.transaction = new TransactionTemplate(transactionManager);
+		this.jdbcTemplate = jdbcTemplate;
+	}
+
+	private static final class Totals {
+		int chapters;
+		long rawBytes;
+		long storedBytes;
+		long dbReadNanos;
+		long storeReadNanos;
+	}
+
+	@Scheduled(initialDelayString = "${app.chapter-content.migration.initial-delay-ms:120000}",
+			fixedDelayString = "${app.chapter-content.migration.interval-ms:3600000}",
+			scheduler = TaskSchedulerConfig.MAINTENANCE)
+	public void migrate() {
+		if (!contentStore.isEnabled()) {
+			return;
+		}
+		Totals totals = new Totals();
+		try {
+			Boolean ran = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+				if (!namedLock(connection, "SELECT GET_LOCK(?, 0)")) {
+					return false;
+				}
+				try {
+					while (transaction.execute(status -> migrateBatch(totals)) > 0) {
+						// Migrated rows drop out of the query, so the first page is always next
+					}
+				} finally {
+					namedLock(connection, "SELECT RELEASE_LOCK(?)");
+				}
+				return true;
+			});
+			if (!Boolean.TRUE.equals(ran)) {
+				logger.debug("Chapter content migration is running on another instance");
+			}
+		} catch (Exception e) {
+			logger.error("Error migrating chapter content to the content store", e);
+		}
+		if (totals.chapters > 0) {
+			logger.info("Moved {} chapters to the content store: {} KB raw, {} KB stored ({}%); "
+					+ "read throughput db {} MB/s, store {} MB/s",
+					totals.chapters, totals.rawBytes / 1024, totals.storedBytes / 1024,
+					totals.rawBytes > 0 ? totals.storedBytes * 100 / totals.rawBytes : 0,
+					throughput(totals.rawBytes, totals.dbReadNanos),
+					throughput(totals.rawBytes, totals.storeReadNanos));
+		}
+	}
+
+	/**
+	 * Runs a MySQL named-lock statement on the connection that holds the lock
+	 * for the whole run.
+	 */
+	private static boolean namedLock(Connection connection, String sql) throws SQLException {
+		try (PreparedStatement statement = connection.prepareStatement(sql)) {
+			statement.setString(1, LOCK_NAME);
+			try (ResultSet result = statement.executeQuery()) {
+				return result.next() && result.getInt(1) == 1;
+			}
+		}
+	}
+
+	/**
+	 * Migrates the next batch. The rows stay locked until the batch commits, so
+	 * an edit made meanwhile waits and then writes its own pointer over ours
+	 * rather than the other way round.
+	 */
+	private int migrateBatch(Totals totals) {
+		int migrated = 0;
+		for (Chapter chapter : chapterRepository.findWithLegacyContentForUpdate(PageRequest.of(0, batchSize))) {
+			long start = System.nanoTime();
+			String content = chapter.getLegacyContent();
+			long dbNanos = System.nanoTime() - start;
+			if (content == null || ChapterContentService.isStored(chapter)) {
+				continue;
+			}
+
+			String hash = ChapterContentService.hash(content);
+			ContentPointer pointer = contentStore.append(content);
+			start = System.nanoTime();
+			String stored = contentStore.read(pointer);
+			long storeNanos = System.nanoTime() - start;
+			if (!hash.equals(ChapterContentService.hash(stored))) {
+				throw new IllegalStateException("Content store read-back mismatch for chapter " + chapter.getId());
+			}
+
+			chapter.setContentPointer(pointer);
+			chapter.setContentHash(hash);
+			chapter.setLegacyContent(null);
+			byte[] raw = content.getBytes(StandardCharsets.UTF_8);
+			contentService.layOutPages(chapter, raw);
+			migrated++;
+
+			totals.chapters++;
+			totals.rawBytes += raw.length;
+			totals.storedBytes += pointer.getLength();
+			totals.dbReadNanos += dbNanos;
+			totals.storeReadNanos += storeNanos;
+		}
+		return migrated;
+	}
+
+	private static long throughput(long bytes, long nanos) {
+		return nanos > 0 ? bytes * 1_000_000_000L / nanos / (1024 * 1024) : 0;
+	}
+}
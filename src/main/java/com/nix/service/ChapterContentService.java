@@ -0,0 +1,282 @@
+package com.nix.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.nix.dtos.ChapterContentPageDTO;
+import com.nix.exception.ResourceNotFoundException;
+import com.nix.models.Chapter;
+import com.nix.models.ContentPointer;
+import com.nix.repository.ChapterRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Reads and writes chapter bodies wherever they live: in the content store
+ * when the chapter has a pointer, otherwise in the legacy LONGTEXT column.
+ * Reads are timed per source under {@code chapter.content.reads}.
+ *
+ * Whenever a body is written its reading pages are laid out too: byte offsets
+ * just past a paragraph end, roughly {@code app.chapter-content.page-bytes}
+ * apart, so a page can be served as a byte range of the body.
+ */
+@Service
+public class ChapterContentService {
+
+	private static final byte[] PARAGRAPH_END = "</p>".getBytes(StandardCharsets.US_ASCII);
+	private static final byte[] LINE_END = { '\n' };
+
+	@Autowired
+	private ChapterContentStore contentStore;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Autowired
+	private ChapterRepository chapterRepository;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Value("${app.chapter-content.page-bytes:16384}")
+	private int pageBytes;
+
+	public String getContent(Chapter chapter) {
+		if (isStored(chapter)) {
+			return meterRegistry.timer("chapter.content.reads", "source", "store")
+					.record(() -> contentStore.read(chapter.getContentPointer()));
+		}
+		return meterRegistry.timer("chapter.content.reads", "source", "db").record(chapter::getLegacyContent);
+	}
+
+	/**
+	 * Writes the body through {@code out} without materializing it as a String
+	 * when it lives in the store. Returns the number of bytes written.
+	 */
+	public long writeContent(Chapter chapter, OutputStream out) throws IOException {
+		return open(chapter).writeTo(out, 0, Long.MAX_VALUE);
+	}
+
+	/**
+	 * Resolves where the chapter body lives into a handle that no longer needs
+	 * the entity or its session, so it can be written after the request thread
+	 * has moved on.
+	 */
+	public Body open(Chapter chapter) {
+		if (isStored(chapter)) {
+			ContentPointer pointer = chapter.getContentPointer();
+			ContentPointer copy = new ContentPointer(pointer.getSegment(), pointer.getOffset(), pointer.getLength());
+			long size = chapter.getContentSize() != null ? chapter.getContentSize() : contentStore.rawLength(copy);
+			return new Body(copy, null, size);
+		}
+		String content = chapter.getLegacyContent();
+		byte[] bytes = content != null ? content.getBytes(StandardCharsets.UTF_8) : new byte[0];
+		return new Body(null, bytes, bytes.length);
+	}
+
+	/**
+	 * One reading page of the body, zero-based. Only that page is copied out;
+	 * a stored body is inflated no further than the end of the page.
+	 */
+	public ChapterContentPageDTO getPage(Chapter chapter, int page) throws IOException {
+		Body body = open(chapter);
+		long[] offsets = pageOffsets(chapter, body);
+		if (page < 0 || page >= offsets.length) {
+			throw new ResourceNotFoundException("Chapter " + chapter.getId() + " has no page " + page + ".");
+		}
+		long start = offsets[page];
+		long end = page + 1 < offsets.length ? offsets[page + 1] : body.size();
+		ByteArrayOutputStream out = new ByteArrayOutputStream((int) (end - start));
+		body.writeTo(out, start, end - start);
+		return new ChapterContentPageDTO(chapter.getId(), page, offsets.length, out.toString(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Stores a new body for the chapter and points the entity at it. The caller
+	 * saves the chapter.
+	 */
+	public void setContent(Chapter chapter, String content) {
+		chapter.setContent(content);
+		if (content == null) {
+			chapter.setContentPointer(null);
+			chapter.setLegacyContent(null);
+			chapter.setContentHash(null);
+			chapter.setContentSize(null);
+			chapter.setContentPageOffsets(null);
+			return;
+		}
+		chapter.setContentHash(hash(content));
+		layOutPages(chapter, content.getBytes(StandardCharsets.UTF_8));
+		if (contentStore.isEnabled()) {
+			chapter.setContentPointer(contentStore.append(content));
+			chapter.setLegacyContent(null);
+		} else {
+			chapter.setContentPointer(null);
+			chapter.setLegacyContent(content);
+		}
+	}
+
+	/**
+	 * Points {@code target} at the body already stored for {@code source}.
+	 */
+	public void copyContent(Chapter source, Chapter target) {
+		ContentPointer pointer = source.getContentPointer();
+		target.setContentPointer(pointer != null
+				? new ContentPointer(pointer.getSegment(), pointer.getOffset(), pointer.getLength())
+				: null);
+		target.setLegacyContent(source.getLegacyContent());
+		target.setContentHash(source.getContentHash());
+		target.setContentSize(source.getContentSize());
+		target.setContentPageOffsets(source.getContentPageOffsets());
+	}
+
+	/**
+	 * Records the size and page offsets of a body on its chapter.
+	 */
+	public void layOutPages(Chapter chapter, byte[] raw) {
+		chapter.setContentSize((long) raw.length);
+		chapter.setContentPageOffsets(encodeOffsets(paginate(raw, pageBytes)));
+	}
+
+	private long[] pageOffsets(Chapter chapter, Body body) {
+		String stored = chapter.getContentPageOffsets();
+		if (stored != null && !stored.isEmpty()) {
+			return Arrays.stream(stored.split(",")).mapToLong(Long::parseLong).toArray();
+		}
+		// Bodies written before pages were laid out: paginate once and keep the
+		// layout, unless the chapter has been rewritten in the meantime
+		if (body == null) {
+			body = open(chapter);
+		}
+		ByteArrayOutputStream out = new ByteArrayOutputStream((int) body.size());
+		try {
+			body.writeTo(out, 0, Long.MAX_VALUE);
+		} catch (IOException e) {
+			throw new IllegalStateException("Failed to read chapter content", e);
+		}
+		byte[] raw = out.toByteArray();
+		long[] offsets = paginate(raw, pageBytes);
+		String encoded = encodeOffsets(offsets);
+		String hash = hash(raw);
+		transactionTemplate.executeWithoutResult(status -> chapterRepository
+				.saveMissingLayout(chapter.getId(), (long) raw.length, encoded, hash));
+		chapter.setContentSize((long) raw.length);
+		chapter.setContentPageOffsets(encoded);
+		return offsets;
+	}
+
+	private static String encodeOffsets(long[] offsets) {
+		StringBuilder encoded = new StringBuilder();
+		for (long offset : offsets) {
+			if (encoded.length() > 0) {
+				encoded.append(',');
+			}
+			encoded.append(offset);
+		}
+		return encoded.toString();
+	}
+
+	/**
+	 * Start offsets of the pages of {@code raw}, always beginning with 0. Each
+	 * page runs to the first closing {@code </p>} (or failing that, newline) at
+	 * least {@code target} bytes in. Both are ASCII, so a boundary never splits
+	 * a UTF-8 sequence.
+	 */
+	static long[] paginate(byte[] raw, int target) {
+		long[] offsets = new long[1 + raw.length / Math.max(1, target)];
+		int count = 1;
+		int start = 0;
+		while (raw.length - start > target) {
+			int boundary = indexAfter(raw, PARAGRAPH_END, start + target);
+			if (boundary < 0) {
+				boundary = indexAfter(raw, LINE_END, start + target);
+			}
+			if (boundary < 0 || boundary >= raw.length) {
+				break;
+			}
+			if (count == offsets.length) {
+				offsets = Arrays.copyOf(offsets, count * 2);
+			}
+			offsets[count++] = boundary;
+			start = boundary;
+		}
+		return Arrays.copyOf(offsets, count);
+	}
+
+	private static int indexAfter(byte[] raw, byte[] marker, int from) {
+		outer:
+		for (int i = from; i <= raw.length - marker.length; i++) {
+			for (int j = 0; j < marker.length; j++) {
+				if (raw[i + j] != marker[j]) {
+					continue outer;
+				}
+			}
+			return i + marker.length;
+		}
+		return -1;
+	}
+
+	/**
+	 * A chapter body detached from its entity: either a store pointer or the
+	 * bytes of the legacy column.
+	 */
+	public final class Body {
+		private final ContentPointer pointer;
+		private final byte[] bytes;
+		private final long size;
+
+		private Body(ContentPointer pointer, byte[] bytes, long size) {
+			this.pointer = pointer;
+			this.bytes = bytes;
+			this.size = size;
+		}
+
+		public long size() {
+			return size;
+		}
+
+		/**
+		 * Writes up to {@code length} bytes starting at {@code from}. Returns the
+		 * number of bytes written.
+		 */
+		public long writeTo(OutputStream out, long from, long length) throws IOException {
+			if (pointer != null) {
+				return contentStore.transferTo(pointer, out, from, length);
+			}
+			if (from >= bytes.length) {
+				return 0;
+			}
+			int count = (int) Math.min(length, bytes.length - from);
+			out.write(bytes, (int) from, count);
+			return count;
+		}
+	}
+
+	public static boolean isStored(Chapter chapter) {
+		return chapter.getContentPointer() != null && chapter.getContentPointer().getSegment() != null;
+	}
+
+	public static String hash(String content) {
+		return hash(content.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static String hash(byte[] raw) {
+		try {
+			byte[] digest = MessageDigest.getInstance("SHA-256").digest(raw);
+			return HexFormat.of().formatHex(digest);
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 is not available", e);
+		}
+	}
+}
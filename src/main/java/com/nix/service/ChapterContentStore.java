@@ -0,0 +1,364 @@
+package com.nix.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Service;
+
+import com.nix.models.ContentPointer;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Append-only store for chapter bodies. Bodies are deflated against a shared
+ * HTML dictionary and appended to segment files; a record is addressed by
+ * (segment, offset, length) and never rewritten. Reads go through read-only
+ * memory mappings of the segment files, so inflating a body touches no heap
+ * copy of the compressed bytes.
+ *
+ * Record layout: magic, raw length, compressed length, CRC32 of the compressed
+ * bytes (four big-endian ints), then the zlib stream. A crash mid-append leaves
+ * an unreferenced partial record at the tail, which later appends skip past.
+ *
+ * Several instances may share the directory: an append holds an exclusive
+ * file lock on its segment and takes the offset from the size seen under that
+ * lock, and an instance whose segment was filled by another one moves on to
+ * the next. This relies on the filesystem honouring advisory locks across
+ * hosts (local disks, NFSv4); on storage that does not, enable the store on a
+ * single instance only.
+ */
+@Service
+public class ChapterContentStore {
+	private static final Logger logger = LoggerFactory.getLogger(ChapterContentStore.class);
+
+	private static final int MAGIC = 0x43484331;
+	private static final int HEADER_BYTES = 16;
+	private static final int STREAM_CHUNK_BYTES = 64 * 1024;
+	private static final Pattern SEGMENT_NAME = Pattern.compile("segment-(\\d{8})\\.seg");
+
+	@Value("${app.chapter-content.store.enabled:false}")
+	private boolean enabled;
+
+	@Value("${app.chapter-content.store.dir:data/chapter-content}")
+	private String directory;
+
+	@Value("${app.chapter-content.store.segment-max-bytes:268435456}")
+	private long segmentMaxBytes;
+
+	private byte[] dictionary;
+	private int dictionaryId;
+	private Path root;
+
+	private final Map<Integer, FileChannel> channels = new ConcurrentHashMap<>();
+	private final Map<Integer, MappedByteBuffer> mappings = new ConcurrentHashMap<>();
+
+	// Guarded by this
+	private int activeSegment;
+
+	@PostConstruct
+	void init() throws IOException {
+		try (InputStream in = new ClassPathResource("chapter-content/html-dictionary.txt").getInputStream()) {
+			dictionary = in.readAllBytes();
+		}
+		Deflater probe = new Deflater();
+		probe.setDictionary(dictionary);
+		dictionaryId = probe.getAdler();
+		probe.end();
+
+		if (!enabled) {
+			return;
+		}
+		if (segmentMaxBytes <= HEADER_BYTES || segmentMaxBytes > Integer.MAX_VALUE) {
+			throw new IllegalStateException("app.chapter-content.store.segment-max-bytes must fit in one mapping");
+		}
+		root = Paths.get(directory);
+		Files.createDirectories(root);
+		try (Stream<Path> files = Files.list(root)) {
+			activeSegment = files.map(path -> SEGMENT_NAME.matcher(path.getFileName().toString()))
+					.filter(Matcher::matches)
+					.mapToInt(matcher -> Integer.parseInt(matcher.group(1)))
+					.max()
+					.orElse(1);
+		}
+		logger.info("Chapter content store at {} (active segment {})", root.toAbsolutePath(), activeSegment);
+	}
+
+	@PreDestroy
+	void close() {
+		for (FileChannel channel : channels.values()) {
+			try {
+				channel.close();
+			} catch (IOException e) {
+				logger.warn("Failed to close content segment", e);
+			}
+		}
+		channels.clear();
+		mappings.clear();
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Compresses and appends a body, forcing it to disk before returning so the
+	 * pointer is safe to commit.
+	 */
+	public ContentPointer append(String content) {
+		byte[] raw = content.getBytes(StandardCharsets.UTF_8);
+		byte[] compressed = deflate(raw);
+		CRC32 crc = new CRC32();
+		crc.update(compressed);
+		ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES)
+				.putInt(MAGIC)
+				.putInt(raw.length)
+				.putInt(compressed.length)
+				.putInt((int) crc.getValue())
+				.flip();
+		int length = HEADER_BYTES + compressed.length;
+		if (length > segmentMaxBytes) {
+			throw new IllegalArgumentException("Chapter content is too large for a content segment.");
+		}
+
+		try {
+			synchronized (this) {
+				while (true) {
+					FileChannel channel = channel(activeSegment, true);
+					// Other instances append to the same files; the size is only
+					// trustworthy while the segment is locked.
+					try (FileLock lock = channel.lock()) {
+						long offset = channel.size();
+						if (offset + length > segmentMaxBytes) {
+							activeSegment++;
+							continue;
+						}
+						ByteBuffer[] record = { header, ByteBuffer.wrap(compressed) };
+						long position = offset;
+						while (record[1].hasRemaining()) {
+							position += channel.write(record[0].hasRemaining() ? record[0] : record[1], position);
+						}
+						channel.force(false);
+						return new ContentPointer(activeSegment, offset, length);
+					}
+				}
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException("Failed to append chapter content", e);
+		}
+	}
+
+	public String read(ContentPointer pointer) {
+		Record record = locate(pointer);
+		byte[] raw = new byte[record.rawLength()];
+		Inflater inflater = new Inflater();
+		inflater.setInput(record.payload());
+		try {
+			int read = 0;
+			while (read < raw.length) {
+				int n = inflate(inflater, raw, read, raw.length - read);
+				if (n == 0 && (inflater.finished() || inflater.needsInput())) {
+					break;
+				}
+				read += n;
+			}
+			if (read != raw.length) {
+				throw new IllegalStateException("Truncated chapter content record at " + describe(pointer));
+			}
+			return new String(raw, StandardCharsets.UTF_8);
+		} catch (DataFormatException e) {
+			throw new IllegalStateException("Corrupt chapter content record at " + describe(pointer), e);
+		} finally {
+			inflater.end();
+		}
+	}
+
+	/**
+	 * Inflates a body straight from the mapped segment into {@code out} in small
+	 * chunks, without building the whole body in memory. Returns the number of
+	 * bytes written.
+	 */
+	public long transferTo(ContentPointer pointer, OutputStream out) throws IOException {
+		return transferTo(pointer, out, 0, Long.MAX_VALUE);
+	}
+
+	/**
+	 * Like {@link #transferTo(ContentPointer, OutputStream)}, but writes only the
+	 * {@code length} raw bytes starting at {@code from}. Inflation stops as soon
+	 * as the range has been written.
+	 */
+	public long transferTo(ContentPointer pointer, OutputStream out, long from, long length) throws IOException {
+		Record record = locate(pointer);
+		long end = length > Long.MAX_VALUE - from ? Long.MAX_VALUE : from + length;
+		Inflater inflater = new Inflater();
+		inflater.setInput(record.payload());
+		byte[] chunk = new byte[STREAM_CHUNK_BYTES];
+		long position = 0;
+		long written = 0;
+		try {
+			while (!inflater.finished() && position < end) {
+				int n = inflate(inflater, chunk, 0, chunk.length);
+				if (n == 0 && !inflater.finished() && inflater.needsInput()) {
+					throw new IllegalStateException("Truncated chapter content record at " + describe(pointer));
+				}
+				long start = Math.max(position, from);
+				long stop = Math.min(position + n, end);
+				if (start < stop) {
+					out.write(chunk, (int) (start - position), (int) (stop - start));
+					written += stop - start;
+				}
+				position += n;
+			}
+			return written;
+		} catch (DataFormatException e) {
+			throw new IllegalStateException("Corrupt chapter content record at " + describe(pointer), e);
+		} finally {
+			inflater.end();
+		}
+	}
+
+	/**
+	 * Uncompressed size of a stored body, read from its record header.
+	 */
+	public int rawLength(ContentPointer pointer) {
+		return locate(pointer).rawLength();
+	}
+
+	private record Record(int rawLength, ByteBuffer payload) {
+	}
+
+	private Record locate(ContentPointer pointer) {
+		if (pointer == null || pointer.getSegment() == null || pointer.getOffset() == null
+				|| pointer.getLength() == null) {
+			throw new IllegalArgumentException("Incomplete chapter content pointer.");
+		}
+		int offset = Math.toIntExact(pointer.getOffset());
+		ByteBuffer buffer = mapping(pointer.getSegment(), offset + (long) pointer.getLength()).duplicate();
+		buffer.position(offset);
+		int magic = buffer.getInt();
+		int rawLength = buffer.getInt();
+		int compressedLength = buffer.getInt();
+		int checksum = buffer.getInt();
+		if (magic != MAGIC || HEADER_BYTES + compressedLength != pointer.getLength()) {
+			throw new IllegalStateException("No chapter content record at " + describe(pointer));
+		}
+		ByteBuffer payload = buffer.slice(offset + HEADER_BYTES, compressedLength);
+		CRC32 crc = new CRC32();
+		crc.update(payload.duplicate());
+		if ((int) crc.getValue() != checksum) {
+			throw new IllegalStateException("Checksum mismatch in chapter content record at " + describe(pointer));
+		}
+		return new Record(rawLength, payload);
+	}
+
+	/**
+	 * A read-only mapping of the segment covering at least {@code end} bytes.
+	 * Sealed segments are mapped once; the active one is remapped as it grows.
+	 */
+	private MappedByteBuffer mapping(int segment, long end) {
+		MappedByteBuffer mapping = mappings.get(segment);
+		if (mapping != null && mapping.capacity() >= end) {
+			return mapping;
+		}
+		try {
+			FileChannel channel = channel(segment, false);
+			long size = channel.size();
+			if (size < end) {
+				throw new IllegalStateException("Content segment " + segment + " is shorter than expected");
+			}
+			MappedByteBuffer remapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+			mappings.merge(segment, remapped, (current, candidate) -> current.capacity() >= candidate.capacity()
+					? current
+					: candidate);
+			return remapped;
+		} catch (IOException e) {
+			throw new UncheckedIOException("Failed to map content segment " + segment, e);
+		}
+	}
+
+	private FileChannel channel(int segment, boolean create) throws IOException {
+		FileChannel channel = channels.get(segment);
+		if (channel != null) {
+			return channel;
+		}
+		if (root == null) {
+			throw new IllegalStateException("The chapter content store is disabled.");
+		}
+		synchronized (channels) {
+			channel = channels.get(segment);
+			if (channel == null) {
+				Path path = root.resolve(String.format("segment-%08d.seg", segment));
+				if (!create && !Files.exists(path)) {
+					throw new IllegalStateException("Content segment " + segment + " does not exist");
+				}
+				channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+						StandardOpenOption.WRITE);
+				channels.put(segment, channel);
+			}
+			return channel;
+		}
+	}
+
+	private byte[] deflate(byte[] raw) {
+		Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+		try {
+			deflater.setDictionary(dictionary);
+			deflater.setInput(raw);
+			deflater.finish();
+			ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, raw.length / 3));
+			byte[] buffer = new byte[8192];
+			while (!deflater.finished()) {
+				int n = deflater.deflate(buffer);
+				out.write(buffer, 0, n);
+			}
+			return out.toByteArray();
+		} finally {
+			deflater.end();
+		}
+	}
+
+	/**
+	 * Inflates into {@code out}, supplying the shared dictionary when the zlib
+	 * header asks for it.
+	 */
+	private int inflate(Inflater inflater, byte[] out, int off, int len) throws DataFormatException {
+		int n = inflater.inflate(out, off, len);
+		if (n == 0 && inflater.needsDictionary()) {
+			if (inflater.getAdler() != dictionaryId) {
+				throw new IllegalStateException("Chapter content was written with an unknown dictionary.");
+			}
+			inflater.setDictionary(dictionary);
+			n = inflater.inflate(out, off, len);
+		}
+		return n;
+	}
+
+	private static String describe(ContentPointer pointer) {
+		return pointer.getSegment() + ":" + pointer.getOffset() + "+" + pointer.getLength();
+	}
+}
@@ -3,28 +3,33 @@ package com.nix.service;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
+import com.nix.dtos.ChapterDTO;
+import com.nix.dtos.ChapterSummaryDTO;
+import com.nix.dtos.ResourceVersion;
 import com.nix.models.Chapter;
 
 public interface ChapterService {
 	public Chapter findChapterById(UUID chapterId);
 
-	public void processChaptersByEpubFile(UUID bookId, InputStream inputStream, Integer startByChapterNum)
-			throws IOException;
+	public ResourceVersion getChapterVersion(UUID chapterId);
+
+	public ResourceVersion getPublishedChaptersVersion(UUID bookId, UUID viewerId);
 
 	public void processChaptersByDocFile(UUID bookId, InputStream inputStream, Integer startByChapterNum)
 			throws IOException;
 
-	public List<Chapter> findChaptersByBookId(UUID bookId);
+	public List<ChapterDTO> findChaptersByBookId(UUID bookId);
 
-	public List<Chapter> findChaptersByBookId(UUID bookId, String sortBy, String sortDir);
+	public List<ChapterDTO> findChaptersByBookId(UUID bookId, String sortBy, String sortDir);
 
-	public List<Chapter> findNotDraftedChaptersByBookId(UUID bookId);
+	public List<ChapterSummaryDTO> findNotDraftedChaptersByBookId(UUID bookId);
 
-	public List<Chapter> findNotDraftedChaptersByBookId(UUID bookId, String sortBy, String sortDir);
+	public List<ChapterSummaryDTO> findNotDraftedChaptersByBookId(UUID bookId, String sortBy, String sortDir);
 
-	public List<Chapter> getAllChapters();
+	public List<ChapterDTO> getAllChapters();
 
 	public Chapter getChapterByRoomId(String roomId);
 
@@ -40,6 +45,8 @@ public interface ChapterService {
 
 	public boolean isChapterUnlockedByUser(UUID userId, UUID chapterId);
 
+	public Set<UUID> getUnlockedChapterIds(UUID userId, UUID bookId);
+
 	public Boolean likeChapter(UUID userId, UUID chapterId) throws Exception;
 
 	public Chapter unlikeChapter(UUID userId, UUID chapterId) throws Exception;
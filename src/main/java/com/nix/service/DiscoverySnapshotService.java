@@ -0,0 +1,184 @@
+package com.nix.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nix.dtos.BookDTO;
+import com.nix.dtos.CategoryDTO;
+import com.nix.dtos.DiscoveryDTO;
+import com.nix.dtos.mappers.BookMapper;
+import com.nix.dtos.mappers.CategoryMapper;
+import com.nix.models.Book;
+import com.nix.repository.BookRepository;
+import com.nix.repository.BookViewHistoryRepository;
+import com.nix.repository.CategoryRepository;
+
+/**
+ * Precomputed landing-page lists (top liked, featured, trending, latest updates
+ * and top categories). They are rebuilt on a schedule, or within a few seconds
+ * after {@link #markStale()} is called by a catalogue change, and swapped in as
+ * one immutable snapshot. The anonymous /discovery response is kept
+ * pre-serialized.
+ */
+@Service
+public class DiscoverySnapshotService {
+	private static final Logger logger = LoggerFactory.getLogger(DiscoverySnapshotService.class);
+
+	public static final int TOP_LIKED_LIMIT = 10;
+	public static final int TRENDING_HOURS = 24;
+	public static final long TRENDING_MIN_VIEWS = 10;
+	public static final int TRENDING_LIMIT = 10;
+	public static final int LATEST_UPDATE_LIMIT = 5;
+
+	@Autowired
+	private BookRepository bookRepository;
+
+	@Autowired
+	private BookViewHistoryRepository bookViewHistoryRepository;
+
+	@Autowired
+	private CategoryRepository categoryRepository;
+
+	@Autowired
+	private BookMapper bookMapper;
+
+	@Autowired
+	private CategoryMapper categoryMapper;
+
+	@Autowired
+	private TrendingEngine trendingEngine;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Value("${app.discovery.refresh-interval-ms:300000}")
+	private long refreshIntervalMs;
+
+	private volatile Snapshot snapshot;
+	private volatile boolean stale = true;
+
+	/**
+	 * Asks for a rebuild on the next check instead of waiting for the refresh
+	 * interval.
+	 */
+	public void markStale() {
+		stale = true;
+	}
+
+	public DiscoveryDTO getDiscovery() {
+		return current().discovery();
+	}
+
+	/**
+	 * Serialized /discovery response, without books by the given authors.
+	 */
+	public byte[] getDiscoveryJson(Set<UUID> hiddenAuthorIds) throws JsonProcessingException {
+		Snapshot current = current();
+		if (hiddenAuthorIds == null || hiddenAuthorIds.isEmpty()) {
+			return current.json();
+		}
+		DiscoveryDTO discovery = current.discovery();
+		DiscoveryDTO filtered = new DiscoveryDTO(
+				withoutAuthors(discovery.getTopLikedBooks(), hiddenAuthorIds),
+				withoutAuthors(discovery.getFeaturedBooks(), hiddenAuthorIds),
+				withoutAuthors(discovery.getTrendingBooks(), hiddenAuthorIds),
+				withoutAuthors(discovery.getLatestUpdateBooks(), hiddenAuthorIds),
+				discovery.getTopCategories().stream()
+						.map(category -> new CategoryDTO(category.getId(), category.getName(),
+								category.getDescription(), withoutAuthors(category.getBooks(), hiddenAuthorIds)))
+						.toList(),
+				discovery.getGeneratedAt());
+		return objectMapper.writeValueAsBytes(filtered);
+	}
+
+	@Scheduled(fixedDelayString = "${app.discovery.check-interval-ms:5000}")
+	public void refreshIfStale() {
+		Snapshot current = snapshot;
+		boolean expired = current == null
+				|| System.currentTimeMillis() - current.refreshedAt() >= refreshIntervalMs;
+		if (stale || expired) {
+			try {
+				refresh();
+			} catch (Exception e) {
+				logger.error("Failed to refresh the discovery snapshot", e);
+			}
+		}
+	}
+
+	public synchronized void refresh() throws JsonProcessingException {
+		// Cleared first so a change made while the lists are computed triggers
+		// another refresh.
+		stale = false;
+		TransactionTemplate readOnlyTransaction = new TransactionTemplate(transactionManager);
+		readOnlyTransaction.setReadOnly(true);
+		DiscoveryDTO discovery = readOnlyTransaction.execute(status -> computeDiscovery());
+		snapshot = new Snapshot(discovery, objectMapper.writeValueAsBytes(discovery), System.currentTimeMillis());
+		logger.debug("Refreshed the discovery snapshot");
+	}
+
+	private DiscoveryDTO computeDiscovery() {
+		LocalDateTime now = LocalDateTime.now();
+		return new DiscoveryDTO(
+				List.copyOf(bookMapper.mapToDTOs(
+						bookRepository.findTopBooksByLikes(PageRequest.of(0, TOP_LIKED_LIMIT)))),
+				List.copyOf(bookMapper.mapToDTOs(bookRepository.findByIsSuggested(true))),
+				List.copyOf(bookMapper.mapToDTOs(findTrendingBooks(now))),
+				List.copyOf(bookMapper.mapToDTOs(
+						bookRepository.findTopBooksWithLatestChapters(PageRequest.of(0, LATEST_UPDATE_LIMIT)))),
+				List.copyOf(categoryMapper.mapToDTOs(categoryRepository.findTop6ByOrderByNameAsc())),
+				now);
+	}
+
+	private List<Book> findTrendingBooks(LocalDateTime now) {
+		if (trendingEngine.isReady()) {
+			return bookRepository.findAllByIdInOrder(trendingEngine.top(TRENDING_LIMIT));
+		}
+		return bookViewHistoryRepository.findTrendingBooks(now.minusHours(TRENDING_HOURS), TRENDING_MIN_VIEWS,
+				PageRequest.of(0, TRENDING_LIMIT));
+	}
+
+	private Snapshot current() {
+		Snapshot current = snapshot;
+		return current != null ? current : initialSnapshot();
+	}
+
+	private synchronized Snapshot initialSnapshot() {
+		if (snapshot == null) {
+			try {
+				refresh();
+			} catch (JsonProcessingException e) {
+				throw new IllegalStateException("Failed to serialize the discovery snapshot", e);
+			}
+		}
+		return snapshot;
+	}
+
+	private static List<BookDTO> withoutAuthors(List<BookDTO> books, Set<UUID> hiddenAuthorIds) {
+		if (books == null) {
+			return List.of();
+		}
+		return books.stream()
+				.filter(book -> book.getAuthor() == null || !hiddenAuthorIds.contains(book.getAuthor().getId()))
+				.toList();
+	}
+
+	private record Snapshot(DiscoveryDTO discovery, byte[] json, long refreshedAt) {
+	}
+}
@@ -0,0 +1,385 @@
+package com.nix.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.zip.ZipFile;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.nix.dtos.EpubImportJobDTO;
+import com.nix.exception.ForbiddenAccessException;
+import com.nix.exception.ResourceNotFoundException;
+import com.nix.models.Chapter;
+import com.nix.models.ContentPointer;
+import com.nix.models.EpubImportJob;
+import com.nix.models.EpubImportJob.Status;
+import com.nix.models.User;
+import com.nix.repository.BookRepository;
+import com.nix.repository.EpubImportJobRepository;
+import com.nix.repository.UserRepository;
+import com.nix.util.SecurityUtils;
+import com.nix.util.UuidBytes;
+
+import jakarta.annotation.PreDestroy;
+import nl.siegmann.epublib.domain.Resource;
+import nl.siegmann.epublib.domain.TOCReference;
+import nl.siegmann.epublib.domain.TableOfContents;
+import nl.siegmann.epublib.epub.EpubReader;
+
+/**
+ * Imports uploaded EPUB files as draft chapters in the background. The upload
+ * is saved to disk and opened lazily, so the archive is never held in memory:
+ * each table-of-contents entry is read from its zip entry only when its turn
+ * comes. Chapters are inserted with JDBC batches, one chunk per transaction
+ * that also records the job's progress.
+ *
+ * A job is owned by the instance running it, which keeps its heartbeat fresh.
+ * Jobs whose heartbeat has expired (their instance stopped) are claimed with a
+ * conditional update by exactly one instance and resumed there, which is why
+ * {@code app.epub-import.dir} must be storage shared by every instance. Every
+ * write checks ownership, so a worker that lost its claim stops without
+ * touching the job.
+ *
+ * Progress is available from {@code GET /api/epub-imports/{jobId}} and is
+ * pushed to the requester on {@code /user/epub-imports} after every chunk.
+ */
+@Service
+public class EpubImportService {
+	private static final Logger logger = LoggerFactory.getLogger(EpubImportService.class);
+
+	private static final List<Status> UNFINISHED = List.of(Status.PENDING, Status.RUNNING);
+	private static final int MAX_CHUNK_BYTES = 16 * 1024 * 1024;
+	private static final int MAX_ERROR_LINES = 100;
+
+	private static final String INSERT_CHAPTER = "INSERT INTO chapter (id, book_id, room_id, is_draft, chapter_num, "
+			+ "title, content, content_segment, content_offset, content_length, content_hash, content_size, "
+			+ "content_page_offsets, upload_date, price, is_locked, content_version, updated_at) "
+			+ "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+	private final EpubImportJobRepository importJobRepository;
+	private final BookRepository bookRepository;
+	private final UserRepository userRepository;
+	private final ChapterContentService chapterContentService;
+	private final JdbcTemplate jdbcTemplate;
+	private final SimpMessagingTemplate messagingTemplate;
+	private final TransactionTemplate transaction;
+	private final ExecutorService workers;
+	private final Path uploadDirectory;
+	private final int batchSize;
+	private final Duration heartbeatTimeout;
+	private final String instanceId = UUID.randomUUID().toString();
+
+	/**
+	 * Thrown inside a job transaction when another instance has taken the job
+	 * over; the transaction rolls back and the worker stops.
+	 */
+	private static final class LostClaimException extends RuntimeException {
+		private static final long serialVersionUID = 1L;
+
+		LostClaimException(UUID jobId) {
+			super("EPUB import job " + jobId + " is now owned by another instance");
+		}
+	}
+
+	public EpubImportService(EpubImportJobRepository importJobRepository, BookRepository bookRepository,
+			UserRepository userRepository, ChapterContentService chapterContentService, JdbcTemplate jdbcTemplate,
+			SimpMessagingTemplate messagingTemplate, PlatformTransactionManager transactionManager,
+			@Value("${app.epub-import.dir:data/epub-imports}") String directory,
+			@Value("${app.epub-import.worker-threads:1}") int workerThreads,
+			@Value("${app.epub-import.batch-size:100}") int batchSize,
+			@Value("${app.epub-import.heartbeat-timeout-ms:120000}") long heartbeatTimeoutMs) {
+		this.importJobRepository = importJobRepository;
+		this.bookRepository = bookRepository;
+		this.userRepository = userRepository;
+		this.chapterContentService = chapterContentService;
+		this.jdbcTemplate = jdbcTemplate;
+		this.messagingTemplate = messagingTemplate;
+		this.transaction = new TransactionTemplate(transactionManager);
+		this.uploadDirectory = Paths.get(directory).toAbsolutePath();
+		this.batchSize = batchSize;
+		this.heartbeatTimeout = Duration.ofMillis(heartbeatTimeoutMs);
+		AtomicInteger threadCount = new AtomicInteger();
+		this.workers = Executors.newFixedThreadPool(workerThreads, runnable -> {
+			Thread thread = new Thread(runnable, "epub-import-worker-" + threadCount.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * Saves the upload to disk and queues its import, returning at once.
+	 */
+	public EpubImportJobDTO submit(UUID bookId, MultipartFile file, int startChapterNum, UUID requestedBy)
+			throws IOException {
+		if (!bookRepository.existsById(bookId)) {
+			throw new ResourceNotFoundException("Book not found with ID: " + bookId);
+		}
+		EpubImportJob job = new EpubImportJob(bookId, requestedBy, file.getOriginalFilename(), startChapterNum);
+		job.setOwner(instanceId);
+		job.setHeartbeatAt(LocalDateTime.now());
+		importJobRepository.save(job);
+		Path upload = uploadDirectory.resolve(job.getId() + ".epub");
+		try {
+			Files.createDirectories(uploadDirectory);
+			file.transferTo(upload);
+		} catch (IOException e) {
+			importJobRepository.delete(job);
+			throw e;
+		}
+		job.setFilePath(upload.toString());
+		importJobRepository.save(job);
+		workers.execute(() -> run(job));
+		return toDTO(job);
+	}
+
+	/**
+	 * Progress of a job, visible to the user who started it and to admins.
+	 */
+	public EpubImportJobDTO getJob(UUID jobId, User currentUser) {
+		EpubImportJob job = importJobRepository.findById(jobId)
+				.orElseThrow(() -> new ResourceNotFoundException("EPUB import job not found with ID: " + jobId));
+		if (!SecurityUtils.isAdmin(currentUser) && !currentUser.getId().equals(job.getRequestedBy())) {
+			throw new ForbiddenAccessException("You do not have permission to view this import job.");
+		}
+		return toDTO(job);
+	}
+
+	/**
+	 * Refreshes the heartbeat of the jobs this instance owns, then claims and
+	 * resumes jobs abandoned by instances that stopped.
+	 */
+	@Scheduled(fixedDelayString = "${app.epub-import.heartbeat-interval-ms:30000}")
+	public void heartbeat() {
+		LocalDateTime now = LocalDateTime.now();
+		transaction.execute(status -> importJobRepository.heartbeat(instanceId, now, UNFINISHED));
+		int resumed = 0;
+		for (UUID jobId : importJobRepository.findAbandonedIds(UNFINISHED, now.minus(heartbeatTimeout))) {
+			Integer claimed = transaction.execute(status -> importJobRepository.claim(jobId, instanceId, now,
+					UNFINISHED, now.minus(heartbeatTimeout)));
+			if (claimed != null && claimed == 1) {
+				importJobRepository.findById(jobId).ifPresent(job -> workers.execute(() -> run(job)));
+				resumed++;
+			}
+		}
+		if (resumed > 0) {
+			logger.info("Resuming {} abandoned EPUB import jobs", resumed);
+		}
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		// Running jobs keep their RUNNING status and resume from their last chunk
+		workers.shutdownNow();
+	}
+
+	private void run(EpubImportJob job) {
+		String recipient = userRepository.findById(job.getRequestedBy()).map(User::getUsername).orElse(null);
+		try {
+			if (job.getFilePath() == null || !Files.exists(Paths.get(job.getFilePath()))) {
+				throw new IllegalStateException("The uploaded EPUB file is no longer available.");
+			}
+			try (ZipFile zip = new ZipFile(job.getFilePath())) {
+				nl.siegmann.epublib.domain.Book epub = new EpubReader().readEpubLazy(zip,
+						StandardCharsets.UTF_8.name());
+				TableOfContents tableOfContents = epub.getTableOfContents();
+				if (tableOfContents == null || tableOfContents.getTocReferences() == null) {
+					throw new IllegalStateException("Table of contents is missing or invalid in the EPUB file.");
+				}
+				List<TOCReference> entries = tableOfContents.getTocReferences();
+				update(job, recipient, j -> {
+					j.setStatus(Status.RUNNING);
+					j.setTotalEntries(entries.size());
+				});
+				while (job.getNextEntry() < entries.size()) {
+					importChunk(job, entries);
+					publish(job, recipient);
+					if (Thread.currentThread().isInterrupted()) {
+						return;
+					}
+				}
+			}
+			update(job, recipient, j -> {
+				j.setStatus(Status.COMPLETED);
+				j.setCompletedAt(LocalDateTime.now());
+			});
+			removeUpload(job);
+			logger.info("Imported {} chapters into book {} from {} ({} entries skipped)", job.getImportedChapters(),
+					job.getBookId(), job.getFileName(), job.getSkippedEntries());
+		} catch (LostClaimException e) {
+			logger.warn(e.getMessage());
+		} catch (Exception e) {
+			if (Thread.currentThread().isInterrupted()) {
+				return;
+			}
+			logger.error("EPUB import job {} failed at entry {}", job.getId(), job.getNextEntry(), e);
+			try {
+				update(job, recipient, j -> {
+					j.setStatus(Status.FAILED);
+					j.setFailureReason(e.getMessage());
+				});
+				removeUpload(job);
+			} catch (LostClaimException lost) {
+				logger.warn(lost.getMessage());
+			}
+		}
+	}
+
+	/**
+	 * Reads the next entries, up to the batch size or {@link #MAX_CHUNK_BYTES}
+	 * of content, and inserts them together with the job's new position.
+	 * Entries that cannot be read are skipped and reported on the job.
+	 */
+	private void importChunk(EpubImportJob job, List<TOCReference> entries) {
+		List<Object[]> rows = new ArrayList<>();
+		List<String> errors = new ArrayList<>();
+		int chapterNum = job.getNextChapterNum();
+		long chunkBytes = 0;
+		int entry = job.getNextEntry();
+		while (entry < entries.size() && rows.size() + errors.size() < batchSize && chunkBytes < MAX_CHUNK_BYTES) {
+			TOCReference reference = entries.get(entry++);
+			Resource resource = reference != null ? reference.getResource() : null;
+			if (resource == null) {
+				errors.add("Entry " + entry + ": no content");
+				continue;
+			}
+			byte[] data;
+			try (InputStream in = resource.getInputStream()) {
+				data = in.readAllBytes();
+			} catch (IOException e) {
+				errors.add("Entry " + entry + " (" + resource.getHref() + "): " + e.getMessage());
+				continue;
+			}
+			String title = resource.getTitle() != null ? resource.getTitle() : "Untitled Chapter";
+			rows.add(chapterRow(job.getBookId(), String.valueOf(chapterNum++), title,
+					new String(data, StandardCharsets.UTF_8)));
+			chunkBytes += data.length;
+		}
+
+		int nextEntry = entry;
+		int nextChapterNum = chapterNum;
+		commit(job, () -> {
+			if (!rows.isEmpty()) {
+				jdbcTemplate.batchUpdate(INSERT_CHAPTER, rows);
+			}
+		}, j -> {
+			j.setNextEntry(nextEntry);
+			j.setNextChapterNum(nextChapterNum);
+			j.setImportedChapters(j.getImportedChapters() + rows.size());
+			j.setSkippedEntries(j.getSkippedEntries() + errors.size());
+			j.setErrors(appendErrors(j.getErrors(), errors));
+		});
+	}
+
+	/**
+	 * The insert parameters for one draft chapter. The body goes through
+	 * {@link ChapterContentService} like any other draft, so it lands in the
+	 * content store when that is enabled.
+	 */
+	private Object[] chapterRow(UUID bookId, String chapterNum, String title, String content) {
+		Chapter chapter = new Chapter();
+		chapter.markModified();
+		chapterContentService.setContent(chapter, content);
+		ContentPointer pointer = chapter.getContentPointer();
+		Timestamp now = Timestamp.valueOf(chapter.getUpdatedAt());
+		return new Object[] { UuidBytes.toBytes(UUID.randomUUID()), UuidBytes.toBytes(bookId),
+				UUID.randomUUID().toString(), true, chapterNum, title, chapter.getLegacyContent(),
+				pointer != null ? pointer.getSegment() : null, pointer != null ? pointer.getOffset() : null,
+				pointer != null ? pointer.getLength() : null, chapter.getContentHash(), chapter.getContentSize(),
+				chapter.getContentPageOffsets(), now, 0, false, chapter.getContentVersion(), now };
+	}
+
+	private static String appendErrors(String existing, List<String> errors) {
+		if (errors.isEmpty()) {
+			return existing;
+		}
+		List<String> lines = new ArrayList<>();
+		if (existing != null && !existing.isEmpty()) {
+			lines.addAll(Arrays.asList(existing.split("\n")));
+		}
+		for (String error : errors) {
+			if (lines.size() >= MAX_ERROR_LINES) {
+				break;
+			}
+			lines.add(error.replace('\n', ' '));
+		}
+		return String.join("\n", lines);
+	}
+
+	private void update(EpubImportJob job, String recipient, Consumer<EpubImportJob> change) {
+		commit(job, () -> {
+		}, change);
+		publish(job, recipient);
+	}
+
+	/**
+	 * Runs {@code work} and applies {@code change} to the stored job in one
+	 * transaction, provided this instance still owns the job, then mirrors the
+	 * change on the in-memory copy.
+	 */
+	private void commit(EpubImportJob job, Runnable work, Consumer<EpubImportJob> change) {
+		LocalDateTime now = LocalDateTime.now();
+		Consumer<EpubImportJob> stamped = change.andThen(j -> {
+			j.setUpdatedAt(now);
+			j.setHeartbeatAt(now);
+		});
+		transaction.executeWithoutResult(status -> {
+			EpubImportJob stored = importJobRepository.findForUpdate(job.getId())
+					.filter(j -> instanceId.equals(j.getOwner()))
+					.orElseThrow(() -> new LostClaimException(job.getId()));
+			work.run();
+			stamped.accept(stored);
+		});
+		stamped.accept(job);
+	}
+
+	private void publish(EpubImportJob job, String recipient) {
+		if (recipient != null) {
+			messagingTemplate.convertAndSendToUser(recipient, "/epub-imports", toDTO(job));
+		}
+	}
+
+	private void removeUpload(EpubImportJob job) {
+		if (job.getFilePath() == null) {
+			return;
+		}
+		try {
+			Files.deleteIfExists(Paths.get(job.getFilePath()));
+			job.setFilePath(null);
+		} catch (IOException e) {
+			logger.warn("Failed to remove EPUB upload {}", job.getFilePath(), e);
+		}
+	}
+
+	private EpubImportJobDTO toDTO(EpubImportJob job) {
+		List<String> errors = job.getErrors() != null && !job.getErrors().isEmpty()
+				? List.of(job.getErrors().split("\n"))
+				: List.of();
+		return new EpubImportJobDTO(job.getId(), job.getBookId(), job.getFileName(), job.getStatus(),
+				job.getTotalEntries(), job.getNextEntry(), job.getImportedChapters(), job.getSkippedEntries(), errors,
+				job.getFailureReason(), job.getCreatedAt(), job.getUpdatedAt(), job.getCompletedAt());
+	}
+}
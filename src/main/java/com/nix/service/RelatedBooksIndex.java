@@ -0,0 +1,506 @@
+package com.nix.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.nix.config.TaskSchedulerConfig;
+import com.nix.models.Book;
+import com.nix.models.Tag;
+import com.nix.repository.BookFavouriteRepository;
+import com.nix.repository.BookRepository;
+
+/**
+ * In-memory similarity index for "related books". Each book is a set of
+ * features: its tags, category and language, and the users who favourited it.
+ * Two books are compared with weighted Jaccard similarity, where a feature
+ * weighs its kind's boost times its inverse document frequency, so sharing a
+ * rare tag counts for more than sharing the category.
+ *
+ * Candidates are collected from the posting lists of the book's rarest features
+ * first, up to a fixed number, and scored exactly, so a lookup's cost is bounded
+ * by that number rather than by the catalogue size. Updates find a book in each
+ * posting list through a stored position, so they do not scan long lists
+ * either. {@code RelatedBooksIndexBenchmarkTest} measures both on a synthetic
+ * 500k-book catalogue.
+ *
+ * Book and favourite changes are applied after their transaction commits. The
+ * index is rebuilt from the database on startup and periodically.
+ */
+@Service
+public class RelatedBooksIndex {
+	private static final Logger logger = LoggerFactory.getLogger(RelatedBooksIndex.class);
+
+	private static final double TAG_BOOST = 1.0;
+	private static final double CATEGORY_BOOST = 0.5;
+	private static final double LANGUAGE_BOOST = 0.25;
+	private static final double FAVOURITE_BOOST = 0.5;
+
+	private static final int MAX_CANDIDATES = 500;
+	// Favourites beyond this add little to the similarity and would only make
+	// popular books slower to compare.
+	private static final int MAX_FAVOURITE_FEATURES = 256;
+	private static final int REBUILD_PAGE_SIZE = 500;
+
+	private final BookRepository bookRepository;
+	private final BookFavouriteRepository bookFavouriteRepository;
+	private final TransactionTemplate readOnlyTransaction;
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+	private Segment segment = new Segment();
+	private boolean ready;
+	// Changes applied while a rebuild is running; replayed onto the new segment.
+	private List<Consumer<Segment>> changesDuringRebuild;
+
+	public RelatedBooksIndex(BookRepository bookRepository, BookFavouriteRepository bookFavouriteRepository,
+			PlatformTransactionManager transactionManager) {
+		this.bookRepository = bookRepository;
+		this.bookFavouriteRepository = bookFavouriteRepository;
+		this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+		this.readOnlyTransaction.setReadOnly(true);
+	}
+
+	/**
+	 * Whether the initial build has completed. Until then callers should fall
+	 * back to the database.
+	 */
+	public boolean isReady() {
+		lock.readLock().lock();
+		try {
+			return ready;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Updates the tag, category and language features of the book, keeping its
+	 * favourites. Lazy associations must still be loadable.
+	 */
+	public void index(Book book) {
+		UUID bookId = book.getId();
+		List<String> features = contentFeatures(book);
+		afterCommit(() -> apply(segment -> segment.replaceContent(bookId, features)));
+	}
+
+	public void remove(UUID bookId) {
+		afterCommit(() -> apply(segment -> segment.remove(bookId)));
+	}
+
+	public void addFavourite(UUID bookId, UUID userId) {
+		afterCommit(() -> apply(segment -> segment.addFeature(bookId, favouriteFeature(userId))));
+	}
+
+	public void removeFavourite(UUID bookId, UUID userId) {
+		afterCommit(() -> apply(segment -> segment.removeFeature(bookId, favouriteFeature(userId))));
+	}
+
+	/**
+	 * Ids of the books most similar to the given one, best first. Empty when the
+	 * book is not indexed.
+	 */
+	public List<UUID> findRelated(UUID bookId, int limit) {
+		lock.readLock().lock();
+		try {
+			return segment.findRelated(bookId, limit);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	@Scheduled(fixedDelayString = "${app.related-books.rebuild-interval-ms:3600000}",
+			scheduler = TaskSchedulerConfig.MAINTENANCE)
+	public void rebuild() {
+		lock.writeLock().lock();
+		try {
+			changesDuringRebuild = new ArrayList<>();
+		} finally {
+			lock.writeLock().unlock();
+		}
+
+		Segment rebuilt = new Segment();
+		try {
+			int pageNumber = 0;
+			boolean hasNext = true;
+			while (hasNext) {
+				PageRequest pageRequest = PageRequest.of(pageNumber++, REBUILD_PAGE_SIZE, Sort.by("id"));
+				hasNext = Boolean.TRUE.equals(readOnlyTransaction.execute(status -> {
+					Slice<Object[]> page = bookRepository.findFeatureRows(pageRequest);
+					if (page.isEmpty()) {
+						return false;
+					}
+					Map<UUID, List<Integer>> tagIds = new HashMap<>();
+					List<UUID> bookIds = page.map(row -> (UUID) row[0]).getContent();
+					for (Object[] row : bookRepository.findTagIdsByBookIds(bookIds)) {
+						tagIds.computeIfAbsent((UUID) row[0], id -> new ArrayList<>()).add((Integer) row[1]);
+					}
+					Map<UUID, List<String>> features = new HashMap<>();
+					for (Object[] row : page) {
+						UUID bookId = (UUID) row[0];
+						features.put(bookId, contentFeatures(tagIds.getOrDefault(bookId, List.of()), (Integer) row[1],
+								(String) row[2]));
+					}
+					for (Object[] row : bookFavouriteRepository.findUserIdsByBookIds(features.keySet())) {
+						features.get((UUID) row[0]).add(favouriteFeature((UUID) row[1]));
+					}
+					features.forEach(rebuilt::put);
+					return page.hasNext();
+				}));
+			}
+		} catch (Exception e) {
+			logger.error("Failed to rebuild the related books index", e);
+			lock.writeLock().lock();
+			try {
+				changesDuringRebuild = null;
+			} finally {
+				lock.writeLock().unlock();
+			}
+			return;
+		}
+
+		lock.writeLock().lock();
+		try {
+			changesDuringRebuild.forEach(change -> change.accept(rebuilt));
+			changesDuringRebuild = null;
+			segment = rebuilt;
+			ready = true;
+		} finally {
+			lock.writeLock().unlock();
+		}
+		logger.info("Rebuilt the related books index with {} books and {} features", rebuilt.docIds.size(),
+				rebuilt.featureKeys.size());
+	}
+
+	private void apply(Consumer<Segment> change) {
+		lock.writeLock().lock();
+		try {
+			change.accept(segment);
+			if (changesDuringRebuild != null) {
+				changesDuringRebuild.add(change);
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	private static void afterCommit(Runnable action) {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					action.run();
+				}
+			});
+		} else {
+			action.run();
+		}
+	}
+
+	static List<String> contentFeatures(Book book) {
+		List<Integer> tagIds = new ArrayList<>();
+		if (book.getTags() != null) {
+			for (Tag tag : book.getTags()) {
+				tagIds.add(tag.getId());
+			}
+		}
+		return contentFeatures(tagIds, book.getCategory() != null ? book.getCategory().getId() : null,
+				book.getLanguage());
+	}
+
+	static List<String> contentFeatures(Collection<Integer> tagIds, Integer categoryId, String language) {
+		List<String> features = new ArrayList<>();
+		for (Integer tagId : tagIds) {
+			features.add("t:" + tagId);
+		}
+		if (categoryId != null) {
+			features.add("c:" + categoryId);
+		}
+		if (language != null && !language.isBlank()) {
+			features.add("l:" + language.trim().toLowerCase(Locale.ROOT));
+		}
+		return features;
+	}
+
+	private static String favouriteFeature(UUID userId) {
+		return "u:" + userId;
+	}
+
+	private static double boost(String featureKey) {
+		switch (featureKey.charAt(0)) {
+		case 't':
+			return TAG_BOOST;
+		case 'c':
+			return CATEGORY_BOOST;
+		case 'l':
+			return LANGUAGE_BOOST;
+		default:
+			return FAVOURITE_BOOST;
+		}
+	}
+
+	/**
+	 * Books as sorted arrays of interned feature ids, and a posting list of book
+	 * doc ids per feature. Doc ids of removed books are not reused until the next
+	 * rebuild. Guarded by the index lock.
+	 */
+	private static final class Segment {
+		private final Map<String, Integer> featureIds = new HashMap<>();
+		private final List<String> featureKeys = new ArrayList<>();
+		private final List<IntList> postings = new ArrayList<>();
+		private final Map<UUID, Integer> docIds = new HashMap<>();
+		private final List<UUID> bookIds = new ArrayList<>();
+		private final List<int[]> features = new ArrayList<>();
+		// Where each of a book's features lists the book, so a book leaves even
+		// the longest posting list without a scan.
+		private final List<int[]> positions = new ArrayList<>();
+		// Boost and posting list size per feature id, in flat arrays so that
+		// scoring a candidate does not chase a pointer per feature
+		private double[] boosts = new double[64];
+		private int[] frequencies = new int[64];
+
+		void put(UUID bookId, List<String> keys) {
+			Set<Integer> ids = new LinkedHashSet<>();
+			int favourites = 0;
+			for (String key : keys) {
+				if (key.startsWith("u:") && ++favourites > MAX_FAVOURITE_FEATURES) {
+					continue;
+				}
+				ids.add(featureId(key));
+			}
+			setFeatures(docId(bookId), ids.stream().mapToInt(Integer::intValue).sorted().toArray());
+		}
+
+		void replaceContent(UUID bookId, List<String> contentKeys) {
+			List<String> keys = new ArrayList<>(contentKeys);
+			Integer doc = docIds.get(bookId);
+			if (doc != null) {
+				for (int feature : features.get(doc)) {
+					if (featureKeys.get(feature).startsWith("u:")) {
+						keys.add(featureKeys.get(feature));
+					}
+				}
+			}
+			put(bookId, keys);
+		}
+
+		void addFeature(UUID bookId, String key) {
+			Integer doc = docIds.get(bookId);
+			if (doc == null) {
+				return;
+			}
+			int[] current = features.get(doc);
+			long favourites = Arrays.stream(current).filter(f -> featureKeys.get(f).startsWith("u:")).count();
+			int feature = featureId(key);
+			if (favourites >= MAX_FAVOURITE_FEATURES || Arrays.binarySearch(current, feature) >= 0) {
+				return;
+			}
+			int[] updated = Arrays.copyOf(current, current.length + 1);
+			updated[current.length] = feature;
+			Arrays.sort(updated);
+			setFeatures(doc, updated);
+		}
+
+		void removeFeature(UUID bookId, String key) {
+			Integer doc = docIds.get(bookId);
+			Integer feature = featureIds.get(key);
+			if (doc == null || feature == null) {
+				return;
+			}
+			setFeatures(doc, Arrays.stream(features.get(doc)).filter(f -> f != feature).toArray());
+		}
+
+		void remove(UUID bookId) {
+			Integer doc = docIds.remove(bookId);
+			if (doc != null) {
+				setFeatures(doc, null);
+			}
+		}
+
+		List<UUID> findRelated(UUID bookId, int limit) {
+			Integer doc = docIds.get(bookId);
+			if (doc == null || features.get(doc).length == 0) {
+				return List.of();
+			}
+			int[] own = features.get(doc);
+
+			// Rarest features first, so the candidate budget goes to the books
+			// that share the most informative features.
+			Integer[] byFrequency = Arrays.stream(own).boxed().toArray(Integer[]::new);
+			Arrays.sort(byFrequency, Comparator.comparingInt(feature -> frequencies[feature]));
+			Set<Integer> candidates = new LinkedHashSet<>();
+			collect: for (int feature : byFrequency) {
+				IntList posting = postings.get(feature);
+				for (int i = 0; i < posting.size(); i++) {
+					int candidate = posting.get(i);
+					if (candidate != doc && candidates.add(candidate) && candidates.size() >= MAX_CANDIDATES) {
+						break collect;
+					}
+				}
+			}
+
+			double ownWeight = totalWeight(own);
+			Comparator<Neighbour> ranking = Comparator.comparingDouble(Neighbour::similarity).reversed()
+					.thenComparing(neighbour -> bookIds.get(neighbour.doc()));
+			// Keeps only the best few, worst first, instead of sorting every candidate
+			PriorityQueue<Neighbour> best = new PriorityQueue<>(limit + 1, ranking.reversed());
+			for (int candidate : candidates) {
+				double similarity = similarity(own, ownWeight, features.get(candidate));
+				if (best.size() == limit && (limit == 0 || similarity < best.peek().similarity())) {
+					continue;
+				}
+				best.add(new Neighbour(candidate, similarity));
+				if (best.size() > limit) {
+					best.poll();
+				}
+			}
+			List<Neighbour> neighbours = new ArrayList<>(best);
+			neighbours.sort(ranking);
+			return neighbours.stream().map(neighbour -> bookIds.get(neighbour.doc())).toList();
+		}
+
+		private double similarity(int[] own, double ownWeight, int[] other) {
+			double shared = 0;
+			double otherWeight = 0;
+			int i = 0;
+			for (int feature : other) {
+				double weight = weight(feature);
+				otherWeight += weight;
+				while (i < own.length && own[i] < feature) {
+					i++;
+				}
+				if (i < own.length && own[i] == feature) {
+					shared += weight;
+				}
+			}
+			double union = ownWeight + otherWeight - shared;
+			return union > 0 ? shared / union : 0;
+		}
+
+		private double totalWeight(int[] docFeatures) {
+			double total = 0;
+			for (int feature : docFeatures) {
+				total += weight(feature);
+			}
+			return total;
+		}
+
+		private double weight(int feature) {
+			int frequency = Math.max(frequencies[feature], 1);
+			return boosts[feature] * Math.log(1 + (double) docIds.size() / frequency);
+		}
+
+		private void setFeatures(int doc, int[] updated) {
+			int[] previous = features.get(doc);
+			int[] previousPositions = positions.get(doc);
+			for (int i = 0; i < previous.length; i++) {
+				int feature = previous[i];
+				if (updated == null || Arrays.binarySearch(updated, feature) < 0) {
+					int moved = postings.get(feature).removeAt(previousPositions[i]);
+					if (moved >= 0) {
+						positions.get(moved)[Arrays.binarySearch(features.get(moved), feature)] = previousPositions[i];
+					}
+					frequencies[feature]--;
+				}
+			}
+			int[] kept = updated != null ? updated : new int[0];
+			int[] keptPositions = new int[kept.length];
+			for (int i = 0; i < kept.length; i++) {
+				int feature = kept[i];
+				int j = Arrays.binarySearch(previous, feature);
+				if (j >= 0) {
+					keptPositions[i] = previousPositions[j];
+				} else {
+					IntList posting = postings.get(feature);
+					keptPositions[i] = posting.size();
+					posting.add(doc);
+					frequencies[feature]++;
+				}
+			}
+			features.set(doc, kept);
+			positions.set(doc, keptPositions);
+		}
+
+		private int docId(UUID bookId) {
+			return docIds.computeIfAbsent(bookId, id -> {
+				bookIds.add(id);
+				features.add(new int[0]);
+				positions.add(new int[0]);
+				return bookIds.size() - 1;
+			});
+		}
+
+		private int featureId(String key) {
+			return featureIds.computeIfAbsent(key, k -> {
+				int feature = featureKeys.size();
+				if (feature == boosts.length) {
+					boosts = Arrays.copyOf(boosts, feature * 2);
+					frequencies = Arrays.copyOf(frequencies, feature * 2);
+				}
+				boosts[feature] = boost(k);
+				featureKeys.add(k);
+				postings.add(new IntList());
+				return feature;
+			});
+		}
+	}
+
+	private record Neighbour(int doc, double similarity) {
+	}
+
+	/**
+	 * Growable list of ints; removal swaps in the last element, so the order is
+	 * not kept.
+	 */
+	private static final class IntList {
+		private int[] values = new int[4];
+		private int size;
+
+		void add(int value) {
+			if (size == values.length) {
+				values = Arrays.copyOf(values, size * 2);
+			}
+			values[size++] = value;
+		}
+
+		/**
+		 * Removes the value at {@code index}. Returns the value moved into its
+		 * place, or -1 when it was the last one.
+		 */
+		int removeAt(int index) {
+			values[index] = values[--size];
+			return index < size ? values[index] : -1;
+		}
+
+		int get(int index) {
+			return values[index];
+		}
+
+		int size() {
+			return size;
+		}
+	}
+}
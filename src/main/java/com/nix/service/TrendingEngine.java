@@ -0,0 +1,347 @@
+package com.nix.service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.nix.config.TaskSchedulerConfig;
+import com.nix.enums.TrendingSignal;
+import com.nix.models.BookTrendingScore;
+import com.nix.repository.BookTrendingScoreRepository;
+import com.nix.repository.BookViewHistoryRepository;
+import com.nix.util.UuidBytes;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Streaming trending ranking. Every view, comment, favourite and unlock adds its
+ * weight to the book's score, and scores decay exponentially with a configurable
+ * half-life, so a book's score reflects its recent activity without keeping a
+ * window of events.
+ *
+ * Scores are stored relative to a fixed landmark time: an event at time t adds
+ * {@code weight * 2^((t - landmark) / halfLife)}. Stored scores never need to be
+ * decayed in place and only ever grow, which keeps the order between books
+ * stable and lets the top K be maintained incrementally in a sorted set. The
+ * landmark is moved forward before the factors get large.
+ *
+ * Every instance records only the events it serves, so the table
+ * {@code book_trending_score} is the shared view. At each checkpoint an
+ * instance adds the score it earned since the previous one to the stored rows,
+ * decaying them to now in the same statement, and then reloads the merged
+ * rows, so every instance ranks on the events of all of them and none
+ * overwrites another's. On shutdown only the local scores are written. The
+ * first start seeds the table from the last week of {@code book_view_history}.
+ */
+@Service
+public class TrendingEngine {
+	private static final Logger logger = LoggerFactory.getLogger(TrendingEngine.class);
+
+	// Books whose decayed score falls below this are forgotten at the next checkpoint.
+	private static final double MIN_SCORE = 0.01;
+	private static final double MAX_HALF_LIVES_FROM_LANDMARK = 64;
+	private static final int SEED_DAYS = 7;
+
+	// Decays the stored score to the new row's time before adding to it. MySQL
+	// assigns left to right, so the score update still sees the old scored_at.
+	private static final String MERGE_SCORE = "INSERT INTO book_trending_score (book_id, score, scored_at) "
+			+ "VALUES (?, ?, ?) ON DUPLICATE KEY UPDATE "
+			+ "score = score * POW(0.5, GREATEST(TIMESTAMPDIFF(MICROSECOND, scored_at, VALUES(scored_at)), 0) / ?) "
+			+ "+ VALUES(score), scored_at = GREATEST(scored_at, VALUES(scored_at))";
+	private static final String PRUNE_SCORES = "DELETE FROM book_trending_score "
+			+ "WHERE score * POW(0.5, GREATEST(TIMESTAMPDIFF(MICROSECOND, scored_at, ?), 0) / ?) < ?";
+
+	private static final Comparator<RankedBook> RANKING = Comparator.comparingDouble(RankedBook::score)
+			.thenComparing(RankedBook::bookId);
+
+	private final JdbcTemplate jdbcTemplate;
+	private final TransactionTemplate transactionTemplate;
+	private final BookTrendingScoreRepository bookTrendingScoreRepository;
+	private final BookViewHistoryRepository bookViewHistoryRepository;
+	private final double halfLifeMillis;
+	private final int capacity;
+
+	private final Map<UUID, Double> scores = new HashMap<>();
+	// Score earned on this instance since the last checkpoint, in the same units.
+	private final Map<UUID, Double> pending = new HashMap<>();
+	// The highest scores, lowest first.
+	private final TreeSet<RankedBook> top = new TreeSet<>(RANKING);
+	private long landmarkMillis = System.currentTimeMillis();
+	private volatile boolean ready;
+
+	public TrendingEngine(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+			BookTrendingScoreRepository bookTrendingScoreRepository,
+			BookViewHistoryRepository bookViewHistoryRepository,
+			@Value("${app.trending.half-life-ms:21600000}") long halfLifeMillis,
+			@Value("${app.trending.top-k:100}") int capacity) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.transactionTemplate = transactionTemplate;
+		this.bookTrendingScoreRepository = bookTrendingScoreRepository;
+		this.bookViewHistoryRepository = bookViewHistoryRepository;
+		this.halfLifeMillis = halfLifeMillis;
+		this.capacity = capacity;
+	}
+
+	/**
+	 * Whether the persisted scores have been restored.
+	 */
+	public boolean isReady() {
+		return ready;
+	}
+
+	/**
+	 * Number of books kept in the ranking.
+	 */
+	public int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * Adds the given number of events to the book's score, after the current
+	 * transaction commits when there is one.
+	 */
+	public void record(UUID bookId, TrendingSignal signal, long count) {
+		double weight = signal.getWeight() * count;
+		long eventMillis = System.currentTimeMillis();
+		afterCommit(() -> addLocal(bookId, weight, eventMillis));
+	}
+
+	/**
+	 * Drops the book from the ranking and the shared scores, after the current
+	 * transaction commits when there is one.
+	 */
+	public void remove(UUID bookId) {
+		afterCommit(() -> {
+			synchronized (this) {
+				pending.remove(bookId);
+				if (scores.remove(bookId) != null) {
+					rebuildTop();
+				}
+			}
+			jdbcTemplate.update("DELETE FROM book_trending_score WHERE book_id = ?", UuidBytes.toBytes(bookId));
+		});
+	}
+
+	/**
+	 * Ids of the highest scoring books, best first.
+	 */
+	public synchronized List<UUID> top(int limit) {
+		List<UUID> bookIds = new ArrayList<>(Math.min(limit, top.size()));
+		Iterator<RankedBook> ranked = top.descendingIterator();
+		while (ranked.hasNext() && bookIds.size() < limit) {
+			bookIds.add(ranked.next().bookId());
+		}
+		return bookIds;
+	}
+
+	/**
+	 * Restores the scores on the first run. Every later run merges the local
+	 * scores into the database and reloads the merged ones.
+	 */
+	@Scheduled(fixedDelayString = "${app.trending.checkpoint-interval-ms:300000}",
+			scheduler = TaskSchedulerConfig.MAINTENANCE)
+	public void checkpoint() {
+		try {
+			if (!ready) {
+				restore();
+			} else {
+				writeCheckpoint();
+				reload();
+			}
+		} catch (Exception e) {
+			logger.error("Failed to {} trending scores", ready ? "checkpoint" : "restore", e);
+		}
+	}
+
+	@PreDestroy
+	public void checkpointOnShutdown() {
+		if (ready) {
+			writeCheckpoint();
+			logger.info("Checkpointed trending scores on shutdown");
+		}
+	}
+
+	private void restore() {
+		List<BookTrendingScore> checkpoint = bookTrendingScoreRepository.findAll();
+		if (!checkpoint.isEmpty()) {
+			load(checkpoint);
+		} else {
+			seed();
+		}
+		ready = true;
+		logger.info("Restored trending scores for {} books", scores.size());
+	}
+
+	/**
+	 * Scores the last week of views, counting daily rows at midday, and stores
+	 * them unless another instance has seeded the table in the meantime.
+	 */
+	private void seed() {
+		long nowMillis = System.currentTimeMillis();
+		Map<UUID, Double> seeded = new HashMap<>();
+		for (Object[] row : bookViewHistoryRepository
+				.findDailyViewersSince(LocalDateTime.now().minusDays(SEED_DAYS))) {
+			LocalDateTime midday = ((LocalDateTime) row[1]).toLocalDate().atTime(12, 0);
+			long atMillis = Math.min(toMillis(midday), nowMillis);
+			double score = TrendingSignal.VIEW.getWeight() * ((Number) row[2]).longValue();
+			add((UUID) row[0], score, atMillis);
+			seeded.merge((UUID) row[0], score * Math.pow(2, (atMillis - nowMillis) / halfLifeMillis), Double::sum);
+		}
+		Timestamp scoredAt = new Timestamp(nowMillis);
+		List<Object[]> rows = new ArrayList<>();
+		seeded.forEach((bookId, score) -> rows.add(new Object[] { UuidBytes.toBytes(bookId), score, scoredAt }));
+		if (!rows.isEmpty()) {
+			jdbcTemplate.batchUpdate(
+					"INSERT IGNORE INTO book_trending_score (book_id, score, scored_at) VALUES (?, ?, ?)", rows);
+		}
+	}
+
+	/**
+	 * Adds the score earned here since the last checkpoint to the stored rows
+	 * and drops rows that have decayed away. If the write fails, the score is
+	 * kept for the next checkpoint.
+	 */
+	private void writeCheckpoint() {
+		long nowMillis = System.currentTimeMillis();
+		Timestamp scoredAt = new Timestamp(nowMillis);
+		double halfLifeMicros = halfLifeMillis * 1000;
+		Map<UUID, Double> earned;
+		synchronized (this) {
+			double decay = factor(nowMillis);
+			earned = new HashMap<>(pending);
+			earned.replaceAll((bookId, score) -> score / decay);
+			pending.clear();
+		}
+		List<Object[]> rows = new ArrayList<>();
+		earned.forEach((bookId, score) -> rows
+				.add(new Object[] { UuidBytes.toBytes(bookId), score, scoredAt, halfLifeMicros }));
+
+		try {
+			transactionTemplate.executeWithoutResult(status -> {
+				if (!rows.isEmpty()) {
+					jdbcTemplate.batchUpdate(MERGE_SCORE, rows);
+				}
+				jdbcTemplate.update(PRUNE_SCORES, scoredAt, halfLifeMicros, MIN_SCORE);
+			});
+		} catch (RuntimeException e) {
+			synchronized (this) {
+				double factor = factor(nowMillis);
+				earned.forEach((bookId, score) -> pending.merge(bookId, score * factor, Double::sum));
+			}
+			throw e;
+		}
+		logger.debug("Checkpointed trending scores for {} books", rows.size());
+	}
+
+	/**
+	 * Replaces the scores with the merged ones in the database, keeping what
+	 * was earned here since the checkpoint was written.
+	 */
+	private void reload() {
+		List<BookTrendingScore> merged = bookTrendingScoreRepository.findAll();
+		synchronized (this) {
+			scores.clear();
+			top.clear();
+			load(merged);
+			pending.forEach((bookId, score) -> scores.merge(bookId, score, Double::sum));
+			rebuildTop();
+		}
+	}
+
+	private synchronized void load(List<BookTrendingScore> saved) {
+		for (BookTrendingScore score : saved) {
+			add(score.getBookId(), score.getScore(), toMillis(score.getScoredAt()));
+		}
+	}
+
+	/**
+	 * Adds a score earned from an event served by this instance.
+	 */
+	private synchronized void addLocal(UUID bookId, double score, long atMillis) {
+		add(bookId, score, atMillis);
+		pending.merge(bookId, score * factor(atMillis), Double::sum);
+	}
+
+	/**
+	 * Adds a score earned at the given time.
+	 */
+	private synchronized void add(UUID bookId, double score, long atMillis) {
+		if (atMillis - landmarkMillis > MAX_HALF_LIVES_FROM_LANDMARK * halfLifeMillis) {
+			moveLandmark(atMillis);
+		}
+		Double previous = scores.get(bookId);
+		double updated = (previous != null ? previous : 0) + score * factor(atMillis);
+		scores.put(bookId, updated);
+
+		boolean ranked = previous != null && top.remove(new RankedBook(bookId, previous));
+		RankedBook entry = new RankedBook(bookId, updated);
+		if (ranked || top.size() < capacity) {
+			top.add(entry);
+		} else if (RANKING.compare(entry, top.first()) > 0) {
+			// Scores only grow, so every book outside the set scores below its
+			// lowest entry and the evicted book is the right one to drop.
+			top.pollFirst();
+			top.add(entry);
+		}
+	}
+
+	private void moveLandmark(long nowMillis) {
+		double decay = factor(nowMillis);
+		scores.replaceAll((bookId, score) -> score / decay);
+		pending.replaceAll((bookId, score) -> score / decay);
+		landmarkMillis = nowMillis;
+		rebuildTop();
+	}
+
+	private void rebuildTop() {
+		top.clear();
+		scores.forEach((bookId, score) -> {
+			top.add(new RankedBook(bookId, score));
+			if (top.size() > capacity) {
+				top.pollFirst();
+			}
+		});
+	}
+
+	private double factor(long atMillis) {
+		return Math.pow(2, (atMillis - landmarkMillis) / halfLifeMillis);
+	}
+
+	private static void afterCommit(Runnable action) {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					action.run();
+				}
+			});
+		} else {
+			action.run();
+		}
+	}
+
+	private static long toMillis(LocalDateTime dateTime) {
+		return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+	}
+
+	private record RankedBook(UUID bookId, double score) {
+	}
+}
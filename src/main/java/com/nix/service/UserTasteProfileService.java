@@ -0,0 +1,150 @@
+package com.nix.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.nix.models.UserTasteProfile;
+import com.nix.repository.BookFavouriteRepository;
+import com.nix.repository.BookRepository;
+import com.nix.repository.ReadingProgressRepository;
+import com.nix.repository.UserTasteProfileRepository;
+import com.nix.util.TasteVector;
+import com.nix.util.UuidBytes;
+
+/**
+ * Keeps each reader's {@link TasteVector} current. Reading progress adds the
+ * chapter's progress (as a 0-1 fraction) to the book's category and tags, and
+ * a favourite adds {@link #FAVOURITE_WEIGHT}; changes are applied as deltas in
+ * the transaction that made them. A reader without a stored profile gets one
+ * built from their reading progress and favourites on their first change;
+ * until then reads build it on the fly without storing it.
+ */
+@Service
+public class UserTasteProfileService {
+
+	private static final float FAVOURITE_WEIGHT = 2.0f;
+
+	@Autowired
+	private UserTasteProfileRepository userTasteProfileRepository;
+
+	@Autowired
+	private ReadingProgressRepository readingProgressRepository;
+
+	@Autowired
+	private BookFavouriteRepository bookFavouriteRepository;
+
+	@Autowired
+	private BookRepository bookRepository;
+
+	/**
+	 * Records a change in the user's progress on one chapter of the book, in
+	 * percent.
+	 */
+	@Transactional
+	public void recordReading(UUID userId, UUID bookId, double progressDelta) {
+		if (progressDelta != 0) {
+			apply(userId, bookId, (float) (progressDelta / 100.0));
+		}
+	}
+
+	@Transactional
+	public void recordFavourite(UUID userId, UUID bookId, boolean favourited) {
+		apply(userId, bookId, favourited ? FAVOURITE_WEIGHT : -FAVOURITE_WEIGHT);
+	}
+
+	/**
+	 * For changes made in bulk, such as favourites removed with a deleted book:
+	 * the users' profiles are rebuilt from the database instead of applying
+	 * deltas.
+	 */
+	@Transactional
+	public void markStale(Collection<UUID> userIds) {
+		if (!userIds.isEmpty()) {
+			userTasteProfileRepository.clearWeights(userIds);
+		}
+	}
+
+	@Transactional(readOnly = true)
+	public TasteVector getProfile(UUID userId) {
+		Optional<UserTasteProfile> profile = userTasteProfileRepository.findById(userId);
+		if (profile.isPresent() && profile.get().getWeights() != null) {
+			return TasteVector.fromBytes(profile.get().getWeights());
+		}
+		return build(userId);
+	}
+
+	/**
+	 * Applies a delta under the profile's row lock. The row is created first if
+	 * missing, so concurrent first writes for a user serialize on it instead of
+	 * racing to insert.
+	 */
+	private void apply(UUID userId, UUID bookId, float weight) {
+		userTasteProfileRepository.insertIfAbsent(UuidBytes.toBytes(userId), LocalDateTime.now());
+		UserTasteProfile profile = userTasteProfileRepository.findForUpdate(userId)
+				.orElseThrow(() -> new IllegalStateException("Taste profile row missing for user " + userId));
+		if (profile.getWeights() == null) {
+			// Built from the database; callers write the change before recording it.
+			save(profile, build(userId));
+			return;
+		}
+		TasteVector taste = TasteVector.fromBytes(profile.getWeights());
+		Map<UUID, Float> change = new HashMap<>();
+		change.put(bookId, weight);
+		addAll(taste, change);
+		save(profile, taste);
+	}
+
+	private TasteVector build(UUID userId) {
+		Map<UUID, Float> weights = new HashMap<>();
+		for (Object[] row : readingProgressRepository.findProgressTotalsByUserId(userId)) {
+			if (row[1] != null) {
+				weights.merge((UUID) row[0], (float) (((Number) row[1]).doubleValue() / 100.0), Float::sum);
+			}
+		}
+		bookFavouriteRepository.findBookIdsByUserId(userId)
+				.forEach(bookId -> weights.merge(bookId, FAVOURITE_WEIGHT, Float::sum));
+		TasteVector taste = new TasteVector();
+		addAll(taste, weights);
+		return taste;
+	}
+
+	/**
+	 * Adds each book's weight to its category and tags, looked up with two
+	 * id-only queries.
+	 */
+	private void addAll(TasteVector taste, Map<UUID, Float> bookWeights) {
+		if (bookWeights.isEmpty()) {
+			return;
+		}
+		Collection<UUID> bookIds = bookWeights.keySet();
+		Map<UUID, Integer> categoryIds = new HashMap<>();
+		for (Object[] row : bookRepository.findCategoryIdsByBookIds(bookIds)) {
+			categoryIds.put((UUID) row[0], (Integer) row[1]);
+		}
+		Map<UUID, List<Integer>> tagIds = new HashMap<>();
+		for (Object[] row : bookRepository.findTagIdsByBookIds(bookIds)) {
+			tagIds.computeIfAbsent((UUID) row[0], id -> new ArrayList<>()).add((Integer) row[1]);
+		}
+		bookWeights.forEach((bookId, weight) -> {
+			if (categoryIds.containsKey(bookId)) {
+				taste.add(categoryIds.get(bookId), tagIds.getOrDefault(bookId, List.of()), weight);
+			}
+		});
+	}
+
+	private void save(UserTasteProfile profile, TasteVector taste) {
+		profile.setWeights(taste.toBytes());
+		profile.setUpdatedAt(LocalDateTime.now());
+		userTasteProfileRepository.save(profile);
+	}
+}
@@ -5,6 +5,8 @@ import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -32,7 +34,6 @@ import com.nix.models.Chapter;
 import com.nix.models.User;
 import com.nix.repository.AuthorEarningRepository;
 import com.nix.repository.AuthorPayoutRepository;
-import com.nix.repository.BookFavouriteRepository;
 import com.nix.repository.BookRepository;
 import com.nix.repository.BookViewHistoryRepository;
 import com.nix.repository.ChapterRepository;
@@ -42,6 +43,7 @@ import com.nix.repository.ReadingProgressRepository;
 import com.nix.repository.ReportRepository;
 import com.nix.repository.UserRepository;
 import com.nix.service.AdminService;
+import com.nix.service.BookViewCounter;
 
 @Service
 public class AdminServiceImpl implements AdminService {
@@ -55,9 +57,6 @@ public class AdminServiceImpl implements AdminService {
 	@Autowired
 	private BookRepository bookRepository;
 
-	@Autowired
-	private BookFavouriteRepository bookFavouriteRepository;
-
 	@Autowired
 	private ChapterRepository chapterRepository;
 
@@ -73,6 +72,9 @@ public class AdminServiceImpl implements AdminService {
 	@Autowired
 	private BookViewHistoryRepository bookViewHistoryRepository;
 
+	@Autowired
+	private BookViewCounter bookViewCounter;
+
 	@Autowired
 	private CommentRepository commentRepository;
 
@@ -191,8 +193,8 @@ public class AdminServiceImpl implements AdminService {
 		List<PopularBookDTO> popularBooks = mostViewedBooks.stream()
 				.map(book -> new PopularBookDTO(book.getId(), book.getTitle(), book.getAuthorName(),
 						book.getViewCount(), 0L,
-						0.0,
-						bookFavouriteRepository.countByBookId(book.getId())))
+						averageRating(book),
+						book.getFavouriteCount()))
 				.collect(Collectors.toList());
 		contentAnalytics.setPopularBooks(popularBooks);
 
@@ -255,11 +257,12 @@ public class AdminServiceImpl implements AdminService {
 		Pageable pageable = PageRequest.of(0, limit);
 
 		List<Object[]> topBooksData = bookViewHistoryRepository.findTopBooksByViewsInPeriod(startDate, pageable);
+		List<UUID> bookIds = topBooksData.stream().map(data -> ((Book) data[0]).getId()).toList();
+		Map<UUID, Long> uniqueViewers = bookViewCounter.countUniqueViewers(bookIds, startDate);
 
 		return topBooksData.stream().map(data -> {
 			Book book = (Book) data[0];
 			Long viewCount = ((Number) data[1]).longValue();
-			Long favouriteCount = bookFavouriteRepository.countByBookId(book.getId());
 
 			return new BestBookAnalyticsDTO(
 					book.getId(),
@@ -267,11 +270,16 @@ public class AdminServiceImpl implements AdminService {
 					book.getAuthorName(),
 					book.getBookCover() != null ? book.getBookCover().getUrl() : null,
 					viewCount,
-					favouriteCount,
-					0.0);
+					uniqueViewers.getOrDefault(book.getId(), 0L),
+					book.getFavouriteCount(),
+					averageRating(book));
 		}).collect(Collectors.toList());
 	}
 
+	private double averageRating(Book book) {
+		return book.getRatingCount() > 0 ? (double) book.getRatingTotal() / book.getRatingCount() : 0.0;
+	}
+
 	@Override
 	public List<ActiveUserAnalyticsDTO> getMostActiveUsers(String period, int limit) {
 		LocalDateTime startDate = calculateStartDate(period);
@@ -3,9 +3,10 @@ package com.nix.service.impl;
 import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
-import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
@@ -16,36 +17,51 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
+import com.nix.config.FavouriteBookCache;
 import com.nix.dtos.BookDTO;
 import com.nix.dtos.BookPerformanceDTO;
 import com.nix.dtos.CategoryDTO;
+import com.nix.dtos.CursorPage;
+import com.nix.dtos.ResourceVersion;
 import com.nix.dtos.mappers.BookMapper;
-import com.nix.dtos.mappers.CategoryMapper;
 import com.nix.enums.NotificationEntityType;
+import com.nix.enums.TrendingSignal;
 import com.nix.exception.ResourceNotFoundException;
 import com.nix.models.Book;
 import com.nix.models.BookFavourite;
-import com.nix.models.BookViewHistory;
 import com.nix.models.Category;
 import com.nix.models.User;
+import com.nix.repository.BookCursor;
 import com.nix.repository.BookFavouriteRepository;
+import com.nix.repository.BookListingFilter;
 import com.nix.repository.BookRepository;
 import com.nix.repository.BookViewHistoryRepository;
 import com.nix.repository.CategoryRepository;
 import com.nix.repository.CommentRepository;
 import com.nix.repository.TagRepository;
 import com.nix.repository.UserRepository;
+import com.nix.service.BookSearchIndex;
+import com.nix.service.BookSearchIndex.SearchHit;
 import com.nix.service.BookService;
+import com.nix.service.BookViewCounter;
+import com.nix.service.DiscoverySnapshotService;
+import com.nix.service.RelatedBooksIndex;
+import com.nix.service.TrendingEngine;
+import com.nix.service.UserTasteProfileService;
 import com.nix.service.ImageService;
 import com.nix.service.NotificationService;
+import com.nix.util.ETags;
 
 @Service
 public class BookServiceImpl implements BookService {
 
+	private static final int RELATED_BOOKS_LIMIT = 5;
+
 	@Autowired
 	BookRepository bookRepo;
 
@@ -70,6 +86,27 @@ public class BookServiceImpl implements BookService {
 	@Autowired
 	BookViewHistoryRepository bookViewHistoryRepository;
 
+	@Autowired
+	BookViewCounter bookViewCounter;
+
+	@Autowired
+	BookSearchIndex bookSearchIndex;
+
+	@Autowired
+	DiscoverySnapshotService discoverySnapshotService;
+
+	@Autowired
+	TrendingEngine trendingEngine;
+
+	@Autowired
+	RelatedBooksIndex relatedBooksIndex;
+
+	@Autowired
+	UserTasteProfileService userTasteProfileService;
+
+	@Autowired
+	FavouriteBookCache favouriteBookCache;
+
 	@Autowired
 	ImageService imageService;
 
@@ -82,13 +119,10 @@ public class BookServiceImpl implements BookService {
 	@Autowired
 	BookMapper bookMapper;
 
-	@Autowired
-	CategoryMapper categoryMapper;
-
 	@Override
 	public Page<BookDTO> getAllBooks(Pageable pageable) {
 		Page<Book> booksPage = bookRepo.findAll(pageable);
-		return booksPage.map(book -> bookMapper.mapToDTO(book));
+		return bookMapper.mapToDTOs(booksPage);
 	}
 
 	@Override
@@ -97,7 +131,7 @@ public class BookServiceImpl implements BookService {
 			return getAllBooks(pageable);
 		}
 		Page<Book> booksPage = bookRepo.findAllExcludingAuthors(excludedAuthorIds, pageable);
-		return booksPage.map(book -> bookMapper.mapToDTO(book));
+		return bookMapper.mapToDTOs(booksPage);
 	}
 
 	@Override
@@ -107,7 +141,7 @@ public class BookServiceImpl implements BookService {
 			throw new ResourceNotFoundException("Category not found with ID: " + categoryId);
 		}
 		Page<Book> booksPage = bookRepo.findByCategory(categoryOpt.get(), pageable);
-		return booksPage.map(book -> bookMapper.mapToDTO(book));
+		return bookMapper.mapToDTOs(booksPage);
 	}
 
 	@Override
@@ -118,13 +152,13 @@ public class BookServiceImpl implements BookService {
 		categoryRepository.findById(categoryId)
 				.orElseThrow(() -> new ResourceNotFoundException("Category not found with ID: " + categoryId));
 		Page<Book> booksPage = bookRepo.findByCategoryIdExcludingAuthors(categoryId, excludedAuthorIds, pageable);
-		return booksPage.map(book -> bookMapper.mapToDTO(book));
+		return bookMapper.mapToDTOs(booksPage);
 	}
 
 	@Override
 	public Page<BookDTO> getBooksByAuthor(UUID authorId, Pageable pageable) {
 		Page<Book> booksPage = bookRepo.findByAuthorId(authorId, pageable);
-		return booksPage.map(book -> bookMapper.mapToDTO(book));
+		return bookMapper.mapToDTOs(booksPage);
 	}
 
 	@Override
@@ -133,13 +167,16 @@ public class BookServiceImpl implements BookService {
 			return getBooksByAuthor(authorId, pageable);
 		}
 		Page<Book> booksPage = bookRepo.findByAuthorIdExcludingAuthors(authorId, excludedAuthorIds, pageable);
-		return booksPage.map(book -> bookMapper.mapToDTO(book));
+		return bookMapper.mapToDTOs(booksPage);
 	}
 
 	@Override
 	public Page<BookDTO> searchBooks(String title, Integer categoryId, List<Integer> tagIds, Pageable pageable) {
+		if (StringUtils.hasText(title) && bookSearchIndex.isReady()) {
+			return searchIndex(title, categoryId, tagIds, Set.of(), pageable);
+		}
 		Page<Book> booksPage = bookRepo.searchBooks(title, categoryId, tagIds, pageable);
-		return booksPage.map(book -> bookMapper.mapToDTO(book));
+		return bookMapper.mapToDTOs(booksPage);
 	}
 
 	@Override
@@ -148,9 +185,74 @@ public class BookServiceImpl implements BookService {
 		if (excludedAuthorIds == null || excludedAuthorIds.isEmpty()) {
 			return searchBooks(title, categoryId, tagIds, pageable);
 		}
+		if (StringUtils.hasText(title) && bookSearchIndex.isReady()) {
+			return searchIndex(title, categoryId, tagIds, excludedAuthorIds, pageable);
+		}
 		Page<Book> booksPage = bookRepo.searchBooksExcludingAuthors(title, categoryId, tagIds, excludedAuthorIds,
 				pageable);
-		return booksPage.map(book -> bookMapper.mapToDTO(book));
+		return bookMapper.mapToDTOs(booksPage);
+	}
+
+	// Text queries are ranked by relevance, so the requested sort is not applied.
+	private Page<BookDTO> searchIndex(String query, Integer categoryId, List<Integer> tagIds,
+			Set<UUID> excludedAuthorIds, Pageable pageable) {
+		List<SearchHit> hits = bookSearchIndex.search(query, categoryId, tagIds, excludedAuthorIds);
+		int from = (int) Math.min(pageable.getOffset(), hits.size());
+		int to = Math.min(from + pageable.getPageSize(), hits.size());
+		List<Book> books = bookRepo.findAllByIdInOrder(hits.subList(from, to).stream().map(SearchHit::bookId).toList());
+		return new PageImpl<>(bookMapper.mapToDTOs(books), pageable, hits.size());
+	}
+
+	@Override
+	public CursorPage<BookDTO> getBooksAfter(BookListingFilter filter, String cursor, int size, String sortBy,
+			Sort.Direction direction) {
+		if (size < 1) {
+			throw new IllegalArgumentException("Page size must be at least 1.");
+		}
+		if (!BookCursor.isSortableColumn(sortBy)) {
+			throw new IllegalArgumentException("Unsupported sort key for cursor pagination: " + sortBy);
+		}
+		BookCursor position = BookCursor.decode(cursor, sortBy, direction);
+		List<Book> books = bookRepo.findPageAfter(filter, position, size + 1);
+		boolean hasNext = books.size() > size;
+		List<Book> pageBooks = hasNext ? books.subList(0, size) : books;
+		String nextCursor = hasNext ? position.after(pageBooks.get(pageBooks.size() - 1)).encode() : null;
+		return new CursorPage<>(bookMapper.mapToDTOs(pageBooks), nextCursor, hasNext);
+	}
+
+	@Override
+	public CursorPage<BookDTO> searchBooksAfter(String query, BookListingFilter filter, String cursor, int size) {
+		if (size < 1) {
+			throw new IllegalArgumentException("Page size must be at least 1.");
+		}
+		if (!StringUtils.hasText(query) || !bookSearchIndex.isReady()) {
+			BookListingFilter titleFilter = new BookListingFilter(filter.authorId(), filter.categoryId(),
+					filter.tagIds(), query, filter.excludedAuthorIds());
+			return getBooksAfter(titleFilter, cursor, size, "id", Sort.Direction.ASC);
+		}
+
+		// Hits are recomputed per request; the cursor holds the (score, id) of the
+		// last hit, so the next page starts right after it in the same ranking.
+		List<SearchHit> hits = bookSearchIndex.search(query, filter.categoryId(), filter.tagIds(),
+				filter.excludedAuthorIds());
+		BookCursor position = BookCursor.decode(cursor, BookCursor.RELEVANCE, Sort.Direction.DESC);
+		int from = 0;
+		if (!position.isFirstPage()) {
+			SearchHit last = new SearchHit(position.id(), (Double) position.value());
+			int index = Collections.binarySearch(hits, last, SearchHit.RANKING);
+			from = index >= 0 ? index + 1 : -index - 1;
+		}
+		int to = Math.min(from + size, hits.size());
+		List<SearchHit> pageHits = hits.subList(from, to);
+
+		boolean hasNext = to < hits.size();
+		String nextCursor = null;
+		if (hasNext) {
+			SearchHit lastHit = pageHits.get(pageHits.size() - 1);
+			nextCursor = position.after(lastHit.bookId(), lastHit.score()).encode();
+		}
+		List<Book> books = bookRepo.findAllByIdInOrder(pageHits.stream().map(SearchHit::bookId).toList());
+		return new CursorPage<>(bookMapper.mapToDTOs(books), nextCursor, hasNext);
 	}
 
 	@Override
@@ -165,7 +267,7 @@ public class BookServiceImpl implements BookService {
 			booksPage = bookRepo.findByAuthorIdAndTitleContainingIgnoreCase(authorId, query.trim(), pageable);
 		}
 
-		return booksPage.map(bookMapper::mapToDTO);
+		return bookMapper.mapToDTOs(booksPage);
 	}
 
 	@Override
@@ -174,10 +276,9 @@ public class BookServiceImpl implements BookService {
 				.orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
 
 		Page<BookFavourite> favouritesPage = bookFavouriteRepository.findByUserId(userId, pageable);
-		List<BookDTO> favouriteBooks = favouritesPage.getContent().stream()
+		List<BookDTO> favouriteBooks = bookMapper.mapToDTOs(favouritesPage.getContent().stream()
 				.map(BookFavourite::getBook)
-				.map(bookMapper::mapToDTO)
-				.collect(Collectors.toList());
+				.collect(Collectors.toList()));
 
 		return new PageImpl<>(favouriteBooks, pageable, favouritesPage.getTotalElements());
 	}
@@ -191,7 +292,7 @@ public class BookServiceImpl implements BookService {
 				.orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
 
 		Page<Book> booksPage = bookRepo.findFollowedBooksByUserIdExcludingAuthors(userId, excludedAuthorIds, pageable);
-		return booksPage.map(book -> bookMapper.mapToDTO(book));
+		return bookMapper.mapToDTOs(booksPage);
 	}
 
 	@Override
@@ -205,6 +306,16 @@ public class BookServiceImpl implements BookService {
 		return bookMapper.mapToDTO(book);
 	}
 
+	@Override
+	public ResourceVersion getBookVersion(UUID bookId) {
+		List<Object[]> rows = bookRepo.findVersionRowById(bookId);
+		if (rows.isEmpty()) {
+			throw new ResourceNotFoundException("Book not found with ID: " + bookId);
+		}
+		Object[] row = rows.get(0);
+		return new ResourceVersion(ETags.of(row), (UUID) row[8], (LocalDateTime) row[12]);
+	}
+
 	@Override
 	@Transactional
 	public BookDTO createBook(BookDTO bookDTO, UUID authorId) throws IOException {
@@ -241,8 +352,13 @@ public class BookServiceImpl implements BookService {
 
 		List<Integer> tagIds = bookDTO.getTagIds() != null ? bookDTO.getTagIds() : Collections.emptyList();
 		book.setTags(tagRepository.findAllById(tagIds));
+		book.markModified();
 
-		return bookMapper.mapToDTO(bookRepo.save(book));
+		Book savedBook = bookRepo.save(book);
+		bookSearchIndex.index(savedBook);
+		relatedBooksIndex.index(savedBook);
+		discoverySnapshotService.markStale();
+		return bookMapper.mapToDTO(savedBook);
 	}
 
 	@Override
@@ -264,7 +380,12 @@ public class BookServiceImpl implements BookService {
 				() -> new ResourceNotFoundException("Category not found with ID: " + bookDTO.getCategoryId())));
 		List<Integer> tagIds = bookDTO.getTagIds() != null ? bookDTO.getTagIds() : Collections.emptyList();
 		existingBook.setTags(tagRepository.findAllById(tagIds));
-		return bookMapper.mapToDTO(bookRepo.save(existingBook));
+		existingBook.markModified();
+		Book savedBook = bookRepo.save(existingBook);
+		bookSearchIndex.index(savedBook);
+		relatedBooksIndex.index(savedBook);
+		discoverySnapshotService.markStale();
+		return bookMapper.mapToDTO(savedBook);
 	}
 
 	@Override
@@ -294,23 +415,35 @@ public class BookServiceImpl implements BookService {
 		postRepository.deleteAll(bookPosts);
 
 		bookRepo.delete(existingBook);
+		bookSearchIndex.remove(bookId);
+		relatedBooksIndex.remove(bookId);
+		trendingEngine.remove(bookId);
+		discoverySnapshotService.markStale();
 	}
 
 	@Override
 	public List<BookDTO> getTop10LikedBooks() {
-		return bookMapper.mapToDTOs(bookRepo.findTopBooksByLikes(PageRequest.of(0, 10)));
+		return discoverySnapshotService.getDiscovery().getTopLikedBooks();
 	}
 
 	@Override
 	public List<BookDTO> getFeaturedBooks() {
-		return bookMapper.mapToDTOs(bookRepo.findByIsSuggested(true));
+		return discoverySnapshotService.getDiscovery().getFeaturedBooks();
 	}
 
 	@Override
 	public List<BookDTO> getRelatedBooks(UUID bookId, List<Integer> tagIds) {
+		if (relatedBooksIndex.isReady()) {
+			List<UUID> relatedIds = relatedBooksIndex.findRelated(bookId, RELATED_BOOKS_LIMIT);
+			if (relatedIds.isEmpty()) {
+				getBookOrThrow(bookId);
+			}
+			return bookMapper.mapToDTOs(bookRepo.findAllByIdInOrder(relatedIds));
+		}
 		Book currentBook = getBookOrThrow(bookId);
 		return bookMapper.mapToDTOs(
-				bookRepo.findRelatedBooks(currentBook.getCategory().getId(), tagIds, bookId, PageRequest.of(0, 5)));
+				bookRepo.findRelatedBooks(currentBook.getCategory().getId(), tagIds, bookId,
+						PageRequest.of(0, RELATED_BOOKS_LIMIT)));
 	}
 
 	@Override
@@ -325,11 +458,7 @@ public class BookServiceImpl implements BookService {
 
 	@Override
 	public List<CategoryDTO> getTopSixCategoriesWithBooks() {
-		List<Category> categories = categoryRepository.findTop6ByOrderByNameAsc();
-		if (categories.isEmpty()) {
-			return Collections.emptyList();
-		}
-		return categoryMapper.mapToDTOs(categories);
+		return discoverySnapshotService.getDiscovery().getTopCategories();
 	}
 
 	@Override
@@ -340,6 +469,10 @@ public class BookServiceImpl implements BookService {
 
 		if (existingFavourite.isPresent()) {
 			bookFavouriteRepository.delete(existingFavourite.get());
+			bookRepo.adjustFavouriteCount(bookId, -1);
+			relatedBooksIndex.removeFavourite(bookId, user.getId());
+			userTasteProfileService.recordFavourite(user.getId(), bookId, false);
+			favouriteBookCache.update(user.getId(), bookId, false);
 			return false;
 		}
 
@@ -348,6 +481,11 @@ public class BookServiceImpl implements BookService {
 		favourite.setUser(user);
 		favourite.setFavoritedDate(LocalDateTime.now());
 		bookFavouriteRepository.save(favourite);
+		bookRepo.adjustFavouriteCount(bookId, 1);
+		trendingEngine.record(bookId, TrendingSignal.FAVOURITE, 1);
+		relatedBooksIndex.addFavourite(bookId, user.getId());
+		userTasteProfileService.recordFavourite(user.getId(), bookId, true);
+		favouriteBookCache.update(user.getId(), bookId, true);
 
 		String message = "User " + user.getUsername() + " favoured your book!";
 		notificationService.createNotification(book.getAuthor(), message, NotificationEntityType.BOOK, book.getId());
@@ -355,20 +493,16 @@ public class BookServiceImpl implements BookService {
 	}
 
 	@Override
-	@Transactional
 	public long recordBookView(UUID bookId, UUID viewerId, String viewerIp) {
-		Book book = getBookOrThrow(bookId);
-		book.setViewCount(book.getViewCount() + 1);
-		bookRepo.save(book);
-		updateDailyViewStats(book);
-		return book.getViewCount();
+		long persistedViews = bookRepo.findViewCountById(bookId)
+				.orElseThrow(() -> new ResourceNotFoundException("Book not found with ID: " + bookId));
+		String viewerKey = viewerId != null ? "user:" + viewerId : viewerIp != null ? "ip:" + viewerIp : null;
+		return persistedViews + bookViewCounter.record(bookId, viewerKey);
 	}
 
 	@Override
-	public Set<UUID> getFavouriteBookIdsForUser(UUID userId) {
-		userRepository.findById(userId)
-				.orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
-		return new HashSet<>(bookFavouriteRepository.findBookIdsByUserId(userId));
+	public Set<UUID> getFavouriteBookIds(UUID userId, Collection<UUID> bookIds) {
+		return favouriteBookCache.filterFavourites(userId, bookIds);
 	}
 
 	@Override
@@ -376,8 +510,10 @@ public class BookServiceImpl implements BookService {
 		Book existingBook = bookRepo.findById(bookId)
 				.orElseThrow(() -> new ResourceNotFoundException("Book not found with ID: " + bookId));
 		existingBook.setSuggested(!existingBook.isSuggested());
+		existingBook.markModified();
 		String message = "Your book has been set as editor choice!";
 		notificationService.createNotification(existingBook.getAuthor(), message, NotificationEntityType.BOOK, bookId);
+		discoverySnapshotService.markStale();
 
 		return bookMapper.mapToDTO(bookRepo.save(existingBook));
 	}
@@ -387,11 +523,15 @@ public class BookServiceImpl implements BookService {
 		userRepository.findById(userId)
 				.orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
 		getBookOrThrow(bookId);
-		return bookFavouriteRepository.existsByBookIdAndUserId(bookId, userId);
+		return favouriteBookCache.isFavourite(userId, bookId);
 	}
 
 	@Override
 	public List<BookDTO> getTopRecentChapterBooks(int limit) {
+		if (limit <= DiscoverySnapshotService.LATEST_UPDATE_LIMIT) {
+			List<BookDTO> latest = discoverySnapshotService.getDiscovery().getLatestUpdateBooks();
+			return latest.subList(0, Math.min(Math.max(limit, 0), latest.size()));
+		}
 		PageRequest pageRequest = PageRequest.of(0, limit);
 		return bookMapper.mapToDTOs(bookRepo.findTopBooksWithLatestChapters(pageRequest));
 	}
@@ -408,6 +548,15 @@ public class BookServiceImpl implements BookService {
 
 	@Override
 	public List<BookDTO> getTrendingBooks(int hours, long minViews, int limit) {
+		if (hours == DiscoverySnapshotService.TRENDING_HOURS && minViews == DiscoverySnapshotService.TRENDING_MIN_VIEWS
+				&& limit <= DiscoverySnapshotService.TRENDING_LIMIT) {
+			List<BookDTO> trending = discoverySnapshotService.getDiscovery().getTrendingBooks();
+			return trending.subList(0, Math.min(Math.max(limit, 0), trending.size()));
+		}
+		if (hours == DiscoverySnapshotService.TRENDING_HOURS && minViews == DiscoverySnapshotService.TRENDING_MIN_VIEWS
+				&& limit <= trendingEngine.getCapacity() && trendingEngine.isReady()) {
+			return bookMapper.mapToDTOs(bookRepo.findAllByIdInOrder(trendingEngine.top(limit)));
+		}
 		LocalDateTime since = LocalDateTime.now().minusHours(hours);
 		PageRequest pageRequest = PageRequest.of(0, limit);
 		List<Book> trendingBooks = bookViewHistoryRepository.findTrendingBooks(since, minViews, pageRequest);
@@ -424,6 +573,11 @@ public class BookServiceImpl implements BookService {
 		LocalDateTime oneWeekAgo = now.minusWeeks(1);
 		LocalDateTime oneMonthAgo = now.minusMonths(1);
 
+		List<UUID> bookIds = authorBooks.getContent().stream().map(Book::getId).toList();
+		Map<UUID, Long> dailyUniqueViews = bookViewCounter.countUniqueViewers(bookIds, oneDayAgo);
+		Map<UUID, Long> weeklyUniqueViews = bookViewCounter.countUniqueViewers(bookIds, oneWeekAgo);
+		Map<UUID, Long> monthlyUniqueViews = bookViewCounter.countUniqueViewers(bookIds, oneMonthAgo);
+
 		for (Book book : authorBooks.getContent()) {
 			BookPerformanceDTO performance = new BookPerformanceDTO();
 			performance.setBookId(book.getId());
@@ -452,6 +606,9 @@ public class BookServiceImpl implements BookService {
 			performance.setDailyViewsGrowth(dailyViews);
 			performance.setWeeklyViewsGrowth(weeklyViews);
 			performance.setMonthlyViewsGrowth(monthlyViews);
+			performance.setDailyUniqueViews(dailyUniqueViews.getOrDefault(book.getId(), 0L));
+			performance.setWeeklyUniqueViews(weeklyUniqueViews.getOrDefault(book.getId(), 0L));
+			performance.setMonthlyUniqueViews(monthlyUniqueViews.getOrDefault(book.getId(), 0L));
 
 			// For favourites and comments, we'll show current numbers as growth
 			// (since we don't track historical data for these yet)
@@ -469,21 +626,6 @@ public class BookServiceImpl implements BookService {
 		return performanceList;
 	}
 
-	private void updateDailyViewStats(Book book) {
-		LocalDateTime today = LocalDateTime.now().withHour(0).withMinute(0).withSecond(0).withNano(0);
-
-		Optional<BookViewHistory> existingHistory = bookViewHistoryRepository.findByBookAndDate(book, today);
-
-		if (existingHistory.isPresent()) {
-			BookViewHistory history = existingHistory.get();
-			history.setDailyViewCount(history.getDailyViewCount() + 1);
-			bookViewHistoryRepository.save(history);
-		} else {
-			BookViewHistory newHistory = new BookViewHistory(book, today, 1);
-			bookViewHistoryRepository.save(newHistory);
-		}
-	}
-
 	private Book getBookOrThrow(UUID bookId) {
 		return bookRepo.findById(bookId)
 				.orElseThrow(() -> new ResourceNotFoundException("Book not found with ID: " + bookId));
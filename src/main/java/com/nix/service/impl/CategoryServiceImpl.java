@@ -54,7 +54,9 @@ public class CategoryServiceImpl implements CategoryService {
 				editCategory.setDescription(category.getDescription());
 			}
 
-			return categoryRepo.save(editCategory);
+			Category savedCategory = categoryRepo.save(editCategory);
+			bookRepo.bumpContentVersionByCategoryId(categoryId);
+			return savedCategory;
 		} catch (Exception e) {
 			return null;
 		}
@@ -68,6 +70,7 @@ public class CategoryServiceImpl implements CategoryService {
 
 			for (Book book : booksToRemove) {
 				book.setCategory(null);
+				book.markModified();
 
 				bookRepo.save(book);
 			}
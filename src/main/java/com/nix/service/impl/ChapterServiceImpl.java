@@ -2,11 +2,11 @@ package com.nix.service.impl;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import org.slf4j.Logger;
@@ -16,7 +16,12 @@ import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.nix.config.ChapterEntitlementCache;
+import com.nix.dtos.ChapterDTO;
+import com.nix.dtos.ChapterSummaryDTO;
+import com.nix.dtos.ResourceVersion;
 import com.nix.enums.NotificationEntityType;
+import com.nix.enums.TrendingSignal;
 import com.nix.exception.ResourceNotFoundException;
 import com.nix.models.AuthorEarning;
 import com.nix.models.Book;
@@ -34,14 +39,13 @@ import com.nix.repository.ReadingProgressRepository;
 import com.nix.repository.ReportRepository;
 import com.nix.repository.UserRepository;
 import com.nix.service.AuthorService;
+import com.nix.service.ChapterContentService;
 import com.nix.service.ChapterService;
+import com.nix.service.DiscoverySnapshotService;
 import com.nix.service.NotificationService;
+import com.nix.service.TrendingEngine;
 import com.nix.service.UserWalletService;
-
-import nl.siegmann.epublib.domain.Resource;
-import nl.siegmann.epublib.domain.TOCReference;
-import nl.siegmann.epublib.domain.TableOfContents;
-import nl.siegmann.epublib.epub.EpubReader;
+import com.nix.util.ETags;
 
 @Service
 public class ChapterServiceImpl implements ChapterService {
@@ -68,6 +72,12 @@ public class ChapterServiceImpl implements ChapterService {
 	@Autowired
 	private ChapterUnlockRecordRepository unlockRecordRepository;
 
+	@Autowired
+	private ChapterEntitlementCache chapterEntitlementCache;
+
+	@Autowired
+	private ChapterContentService chapterContentService;
+
 	@Autowired
 	private AuthorEarningRepository authorEarningRepository;
 
@@ -80,6 +90,12 @@ public class ChapterServiceImpl implements ChapterService {
 	@Autowired
 	private UserWalletService userWalletService;
 
+	@Autowired
+	private DiscoverySnapshotService discoverySnapshotService;
+
+	@Autowired
+	private TrendingEngine trendingEngine;
+
 	@Override
 	public Chapter findChapterById(UUID chapterId) {
 		Chapter chapter = chapterRepo.findById(chapterId)
@@ -88,25 +104,49 @@ public class ChapterServiceImpl implements ChapterService {
 	}
 
 	@Override
-	public List<Chapter> findChaptersByBookId(UUID bookId) {
-		return chapterRepo.findByBookIdOrderByUploadDateAsc(bookId);
+	public ResourceVersion getChapterVersion(UUID chapterId) {
+		List<Object[]> rows = chapterRepo.findVersionRowById(chapterId);
+		if (rows.isEmpty()) {
+			throw new ResourceNotFoundException("Cannot found chapter with id: " + chapterId);
+		}
+		Object[] row = rows.get(0);
+		return new ResourceVersion(ETags.of(row), (UUID) row[2], (LocalDateTime) row[1]);
+	}
+
+	@Override
+	public ResourceVersion getPublishedChaptersVersion(UUID bookId, UUID viewerId) {
+		List<Object[]> rows = chapterRepo.findPublishedVersionRowByBookId(bookId);
+		if (rows.isEmpty()) {
+			throw new ResourceNotFoundException("Book not found with ID: " + bookId);
+		}
+		Object[] row = rows.get(0);
+		// Unlock records are only ever added, so their count is enough to tell
+		// whether the viewer's unlockedByUser flags have changed.
+		int unlocks = chapterEntitlementCache.countUnlocked(viewerId, bookId);
+		return new ResourceVersion(ETags.of(row[0], row[1], row[2], row[3], viewerId, unlocks), (UUID) row[0],
+				(LocalDateTime) row[3]);
+	}
+
+	@Override
+	public List<ChapterDTO> findChaptersByBookId(UUID bookId) {
+		return chapterRepo.findListingsByBookId(bookId, Sort.by(Sort.Direction.ASC, "uploadDate"));
 	}
 
 	@Override
-	public List<Chapter> findChaptersByBookId(UUID bookId, String sortBy, String sortDir) {
+	public List<ChapterDTO> findChaptersByBookId(UUID bookId, String sortBy, String sortDir) {
 		Sort sort = createSort(sortBy, sortDir);
-		return chapterRepo.findByBookId(bookId, sort);
+		return chapterRepo.findListingsByBookId(bookId, sort);
 	}
 
 	@Override
-	public List<Chapter> findNotDraftedChaptersByBookId(UUID bookId) {
-		return chapterRepo.findNotDraftedChaptersByBookId(bookId);
+	public List<ChapterSummaryDTO> findNotDraftedChaptersByBookId(UUID bookId) {
+		return chapterRepo.findPublishedSummariesByBookId(bookId, Sort.by(Sort.Direction.ASC, "uploadDate"));
 	}
 
 	@Override
-	public List<Chapter> findNotDraftedChaptersByBookId(UUID bookId, String sortBy, String sortDir) {
+	public List<ChapterSummaryDTO> findNotDraftedChaptersByBookId(UUID bookId, String sortBy, String sortDir) {
 		Sort sort = createSort(sortBy, sortDir);
-		return chapterRepo.findNotDraftedChaptersByBookId(bookId, sort);
+		return chapterRepo.findPublishedSummariesByBookId(bookId, sort);
 	}
 
 	private Sort createSort(String sortBy, String sortDir) {
@@ -121,8 +161,8 @@ public class ChapterServiceImpl implements ChapterService {
 	}
 
 	@Override
-	public List<Chapter> getAllChapters() {
-		return chapterRepo.findAll();
+	public List<ChapterDTO> getAllChapters() {
+		return chapterRepo.findAllListings();
 	}
 
 	@Override
@@ -134,6 +174,8 @@ public class ChapterServiceImpl implements ChapterService {
 		chapter.setUploadDate(LocalDateTime.now());
 		chapter.setRoomId(UUID.randomUUID().toString());
 		chapter.setDraft(true);
+		chapter.markModified();
+		chapterContentService.setContent(chapter, chapter.getContent());
 
 		return chapterRepo.save(chapter);
 	}
@@ -143,6 +185,17 @@ public class ChapterServiceImpl implements ChapterService {
 	public Chapter publishChapter(UUID bookId, Chapter chapter) {
 		Book book = bookRepo.findById(bookId)
 				.orElseThrow(() -> new ResourceNotFoundException("Book not found with ID: " + bookId));
+		Optional<Chapter> existing = chapter.getId() != null ? chapterRepo.findById(chapter.getId()) : Optional.empty();
+		boolean wasPublished = existing.map(previous -> !previous.isDraft()).orElse(false);
+		// The payload never carries the version, so continue from the stored one.
+		existing.ifPresent(previous -> chapter.setContentVersion(previous.getContentVersion()));
+		chapter.markModified();
+		String content = chapter.getContent();
+		if (content == null && existing.isPresent()) {
+			chapterContentService.copyContent(existing.get(), chapter);
+		} else {
+			chapterContentService.setContent(chapter, content);
+		}
 
 		chapter.setBook(book);
 		chapter.setComments(new ArrayList<>());
@@ -156,24 +209,53 @@ public class ChapterServiceImpl implements ChapterService {
 		for (BookFavourite favourite : bookFavourites) {
 			notificationService.createNotification(favourite.getUser(), message, NotificationEntityType.BOOK, bookId);
 		}
-		return chapterRepo.save(chapter);
+		Chapter savedChapter = chapterRepo.save(chapter);
+		// merge() does not carry transient state over to the managed copy
+		savedChapter.setContent(content);
+		if (!wasPublished) {
+			bookRepo.adjustChapterCount(bookId, 1);
+		}
+		bookRepo.updateLatestChapterNum(bookId, savedChapter.getChapterNum());
+		discoverySnapshotService.markStale();
+		return savedChapter;
 	}
 
 	@Override
+	@Transactional
 	public Chapter editChapter(UUID chapterId, Chapter chapter) throws Exception {
 		Chapter editChapter = findChapterById(chapterId);
 		if (editChapter == null) {
 			throw new Exception("Chapter not found");
 		}
+		boolean wasPublished = !editChapter.isDraft();
 		editChapter.setChapterNum(chapter.getChapterNum());
 		editChapter.setPrice(chapter.getPrice());
 		editChapter.setTitle(chapter.getTitle());
 		if (chapter.getContent() != null) {
-			editChapter.setContent(chapter.getContent());
+			chapterContentService.setContent(editChapter, chapter.getContent());
 		}
 		editChapter.setLocked(chapter.isLocked());
 		editChapter.setDraft(chapter.isDraft());
-		return chapterRepo.save(editChapter);
+		editChapter.markModified();
+		Chapter savedChapter = chapterRepo.save(editChapter);
+
+		if (savedChapter.getBook() != null) {
+			UUID bookId = savedChapter.getBook().getId();
+			boolean isPublished = !savedChapter.isDraft();
+			if (wasPublished != isPublished) {
+				bookRepo.adjustChapterCount(bookId, isPublished ? 1 : -1);
+			}
+			refreshLatestChapterNum(bookId);
+		}
+		return savedChapter;
+	}
+
+	private void refreshLatestChapterNum(UUID bookId) {
+		String latestChapterNum = chapterRepo.findLatestPublishedChapterNumsByBookIds(List.of(bookId)).stream()
+				.map(row -> (String) row[1])
+				.findFirst()
+				.orElse(null);
+		bookRepo.updateLatestChapterNum(bookId, latestChapterNum);
 	}
 
 	@Override
@@ -184,6 +266,10 @@ public class ChapterServiceImpl implements ChapterService {
 			throw new Exception("Chapter not found");
 		}
 
+		UUID bookId = deleteChapter.getBook() != null ? deleteChapter.getBook().getId() : null;
+		boolean wasPublished = !deleteChapter.isDraft();
+		int commentCount = deleteChapter.getComments().size();
+
 		try {
 
 			deleteChapter.setBook(null);
@@ -217,6 +303,16 @@ public class ChapterServiceImpl implements ChapterService {
 
 			chapterRepo.delete(deleteChapter);
 
+			if (bookId != null) {
+				if (wasPublished) {
+					bookRepo.adjustChapterCount(bookId, -1);
+				}
+				if (commentCount > 0) {
+					bookRepo.adjustCommentCount(bookId, -commentCount);
+				}
+				refreshLatestChapterNum(bookId);
+			}
+
 			return "Chapter deleted successfully!";
 		} catch (Exception e) {
 			logger.error("Error deleting chapter: {}", e);
@@ -254,6 +350,8 @@ public class ChapterServiceImpl implements ChapterService {
 		unlockRecord.setUnlockCost(unlockCost);
 
 		unlockRecord = unlockRecordRepository.save(unlockRecord);
+		chapterEntitlementCache.recordUnlock(userId, chapter.getBook().getId(), chapterId);
+		trendingEngine.record(chapter.getBook().getId(), TrendingSignal.UNLOCK, 1);
 
 		try {
 			authorService.recordChapterUnlockEarning(unlockRecord);
@@ -269,8 +367,14 @@ public class ChapterServiceImpl implements ChapterService {
 
 	@Override
 	public boolean isChapterUnlockedByUser(UUID userId, UUID chapterId) {
-		Optional<ChapterUnlockRecord> unlockRecord = unlockRecordRepository.findByUserIdAndChapterId(userId, chapterId);
-		return unlockRecord.isPresent();
+		return chapterRepo.findBookIdById(chapterId)
+				.map(bookId -> chapterEntitlementCache.isUnlocked(userId, bookId, chapterId))
+				.orElse(false);
+	}
+
+	@Override
+	public Set<UUID> getUnlockedChapterIds(UUID userId, UUID bookId) {
+		return chapterEntitlementCache.getUnlockedChapterIds(userId, bookId);
 	}
 
 	@Override
@@ -335,54 +439,6 @@ public class ChapterServiceImpl implements ChapterService {
 		return false;
 	}
 
-	@Override
-	public void processChaptersByEpubFile(UUID bookId, InputStream inputStream, Integer startByChapterNum)
-			throws IOException {
-		try {
-			EpubReader epubReader = new EpubReader();
-			nl.siegmann.epublib.domain.Book book = epubReader.readEpub(inputStream);
-			TableOfContents tableOfContents = book.getTableOfContents();
-
-			if (tableOfContents == null || tableOfContents.getTocReferences() == null) {
-				throw new IllegalStateException("Table of contents is missing or invalid in the EPUB file.");
-			}
-
-			List<TOCReference> tocReferences = tableOfContents.getTocReferences();
-
-			int chapterNum = startByChapterNum;
-			for (TOCReference tocReference : tocReferences) {
-				if (tocReference == null || tocReference.getResource() == null) {
-					// Log warning and skip invalid TOC reference
-					continue;
-				}
-
-				Resource chapterResource = tocReference.getResource();
-				String chapterTitle = chapterResource.getTitle() != null ? chapterResource.getTitle()
-						: "Untitled Chapter";
-
-				byte[] contentBytes = chapterResource.getData();
-				String htmlContent = new String(contentBytes, StandardCharsets.UTF_8);
-
-				Chapter chapter = new Chapter();
-				chapter.setTitle(chapterTitle);
-				chapter.setChapterNum(String.valueOf(chapterNum));
-				chapter.setContent(htmlContent);
-
-				try {
-					createDraftChapter(bookId, chapter);
-				} catch (Exception e) {
-					// Log and handle specific exceptions from createDraftChapter
-					throw new RuntimeException("Failed to create draft chapter for: " + chapterTitle, e);
-				}
-				chapterNum++;
-			}
-		} catch (IOException e) {
-			throw e;
-		} catch (Exception e) {
-			throw new RuntimeException("Error processing EPUB file for book ID: " + bookId, e);
-		}
-	}
-
 	@Override
 	public void processChaptersByDocFile(UUID bookId, InputStream inputStream, Integer startByChapterNum)
 			throws IOException {
@@ -20,6 +20,7 @@ import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.nix.enums.TrendingSignal;
 import com.nix.exception.ResourceNotFoundException;
 import com.nix.exception.SensitiveWordException;
 import com.nix.models.Book;
@@ -37,6 +38,7 @@ import com.nix.repository.ReportRepository;
 import com.nix.repository.SensitiveWordRepository;
 import com.nix.repository.UserRepository;
 import com.nix.service.CommentService;
+import com.nix.service.TrendingEngine;
 
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
@@ -66,6 +68,9 @@ public class CommentServiceImpl implements CommentService {
 	@Autowired
 	ReportRepository reportRepository;
 
+	@Autowired
+	TrendingEngine trendingEngine;
+
 	@PersistenceContext
 	private EntityManager entityManager;
 
@@ -203,7 +208,12 @@ public class CommentServiceImpl implements CommentService {
 			book.getComments().add(newComment);
 		}
 
-		return commentRepo.save(newComment);
+		Comment savedComment = commentRepo.save(newComment);
+		if (savedComment.getBook() != null) {
+			bookRepo.adjustCommentCount(savedComment.getBook().getId(), 1);
+			trendingEngine.record(savedComment.getBook().getId(), TrendingSignal.COMMENT, 1);
+		}
+		return savedComment;
 	}
 
 	@Override
@@ -269,8 +279,13 @@ public class CommentServiceImpl implements CommentService {
 		}
 
 		try {
+			UUID bookId = comment.getBook() != null ? comment.getBook().getId() : null;
 			// Recursively delete all child comments first
-			deleteCommentRecursively(comment);
+			int deleted = deleteCommentRecursively(comment);
+			// One counter update for the whole reply tree
+			if (bookId != null) {
+				bookRepo.adjustCommentCount(bookId, -deleted);
+			}
 
 			return "Comment deleted successfully!";
 		} catch (Exception e) {
@@ -279,11 +294,15 @@ public class CommentServiceImpl implements CommentService {
 		}
 	}
 
-	private void deleteCommentRecursively(Comment comment) {
+	/**
+	 * Returns the number of comments deleted, this one included.
+	 */
+	private int deleteCommentRecursively(Comment comment) {
+		int deleted = 1;
 		// First, recursively delete all replies (depth-first)
 		List<Comment> replies = new ArrayList<>(comment.getReplies());
 		for (Comment reply : replies) {
-			deleteCommentRecursively(reply);
+			deleted += deleteCommentRecursively(reply);
 		}
 
 		// Remove associations in Reports to prevent FK constraints
@@ -310,6 +329,7 @@ public class CommentServiceImpl implements CommentService {
 		// Now safe to delete this comment
 		entityManager.remove(entityManager.contains(comment) ? comment : entityManager.merge(comment));
 		entityManager.flush(); // Force immediate deletion
+		return deleted;
 	}
 
 	@Override
@@ -361,7 +381,12 @@ public class CommentServiceImpl implements CommentService {
 
 		parentComment.getReplies().add(newComment);
 
-		return commentRepo.save(newComment);
+		Comment savedComment = commentRepo.save(newComment);
+		if (savedComment.getBook() != null) {
+			bookRepo.adjustCommentCount(savedComment.getBook().getId(), 1);
+			trendingEngine.record(savedComment.getBook().getId(), TrendingSignal.COMMENT, 1);
+		}
+		return savedComment;
 	}
 
 	@Override
@@ -1,7 +1,6 @@
 package com.nix.service.impl;
 
 import java.time.LocalDateTime;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -15,6 +14,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.nix.config.BlockGraphCache;
 import com.nix.dtos.PostDTO;
 import com.nix.dtos.mappers.PostMapper;
 import com.nix.enums.NotificationEntityType;
@@ -28,7 +28,6 @@ import com.nix.models.User;
 import com.nix.repository.BookRepository;
 import com.nix.repository.ChapterRepository;
 import com.nix.repository.PostRepository;
-import com.nix.repository.UserBlockRepository;
 import com.nix.repository.UserRepository;
 import com.nix.service.NotificationService;
 import com.nix.service.PostService;
@@ -43,7 +42,7 @@ public class PostServiceImpl implements PostService {
 	private UserRepository userRepository;
 
 	@Autowired
-	private UserBlockRepository userBlockRepository;
+	private BlockGraphCache blockGraphCache;
 
 	@Autowired
 	private ChapterRepository chapterRepository;
@@ -61,7 +60,7 @@ public class PostServiceImpl implements PostService {
 	public Page<PostDTO> getAllPosts(Pageable pageable, User currentUser) {
 		Page<Post> postsPage;
 		if (currentUser != null) {
-			Set<UUID> excludedUserIds = resolveExcludedUserIds(currentUser.getId());
+			Set<UUID> excludedUserIds = blockGraphCache.getHiddenIds(currentUser.getId());
 			if (excludedUserIds.isEmpty()) {
 				postsPage = postRepository.findAll(pageable);
 			} else {
@@ -73,28 +72,11 @@ public class PostServiceImpl implements PostService {
 		return postsPage.map(postMapper::mapToDTO);
 	}
 
-	private Set<UUID> resolveExcludedUserIds(UUID currentUserId) {
-		if (currentUserId == null) {
-			return Set.of();
-		}
-		Set<UUID> excluded = new HashSet<>();
-		Set<UUID> blockerIds = userBlockRepository.findBlockerIdsByBlockedId(currentUserId);
-		if (blockerIds != null) {
-			excluded.addAll(blockerIds);
-		}
-		Set<UUID> blockedIds = userBlockRepository.findBlockedIdsByBlockerId(currentUserId);
-		if (blockedIds != null) {
-			excluded.addAll(blockedIds);
-		}
-		return excluded;
-	}
-
 	private void ensureNotBlocked(UUID viewerId, UUID ownerId) {
 		if (viewerId == null || ownerId == null) {
 			return;
 		}
-		if (userBlockRepository.existsByBlockerIdAndBlockedId(ownerId, viewerId)
-				|| userBlockRepository.existsByBlockerIdAndBlockedId(viewerId, ownerId)) {
+		if (blockGraphCache.isInteractionBlocked(viewerId, ownerId)) {
 			throw new ForbiddenAccessException(
 					"You cannot interact with this content because one of the accounts has blocked the other.");
 		}
@@ -214,11 +196,7 @@ public class PostServiceImpl implements PostService {
 		Post post = postRepository.findById(postId)
 				.orElseThrow(() -> new ResourceNotFoundException("Post not found with id " + postId));
 
-		if (userBlockRepository.existsByBlockerIdAndBlockedId(post.getUser().getId(), user.getId())
-				|| userBlockRepository.existsByBlockerIdAndBlockedId(user.getId(), post.getUser().getId())) {
-			throw new ForbiddenAccessException(
-					"You cannot interact with this content because one of the accounts has blocked the other.");
-		}
+		ensureNotBlocked(user.getId(), post.getUser().getId());
 
 		boolean wasLiked = post.getLikedUsers().contains(user);
 
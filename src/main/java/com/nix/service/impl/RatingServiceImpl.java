@@ -55,19 +55,27 @@ public class RatingServiceImpl implements RatingService {
 		newRating.setUser(user);
 		newRating.setRating(rating);
 
-		book.get().getRatings().add(newRating);
+		Rating savedRating = ratingRepo.save(newRating);
+		bookRepository.adjustRatingStats(bookId, 1, rating != null ? rating : 0);
 
-		return newRating;
+		return savedRating;
 	}
 
 	@Override
+	@Transactional
 	public Rating editRating(UUID ratingId, Rating rating) throws Exception {
 
 		Rating editRating = findRatingById(ratingId);
+		int previousRating = editRating.getRating() != null ? editRating.getRating() : 0;
+		int newRating = rating.getRating() != null ? rating.getRating() : 0;
 
 		editRating.setRating(rating.getRating());
 
-		return ratingRepo.save(editRating);
+		Rating savedRating = ratingRepo.save(editRating);
+		if (editRating.getBook() != null && newRating != previousRating) {
+			bookRepository.adjustRatingStats(editRating.getBook().getId(), 0, newRating - previousRating);
+		}
+		return savedRating;
 	}
 
 	@Override
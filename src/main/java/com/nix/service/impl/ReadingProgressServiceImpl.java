@@ -12,11 +12,14 @@ import org.springframework.transaction.annotation.Transactional;
 
 import com.nix.dtos.ReadingProgressDTO;
 import com.nix.dtos.mappers.ReadingProgressMapper;
+import com.nix.models.Chapter;
 import com.nix.models.ReadingProgress;
+import com.nix.models.User;
 import com.nix.repository.ChapterRepository;
 import com.nix.repository.ReadingProgressRepository;
 import com.nix.repository.UserRepository;
 import com.nix.service.ReadingProgressService;
+import com.nix.service.UserTasteProfileService;
 
 @Service
 public class ReadingProgressServiceImpl implements ReadingProgressService {
@@ -33,6 +36,9 @@ public class ReadingProgressServiceImpl implements ReadingProgressService {
 	@Autowired
 	ReadingProgressMapper progressMapper; // Add mapper injection
 
+	@Autowired
+	UserTasteProfileService userTasteProfileService;
+
 	@Override
 	public ReadingProgressDTO findReadingProgressById(UUID progressId) throws IOException {
 		Optional<ReadingProgress> progress = readingProgressRepo.findById(progressId);
@@ -68,24 +74,31 @@ public class ReadingProgressServiceImpl implements ReadingProgressService {
 			newProgress.setProgress(readingProgress.getProgress());
 			newProgress.setLastReadAt(LocalDateTime.now());
 
-			return progressMapper.mapToDTO(readingProgressRepo.save(newProgress));
+			ReadingProgress savedProgress = readingProgressRepo.save(newProgress);
+			recordReading(savedProgress.getUser(), savedProgress.getChapter(), 0, savedProgress.getProgress());
+			return progressMapper.mapToDTO(savedProgress);
 		} catch (Exception e) {
 			throw new Exception("Error creating reading progress: " + e);
 		}
 	}
 
 	@Override
+	@Transactional
 	public ReadingProgressDTO updateReadingProgress(UUID progressId, ReadingProgress readingProgress) throws Exception {
 		try {
 			ReadingProgress updateProgress = readingProgressRepo.findById(progressId)
 					.orElseThrow(() -> new Exception("Reading progress not found"));
 
+			Double previousProgress = updateProgress.getProgress();
 			if (readingProgress.getProgress() != null) {
 				updateProgress.setProgress(readingProgress.getProgress());
 				updateProgress.setLastReadAt(LocalDateTime.now());
 			}
 
-			return progressMapper.mapToDTO(readingProgressRepo.save(updateProgress));
+			ReadingProgress savedProgress = readingProgressRepo.save(updateProgress);
+			recordReading(savedProgress.getUser(), savedProgress.getChapter(), previousProgress,
+					savedProgress.getProgress());
+			return progressMapper.mapToDTO(savedProgress);
 		} catch (Exception e) {
 			throw new Exception("Error updating progress: " + e);
 		}
@@ -98,14 +111,29 @@ public class ReadingProgressServiceImpl implements ReadingProgressService {
 			ReadingProgress deleteProgress = readingProgressRepo.findById(progressId)
 					.orElseThrow(() -> new IOException("Reading progress not found"));
 
-			deleteProgress.getUser().getReadingProgresses().remove(deleteProgress);
+			User user = deleteProgress.getUser();
+			Chapter chapter = deleteProgress.getChapter();
+			Double previousProgress = deleteProgress.getProgress();
+			user.getReadingProgresses().remove(deleteProgress);
 			deleteProgress.setChapter(null);
 			deleteProgress.setUser(null);
 			readingProgressRepo.delete(deleteProgress);
+			// Gone before the taste profile sees it, in case the profile is rebuilt
+			// from the remaining rows rather than adjusted
+			readingProgressRepo.flush();
+			recordReading(user, chapter, previousProgress, 0);
 
 			return "Reading progress deleted successfully!";
 		} catch (IOException e) {
 			throw new IOException("Error deleting progress: " + e);
 		}
 	}
+
+	private void recordReading(User user, Chapter chapter, Number previous, Number current) {
+		if (user == null || chapter == null || chapter.getBook() == null) {
+			return;
+		}
+		double delta = (current != null ? current.doubleValue() : 0) - (previous != null ? previous.doubleValue() : 0);
+		userTasteProfileService.recordReading(user.getId(), chapter.getBook().getId(), delta);
+	}
 }
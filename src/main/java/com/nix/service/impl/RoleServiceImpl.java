@@ -7,6 +7,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.nix.config.PrincipalCache;
 import com.nix.models.Role;
 import com.nix.models.User;
 import com.nix.repository.RoleRepository;
@@ -22,6 +23,9 @@ public class RoleServiceImpl implements RoleService {
 	@Autowired
 	RoleRepository roleRepo;
 
+	@Autowired
+	PrincipalCache principalCache;
+
 	@Override
 	public Role createRole(Role role) {
 		Role newRole = new Role();
@@ -41,7 +45,9 @@ public class RoleServiceImpl implements RoleService {
 		if (role.getName() != null) {
 			updateRole.setName(role.getName());
 		}
-		return roleRepo.save(updateRole);
+		Role savedRole = roleRepo.save(updateRole);
+		principalCache.evictAll();
+		return savedRole;
 	}
 
 	@Override
@@ -54,6 +60,7 @@ public class RoleServiceImpl implements RoleService {
 					userRepo.save(user);
 				}
 				roleRepo.delete(deleteRole);
+				principalCache.evictAll();
 
 			}
 			return "Role deleted successfully!";
@@ -69,6 +76,7 @@ public class RoleServiceImpl implements RoleService {
 		role.getUsers().add(user);
 
 		userRepo.save(user);
+		principalCache.evict(user);
 		return roleRepo.save(role);
 	}
 
@@ -80,6 +88,7 @@ public class RoleServiceImpl implements RoleService {
 			role.getUsers().add(user);
 
 			userRepo.save(user);
+			principalCache.evict(user);
 		}
 		return roleRepo.save(role);
 
@@ -54,7 +54,10 @@ public class TagServiceImpl implements TagService {
 			if (tag.getName() != null) {
 				editTag.setName(tag.getName());
 			}
-			return tagRepository.save(editTag);
+			Tag savedTag = tagRepository.save(editTag);
+			// Tag names are part of every tagged book's representation
+			bookRepo.bumpContentVersionByTagId(tagId);
+			return savedTag;
 		} catch (Exception e) {
 			return null;
 		}
@@ -68,6 +71,7 @@ public class TagServiceImpl implements TagService {
 			for (Book book : deleteTag.getBooks()) {
 				book.getTags().remove(deleteTag);
 				deleteTag.getBooks().remove(book);
+				book.markModified();
 
 				bookRepo.save(book);
 			}
@@ -4,9 +4,9 @@ import java.io.UnsupportedEncodingException;
 import java.sql.Date;
 import java.time.LocalDateTime;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 
 import java.util.Set;
@@ -19,23 +19,26 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.nix.config.BlockGraphCache;
+import com.nix.config.ChapterEntitlementCache;
+import com.nix.config.FavouriteBookCache;
 import com.nix.config.JwtProvider;
+import com.nix.config.PrincipalCache;
 import com.nix.dtos.CategoryDTO;
 import com.nix.dtos.TagDTO;
 import com.nix.dtos.UserDTO;
 import com.nix.dtos.mappers.BookMapper;
 import com.nix.exception.ResourceNotFoundException;
-import com.nix.models.Book;
 import com.nix.models.BookFavourite;
 import com.nix.models.Category;
 import com.nix.models.Comment;
-import com.nix.models.ReadingProgress;
 import com.nix.models.Role;
 import com.nix.models.Tag;
 import com.nix.models.User;
@@ -43,16 +46,20 @@ import com.nix.models.UserBlock;
 import com.nix.models.UserFollow;
 import com.nix.repository.BookFavouriteRepository;
 import com.nix.repository.BookRepository;
+import com.nix.repository.CategoryRepository;
 import com.nix.repository.CommentRepository;
 import com.nix.repository.RatingRepository;
 import com.nix.repository.ReadingProgressRepository;
 import com.nix.repository.RoleRepository;
+import com.nix.repository.TagRepository;
 import com.nix.repository.UserBlockRepository;
 import com.nix.repository.UserFollowRepository;
 import com.nix.repository.UserRepository;
 import com.nix.service.UserService;
+import com.nix.service.UserTasteProfileService;
 import com.nix.service.UserWalletService;
 import com.nix.util.SecurityUtils;
+import com.nix.util.TasteVector;
 
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
@@ -64,6 +71,10 @@ public class UserServiceImpl implements UserService {
 	// OTP validity period in minutes
 	private static final int OTP_VALIDITY_MINUTES = 10;
 
+	private static final int PREFERRED_CATEGORY_LIMIT = 5;
+	private static final int PREFERRED_TAG_LIMIT = 10;
+	private static final int SUGGESTIONS_PER_CATEGORY = 10;
+
 	@Autowired
 	private PasswordEncoder passEncoder;
 
@@ -97,6 +108,15 @@ public class UserServiceImpl implements UserService {
 	@Autowired
 	BookMapper bookMapper;
 
+	@Autowired
+	CategoryRepository categoryRepository;
+
+	@Autowired
+	TagRepository tagRepository;
+
+	@Autowired
+	UserTasteProfileService userTasteProfileService;
+
 	@Autowired
 	UserWalletService userWalletService;
 
@@ -106,6 +126,18 @@ public class UserServiceImpl implements UserService {
 	@Autowired
 	JwtProvider jwtProvider;
 
+	@Autowired
+	PrincipalCache principalCache;
+
+	@Autowired
+	BlockGraphCache blockGraphCache;
+
+	@Autowired
+	FavouriteBookCache favouriteBookCache;
+
+	@Autowired
+	ChapterEntitlementCache chapterEntitlementCache;
+
 	@org.springframework.beans.factory.annotation.Value("${frontend.url:http://localhost:8181}")
 	private String frontendUrl;
 
@@ -238,7 +270,9 @@ public class UserServiceImpl implements UserService {
 		}
 
 		// Save once with all updates
-		return userRepo.save(userUpdate);
+		User savedUser = userRepo.save(userUpdate);
+		principalCache.evict(savedUser);
+		return savedUser;
 	}
 
 	@Override
@@ -251,12 +285,15 @@ public class UserServiceImpl implements UserService {
 				List<UserBlock> blockingRelations = userBlockRepository.findByBlocker(user);
 				if (!blockingRelations.isEmpty()) {
 					userBlockRepository.deleteAll(blockingRelations);
+					blockingRelations.forEach(block -> blockGraphCache.evict(block.getBlocked().getId()));
 				}
 
 				List<UserBlock> blockedByRelations = userBlockRepository.findByBlockedId(userId);
 				if (!blockedByRelations.isEmpty()) {
 					userBlockRepository.deleteAll(blockedByRelations);
+					blockedByRelations.forEach(block -> blockGraphCache.evict(block.getBlocker().getId()));
 				}
+				blockGraphCache.evict(userId);
 
 				List<Comment> comments = commentRepo.findByUserId(userId);
 				commentRepo.deleteAll(comments);
@@ -264,10 +301,13 @@ public class UserServiceImpl implements UserService {
 				user.getRole().getUsers().remove(user);
 				List<BookFavourite> userFavourites = bookFavouriteRepository.findByUserId(userId);
 				bookFavouriteRepository.deleteAll(userFavourites);
+				favouriteBookCache.evict(userId);
+				chapterEntitlementCache.evictUser(userId);
 				user.getLikedComments().forEach(comment -> comment.getLikedUsers().remove(user));
 				user.getLikedPosts().forEach(post -> post.getLikedUsers().remove(user));
 				userWalletService.deleteWallet(userId);
 				userRepo.delete(user);
+				principalCache.evict(user);
 
 			}
 			return "User deleted successfully!";
@@ -324,6 +364,7 @@ public class UserServiceImpl implements UserService {
 		user.setOtpExpiration(null);
 
 		User savedUser = userRepo.save(user);
+		principalCache.evict(oldEmail, savedUser.getEmail());
 
 		// Send recovery email to the OLD email address
 		sendEmailRecoveryMail(savedUser, oldEmail, recoveryToken);
@@ -374,6 +415,7 @@ public class UserServiceImpl implements UserService {
 		user.setEmailRecoveryTokenExpiry(null);
 
 		User savedUser = userRepo.save(user);
+		principalCache.evict(currentEmail, savedUser.getEmail());
 
 		logger.info("Email rolled back from {} to {} for user {}", currentEmail, savedUser.getEmail(),
 				savedUser.getId());
@@ -490,7 +532,9 @@ public class UserServiceImpl implements UserService {
 		User user = findUserById(userId);
 		user.setIsSuspended(true);
 
-		return userRepo.save(user);
+		User savedUser = userRepo.save(user);
+		principalCache.evict(savedUser);
+		return savedUser;
 	}
 
 	@Override
@@ -498,7 +542,9 @@ public class UserServiceImpl implements UserService {
 		User user = findUserById(userId);
 		user.setIsSuspended(false);
 
-		return userRepo.save(user);
+		User savedUser = userRepo.save(user);
+		principalCache.evict(savedUser);
+		return savedUser;
 	}
 
 	@Override
@@ -508,7 +554,9 @@ public class UserServiceImpl implements UserService {
 		user.setBanReason(banReason);
 		user.setBanDate(LocalDateTime.now());
 
-		return userRepo.save(user);
+		User savedUser = userRepo.save(user);
+		principalCache.evict(savedUser);
+		return savedUser;
 	}
 
 	@Override
@@ -518,13 +566,16 @@ public class UserServiceImpl implements UserService {
 		user.setBanReason(null);
 		user.setBanDate(null);
 
-		return userRepo.save(user);
+		User savedUser = userRepo.save(user);
+		principalCache.evict(savedUser);
+		return savedUser;
 	}
 
 	@Override
 	public User updateUser(UUID userId, User user) {
 
 		User userUpdate = findUserById(userId);
+		String previousEmail = userUpdate.getEmail();
 
 		if (user.getEmail() != null) {
 			userUpdate.setEmail(user.getEmail());
@@ -540,13 +591,16 @@ public class UserServiceImpl implements UserService {
 			userUpdate.setAvatarUrl(user.getAvatarUrl());
 		}
 
-		return userRepo.save(userUpdate);
+		User savedUser = userRepo.save(userUpdate);
+		principalCache.evict(previousEmail, savedUser.getEmail());
+		return savedUser;
 	}
 
 	@Override
 	@Transactional
 	public User adminUpdateUser(UUID userId, com.nix.dtos.AdminUpdateUserDTO userDTO) {
 		User user = findUserById(userId);
+		String previousEmail = user.getEmail();
 
 		if (userDTO.getUsername() != null)
 			user.setUsername(userDTO.getUsername());
@@ -577,7 +631,9 @@ public class UserServiceImpl implements UserService {
 			}
 		}
 
-		return userRepo.save(user);
+		User savedUser = userRepo.save(user);
+		principalCache.evict(previousEmail, savedUser.getEmail());
+		return savedUser;
 	}
 
 	@Override
@@ -588,6 +644,7 @@ public class UserServiceImpl implements UserService {
 			user.setBanned(true);
 			user.setBanReason(banReason);
 			user.setBanDate(LocalDateTime.now());
+			principalCache.evict(user);
 		}
 		return userRepo.saveAll(users);
 	}
@@ -604,7 +661,9 @@ public class UserServiceImpl implements UserService {
 		}
 
 		user.setRole(newRole);
-		return userRepo.save(user);
+		User savedUser = userRepo.save(user);
+		principalCache.evict(savedUser);
+		return savedUser;
 	}
 
 	@Override
@@ -703,6 +762,7 @@ public class UserServiceImpl implements UserService {
 		block.setBlockDate(new Date(System.currentTimeMillis()));
 
 		userBlockRepository.save(block);
+		blockGraphCache.evict(blocker.getId(), blocked.getId());
 		return blocker;
 	}
 
@@ -715,6 +775,7 @@ public class UserServiceImpl implements UserService {
 
 		userBlockRepository.findByBlockerIdAndBlockedId(blockerId, blockedUserId)
 				.ifPresent(userBlockRepository::delete);
+		blockGraphCache.evict(blockerId, blockedUserId);
 	}
 
 	@Override
@@ -722,7 +783,7 @@ public class UserServiceImpl implements UserService {
 		if (viewerId == null || potentialBlockerId == null) {
 			return false;
 		}
-		return userBlockRepository.existsByBlockerIdAndBlockedId(potentialBlockerId, viewerId);
+		return blockGraphCache.getBlockedIds(potentialBlockerId).contains(viewerId);
 	}
 
 	@Override
@@ -730,7 +791,7 @@ public class UserServiceImpl implements UserService {
 		if (blockerId == null || blockedUserId == null) {
 			return false;
 		}
-		return userBlockRepository.existsByBlockerIdAndBlockedId(blockerId, blockedUserId);
+		return blockGraphCache.getBlockedIds(blockerId).contains(blockedUserId);
 	}
 
 	@Override
@@ -746,23 +807,13 @@ public class UserServiceImpl implements UserService {
 	}
 
 	@Override
-	@Transactional(readOnly = true)
 	public Set<UUID> getUserIdsBlocking(UUID blockedUserId) {
-		if (blockedUserId == null) {
-			return Set.of();
-		}
-		Set<UUID> blockerIds = userBlockRepository.findBlockerIdsByBlockedId(blockedUserId);
-		return blockerIds == null ? Set.of() : blockerIds;
+		return blockGraphCache.getBlockingIds(blockedUserId);
 	}
 
 	@Override
-	@Transactional(readOnly = true)
 	public Set<UUID> getBlockedUserIds(UUID blockerId) {
-		if (blockerId == null) {
-			return Set.of();
-		}
-		Set<UUID> blockedIds = userBlockRepository.findBlockedIdsByBlockerId(blockerId);
-		return blockedIds == null ? Set.of() : blockedIds;
+		return blockGraphCache.getBlockedIds(blockerId);
 	}
 
 	@Override
@@ -776,65 +827,32 @@ public class UserServiceImpl implements UserService {
 		User user = userRepo.findById(userId)
 				.orElseThrow(() -> new ResourceNotFoundException("User not found with ID: " + userId));
 
-		// Fetch reading progresses
-		List<ReadingProgress> progresses = readingProgressRepository.findByUserId(userId);
-
-		// Map to store total progress per book
-		Map<UUID, Double> bookProgressMap = new HashMap<>();
-
-		for (ReadingProgress progress : progresses) {
-			UUID bookId = progress.getChapter().getBook().getId();
-			Double chapterProgress = progress.getProgress(); // Assuming 0.0 to 100.0
-
-			// Normalize chapter progress to 0.0 - 1.0
-			Double normalizedProgress = chapterProgress / 100.0;
-
-			// Sum normalized progress per book
-			bookProgressMap.merge(bookId, normalizedProgress, Double::sum);
-		}
-
-		// Fetch books based on aggregated progress
-		Set<UUID> bookIds = bookProgressMap.keySet();
-		List<Book> books = bookRepository.findAllById(bookIds);
-
-		// Calculate preferred categories
-		Map<Category, Double> categoryWeight = new HashMap<>();
-		for (Book book : books) {
-			Double progress = bookProgressMap.getOrDefault(book.getId(), 0.0);
-			// Weight can be adjusted based on requirements
-			// For example, progress could be multiplied by a factor
-			Double weight = progress;
-
-			categoryWeight.merge(book.getCategory(), weight, Double::sum);
-		}
-
-		List<CategoryDTO> preferredCategories = categoryWeight.entrySet().stream()
-				.sorted(Map.Entry.<Category, Double>comparingByValue().reversed()).limit(5) // Top 5 categories
-				.map(entry -> new CategoryDTO(entry.getKey().getId(), entry.getKey().getName(),
-						entry.getKey().getDescription(), bookMapper.mapToDTOs(entry.getKey().getBooks())))
+		TasteVector taste = userTasteProfileService.getProfile(userId);
+
+		List<Integer> categoryIds = taste.topCategories(PREFERRED_CATEGORY_LIMIT);
+		Map<Integer, Category> categoriesById = categoryRepository.findAllById(categoryIds).stream()
+				.collect(Collectors.toMap(Category::getId, category -> category));
+		PageRequest suggestions = PageRequest.of(0, SUGGESTIONS_PER_CATEGORY,
+				Sort.by(Sort.Direction.DESC, "favouriteCount"));
+		List<CategoryDTO> preferredCategories = categoryIds.stream()
+				.map(categoriesById::get)
+				.filter(Objects::nonNull)
+				.map(category -> new CategoryDTO(category.getId(), category.getName(), category.getDescription(),
+						bookMapper.mapToDTOs(bookRepository.findByCategory(category, suggestions).getContent())))
 				.collect(Collectors.toList());
 
-		// Calculate preferred tags
-		Map<Tag, Double> tagWeight = new HashMap<>();
-		for (Book book : books) {
-			Double progress = bookProgressMap.getOrDefault(book.getId(), 0.0);
-			Double weight = progress;
-
-			for (Tag tag : book.getTags()) {
-				tagWeight.merge(tag, weight, Double::sum);
-			}
-		}
-
-		List<TagDTO> preferredTags = tagWeight.entrySet().stream()
-				.sorted(Map.Entry.<Tag, Double>comparingByValue().reversed()).limit(10) // Top 10 tags
-				.map(entry -> new TagDTO(entry.getKey().getId(), entry.getKey().getName()))
+		List<Integer> tagIds = taste.topTags(PREFERRED_TAG_LIMIT);
+		Map<Integer, Tag> tagsById = tagRepository.findAllById(tagIds).stream()
+				.collect(Collectors.toMap(Tag::getId, tag -> tag));
+		List<TagDTO> preferredTags = tagIds.stream()
+				.map(tagsById::get)
+				.filter(Objects::nonNull)
+				.map(tag -> new TagDTO(tag.getId(), tag.getName()))
 				.collect(Collectors.toList());
-		// Map to UserDTO
+
 		UserDTO userDTO = new UserDTO();
 		userDTO.setId(user.getId());
 		userDTO.setFullname(user.getFullname());
-		// ... set other User fields as needed
-
 		userDTO.setPreferredCategories(preferredCategories);
 		userDTO.setPreferredTags(preferredTags);
 
@@ -0,0 +1,30 @@
+package com.nix.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Builds strong entity tags from the values a response depends on, so a
+ * conditional GET can be answered without loading or serializing the body.
+ */
+public final class ETags {
+
+	private ETags() {
+	}
+
+	public static String of(Object... parts) {
+		StringBuilder source = new StringBuilder();
+		for (Object part : parts) {
+			source.append(part).append('|');
+		}
+		try {
+			byte[] digest = MessageDigest.getInstance("SHA-256")
+					.digest(source.toString().getBytes(StandardCharsets.UTF_8));
+			return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 is not available", e);
+		}
+	}
+}
@@ -1,5 +1,6 @@
 package com.nix.util;
 
+import com.nix.config.AuthenticatedPrincipal;
 import com.nix.models.User;
 
 /**
@@ -25,6 +26,13 @@ public final class SecurityUtils {
         return hasRole(user, ROLE_ADMIN);
     }
 
+    /**
+     * Check if the authenticated principal has the ADMIN role.
+     */
+    public static boolean isAdmin(AuthenticatedPrincipal principal) {
+        return principal != null && ROLE_ADMIN.equalsIgnoreCase(principal.roleName());
+    }
+
     /**
      * Check if the user has the MODERATOR role or higher (ADMIN).
      */
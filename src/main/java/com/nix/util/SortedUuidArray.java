@@ -0,0 +1,112 @@
+package com.nix.util;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Compact immutable UUID sets for in-memory caches: a sorted {@code long[]} of
+ * (most, least) significant bit pairs, 16 bytes per id with membership by
+ * binary search. Updates return a new array and leave the argument untouched,
+ * so a cached array can be shared by concurrent readers.
+ */
+public final class SortedUuidArray {
+
+	public static final long[] EMPTY = new long[0];
+
+	private SortedUuidArray() {
+	}
+
+	public static long[] of(Collection<UUID> uuids) {
+		if (uuids.isEmpty()) {
+			return EMPTY;
+		}
+		UUID[] sorted = uuids.toArray(UUID[]::new);
+		Arrays.sort(sorted, SortedUuidArray::compare);
+		long[] ids = new long[sorted.length * 2];
+		int size = 0;
+		for (UUID uuid : sorted) {
+			if (size == 0 || ids[size - 2] != uuid.getMostSignificantBits()
+					|| ids[size - 1] != uuid.getLeastSignificantBits()) {
+				ids[size++] = uuid.getMostSignificantBits();
+				ids[size++] = uuid.getLeastSignificantBits();
+			}
+		}
+		return size == ids.length ? ids : Arrays.copyOf(ids, size);
+	}
+
+	public static int size(long[] ids) {
+		return ids.length / 2;
+	}
+
+	public static boolean contains(long[] ids, UUID uuid) {
+		return indexOf(ids, uuid) >= 0;
+	}
+
+	public static Set<UUID> toSet(long[] ids) {
+		Set<UUID> uuids = new HashSet<>();
+		for (int i = 0; i < ids.length; i += 2) {
+			uuids.add(new UUID(ids[i], ids[i + 1]));
+		}
+		return uuids;
+	}
+
+	public static long[] with(long[] ids, UUID uuid) {
+		int index = indexOf(ids, uuid);
+		if (index >= 0) {
+			return ids;
+		}
+		int at = -(index + 1) * 2;
+		long[] updated = new long[ids.length + 2];
+		System.arraycopy(ids, 0, updated, 0, at);
+		updated[at] = uuid.getMostSignificantBits();
+		updated[at + 1] = uuid.getLeastSignificantBits();
+		System.arraycopy(ids, at, updated, at + 2, ids.length - at);
+		return updated;
+	}
+
+	public static long[] without(long[] ids, UUID uuid) {
+		int index = indexOf(ids, uuid);
+		if (index < 0) {
+			return ids;
+		}
+		int at = index * 2;
+		long[] updated = new long[ids.length - 2];
+		System.arraycopy(ids, 0, updated, 0, at);
+		System.arraycopy(ids, at + 2, updated, at, ids.length - at - 2);
+		return updated;
+	}
+
+	/**
+	 * Binary search over the pairs; returns the pair index, or
+	 * {@code -(insertion point) - 1} like {@link Arrays#binarySearch}.
+	 */
+	private static int indexOf(long[] ids, UUID uuid) {
+		long msb = uuid.getMostSignificantBits();
+		long lsb = uuid.getLeastSignificantBits();
+		int low = 0;
+		int high = ids.length / 2 - 1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			int cmp = Long.compare(ids[mid * 2], msb);
+			if (cmp == 0) {
+				cmp = Long.compare(ids[mid * 2 + 1], lsb);
+			}
+			if (cmp < 0) {
+				low = mid + 1;
+			} else if (cmp > 0) {
+				high = mid - 1;
+			} else {
+				return mid;
+			}
+		}
+		return -(low + 1);
+	}
+
+	private static int compare(UUID a, UUID b) {
+		int cmp = Long.compare(a.getMostSignificantBits(), b.getMostSignificantBits());
+		return cmp != 0 ? cmp : Long.compare(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+	}
+}
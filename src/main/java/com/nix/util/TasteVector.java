@@ -0,0 +1,100 @@
+package com.nix.util;
+
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A reader's category and tag weights. Serialized as packed
+ * (kind, id, weight) entries of 9 bytes each; tags are capped at
+ * {@link #MAX_TAGS}, dropping the lightest.
+ */
+public class TasteVector {
+
+	private static final byte CATEGORY = 1;
+	private static final byte TAG = 2;
+	private static final int ENTRY_BYTES = 9;
+	private static final int MAX_TAGS = 128;
+	private static final float EPSILON = 1e-4f;
+
+	private final Map<Integer, Float> categories = new HashMap<>();
+	private final Map<Integer, Float> tags = new HashMap<>();
+
+	/**
+	 * Restores a vector from {@link #toBytes()}. Returns an empty vector for null.
+	 */
+	public static TasteVector fromBytes(byte[] bytes) {
+		TasteVector vector = new TasteVector();
+		if (bytes == null) {
+			return vector;
+		}
+		if (bytes.length % ENTRY_BYTES != 0) {
+			throw new IllegalArgumentException("Invalid taste vector length: " + bytes.length);
+		}
+		ByteBuffer buffer = ByteBuffer.wrap(bytes);
+		while (buffer.hasRemaining()) {
+			byte kind = buffer.get();
+			int id = buffer.getInt();
+			float weight = buffer.getFloat();
+			(kind == CATEGORY ? vector.categories : vector.tags).put(id, weight);
+		}
+		return vector;
+	}
+
+	/**
+	 * Adds the weight to the book's category and to each of its tags. A negative
+	 * weight takes back an earlier addition; weights that reach zero are removed.
+	 */
+	public void add(Integer categoryId, Collection<Integer> tagIds, float weight) {
+		if (categoryId != null) {
+			merge(categories, categoryId, weight);
+		}
+		for (Integer tagId : tagIds) {
+			merge(tags, tagId, weight);
+		}
+		if (tags.size() > MAX_TAGS) {
+			tags.entrySet().stream()
+					.sorted(Map.Entry.comparingByValue())
+					.limit(tags.size() - MAX_TAGS)
+					.map(Map.Entry::getKey)
+					.toList()
+					.forEach(tags::remove);
+		}
+	}
+
+	public List<Integer> topCategories(int limit) {
+		return top(categories, limit);
+	}
+
+	public List<Integer> topTags(int limit) {
+		return top(tags, limit);
+	}
+
+	public byte[] toBytes() {
+		ByteBuffer buffer = ByteBuffer.allocate((categories.size() + tags.size()) * ENTRY_BYTES);
+		categories.forEach((id, weight) -> buffer.put(CATEGORY).putInt(id).putFloat(weight));
+		tags.forEach((id, weight) -> buffer.put(TAG).putInt(id).putFloat(weight));
+		return buffer.array();
+	}
+
+	private static void merge(Map<Integer, Float> weights, Integer id, float delta) {
+		float updated = weights.getOrDefault(id, 0f) + delta;
+		if (updated > EPSILON) {
+			weights.put(id, updated);
+		} else {
+			weights.remove(id);
+		}
+	}
+
+	private static List<Integer> top(Map<Integer, Float> weights, int limit) {
+		return weights.entrySet().stream()
+				.sorted(Map.Entry.<Integer, Float>comparingByValue(Comparator.reverseOrder())
+						.thenComparing(Map.Entry.comparingByKey()))
+				.limit(limit)
+				.map(Map.Entry::getKey)
+				.toList();
+	}
+}
@@ -0,0 +1,26 @@
+package com.nix.util;
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
+/**
+ * Conversions for UUID columns, which are stored as BINARY(16) in MySQL, when
+ * they are read or written through plain JDBC.
+ */
+public final class UuidBytes {
+
+	private UuidBytes() {
+	}
+
+	public static byte[] toBytes(UUID id) {
+		return ByteBuffer.allocate(16)
+				.putLong(id.getMostSignificantBits())
+				.putLong(id.getLeastSignificantBits())
+				.array();
+	}
+
+	public static UUID fromBytes(byte[] bytes) {
+		ByteBuffer buffer = ByteBuffer.wrap(bytes);
+		return new UUID(buffer.getLong(), buffer.getLong());
+	}
+}
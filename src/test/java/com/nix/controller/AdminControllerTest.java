@@ -3,7 +3,6 @@ package com.nix.controller;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
-import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
@@ -30,16 +29,19 @@ import org.springframework.http.ResponseEntity;
 
 import com.nix.dtos.AuthorPayoutDTO;
 import com.nix.dtos.ContentAnalyticsDTO;
+import com.nix.dtos.DeletionJobDTO;
 import com.nix.dtos.PlatformAnalyticsDTO;
 import com.nix.dtos.RevenueAnalyticsDTO;
 import com.nix.dtos.UserAnalyticsDTO;
 import com.nix.dtos.UserDTO;
 import com.nix.models.AuthorPayout;
+import com.nix.models.DeletionJob.TargetType;
 import com.nix.models.Role;
 import com.nix.models.User;
 import com.nix.response.ApiResponseWithData;
 import com.nix.service.AdminService;
 import com.nix.service.AuthorService;
+import com.nix.service.CascadeDeletionService;
 import com.nix.service.UserService;
 
 @ExtendWith(MockitoExtension.class)
@@ -57,6 +59,9 @@ class AdminControllerTest {
     @Mock
     private com.nix.dtos.mappers.UserMapper userMapper;
 
+    @Mock
+    private CascadeDeletionService cascadeDeletionService;
+
     @InjectMocks
     private AdminController adminController;
 
@@ -303,21 +308,23 @@ class AdminControllerTest {
     }
 
     @Test
-    void deleteUser_withAuth_deletesSuccessfully() throws Exception {
+    void deleteUser_withAuth_startsDeletionJob() throws Exception {
         UUID userId = UUID.randomUUID();
+        DeletionJobDTO job = new DeletionJobDTO();
+        job.setTargetId(userId);
 
-        when(userService.deleteUser(userId)).thenReturn("User deleted successfully");
+        when(cascadeDeletionService.submit(TargetType.USER, userId, null)).thenReturn(job);
 
-        ResponseEntity<ApiResponseWithData<Void>> response = adminController.deleteUser(userId);
+        ResponseEntity<ApiResponseWithData<DeletionJobDTO>> response = adminController.deleteUser(userId);
 
-        assertEquals(HttpStatus.OK, response.getStatusCode());
-        ApiResponseWithData<Void> body = response.getBody();
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+        ApiResponseWithData<DeletionJobDTO> body = response.getBody();
         assertNotNull(body);
         assertTrue(body.isSuccess());
-        assertEquals("User deleted successfully.", body.getMessage());
-        assertNull(body.getData());
+        assertEquals("User deletion started.", body.getMessage());
+        assertEquals(job, body.getData());
 
-        verify(userService).deleteUser(userId);
+        verify(cascadeDeletionService).submit(TargetType.USER, userId, null);
     }
 
     @Test
@@ -1,17 +1,20 @@
 package com.nix.controller;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anySet;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -27,25 +30,35 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nix.config.CurrentUserProvider;
 import com.nix.dtos.BookDTO;
 import com.nix.dtos.CategoryDTO;
+import com.nix.dtos.CursorPage;
+import com.nix.dtos.ResourceVersion;
 import com.nix.dtos.UserSummaryDTO;
+import com.nix.models.DeletionJob.TargetType;
 import com.nix.models.Role;
 import com.nix.models.User;
+import com.nix.repository.BookListingFilter;
 import com.nix.service.BookService;
+import com.nix.service.CascadeDeletionService;
+import com.nix.service.DiscoverySnapshotService;
 import com.nix.service.NotificationService;
 import com.nix.service.UserService;
 
 @WebMvcTest(BookController.class)
 @AutoConfigureMockMvc(addFilters = false)
+@Import(CurrentUserProvider.class)
 class BookControllerTest {
 
     @Autowired
@@ -63,6 +76,12 @@ class BookControllerTest {
     @MockBean
     private NotificationService notificationService;
 
+    @MockBean
+    private DiscoverySnapshotService discoverySnapshotService;
+
+    @MockBean
+    private CascadeDeletionService cascadeDeletionService;
+
     @Test
     void getAllBooks_withoutAuth_returnsAllBooks() throws Exception {
         UUID bookId = UUID.randomUUID();
@@ -95,23 +114,48 @@ class BookControllerTest {
         when(userService.getUserIdsBlocking(userId)).thenReturn(Set.of());
         when(userService.getBlockedUserIds(userId)).thenReturn(Set.of());
         when(bookService.getAllBooks(any(Pageable.class), anySet())).thenReturn(page);
-        when(bookService.getFavouriteBookIdsForUser(userId)).thenReturn(Set.of());
+        when(bookService.getFavouriteBookIds(eq(userId), anyCollection())).thenReturn(Set.of(bookId));
 
         mockMvc.perform(get("/books")
                 .header("Authorization", jwt)
                 .param("page", "0")
                 .param("size", "10"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.content[0].id").value(bookId.toString()));
+                .andExpect(jsonPath("$.content[0].id").value(bookId.toString()))
+                .andExpect(jsonPath("$.content[0].followedByCurrentUser").value(true));
 
         verify(bookService).getAllBooks(any(Pageable.class), anySet());
     }
 
+    @Test
+    void getAllBooks_withCursor_returnsCursorPage() throws Exception {
+        UUID bookId = UUID.randomUUID();
+        BookDTO bookDTO = buildBookDTO(bookId, "Test Book", null);
+        CursorPage<BookDTO> page = new CursorPage<>(List.of(bookDTO), "next-token", true);
+
+        when(bookService.getBooksAfter(any(BookListingFilter.class), eq(""), eq(10), eq("uploadDate"),
+                eq(Sort.Direction.DESC))).thenReturn(page);
+
+        mockMvc.perform(get("/books")
+                .param("cursor", "")
+                .param("sortBy", "uploadDate")
+                .param("direction", "DESC"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(bookId.toString()))
+                .andExpect(jsonPath("$.nextCursor").value("next-token"))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+
+        verify(bookService).getBooksAfter(any(BookListingFilter.class), eq(""), eq(10), eq("uploadDate"),
+                eq(Sort.Direction.DESC));
+    }
+
     @Test
     void getBookById_withoutAuth_returnsBook() throws Exception {
         UUID bookId = UUID.randomUUID();
         BookDTO bookDTO = buildBookDTO(bookId, "Test Book", null);
 
+        when(bookService.getBookVersion(bookId)).thenReturn(new ResourceVersion("\"v1\"", null, null));
         when(bookService.getBookById(bookId)).thenReturn(bookDTO);
 
         mockMvc.perform(get("/books/{bookId}", bookId))
@@ -120,6 +164,23 @@ class BookControllerTest {
                 .andExpect(jsonPath("$.title").value("Test Book"));
     }
 
+    @Test
+    void getBookById_withMatchingETag_returnsNotModified() throws Exception {
+        UUID bookId = UUID.randomUUID();
+
+        when(bookService.getBookVersion(bookId)).thenReturn(new ResourceVersion("\"v1\"", null, null));
+        when(bookService.getBookById(bookId)).thenReturn(buildBookDTO(bookId, "Test Book", null));
+
+        String eTag = mockMvc.perform(get("/books/{bookId}", bookId))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/books/{bookId}", bookId).header("If-None-Match", eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", eTag));
+        verify(bookService, times(1)).getBookById(bookId);
+    }
+
     @Test
     void getBookById_withAuth_setsFollowedStatus() throws Exception {
         String jwt = "Bearer test-token";
@@ -129,6 +190,7 @@ class BookControllerTest {
         BookDTO bookDTO = buildBookDTO(bookId, "Test Book", null);
 
         when(userService.findUserByJwt(jwt)).thenReturn(currentUser);
+        when(bookService.getBookVersion(bookId)).thenReturn(new ResourceVersion("\"v1\"", null, null));
         when(bookService.getBookById(bookId)).thenReturn(bookDTO);
         when(bookService.isBookLikedByUser(userId, bookId)).thenReturn(true);
 
@@ -400,11 +462,11 @@ class BookControllerTest {
 
         mockMvc.perform(delete("/api/books/{bookId}", bookId)
                 .header("Authorization", jwt))
-                .andExpect(status().isOk())
-                .andExpect(jsonPath("$.message").value("Book deleted successfully."))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.message").value("Book deletion started."))
                 .andExpect(jsonPath("$.success").value(true));
 
-        verify(bookService).deleteBook(bookId);
+        verify(cascadeDeletionService).submit(TargetType.BOOK, bookId, authorId);
     }
 
     @Test
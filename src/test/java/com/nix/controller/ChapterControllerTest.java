@@ -1,11 +1,23 @@
 package com.nix.controller;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
@@ -14,22 +26,35 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 
+import com.nix.config.CurrentUserProvider;
+import com.nix.dtos.ResourceVersion;
+import com.nix.exception.ResourceNotFoundException;
 import com.nix.models.Book;
 import com.nix.models.Chapter;
 import com.nix.models.Role;
 import com.nix.models.User;
 import com.nix.service.BookService;
+import com.nix.service.CascadeDeletionService;
+import com.nix.service.ChapterContentService;
 import com.nix.service.ChapterService;
+import com.nix.service.EpubImportService;
 import com.nix.service.PaymentService;
 import com.nix.service.ReadingProgressService;
 import com.nix.service.UserService;
 
 @WebMvcTest(ChapterController.class)
 @AutoConfigureMockMvc(addFilters = false)
+@Import(CurrentUserProvider.class)
 class ChapterControllerTest {
 
+    private static final String BODY = "<p>First paragraph.</p><p>Second paragraph.</p>";
+
     @Autowired
     private MockMvc mockMvc;
 
@@ -48,11 +73,21 @@ class ChapterControllerTest {
     @MockBean
     private PaymentService paymentService;
 
+    @MockBean
+    private CascadeDeletionService cascadeDeletionService;
+
+    @MockBean
+    private ChapterContentService chapterContentService;
+
+    @MockBean
+    private EpubImportService epubImportService;
+
     @Test
     void getChapterById_whenLockedAndNotUnlocked_returnsSummary() throws Exception {
         UUID chapterId = UUID.randomUUID();
         UUID bookId = UUID.randomUUID();
         Chapter chapter = buildChapter(chapterId, bookId, null, true, 25, "Locked content");
+        when(chapterService.getChapterVersion(chapterId)).thenReturn(buildVersion(null));
         when(chapterService.findChapterById(chapterId)).thenReturn(chapter);
 
         mockMvc.perform(get("/chapters/{chapterId}", chapterId))
@@ -74,12 +109,14 @@ class ChapterControllerTest {
         String jwt = "Bearer test-token";
         User currentUser = buildUser(UUID.randomUUID(), "USER");
 
+        when(chapterService.getChapterVersion(chapterId)).thenReturn(buildVersion(authorId));
         when(chapterService.findChapterById(chapterId)).thenReturn(chapter);
         when(userService.findUserByJwt(jwt)).thenReturn(currentUser);
         when(userService.isBlockedBy(currentUser.getId(), authorId)).thenReturn(false);
         when(userService.hasBlocked(currentUser.getId(), authorId)).thenReturn(false);
         when(chapterService.isChapterUnlockedByUser(currentUser.getId(), chapterId)).thenReturn(true);
         when(chapterService.isChapterLikedByUser(currentUser.getId(), chapterId)).thenReturn(true);
+        when(chapterContentService.getContent(chapter)).thenReturn("Full chapter content");
 
         mockMvc.perform(get("/chapters/{chapterId}", chapterId).header("Authorization", jwt))
                 .andExpect(status().isOk())
@@ -93,6 +130,103 @@ class ChapterControllerTest {
                 .andExpect(jsonPath("$.data.uploadDate").value(chapter.getUploadDate().toString()));
     }
 
+    @Test
+    void getChapterById_withMatchingETag_returnsNotModifiedWithoutLoadingChapter() throws Exception {
+        UUID chapterId = UUID.randomUUID();
+        when(chapterService.getChapterVersion(chapterId)).thenReturn(buildVersion(null));
+        when(chapterService.findChapterById(chapterId))
+                .thenReturn(buildChapter(chapterId, UUID.randomUUID(), null, false, 0, "Cached content"));
+
+        String eTag = mockMvc.perform(get("/chapters/{chapterId}", chapterId))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        clearInvocations(chapterService);
+
+        mockMvc.perform(get("/chapters/{chapterId}", chapterId).header("If-None-Match", eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", eTag))
+                .andExpect(content().string(""));
+        verify(chapterService, never()).findChapterById(chapterId);
+    }
+
+    @Test
+    void getChapterContent_whenLockedAndNotUnlocked_returnsForbiddenWithoutReadingContent() throws Exception {
+        UUID chapterId = UUID.randomUUID();
+        UUID bookId = UUID.randomUUID();
+        Chapter chapter = buildChapter(chapterId, bookId, null, true, 25, "Locked content");
+        when(chapterService.findChapterById(chapterId)).thenReturn(chapter);
+
+        mockMvc.perform(get("/chapters/{chapterId}/content", chapterId).header("Range", "bytes=0-99"))
+                .andExpect(status().isForbidden());
+
+        verify(chapterContentService, never()).open(chapter);
+    }
+
+    @Test
+    void getChapterContent_withSingleRange_returnsPartialContent() throws Exception {
+        UUID chapterId = UUID.randomUUID();
+        stubContent(chapterId, BODY);
+
+        performStreaming(get("/chapters/{chapterId}/content", chapterId).header("Range", "bytes=10-19"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string("Content-Range", "bytes 10-19/" + BODY.length()))
+                .andExpect(header().string("Accept-Ranges", "bytes"))
+                .andExpect(header().longValue("Content-Length", 10))
+                .andExpect(content().string(BODY.substring(10, 20)));
+    }
+
+    @Test
+    void getChapterContent_whenRangeStartsPastEnd_returnsRangeNotSatisfiable() throws Exception {
+        UUID chapterId = UUID.randomUUID();
+        stubContent(chapterId, BODY);
+
+        mockMvc.perform(get("/chapters/{chapterId}/content", chapterId).header("Range", "bytes=500-"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string("Content-Range", "bytes */" + BODY.length()));
+    }
+
+    @Test
+    void getChapterContent_whenIfRangeDoesNotMatch_returnsWholeBody() throws Exception {
+        UUID chapterId = UUID.randomUUID();
+        stubContent(chapterId, BODY);
+
+        performStreaming(get("/chapters/{chapterId}/content", chapterId)
+                .header("Range", "bytes=10-19")
+                .header("If-Range", "\"stale\""))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Content-Range"))
+                .andExpect(content().string(BODY));
+    }
+
+    @Test
+    void getChapterContent_withMatchingETag_returnsNotModifiedWithoutOpeningBody() throws Exception {
+        UUID chapterId = UUID.randomUUID();
+        Chapter chapter = stubContent(chapterId, BODY);
+
+        String eTag = performStreaming(get("/chapters/{chapterId}/content", chapterId))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        clearInvocations(chapterContentService);
+
+        mockMvc.perform(get("/chapters/{chapterId}/content", chapterId).header("If-None-Match", eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", eTag))
+                .andExpect(content().string(""));
+        verify(chapterContentService, never()).open(chapter);
+    }
+
+    @Test
+    void getChapterContentPage_whenPageOutOfRange_returnsNotFound() throws Exception {
+        UUID chapterId = UUID.randomUUID();
+        Chapter chapter = buildChapter(chapterId, UUID.randomUUID(), null, false, 0, BODY);
+        when(chapterService.findChapterById(chapterId)).thenReturn(chapter);
+        when(chapterContentService.getPage(chapter, 5))
+                .thenThrow(new ResourceNotFoundException("Chapter " + chapterId + " has no page 5."));
+
+        mockMvc.perform(get("/chapters/{chapterId}/content/pages/{page}", chapterId, 5))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     void likeChapter_whenServiceMarksAsLiked_returnsUpdatedDto() throws Exception {
         UUID chapterId = UUID.randomUUID();
@@ -114,6 +248,37 @@ class ChapterControllerTest {
                 .andExpect(jsonPath("$.data.likedByCurrentUser").value(true));
     }
 
+    private Chapter stubContent(UUID chapterId, String content) throws Exception {
+        Chapter chapter = buildChapter(chapterId, UUID.randomUUID(), null, false, 0, content);
+        byte[] raw = content.getBytes(StandardCharsets.UTF_8);
+        ChapterContentService.Body body = mock(ChapterContentService.Body.class);
+        when(body.size()).thenReturn((long) raw.length);
+        when(body.writeTo(any(OutputStream.class), anyLong(), anyLong())).thenAnswer(invocation -> {
+            int from = (int) Math.min(invocation.<Long>getArgument(1), raw.length);
+            int count = (int) Math.min(invocation.<Long>getArgument(2), raw.length - from);
+            ((OutputStream) invocation.getArgument(0)).write(raw, from, count);
+            return (long) count;
+        });
+        when(chapterService.findChapterById(chapterId)).thenReturn(chapter);
+        when(chapterContentService.open(chapter)).thenReturn(body);
+        return chapter;
+    }
+
+    /**
+     * Streamed bodies are written asynchronously, so the response is complete
+     * only after the async dispatch.
+     */
+    private ResultActions performStreaming(MockHttpServletRequestBuilder builder) throws Exception {
+        MvcResult result = mockMvc.perform(builder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(result));
+    }
+
+    private ResourceVersion buildVersion(UUID ownerId) {
+        return new ResourceVersion("\"v1\"", ownerId, LocalDateTime.of(2023, 1, 1, 12, 0));
+    }
+
     private Chapter buildChapter(UUID chapterId, UUID bookId, UUID authorId, boolean locked, int price,
             String content) {
         Chapter chapter = new Chapter();
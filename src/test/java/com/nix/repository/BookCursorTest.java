@@ -0,0 +1,121 @@
+package com.nix.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import com.nix.models.Book;
+
+class BookCursorTest {
+
+    @Test
+    void decode_whenBlank_returnsFirstPage() {
+        assertTrue(BookCursor.decode(null, "title", Sort.Direction.ASC).isFirstPage());
+        assertTrue(BookCursor.decode(" ", "title", Sort.Direction.ASC).isFirstPage());
+    }
+
+    @Test
+    void encode_roundTripsEachSortKey() {
+        Book book = new Book();
+        book.setId(UUID.randomUUID());
+        book.setTitle("A|title with the separator");
+        book.setUploadDate(LocalDateTime.of(2024, 5, 17, 8, 30, 15));
+        book.setViewCount(42);
+        book.setFavouriteCount(7);
+
+        for (String sortBy : new String[] { "id", "title", "uploadDate", "viewCount", "favouriteCount" }) {
+            for (Sort.Direction direction : Sort.Direction.values()) {
+                BookCursor cursor = BookCursor.decode(null, sortBy, direction).after(book);
+
+                BookCursor decoded = BookCursor.decode(cursor.encode(), sortBy, direction);
+
+                assertEquals(book.getId(), decoded.id());
+                assertFalse(decoded.isFirstPage());
+                if (!decoded.isKeyedById()) {
+                    assertEquals(cursor.value(), decoded.value());
+                }
+            }
+        }
+    }
+
+    @Test
+    void encode_roundTripsRelevanceScore() {
+        UUID bookId = UUID.randomUUID();
+        BookCursor cursor = BookCursor.decode(null, BookCursor.RELEVANCE, Sort.Direction.DESC).after(bookId, 3.25);
+
+        BookCursor decoded = BookCursor.decode(cursor.encode(), BookCursor.RELEVANCE, Sort.Direction.DESC);
+
+        assertEquals(bookId, decoded.id());
+        assertEquals(3.25, decoded.value());
+    }
+
+    @Test
+    void encode_keepsNullAndEmptyValuesApart() {
+        Book untitled = new Book();
+        untitled.setId(UUID.randomUUID());
+        Book emptyTitle = new Book();
+        emptyTitle.setId(UUID.randomUUID());
+        emptyTitle.setTitle("");
+        BookCursor start = BookCursor.decode(null, "title", Sort.Direction.ASC);
+
+        BookCursor afterNull = BookCursor.decode(start.after(untitled).encode(), "title", Sort.Direction.ASC);
+        BookCursor afterEmpty = BookCursor.decode(start.after(emptyTitle).encode(), "title", Sort.Direction.ASC);
+
+        assertNull(afterNull.value());
+        assertEquals(untitled.getId(), afterNull.id());
+        assertEquals("", afterEmpty.value());
+    }
+
+    @Test
+    void decode_whenIssuedForAnotherSort_throws() {
+        Book book = new Book();
+        book.setId(UUID.randomUUID());
+        String token = BookCursor.decode(null, "viewCount", Sort.Direction.DESC).after(book).encode();
+
+        assertThrows(IllegalArgumentException.class,
+                () -> BookCursor.decode(token, "favouriteCount", Sort.Direction.DESC));
+        assertThrows(IllegalArgumentException.class,
+                () -> BookCursor.decode(token, "viewCount", Sort.Direction.ASC));
+    }
+
+    @Test
+    void decode_whenMalformed_throws() {
+        assertThrows(IllegalArgumentException.class,
+                () -> BookCursor.decode("not base64!", "viewCount", Sort.Direction.ASC));
+        assertThrows(IllegalArgumentException.class,
+                () -> BookCursor.decode(token("viewCount|ASC"), "viewCount", Sort.Direction.ASC));
+        assertThrows(IllegalArgumentException.class,
+                () -> BookCursor.decode(token("viewCount|ASC|not-a-uuid|5"), "viewCount", Sort.Direction.ASC));
+        assertThrows(IllegalArgumentException.class, () -> BookCursor
+                .decode(token("viewCount|ASC|" + UUID.randomUUID() + "|many"), "viewCount", Sort.Direction.ASC));
+    }
+
+    @Test
+    void decode_whenValueMissingForNonNullableKey_throws() {
+        String token = token("viewCount|ASC|" + UUID.randomUUID());
+
+        assertThrows(IllegalArgumentException.class, () -> BookCursor.decode(token, "viewCount", Sort.Direction.ASC));
+    }
+
+    @Test
+    void decode_whenSortKeyUnsupported_throws() {
+        assertThrows(IllegalArgumentException.class, () -> BookCursor.decode(null, "price", Sort.Direction.ASC));
+        assertFalse(BookCursor.isSortableColumn("price"));
+        assertFalse(BookCursor.isSortableColumn(BookCursor.RELEVANCE));
+        assertTrue(BookCursor.isSortableColumn("uploadDate"));
+    }
+
+    private static String token(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
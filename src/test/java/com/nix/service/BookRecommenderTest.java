@@ -0,0 +1,156 @@
+package com.nix.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import com.nix.dtos.BookRecommendationDTO;
+import com.nix.repository.BookFavouriteRepository;
+import com.nix.repository.BookRepository;
+import com.nix.repository.ReadingProgressRepository;
+import com.nix.util.UuidBytes;
+
+class BookRecommenderTest {
+
+    private final UUID bookA = UUID.randomUUID();
+    private final UUID bookB = UUID.randomUUID();
+    private final UUID bookC = UUID.randomUUID();
+    private final UUID bookD = UUID.randomUUID();
+    private final UUID authorOfB = UUID.randomUUID();
+
+    private JdbcTemplate jdbcTemplate;
+    private BookRepository bookRepository;
+    private BookFavouriteRepository bookFavouriteRepository;
+    private ReadingProgressRepository readingProgressRepository;
+    private TrendingEngine trendingEngine;
+    private BookRecommender recommender;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        bookRepository = mock(BookRepository.class);
+        bookFavouriteRepository = mock(BookFavouriteRepository.class);
+        readingProgressRepository = mock(ReadingProgressRepository.class);
+        trendingEngine = mock(TrendingEngine.class);
+        recommender = new BookRecommender(jdbcTemplate, bookRepository, bookFavouriteRepository,
+                readingProgressRepository, trendingEngine);
+
+        UUID u1 = UUID.randomUUID();
+        UUID u2 = UUID.randomUUID();
+        UUID u3 = UUID.randomUUID();
+        UUID u4 = UUID.randomUUID();
+        // A and B are favourited by the same two readers; A and C share one reader
+        stubInteractions("SELECT user_id, book_id FROM book_favourite",
+                List.of(pair(u1, bookA), pair(u1, bookB), pair(u2, bookA), pair(u2, bookB)));
+        stubInteractions("SELECT DISTINCT rp.user_id",
+                List.of(pair(u3, bookA), pair(u3, bookC), pair(u4, bookD)));
+
+        Map<UUID, Object[]> rows = new HashMap<>();
+        rows.put(bookA, row(bookA, null));
+        rows.put(bookB, row(bookB, authorOfB));
+        rows.put(bookC, row(bookC, null));
+        rows.put(bookD, row(bookD, null));
+        when(bookRepository.findRecommendationRowsByIds(anyCollection())).thenAnswer(invocation -> {
+            List<Object[]> found = new ArrayList<>();
+            for (Object bookId : (Collection<?>) invocation.getArgument(0)) {
+                found.add(rows.get(bookId));
+            }
+            return found;
+        });
+
+        recommender.rebuild();
+    }
+
+    @Test
+    void recommend_ranksBooksByReaderSimilarity() {
+        UUID userId = UUID.randomUUID();
+        when(bookFavouriteRepository.findBookIdsByUserId(userId)).thenReturn(List.of(bookA));
+
+        List<BookRecommendationDTO> recommendations = recommender.recommend(userId, 10, Set.of());
+
+        assertEquals(List.of(bookB, bookC), ids(recommendations));
+        // cos(A, B) = 8 / (3 * sqrt(8)) and cos(A, C) = 1 / 3, times the favourite weight 2
+        assertEquals(2 * 8 / (3 * Math.sqrt(8)), recommendations.get(0).getScore(), 1e-4);
+        assertEquals(2.0 / 3, recommendations.get(1).getScore(), 1e-4);
+    }
+
+    @Test
+    void recommend_skipsUsersOwnBooksAndExcludedAuthors() {
+        UUID userId = UUID.randomUUID();
+        when(bookFavouriteRepository.findBookIdsByUserId(userId)).thenReturn(List.of(bookA));
+        when(readingProgressRepository.findBookIdsByUserId(userId)).thenReturn(List.of(bookC));
+
+        List<BookRecommendationDTO> recommendations = recommender.recommend(userId, 10, Set.of(authorOfB));
+
+        assertTrue(recommendations.isEmpty());
+    }
+
+    @Test
+    void recommend_honoursLimit() {
+        UUID userId = UUID.randomUUID();
+        when(bookFavouriteRepository.findBookIdsByUserId(userId)).thenReturn(List.of(bookA));
+
+        assertEquals(List.of(bookB), ids(recommender.recommend(userId, 1, Set.of())));
+    }
+
+    @Test
+    void recommend_withoutActivity_fallsBackToTrending() {
+        UUID userId = UUID.randomUUID();
+        when(trendingEngine.top(anyInt())).thenReturn(List.of(bookD, bookC));
+
+        List<BookRecommendationDTO> recommendations = recommender.recommend(userId, 10, null);
+
+        assertEquals(Set.of(bookD, bookC), Set.copyOf(ids(recommendations)));
+        assertTrue(recommendations.stream().allMatch(recommendation -> recommendation.getScore() == 0));
+    }
+
+    private void stubInteractions(String sqlPrefix, List<UUID[]> pairs) throws SQLException {
+        List<ResultSet> resultSets = new ArrayList<>();
+        for (UUID[] pair : pairs) {
+            ResultSet resultSet = mock(ResultSet.class);
+            when(resultSet.getBytes(1)).thenReturn(UuidBytes.toBytes(pair[0]));
+            when(resultSet.getBytes(2)).thenReturn(UuidBytes.toBytes(pair[1]));
+            resultSets.add(resultSet);
+        }
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (ResultSet resultSet : resultSets) {
+                handler.processRow(resultSet);
+            }
+            return null;
+        }).when(jdbcTemplate).query(startsWith(sqlPrefix), any(RowCallbackHandler.class));
+    }
+
+    private static UUID[] pair(UUID userId, UUID bookId) {
+        return new UUID[] { userId, bookId };
+    }
+
+    private static Object[] row(UUID bookId, UUID authorId) {
+        return new Object[] { bookId, "Title", "Author", null, null, authorId, 0L };
+    }
+
+    private static List<UUID> ids(List<BookRecommendationDTO> recommendations) {
+        return recommendations.stream().map(BookRecommendationDTO::getId).toList();
+    }
+}
@@ -0,0 +1,199 @@
+package com.nix.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.nix.models.Book;
+import com.nix.models.Category;
+import com.nix.models.Tag;
+import com.nix.models.User;
+import com.nix.repository.BookRepository;
+import com.nix.service.BookSearchIndex.SearchHit;
+
+class BookSearchIndexTest {
+
+    private BookSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        // Outside a transaction, index() and remove() apply immediately
+        index = new BookSearchIndex(mock(BookRepository.class), mock(PlatformTransactionManager.class));
+    }
+
+    @Test
+    void search_ranksTitleMatchAboveDescriptionMatch() {
+        Book inTitle = book("Dragon Keeper", "A quiet story about a village.");
+        Book inDescription = book("The Village", "A story about a dragon and its keeper.");
+        index.index(inDescription);
+        index.index(inTitle);
+
+        List<UUID> ids = bookIds(index.search("dragon", null, null, null));
+
+        assertEquals(List.of(inTitle.getId(), inDescription.getId()), ids);
+    }
+
+    @Test
+    void search_ranksRarerTermsHigher() {
+        index.index(book("Magic School", null));
+        index.index(book("Necromancer School", null));
+        index.index(book("Magic Forest", null));
+        index.index(book("Magic Sea", null));
+
+        double magicScore = index.search("magic school", null, null, null).get(0).score();
+        double necromancerScore = index.search("necromancer school", null, null, null).get(0).score();
+        assertTrue(necromancerScore > magicScore);
+    }
+
+    @Test
+    void search_requiresEveryTerm() {
+        Book both = book("Sword and Shield", null);
+        index.index(both);
+        index.index(book("Sword of Ice", null));
+
+        assertEquals(List.of(both.getId()), bookIds(index.search("sword shield", null, null, null)));
+    }
+
+    @Test
+    void search_matchesLastTermAsPrefixOnly() {
+        Book book = book("Harry Potter", null);
+        index.index(book);
+
+        assertEquals(List.of(book.getId()), bookIds(index.search("harry pot", null, null, null)));
+        assertTrue(index.search("har potter", null, null, null).isEmpty());
+    }
+
+    @Test
+    void search_ranksExactMatchAbovePrefixMatch() {
+        Book exact = book("Star", null);
+        Book prefix = book("Stardust", null);
+        index.index(prefix);
+        index.index(exact);
+
+        assertEquals(List.of(exact.getId(), prefix.getId()), bookIds(index.search("star", null, null, null)));
+    }
+
+    @Test
+    void search_ignoresCaseAndVietnameseDiacritics() {
+        Book book = book("Đắc Nhân Tâm", null);
+        index.index(book);
+
+        assertEquals(List.of(book.getId()), bookIds(index.search("dac nhan tam", null, null, null)));
+        assertEquals(List.of(book.getId()), bookIds(index.search("ĐẮC", null, null, null)));
+    }
+
+    @Test
+    void search_appliesCategoryTagAndAuthorFilters() {
+        Category fantasy = category(1, "Fantasy");
+        Tag magic = tag(7, "Magic");
+        User author = new User();
+        author.setId(UUID.randomUUID());
+
+        Book match = book("Moon Tower", null);
+        match.setCategory(fantasy);
+        match.setTags(List.of(magic));
+        Book otherCategory = book("Moon Garden", null);
+        otherCategory.setCategory(category(2, "Romance"));
+        otherCategory.setTags(List.of(magic));
+        Book excludedAuthor = book("Moon River", null);
+        excludedAuthor.setCategory(fantasy);
+        excludedAuthor.setTags(List.of(magic));
+        excludedAuthor.setAuthor(author);
+        index.index(match);
+        index.index(otherCategory);
+        index.index(excludedAuthor);
+
+        List<SearchHit> hits = index.search("moon", 1, List.of(7), Set.of(author.getId()));
+
+        assertEquals(List.of(match.getId()), bookIds(hits));
+    }
+
+    @Test
+    void search_findsTagAndCategoryNames() {
+        Book book = book("Untitled", null);
+        book.setCategory(category(3, "Horror"));
+        book.setTags(List.of(tag(4, "Vampires")));
+        index.index(book);
+
+        assertEquals(List.of(book.getId()), bookIds(index.search("horror", null, null, null)));
+        assertEquals(List.of(book.getId()), bookIds(index.search("vampires", null, null, null)));
+    }
+
+    @Test
+    void search_breaksTiesById() {
+        Book first = book("Twin", null);
+        Book second = book("Twin", null);
+        index.index(first);
+        index.index(second);
+
+        List<UUID> ids = bookIds(index.search("twin", null, null, null));
+
+        List<UUID> expected = first.getId().compareTo(second.getId()) < 0
+                ? List.of(first.getId(), second.getId())
+                : List.of(second.getId(), first.getId());
+        assertEquals(expected, ids);
+    }
+
+    @Test
+    void index_whenReindexed_replacesOldTerms() {
+        Book book = book("Old Title", null);
+        index.index(book);
+        book.setTitle("New Title");
+
+        index.index(book);
+
+        assertTrue(index.search("old", null, null, null).isEmpty());
+        assertEquals(List.of(book.getId()), bookIds(index.search("new", null, null, null)));
+    }
+
+    @Test
+    void remove_dropsBookFromResults() {
+        Book book = book("Lost Book", null);
+        index.index(book);
+
+        index.remove(book.getId());
+
+        assertTrue(index.search("lost", null, null, null).isEmpty());
+    }
+
+    @Test
+    void search_whenQueryHasNoTerms_returnsEmpty() {
+        index.index(book("Anything", null));
+
+        assertTrue(index.search(" ,.! ", null, null, null).isEmpty());
+    }
+
+    private static List<UUID> bookIds(List<SearchHit> hits) {
+        return hits.stream().map(SearchHit::bookId).toList();
+    }
+
+    private static Book book(String title, String description) {
+        Book book = new Book();
+        book.setId(UUID.randomUUID());
+        book.setTitle(title);
+        book.setDescription(description);
+        return book;
+    }
+
+    private static Category category(int id, String name) {
+        Category category = new Category();
+        category.setId(id);
+        category.setName(name);
+        return category;
+    }
+
+    private static Tag tag(int id, String name) {
+        Tag tag = new Tag();
+        tag.setId(id);
+        tag.setName(name);
+        return tag;
+    }
+}
@@ -0,0 +1,69 @@
+package com.nix.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+class ChapterContentServiceTest {
+
+    @Test
+    void paginate_whenShorterThanTarget_returnsSinglePage() {
+        assertArrayEquals(new long[] { 0 }, ChapterContentService.paginate(bytes("<p>Short</p>"), 100));
+        assertArrayEquals(new long[] { 0 }, ChapterContentService.paginate(new byte[0], 100));
+    }
+
+    @Test
+    void paginate_breaksAfterFirstParagraphEndPastTarget() {
+        // Each paragraph is 15 bytes
+        byte[] raw = bytes("<p>abcdefgh</p>".repeat(4));
+
+        // The second paragraph ends at 30; the last break would fall on the end of the body
+        assertArrayEquals(new long[] { 0, 30 }, ChapterContentService.paginate(raw, 20));
+    }
+
+    @Test
+    void paginate_withoutParagraphs_fallsBackToLineEnds() {
+        byte[] raw = bytes("line one\nline two\nline three\n");
+
+        assertArrayEquals(new long[] { 0, 9, 18 }, ChapterContentService.paginate(raw, 5));
+    }
+
+    @Test
+    void paginate_prefersParagraphEndsOverLineEnds() {
+        byte[] raw = bytes("<p>one</p>\n<p>two</p>\n");
+
+        // Breaks land after "</p>", leaving the newline at the start of the next page
+        assertArrayEquals(new long[] { 0, 10, 21 }, ChapterContentService.paginate(raw, 3));
+    }
+
+    @Test
+    void paginate_withoutAnyMarker_returnsSinglePage() {
+        assertArrayEquals(new long[] { 0 }, ChapterContentService.paginate(bytes("x".repeat(100)), 10));
+    }
+
+    @Test
+    void paginate_neverSplitsMultiByteCharacters() {
+        String paragraph = "<p>Tiếng Việt có dấu 🐉</p>";
+        byte[] raw = bytes(paragraph.repeat(10));
+
+        long[] offsets = ChapterContentService.paginate(raw, 40);
+
+        StringBuilder joined = new StringBuilder();
+        for (int i = 0; i < offsets.length; i++) {
+            int end = i + 1 < offsets.length ? (int) offsets[i + 1] : raw.length;
+            String page = new String(Arrays.copyOfRange(raw, (int) offsets[i], end), StandardCharsets.UTF_8);
+            // Every page is whole paragraphs, so it decodes cleanly
+            assertEquals(0, page.length() % paragraph.length());
+            joined.append(page);
+        }
+        assertEquals(paragraph.repeat(10), joined.toString());
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,205 @@
+package com.nix.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.nix.models.ContentPointer;
+
+class ChapterContentStoreTest {
+
+    private static final int HEADER_BYTES = 16;
+
+    @TempDir
+    Path directory;
+
+    private final List<ChapterContentStore> stores = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        stores.forEach(ChapterContentStore::close);
+    }
+
+    @Test
+    void read_returnsAppendedBodies() throws IOException {
+        ChapterContentStore store = open(268435456L);
+        List<String> bodies = List.of("<p>Chapter one</p>", "", "<p>Tiếng Việt có dấu — “quotes” 🐉</p>",
+                "<div class=\"chapter\">" + "<p>Repeated paragraph.</p>".repeat(500) + "</div>");
+        List<ContentPointer> pointers = new ArrayList<>();
+
+        for (String body : bodies) {
+            pointers.add(store.append(body));
+        }
+
+        for (int i = 0; i < bodies.size(); i++) {
+            assertEquals(bodies.get(i), store.read(pointers.get(i)));
+            assertEquals(bodies.get(i).getBytes(StandardCharsets.UTF_8).length, store.rawLength(pointers.get(i)));
+        }
+        // Records are laid out back to back
+        assertEquals(pointers.get(0).getOffset() + pointers.get(0).getLength(), (long) pointers.get(1).getOffset());
+    }
+
+    @Test
+    void read_afterReopen_returnsStoredBodies() throws IOException {
+        ContentPointer pointer = open(268435456L).append("<p>Persisted</p>");
+
+        ChapterContentStore reopened = open(268435456L);
+
+        assertEquals("<p>Persisted</p>", reopened.read(pointer));
+    }
+
+    @Test
+    void append_whenSegmentIsFull_rollsOverToNextSegment() throws IOException {
+        ChapterContentStore store = open(400);
+        List<String> bodies = new ArrayList<>();
+        List<ContentPointer> pointers = new ArrayList<>();
+        Random random = new Random(7);
+
+        for (int i = 0; i < 10; i++) {
+            String body = randomText(random, 120);
+            bodies.add(body);
+            pointers.add(store.append(body));
+        }
+
+        assertTrue(pointers.get(pointers.size() - 1).getSegment() > 1);
+        for (int i = 0; i < bodies.size(); i++) {
+            ContentPointer pointer = pointers.get(i);
+            assertTrue(pointer.getOffset() + pointer.getLength() <= 400);
+            assertEquals(bodies.get(i), store.read(pointer));
+        }
+        assertTrue(Files.exists(directory.resolve("segment-00000002.seg")));
+        // A new instance carries on from the last segment rather than the first
+        ContentPointer next = open(400).append("x");
+        assertTrue(next.getSegment() >= pointers.get(pointers.size() - 1).getSegment());
+    }
+
+    @Test
+    void append_whenRecordExceedsSegmentSize_throws() throws IOException {
+        ChapterContentStore store = open(64);
+
+        assertThrows(IllegalArgumentException.class, () -> store.append(randomText(new Random(1), 200)));
+    }
+
+    @Test
+    void append_afterPartialTail_skipsPastIt() throws IOException {
+        ChapterContentStore store = open(268435456L);
+        ContentPointer first = store.append("<p>First</p>");
+        Path segment = directory.resolve("segment-00000001.seg");
+        // What a crash halfway through an append leaves behind
+        byte[] partial = { 0x43, 0x48, 0x43, 0x31, 0, 0, 1 };
+        Files.write(segment, partial, StandardOpenOption.APPEND);
+
+        ContentPointer second = open(268435456L).append("<p>Second</p>");
+
+        assertEquals(first.getOffset() + first.getLength() + partial.length, (long) second.getOffset());
+        ChapterContentStore reader = open(268435456L);
+        assertEquals("<p>First</p>", reader.read(first));
+        assertEquals("<p>Second</p>", reader.read(second));
+    }
+
+    @Test
+    void read_whenPayloadCorrupted_throwsChecksumMismatch() throws IOException {
+        ContentPointer pointer = open(268435456L).append("<p>Soon to be corrupted</p>");
+        try (FileChannel channel = FileChannel.open(directory.resolve("segment-00000001.seg"),
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long position = pointer.getOffset() + HEADER_BYTES + 2;
+            ByteBuffer current = ByteBuffer.allocate(1);
+            channel.read(current, position);
+            channel.write(ByteBuffer.wrap(new byte[] { (byte) ~current.get(0) }), position);
+        }
+
+        ChapterContentStore reader = open(268435456L);
+
+        IllegalStateException error = assertThrows(IllegalStateException.class, () -> reader.read(pointer));
+        assertTrue(error.getMessage().startsWith("Checksum mismatch"));
+    }
+
+    @Test
+    void read_whenPointerLengthDoesNotMatchRecord_throws() throws IOException {
+        ChapterContentStore store = open(268435456L);
+        ContentPointer pointer = store.append("<p>Body</p>");
+        store.append("<p>Another body</p>");
+
+        ContentPointer wrong = new ContentPointer(pointer.getSegment(), pointer.getOffset(), pointer.getLength() + 1);
+
+        assertThrows(IllegalStateException.class, () -> store.read(wrong));
+    }
+
+    @Test
+    void transferTo_writesWholeBodyAndRanges() throws IOException {
+        ChapterContentStore store = open(268435456L);
+        // Larger than one 64 KB inflate chunk
+        String body = randomText(new Random(3), 200_000);
+        byte[] raw = body.getBytes(StandardCharsets.UTF_8);
+        ContentPointer pointer = store.append(body);
+
+        assertArrayEquals(raw, transfer(store, pointer, 0, Long.MAX_VALUE));
+        assertArrayEquals(Arrays.copyOfRange(raw, 0, 10), transfer(store, pointer, 0, 10));
+        // Spans the boundary between the first and second chunk
+        assertArrayEquals(Arrays.copyOfRange(raw, 65_000, 70_000), transfer(store, pointer, 65_000, 5_000));
+        assertArrayEquals(Arrays.copyOfRange(raw, 199_990, raw.length), transfer(store, pointer, 199_990, 1_000));
+        assertEquals(0, transfer(store, pointer, raw.length, 10).length);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(raw.length, store.transferTo(pointer, out));
+    }
+
+    @Test
+    void append_whenDisabled_throws() throws IOException {
+        ChapterContentStore store = new ChapterContentStore();
+        ReflectionTestUtils.setField(store, "enabled", false);
+        ReflectionTestUtils.setField(store, "directory", directory.toString());
+        ReflectionTestUtils.setField(store, "segmentMaxBytes", 268435456L);
+        store.init();
+
+        assertThrows(IllegalStateException.class, () -> store.append("<p>Body</p>"));
+    }
+
+    private ChapterContentStore open(long segmentMaxBytes) throws IOException {
+        ChapterContentStore store = new ChapterContentStore();
+        ReflectionTestUtils.setField(store, "enabled", true);
+        ReflectionTestUtils.setField(store, "directory", directory.toString());
+        ReflectionTestUtils.setField(store, "segmentMaxBytes", segmentMaxBytes);
+        store.init();
+        stores.add(store);
+        return store;
+    }
+
+    private static byte[] transfer(ChapterContentStore store, ContentPointer pointer, long from, long length)
+            throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long written = store.transferTo(pointer, out, from, length);
+        assertEquals(out.size(), written);
+        return out.toByteArray();
+    }
+
+    /**
+     * Text that barely compresses, so record sizes are predictable.
+     */
+    private static String randomText(Random random, int length) {
+        StringBuilder text = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            text.append((char) ('!' + random.nextInt(90)));
+        }
+        return text.toString();
+    }
+}
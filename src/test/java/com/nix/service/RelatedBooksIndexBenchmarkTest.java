@@ -0,0 +1,118 @@
+package com.nix.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.nix.models.Book;
+import com.nix.models.Category;
+import com.nix.repository.BookFavouriteRepository;
+import com.nix.repository.BookRepository;
+
+/**
+ * Times lookups and updates on a synthetic 500k-book catalogue. Too slow for
+ * every build, so it only runs with {@code -Dbenchmarks=true}.
+ */
+@Tag("benchmark")
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+class RelatedBooksIndexBenchmarkTest {
+
+    private static final int BOOKS = 500_000;
+    private static final int CATEGORIES = 40;
+    private static final int TAGS = 5_000;
+    private static final int USERS = 200_000;
+    private static final String[] LANGUAGES = { "en", "vi", "ja" };
+    private static final int LOOKUPS = 20_000;
+    private static final int UPDATES = 2_000;
+
+    @Test
+    void findRelated_onLargeCatalogue_staysFast() {
+        Random random = new Random(11);
+        RelatedBooksIndex index = new RelatedBooksIndex(mock(BookRepository.class),
+                mock(BookFavouriteRepository.class), mock(PlatformTransactionManager.class));
+        List<UUID> userIds = new ArrayList<>(USERS);
+        for (int i = 0; i < USERS; i++) {
+            userIds.add(UUID.randomUUID());
+        }
+
+        long buildStart = System.nanoTime();
+        List<Book> books = new ArrayList<>(BOOKS);
+        for (int i = 0; i < BOOKS; i++) {
+            Book book = book(random);
+            books.add(book);
+            index.index(book);
+            for (int favourites = random.nextInt(4); favourites > 0; favourites--) {
+                index.addFavourite(book.getId(), userIds.get(skewed(random, USERS)));
+            }
+        }
+        long buildMillis = (System.nanoTime() - buildStart) / 1_000_000;
+
+        // Warm up before timing
+        for (int i = 0; i < LOOKUPS; i++) {
+            index.findRelated(books.get(random.nextInt(BOOKS)).getId(), 10);
+        }
+        long lookupStart = System.nanoTime();
+        for (int i = 0; i < LOOKUPS; i++) {
+            assertEquals(10, index.findRelated(books.get(random.nextInt(BOOKS)).getId(), 10).size());
+        }
+        double lookupMicros = (System.nanoTime() - lookupStart) / 1_000.0 / LOOKUPS;
+
+        // Reindexing with a new language and removing a book both leave the
+        // longest posting lists, such as a language's
+        long updateStart = System.nanoTime();
+        for (int i = 0; i < UPDATES; i++) {
+            Book book = books.get(random.nextInt(BOOKS));
+            book.setLanguage(LANGUAGES[random.nextInt(LANGUAGES.length)]);
+            book.getCategory().setId(random.nextInt(CATEGORIES));
+            index.index(book);
+        }
+        double reindexMicros = (System.nanoTime() - updateStart) / 1_000.0 / UPDATES;
+        long removeStart = System.nanoTime();
+        for (int i = 0; i < UPDATES; i++) {
+            index.remove(books.get(BOOKS - 1 - i).getId());
+        }
+        double removeMicros = (System.nanoTime() - removeStart) / 1_000.0 / UPDATES;
+
+        System.out.printf("Related books index, %d books: built in %d ms, findRelated %.1f us, "
+                + "reindex %.1f us, remove %.1f us%n", BOOKS, buildMillis, lookupMicros, reindexMicros, removeMicros);
+        // Generous bounds: the point is that none of these grow with the catalogue
+        assertTrue(lookupMicros < 2_000, "findRelated took " + lookupMicros + " us");
+        assertTrue(reindexMicros < 1_000, "reindex took " + reindexMicros + " us");
+        assertTrue(removeMicros < 1_000, "remove took " + removeMicros + " us");
+    }
+
+    private static Book book(Random random) {
+        Book book = new Book();
+        book.setId(UUID.randomUUID());
+        Category category = new Category();
+        category.setId(skewed(random, CATEGORIES));
+        book.setCategory(category);
+        book.setLanguage(LANGUAGES[skewed(random, LANGUAGES.length)]);
+        List<com.nix.models.Tag> tags = new ArrayList<>();
+        for (int count = 1 + random.nextInt(5); count > 0; count--) {
+            com.nix.models.Tag tag = new com.nix.models.Tag();
+            tag.setId(skewed(random, TAGS));
+            tags.add(tag);
+        }
+        book.setTags(tags);
+        return book;
+    }
+
+    /**
+     * A value below {@code bound} where low values are far more common, as with
+     * popular tags and categories.
+     */
+    private static int skewed(Random random, int bound) {
+        return (int) (bound * Math.pow(random.nextDouble(), 3));
+    }
+}
@@ -0,0 +1,158 @@
+package com.nix.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.nix.models.Book;
+import com.nix.models.Category;
+import com.nix.models.Tag;
+import com.nix.repository.BookFavouriteRepository;
+import com.nix.repository.BookRepository;
+
+class RelatedBooksIndexTest {
+
+    private RelatedBooksIndex index;
+
+    @BeforeEach
+    void setUp() {
+        // Outside a transaction, changes apply immediately
+        index = new RelatedBooksIndex(mock(BookRepository.class), mock(BookFavouriteRepository.class),
+                mock(PlatformTransactionManager.class));
+    }
+
+    @Test
+    void findRelated_ranksSharedRareTagAboveSharedCategory() {
+        Book book = book(10, "en", 1);
+        Book sameTag = book(20, "vi", 1);
+        Book sameCategory = book(10, "vi", 2);
+        index.index(book);
+        index.index(sameTag);
+        index.index(sameCategory);
+        // Make the category common
+        for (int i = 0; i < 5; i++) {
+            index.index(book(10, "vi", 100 + 2 * i, 101 + 2 * i));
+        }
+
+        List<UUID> related = index.findRelated(book.getId(), 2);
+
+        assertEquals(List.of(sameTag.getId(), sameCategory.getId()), related);
+    }
+
+    @Test
+    void findRelated_countsSharedFavourites() {
+        Book book = book(10, "en", 1);
+        Book plain = book(10, "en", 1);
+        Book sharedReader = book(10, "en", 1);
+        index.index(book);
+        index.index(plain);
+        index.index(sharedReader);
+        UUID reader = UUID.randomUUID();
+
+        index.addFavourite(book.getId(), reader);
+        index.addFavourite(sharedReader.getId(), reader);
+
+        assertEquals(sharedReader.getId(), index.findRelated(book.getId(), 1).get(0));
+    }
+
+    @Test
+    void removeFavourite_undoesAddFavourite() {
+        Book book = book(10, "en", 1);
+        Book other = book(10, "en", 1);
+        Book third = book(10, "en", 1);
+        index.index(book);
+        index.index(other);
+        index.index(third);
+        UUID firstReader = UUID.randomUUID();
+        UUID secondReader = UUID.randomUUID();
+        index.addFavourite(book.getId(), firstReader);
+        index.addFavourite(book.getId(), secondReader);
+        index.addFavourite(other.getId(), firstReader);
+        index.addFavourite(third.getId(), secondReader);
+
+        index.removeFavourite(other.getId(), firstReader);
+
+        assertEquals(List.of(third.getId(), other.getId()), index.findRelated(book.getId(), 5));
+    }
+
+    @Test
+    void index_whenReindexed_keepsFavourites() {
+        Book book = book(10, "en", 1);
+        Book other = book(20, "vi", 2);
+        index.index(book);
+        index.index(other);
+        UUID reader = UUID.randomUUID();
+        index.addFavourite(book.getId(), reader);
+        index.addFavourite(other.getId(), reader);
+
+        book.setLanguage("fr");
+        index.index(book);
+
+        // Only the shared reader links the two books
+        assertEquals(List.of(other.getId()), index.findRelated(book.getId(), 5));
+    }
+
+    @Test
+    void findRelated_excludesBookAndHonoursLimit() {
+        Book book = book(10, "en", 1);
+        index.index(book);
+        for (int i = 0; i < 5; i++) {
+            index.index(book(10, "en", 1));
+        }
+
+        List<UUID> related = index.findRelated(book.getId(), 3);
+
+        assertEquals(3, related.size());
+        assertFalse(related.contains(book.getId()));
+    }
+
+    @Test
+    void remove_dropsBookFromIndex() {
+        Book book = book(10, "en", 1);
+        Book removed = book(10, "en", 1);
+        index.index(book);
+        index.index(removed);
+
+        index.remove(removed.getId());
+
+        assertTrue(index.findRelated(book.getId(), 5).isEmpty());
+        assertTrue(index.findRelated(removed.getId(), 5).isEmpty());
+    }
+
+    @Test
+    void findRelated_whenNotIndexed_returnsEmpty() {
+        assertTrue(index.findRelated(UUID.randomUUID(), 5).isEmpty());
+    }
+
+    @Test
+    void contentFeatures_normalisesLanguage() {
+        assertEquals(List.of("t:3", "c:4", "l:en"), RelatedBooksIndex.contentFeatures(List.of(3), 4, " EN "));
+        assertEquals(List.of(), RelatedBooksIndex.contentFeatures(List.of(), null, " "));
+    }
+
+    private static Book book(int categoryId, String language, int... tagIds) {
+        Book book = new Book();
+        book.setId(UUID.randomUUID());
+        Category category = new Category();
+        category.setId(categoryId);
+        book.setCategory(category);
+        book.setLanguage(language);
+        List<Tag> tags = new ArrayList<>();
+        for (int tagId : tagIds) {
+            Tag tag = new Tag();
+            tag.setId(tagId);
+            tags.add(tag);
+        }
+        book.setTags(tags);
+        return book;
+    }
+}
@@ -0,0 +1,202 @@
+package com.nix.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.nix.enums.TrendingSignal;
+import com.nix.models.BookTrendingScore;
+import com.nix.repository.BookTrendingScoreRepository;
+import com.nix.repository.BookViewHistoryRepository;
+import com.nix.util.UuidBytes;
+
+class TrendingEngineTest {
+
+    private static final long HALF_LIFE_MILLIS = 3_600_000;
+
+    private JdbcTemplate jdbcTemplate;
+    private BookTrendingScoreRepository bookTrendingScoreRepository;
+    private BookViewHistoryRepository bookViewHistoryRepository;
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        bookTrendingScoreRepository = mock(BookTrendingScoreRepository.class);
+        bookViewHistoryRepository = mock(BookViewHistoryRepository.class);
+        transactionTemplate = mock(TransactionTemplate.class);
+        doAnswer(invocation -> {
+            ((Consumer<TransactionStatus>) invocation.getArgument(0)).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    @Test
+    void top_ranksDecayedScores() {
+        UUID older = UUID.randomUUID();
+        UUID recent = UUID.randomUUID();
+        TrendingEngine engine = engine(10);
+
+        // 10 two half-lives ago is worth 2.5 now, below a fresh 4
+        restore(engine, Map.of(older, checkpoint(10, 2), recent, checkpoint(4, 0)));
+
+        assertEquals(List.of(recent, older), engine.top(10));
+    }
+
+    @Test
+    void checkpoint_writesOnlyScoreEarnedSinceLastCheckpoint() {
+        UUID restored = UUID.randomUUID();
+        UUID viewed = UUID.randomUUID();
+        TrendingEngine engine = engine(10);
+        restore(engine, Map.of(restored, checkpoint(10, 2)));
+
+        engine.record(viewed, TrendingSignal.VIEW, 3);
+        Map<UUID, Double> written = writeCheckpoint(engine);
+
+        // Restored scores are already in the table; adding them again would count them twice
+        assertEquals(Set.of(viewed), written.keySet());
+        assertEquals(3 * TrendingSignal.VIEW.getWeight(), written.get(viewed), 0.001);
+    }
+
+    @Test
+    void checkpoint_reloadsScoresMergedByOtherInstances() {
+        UUID faded = UUID.randomUUID();
+        UUID kept = UUID.randomUUID();
+        UUID elsewhere = UUID.randomUUID();
+        TrendingEngine engine = engine(10);
+        restore(engine, Map.of(faded, checkpoint(0.05, 3), kept, checkpoint(1, 0)));
+
+        // The faded row was pruned and another instance added a book
+        restore(engine, Map.of(kept, checkpoint(1, 0), elsewhere, checkpoint(5, 0)));
+
+        assertEquals(List.of(elsewhere, kept), engine.top(10));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void checkpoint_whenWriteFails_keepsScoreForNextCheckpoint() {
+        UUID bookId = UUID.randomUUID();
+        TrendingEngine engine = engine(10);
+        restore(engine, Map.of(UUID.randomUUID(), checkpoint(1, 0)));
+        engine.record(bookId, TrendingSignal.COMMENT, 1);
+        doThrow(new IllegalStateException("Database unavailable")).doAnswer(invocation -> {
+            ((Consumer<TransactionStatus>) invocation.getArgument(0)).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+
+        engine.checkpoint();
+        Map<UUID, Double> written = writeCheckpoint(engine);
+
+        assertEquals(TrendingSignal.COMMENT.getWeight(), written.get(bookId), 0.001);
+    }
+
+    @Test
+    void record_keepsOnlyTopK() {
+        TrendingEngine engine = engine(2);
+        UUID viewed = UUID.randomUUID();
+        UUID commented = UUID.randomUUID();
+        UUID favourited = UUID.randomUUID();
+
+        engine.record(viewed, TrendingSignal.VIEW, 1);
+        engine.record(commented, TrendingSignal.COMMENT, 1);
+        engine.record(favourited, TrendingSignal.FAVOURITE, 1);
+
+        assertEquals(List.of(favourited, commented), engine.top(10));
+        assertEquals(List.of(favourited), engine.top(1));
+    }
+
+    @Test
+    void record_movesBookIntoTopKWhenItOvertakes() {
+        TrendingEngine engine = engine(2);
+        UUID viewed = UUID.randomUUID();
+        UUID commented = UUID.randomUUID();
+        UUID favourited = UUID.randomUUID();
+        engine.record(viewed, TrendingSignal.VIEW, 1);
+        engine.record(commented, TrendingSignal.COMMENT, 1);
+        engine.record(favourited, TrendingSignal.FAVOURITE, 1);
+
+        engine.record(viewed, TrendingSignal.VIEW, 5);
+
+        assertEquals(List.of(viewed, favourited), engine.top(10));
+    }
+
+    @Test
+    void remove_refillsTopKFromRemainingScores() {
+        TrendingEngine engine = engine(2);
+        UUID viewed = UUID.randomUUID();
+        UUID commented = UUID.randomUUID();
+        UUID favourited = UUID.randomUUID();
+        engine.record(viewed, TrendingSignal.VIEW, 1);
+        engine.record(commented, TrendingSignal.COMMENT, 1);
+        engine.record(favourited, TrendingSignal.FAVOURITE, 1);
+
+        engine.remove(favourited);
+
+        assertEquals(List.of(commented, viewed), engine.top(10));
+    }
+
+    @Test
+    void checkpoint_withoutSavedScores_seedsFromViewHistory() {
+        UUID bookId = UUID.randomUUID();
+        when(bookTrendingScoreRepository.findAll()).thenReturn(List.of());
+        when(bookViewHistoryRepository.findDailyViewersSince(any())).thenReturn(List.<Object[]>of(
+                new Object[] { bookId, LocalDateTime.now().minusDays(1), 12L }));
+        TrendingEngine engine = engine(10);
+
+        engine.checkpoint();
+
+        assertTrue(engine.isReady());
+        assertEquals(List.of(bookId), engine.top(10));
+    }
+
+    private TrendingEngine engine(int capacity) {
+        return new TrendingEngine(jdbcTemplate, transactionTemplate, bookTrendingScoreRepository,
+                bookViewHistoryRepository, HALF_LIFE_MILLIS, capacity);
+    }
+
+    private void restore(TrendingEngine engine, Map<UUID, BookTrendingScore> saved) {
+        saved.forEach((bookId, score) -> score.setBookId(bookId));
+        when(bookTrendingScoreRepository.findAll()).thenReturn(List.copyOf(saved.values()));
+        engine.checkpoint();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<UUID, Double> writeCheckpoint(TrendingEngine engine) {
+        engine.checkpoint();
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), rows.capture());
+        Map<UUID, Double> written = new HashMap<>();
+        for (Object[] row : rows.getValue()) {
+            written.put(UuidBytes.fromBytes((byte[]) row[0]), (Double) row[1]);
+        }
+        return written;
+    }
+
+    private static BookTrendingScore checkpoint(double score, int halfLivesAgo) {
+        return new BookTrendingScore(null, score,
+                LocalDateTime.now().minus(Duration.ofMillis(halfLivesAgo * HALF_LIFE_MILLIS)));
+    }
+}
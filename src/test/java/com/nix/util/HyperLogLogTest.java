@@ -0,0 +1,89 @@
+package com.nix.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class HyperLogLogTest {
+
+    @Test
+    void estimate_whenEmpty_returnsZero() {
+        assertEquals(0, new HyperLogLog().estimate());
+    }
+
+    @Test
+    void estimate_withFewValues_staysWithinLinearCountingError() {
+        HyperLogLog sketch = sketchOf("viewer-", 0, 1_000);
+
+        assertWithin(1_000, sketch.estimate(), 0.03);
+    }
+
+    @Test
+    void estimate_withManyValues_staysWithinErrorBound() {
+        // Standard error is about 1.6%; 5% leaves room for an unlucky hash spread
+        for (int distinct : new int[] { 20_000, 100_000, 500_000 }) {
+            assertWithin(distinct, sketchOf("viewer-", 0, distinct).estimate(), 0.05);
+        }
+    }
+
+    @Test
+    void offer_withRepeatedValues_countsThemOnce() {
+        HyperLogLog sketch = sketchOf("viewer-", 0, 10_000);
+        long before = sketch.estimate();
+
+        for (int i = 0; i < 10_000; i++) {
+            sketch.offer(HyperLogLog.hash("viewer-" + i));
+        }
+
+        assertEquals(before, sketch.estimate());
+    }
+
+    @Test
+    void merge_ofOverlappingSketches_equalsSketchOfUnion() {
+        HyperLogLog monday = sketchOf("viewer-", 0, 60_000);
+        HyperLogLog tuesday = sketchOf("viewer-", 40_000, 100_000);
+        HyperLogLog union = sketchOf("viewer-", 0, 100_000);
+
+        monday.merge(tuesday);
+
+        assertArrayEquals(union.toBytes(), monday.toBytes());
+        assertWithin(100_000, monday.estimate(), 0.05);
+    }
+
+    @Test
+    void fromBytes_roundTripsRegisters() {
+        HyperLogLog sketch = sketchOf("viewer-", 0, 5_000);
+
+        HyperLogLog restored = HyperLogLog.fromBytes(sketch.toBytes());
+
+        assertArrayEquals(sketch.toBytes(), restored.toBytes());
+        assertEquals(sketch.estimate(), restored.estimate());
+    }
+
+    @Test
+    void fromBytes_whenNull_returnsEmptySketch() {
+        assertEquals(0, HyperLogLog.fromBytes(null).estimate());
+    }
+
+    @Test
+    void fromBytes_whenWrongLength_throws() {
+        assertThrows(IllegalArgumentException.class, () -> HyperLogLog.fromBytes(new byte[100]));
+    }
+
+    private static HyperLogLog sketchOf(String prefix, int from, int to) {
+        HyperLogLog sketch = new HyperLogLog();
+        for (int i = from; i < to; i++) {
+            sketch.offer(HyperLogLog.hash(prefix + i));
+        }
+        return sketch;
+    }
+
+    private static void assertWithin(long expected, long actual, double relativeError) {
+        double error = Math.abs(actual - expected) / (double) expected;
+        assertTrue(error <= relativeError,
+                "Estimate " + actual + " is off by " + error + " for " + expected + " distinct values");
+    }
+}
@@ -0,0 +1,126 @@
+package com.nix.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+class SortedUuidArrayTest {
+
+    @Test
+    void of_dropsDuplicatesAndFindsEveryId() {
+        List<UUID> uuids = randomUuids(200);
+        List<UUID> withDuplicates = new ArrayList<>(uuids);
+        withDuplicates.addAll(uuids.subList(0, 50));
+
+        long[] ids = SortedUuidArray.of(withDuplicates);
+
+        assertEquals(200, SortedUuidArray.size(ids));
+        assertEquals(new HashSet<>(uuids), SortedUuidArray.toSet(ids));
+        uuids.forEach(uuid -> assertTrue(SortedUuidArray.contains(ids, uuid)));
+        assertFalse(SortedUuidArray.contains(ids, UUID.randomUUID()));
+    }
+
+    @Test
+    void of_whenEmpty_returnsSharedEmptyArray() {
+        assertSame(SortedUuidArray.EMPTY, SortedUuidArray.of(List.of()));
+        assertFalse(SortedUuidArray.contains(SortedUuidArray.EMPTY, UUID.randomUUID()));
+    }
+
+    @Test
+    void of_ordersBySignedBits() {
+        // Long.compare treats these high bits as negative, so this one sorts first
+        UUID negative = new UUID(0x8000000000000000L, 0);
+        UUID zero = new UUID(0, 0);
+        UUID sameHighBits = new UUID(0, 1);
+
+        long[] ids = SortedUuidArray.of(List.of(sameHighBits, zero, negative));
+
+        assertArrayEquals(new long[] { 0x8000000000000000L, 0, 0, 0, 0, 1 }, ids);
+    }
+
+    @Test
+    void with_insertsInOrderWithoutChangingArgument() {
+        List<UUID> uuids = randomUuids(100);
+        long[] ids = SortedUuidArray.of(uuids.subList(0, 50));
+        long[] original = ids.clone();
+
+        long[] updated = ids;
+        for (UUID uuid : uuids.subList(50, 100)) {
+            updated = SortedUuidArray.with(updated, uuid);
+        }
+
+        assertArrayEquals(original, ids);
+        assertArrayEquals(SortedUuidArray.of(uuids), updated);
+    }
+
+    @Test
+    void with_whenPresent_returnsSameArray() {
+        UUID uuid = UUID.randomUUID();
+        long[] ids = SortedUuidArray.of(List.of(uuid));
+
+        assertSame(ids, SortedUuidArray.with(ids, uuid));
+    }
+
+    @Test
+    void without_removesWithoutChangingArgument() {
+        List<UUID> uuids = randomUuids(100);
+        long[] ids = SortedUuidArray.of(uuids);
+        long[] original = ids.clone();
+
+        long[] updated = ids;
+        for (UUID uuid : uuids.subList(0, 60)) {
+            updated = SortedUuidArray.without(updated, uuid);
+        }
+
+        assertArrayEquals(original, ids);
+        assertArrayEquals(SortedUuidArray.of(uuids.subList(60, 100)), updated);
+    }
+
+    @Test
+    void without_whenAbsent_returnsSameArray() {
+        long[] ids = SortedUuidArray.of(randomUuids(3));
+
+        assertSame(ids, SortedUuidArray.without(ids, UUID.randomUUID()));
+    }
+
+    @Test
+    void withAndWithout_matchHashSetUnderRandomUpdates() {
+        Random random = new Random(42);
+        List<UUID> pool = randomUuids(64);
+        Set<UUID> expected = new HashSet<>();
+        long[] ids = SortedUuidArray.EMPTY;
+
+        for (int i = 0; i < 2_000; i++) {
+            UUID uuid = pool.get(random.nextInt(pool.size()));
+            if (random.nextBoolean()) {
+                expected.add(uuid);
+                ids = SortedUuidArray.with(ids, uuid);
+            } else {
+                expected.remove(uuid);
+                ids = SortedUuidArray.without(ids, uuid);
+            }
+        }
+
+        assertEquals(expected, SortedUuidArray.toSet(ids));
+        assertArrayEquals(SortedUuidArray.of(expected), ids);
+    }
+
+    private static List<UUID> randomUuids(int count) {
+        List<UUID> uuids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            uuids.add(UUID.randomUUID());
+        }
+        return uuids;
+    }
+}
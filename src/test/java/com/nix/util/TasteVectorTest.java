@@ -0,0 +1,83 @@
+package com.nix.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class TasteVectorTest {
+
+    @Test
+    void fromBytes_roundTripsWeights() {
+        TasteVector taste = new TasteVector();
+        taste.add(1, List.of(10, 11), 2.0f);
+        taste.add(2, List.of(11), 0.5f);
+
+        byte[] bytes = taste.toBytes();
+        TasteVector restored = TasteVector.fromBytes(bytes);
+
+        assertEquals(4 * 9, bytes.length);
+        assertEquals(List.of(1, 2), restored.topCategories(10));
+        assertEquals(List.of(11, 10), restored.topTags(10));
+    }
+
+    @Test
+    void fromBytes_whenNull_returnsEmptyVector() {
+        TasteVector taste = TasteVector.fromBytes(null);
+
+        assertTrue(taste.topCategories(10).isEmpty());
+        assertEquals(0, taste.toBytes().length);
+    }
+
+    @Test
+    void fromBytes_whenLengthNotWholeEntries_throws() {
+        assertThrows(IllegalArgumentException.class, () -> TasteVector.fromBytes(new byte[10]));
+    }
+
+    @Test
+    void add_withNegativeWeight_removesEntriesThatReachZero() {
+        TasteVector taste = new TasteVector();
+        taste.add(1, List.of(10), 2.0f);
+        taste.add(2, List.of(10), 1.0f);
+
+        taste.add(1, List.of(10), -2.0f);
+
+        assertEquals(List.of(2), taste.topCategories(10));
+        assertEquals(List.of(10), taste.topTags(10));
+        assertEquals(2 * 9, taste.toBytes().length);
+    }
+
+    @Test
+    void top_breaksTiesById() {
+        TasteVector taste = new TasteVector();
+        taste.add(7, List.of(), 1.0f);
+        taste.add(3, List.of(), 1.0f);
+        taste.add(5, List.of(), 2.0f);
+
+        assertEquals(List.of(5, 3, 7), taste.topCategories(10));
+        assertEquals(List.of(5, 3), taste.topCategories(2));
+    }
+
+    @Test
+    void add_capsTagsByDroppingLightest() {
+        TasteVector taste = new TasteVector();
+        List<Integer> tagIds = new ArrayList<>();
+        for (int tagId = 0; tagId < 128; tagId++) {
+            tagIds.add(tagId);
+        }
+        taste.add(null, tagIds, 1.0f);
+        taste.add(null, List.of(0), 1.0f);
+
+        taste.add(null, List.of(1000), 1.5f);
+
+        List<Integer> top = TasteVector.fromBytes(taste.toBytes()).topTags(200);
+        assertEquals(128, top.size());
+        assertEquals(List.of(0, 1000), top.subList(0, 2));
+        // One of the lightest tags made room for the new one
+        assertEquals(126, top.stream().filter(tagId -> tagId >= 1 && tagId < 128).count());
+    }
+}